@@ -0,0 +1,145 @@
+import bench.DaoOps;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+/**
+ * DaoBenchFixture
+ *
+ * The app-side half of bench.DaoBench: fills the database with DatasetGenerator and makes
+ * the actual DAO calls.
+ * Lives in the default package next to the DAOs (see bench.DaoOps for why).
+ *
+ * Every call rotates through pre-generated ids so one benchmark doesn't just hit the same
+ * row (and the same SQLite pages) over and over.
+ */
+public class DaoBenchFixture implements DaoOps {
+
+    private final SessionDao sessionDao = new SessionDao();
+    private final WorkoutDao workoutDao = new WorkoutDao();
+    private final WorkoutExerciseDao workoutExerciseDao = new WorkoutExerciseDao();
+    private final CalendarDao calendarDao = new CalendarDao();
+
+    private int[] profileIds;
+    private int[] workoutIds;
+    private int[] sessionIds;
+    private int scratchWorkoutId;
+    private LocalDate firstDay;
+    private int days;
+    private List<WorkoutExercise> scratchRows;
+    private Random random;
+    private int next; // rotation counter shared by all benchmarks (one benchmark runs at a time)
+
+    @Override
+    public void setUp(String url, int profiles, int years, long seed) throws Exception {
+        Class.forName("org.sqlite.JDBC");
+        Db.configure(url, Db.DEFAULT_POOL_SIZE);
+        ExerciseCache.shared().clear();
+        WorkoutPlanCache.shared().clear();
+        DatasetGenerator.Config d = DatasetGenerator.Config.defaults();
+        DatasetGenerator.Config cfg = new DatasetGenerator.Config(
+                profiles, d.exercisesPerProfile(), d.exercisesPerWorkout(), years, d.endDate(), seed);
+        try (Connection c = Db.getConnection()) {
+            Migrator.apply(c);
+            DatasetGenerator.generate(c, cfg);
+            profileIds = ids(c, "SELECT id FROM profile ORDER BY id");
+            workoutIds = ids(c, "SELECT id FROM workout WHERE day_of_week IS NOT NULL ORDER BY id");
+            sessionIds = ids(c, "SELECT id FROM session ORDER BY id");
+        }
+        this.random = new Random(seed);
+        this.firstDay = cfg.startDate();
+        this.days = (int) (cfg.endDate().toEpochDay() - firstDay.toEpochDay());
+        shuffle(sessionIds);
+
+        scratchWorkoutId = workoutDao.insert(new Workout(profileIds[0], "Scratch", null, 90, 120, true));
+        scratchRows = new ArrayList<>();
+        for (WorkoutExercise we : workoutExerciseDao.getByWorkout(workoutIds[0])) {
+            scratchRows.add(new WorkoutExercise(scratchWorkoutId, we.getExerciseId(), we.getOrderIdx(),
+                    we.getTargetSets(), we.getTargetRepsOrSecs()));
+        }
+    }
+
+    @Override
+    public void tearDown() {
+        ExerciseCache.shared().clear();
+        WorkoutPlanCache.shared().clear();
+        Db.shutdown();
+    }
+
+    // ----- session -----
+
+    @Override public int insertSession() {
+        int pid = profileIds[next++ % profileIds.length];
+        return sessionDao.insert(new Session(pid, null, "2030-01-01T07:00:00", 45, 7, null));
+    }
+
+    @Override public Object findSessionById() {
+        Optional<Session> s = sessionDao.findById(sessionIds[next++ % sessionIds.length]);
+        return s.orElse(null);
+    }
+
+    @Override public int getSessionsByProfile() {
+        return sessionDao.getByProfile(profileIds[next++ % profileIds.length]).size();
+    }
+
+    @Override public int getSessionsByProfileAndRange() {
+        int i = next++;
+        LocalDate from = firstDay.plusDays((i * 37L) % Math.max(1, days - 30));
+        return sessionDao.getByProfileAndRange(profileIds[i % profileIds.length],
+                from.toString(), from.plusDays(30).toString()).size();
+    }
+
+    // ----- workout_exercise -----
+
+    @Override public boolean insertAllThenClear() {
+        return workoutExerciseDao.insertAll(scratchRows) & workoutExerciseDao.deleteAllForWorkout(scratchWorkoutId);
+    }
+
+    @Override public boolean swapOrder() {
+        return workoutExerciseDao.swapOrder(workoutIds[next++ % workoutIds.length], 1, 2);
+    }
+
+    @Override public int cloneThenClear() {
+        int n = workoutExerciseDao.cloneFromTo(workoutIds[next++ % workoutIds.length], scratchWorkoutId);
+        workoutExerciseDao.deleteAllForWorkout(scratchWorkoutId);
+        return n;
+    }
+
+    // ----- joins -----
+
+    @Override public int workoutWithExercises() {
+        return workoutExerciseDao.getByWorkoutWithExercise(workoutIds[next++ % workoutIds.length]).size();
+    }
+
+    @Override public int workoutsWithProfile() {
+        return workoutDao.listWithProfileByProfile(profileIds[next++ % profileIds.length]).size();
+    }
+
+    @Override public int loadWeek() {
+        return calendarDao.loadWeek(profileIds[next++ % profileIds.length]).plansFor(1).size();
+    }
+
+    // ===== Internals below =====
+
+    private static int[] ids(Connection c, String sql) throws SQLException {
+        List<Integer> out = new ArrayList<>();
+        try (Statement st = c.createStatement(); ResultSet rs = st.executeQuery(sql)) {
+            while (rs.next()) out.add(rs.getInt(1));
+        }
+        return out.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private void shuffle(int[] a) {
+        for (int i = a.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = a[i]; a[i] = a[j]; a[j] = t;
+        }
+    }
+}
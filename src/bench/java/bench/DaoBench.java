@@ -0,0 +1,80 @@
+package bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DaoBench
+ *
+ * Purpose:
+ * Baseline numbers for every DAO hot path, so each optimization can be checked against them.
+ * The *DaoTest scripts only smoke-test against fitness.db; this never touches it.
+ *
+ * How it works:
+ * - storage=file:   a fresh temp-file database (WAL, the app's default storage profile).
+ *   storage=memory: a shared-cache in-memory database; the pool keeps it alive.
+ * - Each trial fills the database with DatasetGenerator (profiles x 200 exercises, weekly
+ *   workouts, 'years' of skewed sessions) from a fixed seed, so runs are comparable.
+ * - Throughput mode, reported as ops/s. Run with -prof gc (mvn -Pbench does) for
+ *   allocation rates (gc.alloc.rate.norm = bytes per op).
+ *
+ * Run: mvn -Pbench verify
+ *      mvn -Pbench verify -Djmh.args="DaoBench.getSessionsByProfile -p storage=memory"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DaoBench {
+
+    @Param({"file", "memory"})
+    public String storage;
+
+    @Param({"1000"})
+    public int profiles;
+
+    @Param({"5"})
+    public int years;
+
+    private DaoOps ops;
+    private File dbFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        ops = (DaoOps) Class.forName("DaoBenchFixture").getDeclaredConstructor().newInstance();
+        String url;
+        if (storage.equals("memory")) {
+            url = "jdbc:sqlite:file:daobench?mode=memory&cache=shared";
+        } else {
+            dbFile = Files.createTempFile("fitness-jmh", ".db").toFile();
+            url = "jdbc:sqlite:" + dbFile.getAbsolutePath();
+        }
+        ops.setUp(url, profiles, years, 42L);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ops.tearDown();
+        if (dbFile != null) {
+            for (String suffix : new String[] {"", "-wal", "-shm"}) new File(dbFile.getPath() + suffix).delete();
+        }
+    }
+
+    @Benchmark public int insertSession() { return ops.insertSession(); }
+    @Benchmark public Object findSessionById() { return ops.findSessionById(); }
+    @Benchmark public int getSessionsByProfile() { return ops.getSessionsByProfile(); }
+    @Benchmark public int getSessionsByProfileAndRange() { return ops.getSessionsByProfileAndRange(); }
+
+    @Benchmark public boolean insertAllThenClear() { return ops.insertAllThenClear(); }
+    @Benchmark public boolean swapOrder() { return ops.swapOrder(); }
+    @Benchmark public int cloneThenClear() { return ops.cloneThenClear(); }
+
+    @Benchmark public int workoutWithExercises() { return ops.workoutWithExercises(); }
+    @Benchmark public int workoutsWithProfile() { return ops.workoutsWithProfile(); }
+    @Benchmark public int loadWeek() { return ops.loadWeek(); }
+}
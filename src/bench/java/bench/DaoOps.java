@@ -0,0 +1,35 @@
+package bench;
+
+/**
+ * The DAO calls DaoBench measures.
+ *
+ * JMH refuses benchmark classes in the default package, and a named package can't import the
+ * app's classes (they all live in the default package). So the JMH side only sees this
+ * interface; DaoBenchFixture (default package) implements it and is loaded by name.
+ * One implementation class means the interface calls are monomorphic and inline away.
+ */
+public interface DaoOps {
+
+    /** Point Db at url, build the schema and generate the dataset (DatasetGenerator). */
+    void setUp(String url, int profiles, int years, long seed) throws Exception;
+
+    void tearDown();
+
+    // ----- session -----
+    int insertSession();
+    Object findSessionById();
+    int getSessionsByProfile();
+    int getSessionsByProfileAndRange();
+
+    // ----- workout_exercise -----
+    /** insertAll of one workout's rows into a scratch workout, then deleteAllForWorkout. */
+    boolean insertAllThenClear();
+    boolean swapOrder();
+    /** cloneFromTo into a scratch workout, then deleteAllForWorkout. */
+    int cloneThenClear();
+
+    // ----- joins -----
+    int workoutWithExercises();
+    int workoutsWithProfile();
+    int loadWeek();
+}
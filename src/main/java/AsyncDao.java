@@ -0,0 +1,108 @@
+import javafx.application.Platform;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * AsyncDao
+ *
+ * Purpose:
+ * Keeps DAO calls off the JavaFX Application Thread. The views used to call ProfileDao,
+ * ExerciseDao and EquipmentDao directly from button handlers and tab loads, so the whole UI froze
+ * while SQLite worked. Here the call runs on a background worker and the result is handed
+ * back through Platform.runLater, where it's safe to touch tables and labels.
+ *
+ * How it works:
+ * - call(...) runs any DAO lambda on the worker pool and returns a CompletableFuture.
+ * - run(...) does the same and delivers the result to a callback on the FX thread.
+ * - A failed call is printed, and the optional onError callback gets its cause on the FX
+ *   thread, so the view can stop its spinner and say what went wrong.
+ * - LatestOnly is a per-view "slot": only the newest submit's result is rendered. If the user
+ *   flips profiles quickly, older answers that arrive late are dropped instead of
+ *   overwriting the table with the wrong profile's rows.
+ *
+ * Threading notes:
+ * - The worker pool has as many threads as Db has connections, so workers never queue
+ *   on the connection pool. Threads are daemons; shutdown() is still called from MainApp.stop().
+ * - We build for Java 17, so these are platform threads rather than virtual threads. Callers
+ *   don't see the difference: swapping the executor is a one-line change when we move to 21.
+ */
+public final class AsyncDao {
+
+    private static final AtomicInteger THREAD_IDS = new AtomicInteger();
+
+    private static final ExecutorService WORKERS = Executors.newFixedThreadPool(Db.poolSize(), r -> {
+        Thread t = new Thread(r, "dao-worker-" + THREAD_IDS.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+    });
+
+    private AsyncDao() {}
+
+    /** Run a DAO call on a background worker. */
+    public static <T> CompletableFuture<T> call(Supplier<T> work) {
+        return CompletableFuture.supplyAsync(work, WORKERS);
+    }
+
+    /** Run a DAO call on a background worker and hand the result to onFx on the JavaFX thread. */
+    public static <T> CompletableFuture<T> run(Supplier<T> work, Consumer<T> onFx) {
+        return run(work, onFx, error -> { });
+    }
+
+    /** Like run(work, onFx), but a failure goes to onError on the JavaFX thread. */
+    public static <T> CompletableFuture<T> run(Supplier<T> work, Consumer<T> onFx, Consumer<Throwable> onError) {
+        CompletableFuture<T> f = call(work);
+        f.whenComplete((value, error) -> Platform.runLater(() -> {
+            if (error != null) onError.accept(report(error));
+            else onFx.accept(value);
+        }));
+        return f;
+    }
+
+    /** Stop the workers. Call once on app exit. */
+    public static void shutdown() {
+        WORKERS.shutdownNow();
+    }
+
+    /** Print the failure; returns its cause (unwrapped from the CompletionException). */
+    private static Throwable report(Throwable error) {
+        Throwable cause = error.getCause() != null ? error.getCause() : error;
+        System.out.println("❌ async DAO call failed: " + cause.getMessage());
+        return cause;
+    }
+
+    /**
+     * A request slot that only delivers its newest result.
+     * Each submit() takes a ticket; when an answer reaches the FX thread we compare it with the
+     * latest ticket and silently drop it if a newer request has been made since.
+     */
+    public static final class LatestOnly {
+        private final AtomicLong generation = new AtomicLong();
+
+        public <T> CompletableFuture<T> submit(Supplier<T> query, Consumer<T> onFx) {
+            return submit(query, onFx, error -> { });
+        }
+
+        /** Like submit(query, onFx); the newest request's failure goes to onError. */
+        public <T> CompletableFuture<T> submit(Supplier<T> query, Consumer<T> onFx, Consumer<Throwable> onError) {
+            long ticket = generation.incrementAndGet();
+            CompletableFuture<T> f = call(query);
+            f.whenComplete((value, error) -> Platform.runLater(() -> {
+                if (ticket != generation.get()) return; // stale: a newer request superseded this one
+                if (error != null) onError.accept(report(error));
+                else onFx.accept(value);
+            }));
+            return f;
+        }
+
+        /** Drop whatever is in flight without starting a new request. */
+        public void invalidate() {
+            generation.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CalendarBench
+ *
+ * Before/after numbers for the week view loader. Builds a throwaway database with one profile
+ * (10 scheduled workouts x 6 exercises, a year of sessions), then loads the week two ways:
+ *   - "loop":     7 x WorkoutDao.getByProfileAndDay + getByWorkoutWithExercise per workout
+ *                 (+ SessionDao.getByProfileAndRange for the multi-week case),
+ *   - "calendar": CalendarDao.loadWeek / loadWeeks.
+ *
+ * Run it from the IDE like the *DaoTest scripts (it never touches fitness.db).
+ */
+public class CalendarBench {
+
+    private static final int WARMUP = 1_000;
+    private static final int ITERATIONS = 2_000;
+    private static final int WEEKS = 4;
+
+    public static void main(String[] args) throws Exception {
+        Class.forName("org.sqlite.JDBC");
+        TestSupport.scratchDb("fitness-bench");
+
+        int pid = new ProfileDao().insert(new Profile("Bench", "Intermediate", "Strength", 5));
+        ExerciseDao edao = new ExerciseDao();
+        List<Integer> exercises = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            exercises.add(edao.insert(new Exercise(pid, "Exercise " + i, "Chest", "Barbell", "Moderate", "REPS")));
+        }
+        WorkoutDao wdao = new WorkoutDao();
+        WorkoutExerciseDao wedao = new WorkoutExerciseDao();
+        for (int day = 1; day <= 5; day++) {
+            for (int k = 0; k < 2; k++) {
+                int wid = wdao.insert(new Workout(pid, "Day " + day + (k == 0 ? " AM" : " PM"), day, 90, 120, true));
+                List<WorkoutExercise> rows = new ArrayList<>();
+                for (int j = 0; j < 6; j++) rows.add(new WorkoutExercise(wid, exercises.get((day * 6 + j) % 30), j + 1, 4, 10));
+                wedao.insertAll(rows);
+            }
+        }
+        wdao.insert(new Workout(pid, "Template", null, 90, 120, true)); // unscheduled; not in the week
+
+        SessionDao sdao = new SessionDao();
+        LocalDate first = LocalDate.of(2025, 1, 6);
+        for (int d = 0; d < 364; d++) {
+            if (d % 7 < 3) sdao.insert(new Session(pid, null, first.plusDays(d) + "T07:00:00", 45, 7, null));
+        }
+        LocalDate from = first.plusWeeks(20);
+
+        // Same answer both ways?
+        WeekCalendar cal = new CalendarDao().loadWeeks(pid, from, WEEKS);
+        System.out.printf("calendar: %d plans, %d exercise rows, %d sessions | loop: %d plans, %d exercise rows, %d sessions%n",
+                planCount(cal), exerciseCount(cal), cal.sessionCount(),
+                loop(wdao, wedao, pid), loopRows(wdao, wedao, pid),
+                sdao.getByProfileAndRange(pid, from.toString(), from.plusWeeks(WEEKS).minusDays(1) + "T23:59:59").size());
+
+        for (int i = 0; i < WARMUP; i++) {
+            loop(wdao, wedao, pid);
+            new CalendarDao().loadWeeks(pid, from, WEEKS);
+        }
+
+        long loopNs = time(() -> loop(wdao, wedao, pid));
+        long calNs = time(() -> planCount(new CalendarDao().loadWeek(pid)));
+        long loopWeeksNs = time(() -> loop(wdao, wedao, pid)
+                + sdao.getByProfileAndRange(pid, from.toString(), from.plusWeeks(WEEKS).minusDays(1) + "T23:59:59").size());
+        long calWeeksNs = time(() -> new CalendarDao().loadWeeks(pid, from, WEEKS).sessionCount());
+
+        System.out.printf("week template x %d%n", ITERATIONS);
+        System.out.printf("  loop (18 queries):    %8.1f us/op%n", loopNs / 1000.0 / ITERATIONS);
+        System.out.printf("  calendar (1 query):   %8.1f us/op  (%.1fx)%n", calNs / 1000.0 / ITERATIONS, (double) loopNs / calNs);
+        System.out.printf("%d weeks with sessions x %d%n", WEEKS, ITERATIONS);
+        System.out.printf("  loop (19 queries):    %8.1f us/op%n", loopWeeksNs / 1000.0 / ITERATIONS);
+        System.out.printf("  calendar (2 queries): %8.1f us/op  (%.1fx)%n", calWeeksNs / 1000.0 / ITERATIONS, (double) loopWeeksNs / calWeeksNs);
+
+        Db.shutdown();
+    }
+
+    /** The old week view: one query per day, then one per workout. Returns the number of plans. */
+    private static int loop(WorkoutDao wdao, WorkoutExerciseDao wedao, int pid) {
+        int plans = 0;
+        for (int day = 1; day <= 7; day++) {
+            for (Workout w : wdao.getByProfileAndDay(pid, day)) {
+                wedao.getByWorkoutWithExercise(w.getId());
+                plans++;
+            }
+        }
+        return plans;
+    }
+
+    private static int loopRows(WorkoutDao wdao, WorkoutExerciseDao wedao, int pid) {
+        int rows = 0;
+        for (int day = 1; day <= 7; day++) {
+            for (Workout w : wdao.getByProfileAndDay(pid, day)) rows += wedao.getByWorkoutWithExercise(w.getId()).size();
+        }
+        return rows;
+    }
+
+    private static int planCount(WeekCalendar cal) {
+        int n = 0;
+        for (int day = 1; day <= 7; day++) n += cal.plansFor(day).size();
+        return n;
+    }
+
+    private static int exerciseCount(WeekCalendar cal) {
+        int n = 0;
+        for (int day = 1; day <= 7; day++) for (WorkoutPlan p : cal.plansFor(day)) n += p.size();
+        return n;
+    }
+
+    private static long time(java.util.function.IntSupplier work) {
+        long t0 = System.nanoTime();
+        int sink = 0;
+        for (int i = 0; i < ITERATIONS; i++) sink += work.getAsInt();
+        long ns = System.nanoTime() - t0;
+        if (sink == 42) System.out.print(""); // keep the JIT from dropping the work
+        return ns;
+    }
+}
@@ -0,0 +1,126 @@
+import java.sql.*;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CalendarDao
+ *
+ * Purpose:
+ * Loads a profile's week in one go. The week view used to call WorkoutDao.getByProfileAndDay
+ * for each of the 7 days and then WorkoutExerciseDao.getByWorkoutWithExercise for each workout
+ * (1 + 7 + N queries, each on its own connection).
+ *
+ * How it works:
+ * - One LEFT JOIN query returns every scheduled workout with its exercise rows, ordered by
+ *   (day_of_week, name, id, order_idx). Rows for the same workout are adjacent, so a single
+ *   pass groups them into WorkoutPlans and drops each plan into its day slot.
+ * - loadWeeks() adds one range query over session (served by idx_session_profile_ts) and
+ *   drops each session into its date slot, also in a single pass. The slot comes straight
+ *   from ts (whole days since 1970), so no date text is parsed.
+ * - Both queries run on one pooled connection inside one read transaction, so plans and
+ *   sessions come from the same snapshot.
+ */
+public class CalendarDao {
+
+    private static final String SQL_PLANS = """
+        SELECT w.id, w.profile_id, w.name, w.day_of_week,
+               w.rest_between_sets_sec, w.rest_between_exercises_sec, w.active,
+               w.created_at, w.updated_at,
+               we.exercise_id, we.order_idx, we.target_sets, we.target_reps_or_secs,
+               e.name AS exercise_name, e.muscle_id, e.equipment, e.type_id, e.difficulty_id
+          FROM workout w
+          LEFT JOIN workout_exercise we ON we.workout_id = w.id
+          LEFT JOIN exercise e ON e.id = we.exercise_id
+         WHERE w.profile_id=? AND w.day_of_week IS NOT NULL
+         ORDER BY w.day_of_week, w.name, w.id, we.order_idx
+        """;
+
+    private static final String SQL_SESSIONS = """
+        SELECT id, profile_id, workout_id, date_iso, ts, total_minutes, rpe, notes
+          FROM session
+         WHERE profile_id=? AND ts >= ? AND ts < ?
+         ORDER BY ts, id
+        """;
+
+    // READ: the profile's planned week (no sessions)
+    public WeekCalendar loadWeek(int profileId) {
+        return loadWeeks(profileId, null, 0);
+    }
+
+    // READ: planned week plus sessions logged in [monday of 'from', +weeks*7 days)
+    public WeekCalendar loadWeeks(int profileId, LocalDate from, int weeks) {
+        LocalDate start = from == null ? null : from.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        int days = start == null ? 0 : Math.max(0, weeks) * 7;
+        List<List<WorkoutPlan>> plans = WeekCalendar.slots(7);
+        List<List<Session>> sessions = WeekCalendar.slots(days);
+        try (Connection c = Db.getConnection()) {
+            c.setAutoCommit(false); // one snapshot for both queries
+            readPlans(c, profileId, plans);
+            if (days > 0) readSessions(c, profileId, start, sessions);
+            c.commit();
+        } catch (SQLException e) {
+            System.out.println("❌ loadWeeks failed: " + e.getMessage());
+            return new WeekCalendar(start, WeekCalendar.slots(7), WeekCalendar.slots(days));
+        }
+        return new WeekCalendar(start, plans, sessions);
+    }
+
+    // ===== Internals below =====
+
+    private static void readPlans(Connection c, int profileId, List<List<WorkoutPlan>> plans) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement(SQL_PLANS)) {
+            ps.setInt(1, profileId);
+            try (ResultSet rs = ps.executeQuery()) {
+                Workout current = null;
+                List<WorkoutExerciseView> rows = new ArrayList<>();
+                while (rs.next()) {
+                    int workoutId = rs.getInt("id");
+                    if (current == null || current.getId() != workoutId) {
+                        if (current != null) addPlan(plans, current, rows);
+                        current = WorkoutDao.mapRow(rs);
+                        rows.clear();
+                    }
+                    if (rs.getObject("exercise_id") != null) { // null: workout without exercises
+                        rows.add(new WorkoutExerciseView(
+                                workoutId,
+                                rs.getInt("exercise_id"),
+                                rs.getInt("order_idx"),
+                                rs.getInt("target_sets"),
+                                rs.getInt("target_reps_or_secs"),
+                                rs.getString("exercise_name"),
+                                Lookup.MUSCLE.name(rs, "muscle_id"),
+                                rs.getString("equipment"),
+                                Lookup.DIFFICULTY.name(rs, "difficulty_id"),
+                                Lookup.EXERCISE_TYPE.name(rs, "type_id")
+                        ));
+                    }
+                }
+                if (current != null) addPlan(plans, current, rows);
+            }
+        }
+    }
+
+    private static void addPlan(List<List<WorkoutPlan>> plans, Workout w, List<WorkoutExerciseView> rows) {
+        WeekCalendar.add(plans, w.getDayOfWeek() - 1, new WorkoutPlan(w, rows)); // WorkoutPlan copies rows
+    }
+
+    private static void readSessions(Connection c, int profileId, LocalDate start,
+                                     List<List<Session>> sessions) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement(SQL_SESSIONS)) {
+            ps.setInt(1, profileId);
+            long first = start.toEpochDay();
+            ps.setLong(2, first * SessionDao.DAY_MILLIS);
+            ps.setLong(3, (first + sessions.size()) * SessionDao.DAY_MILLIS);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Session s = SessionDao.mapRow(rs);
+                    int slot = (int) (Math.floorDiv(s.getTs(), SessionDao.DAY_MILLIS) - first);
+                    if (slot >= 0 && slot < sessions.size()) WeekCalendar.add(sessions, slot, s);
+                }
+            }
+        }
+    }
+}
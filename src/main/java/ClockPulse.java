@@ -0,0 +1,140 @@
+import javafx.animation.AnimationTimer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * ClockPulse
+ *
+ * Purpose:
+ * Renders every on-screen timer readout from one AnimationTimer instead of one
+ * Platform.runLater per tick per timer. However many timers are showing, the FX thread
+ * does one pass per frame and nothing queues up behind it.
+ *
+ * How it works:
+ * - bind(timer, label::setText) registers a readout. Its TimerService is created without an
+ *   onTick callback, so ticks and adjusts post nothing to the FX queue.
+ * - Each pulse, poll() reads every bound timer's shownSeconds() (a lock-free snapshot read)
+ *   and calls the setter only when the mm:ss value changed. Text comes from ClockText, so
+ *   a steady countdown allocates nothing per frame.
+ * - The AnimationTimer runs only while some bound timer is running. When a poll finds none
+ *   running, it renders the final values and stops, so an idle app gets no frames from us.
+ *   Anything that changes a timer from the UI (start, resume, adjust, reset, auto rest)
+ *   calls wake().
+ *
+ * Threading notes:
+ * - FX thread only: bind/unbind/wake are called from UI code, and handle() runs on the pulse.
+ */
+public final class ClockPulse {
+
+    /** One bound readout. */
+    public static final class Binding {
+        private final TimerService timer;
+        private final Consumer<String> text;
+        private final Consumer<String> segmentText;
+        private int shown = -1;
+        private IntervalProgram program;
+        private int segment = -1;
+
+        private Binding(TimerService timer, Consumer<String> text, Consumer<String> segmentText) {
+            this.timer = timer;
+            this.text = text;
+            this.segmentText = segmentText;
+        }
+    }
+
+    private static ClockPulse shared;
+
+    private final List<Binding> bindings = new ArrayList<>();
+    private AnimationTimer frames;   // created on first wake(): needs the FX toolkit
+    private boolean running;
+    private long pulses;
+    private long updates;
+
+    /** The app-wide pulse every TimerPane shares. */
+    public static ClockPulse shared() {
+        if (shared == null) shared = new ClockPulse();
+        return shared;
+    }
+
+    /** Show timer's mm:ss through 'text' from now on; renders the current value immediately. */
+    public Binding bind(TimerService timer, Consumer<String> text) {
+        return bind(timer, text, null);
+    }
+
+    /**
+     * Like bind(timer, text), plus the running IntervalProgram segment's label through
+     * 'segmentText' ("" for a plain countdown). Labels are precompiled, so this allocates nothing.
+     */
+    public Binding bind(TimerService timer, Consumer<String> text, Consumer<String> segmentText) {
+        Binding b = new Binding(timer, text, segmentText);
+        bindings.add(b);
+        render(b);
+        return b;
+    }
+
+    public void unbind(Binding b) {
+        bindings.remove(b);
+    }
+
+    /** A timer was changed from the UI: render on the next frames until nothing is running. */
+    public void wake() {
+        if (running) return;
+        running = true;
+        if (frames == null) {
+            frames = new AnimationTimer() {
+                @Override
+                public void handle(long now) {
+                    if (!poll()) {
+                        stop();
+                        running = false;
+                    }
+                }
+            };
+        }
+        frames.start();
+    }
+
+    /**
+     * One frame: refresh readouts whose shown second changed.
+     * Returns true while any bound timer is still running.
+     */
+    boolean poll() {
+        pulses++;
+        boolean anyRunning = false;
+        for (int i = 0, n = bindings.size(); i < n; i++) {
+            Binding b = bindings.get(i);
+            render(b);
+            anyRunning |= b.timer.isRunning();
+        }
+        return anyRunning;
+    }
+
+    /** Frames handled so far. */
+    public long pulses() {
+        return pulses;
+    }
+
+    /** Label text updates so far (one per shown-second change). */
+    public long updates() {
+        return updates;
+    }
+
+    private void render(Binding b) {
+        if (b.segmentText != null) {
+            IntervalProgram p = b.timer.program();
+            int seg = b.timer.segment();
+            if (p != b.program || seg != b.segment) {
+                b.program = p;
+                b.segment = seg;
+                b.segmentText.accept(p == null ? "" : p.label(seg));
+            }
+        }
+        int secs = b.timer.shownSeconds();
+        if (secs == b.shown) return;
+        b.shown = secs;
+        b.text.accept(ClockText.of(secs));
+        updates++;
+    }
+}
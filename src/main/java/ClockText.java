@@ -0,0 +1,41 @@
+/**
+ * ClockText
+ *
+ * mm:ss strings for the timer readouts, without String.format.
+ * Each value 00:00-99:59 is built once on first use and then shared, so a label that
+ * updates every second stops allocating after its first pass. Longer times (over 100 min)
+ * are built on the spot; they only happen after many "+10s" presses.
+ * FX thread only (the cache isn't synchronized).
+ */
+public final class ClockText {
+
+    private static final int CACHED = 100 * 60;
+    private static final String[] CACHE = new String[CACHED];
+
+    private ClockText() {
+    }
+
+    /** totalSeconds as mm:ss (negative values show 00:00). */
+    public static String of(int totalSeconds) {
+        int secs = Math.max(0, totalSeconds);
+        if (secs >= CACHED) return build(secs);
+        String s = CACHE[secs];
+        if (s == null) CACHE[secs] = s = build(secs);
+        return s;
+    }
+
+    private static String build(int secs) {
+        int m = secs / 60;
+        int s = secs % 60;
+        char[] out = m < 100 ? new char[5] : new char[String.valueOf(m).length() + 3];
+        int i = out.length;
+        out[--i] = (char) ('0' + s % 10);
+        out[--i] = (char) ('0' + s / 10);
+        out[--i] = ':';
+        do {
+            out[--i] = (char) ('0' + m % 10);
+            m /= 10;
+        } while (i > 0);
+        return new String(out);
+    }
+}
@@ -0,0 +1,406 @@
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.*;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * DatasetGenerator
+ *
+ * Purpose:
+ * Fills a database with a production-sized, realistic-looking dataset so performance problems
+ * can be reproduced locally. The *DaoTest scripts only create a "Brandon" profile and a few rows.
+ *
+ * How it works:
+ * - Uses the tables from the Migrator scripts as they are. Rows are written with batched prepared
+ *   INSERTs and explicit ids, in one transaction per COMMIT_EVERY profiles.
+ * - Secondary indexes (idx_*) are dropped before the load and rebuilt once at the end.
+ *   Sorting once is much cheaper than updating every index on every row.
+ * - Deterministic: each profile gets its own random stream derived from (seed, profile
+ *   index). The same config always produces the same rows, whatever the batch sizes are.
+ * - Skewed, not uniform:
+ *     days_per_week peaks at 3-4
+ *     adherence is heavily skewed: most users are casual, a few train almost every session
+ *     join dates are spread over the period, and about 40% of users quit after some months
+ *     workouts favour each profile's "popular" exercises
+ *     sessions cluster in the morning and the evening
+ *   That gives a long tail: a few profiles have thousands of sessions, many have a few dozen.
+ *
+ * Usage (main):
+ *   DatasetGenerator [out=fitness-scale.db] [profiles=10000] [exercises=200] [perWorkout=8]
+ *                    [years=5] [seed=42]
+ *   The output file is deleted and recreated by Migrator. Be careful not to point it at fitness.db.
+ *   It is left in WAL mode with the BALANCED storage profile, ready for the app or the benches.
+ */
+public class DatasetGenerator {
+
+    /** What to generate. Sessions end on endDate and span 'years' years before it. */
+    public record Config(int profiles, int exercisesPerProfile, int exercisesPerWorkout,
+                         int years, LocalDate endDate, long seed) {
+        public static Config defaults() {
+            return new Config(10_000, 200, 8, 5, LocalDate.of(2025, 12, 31), 42L);
+        }
+
+        public LocalDate startDate() {
+            return endDate.minusYears(years).plusDays(1);
+        }
+    }
+
+    /** Rows written per table. */
+    public record Counts(long profiles, long exercises, long workouts, long workoutExercises, long sessions) {
+        public long total() {
+            return profiles + exercises + workouts + workoutExercises + sessions;
+        }
+    }
+
+    private static final int COMMIT_EVERY = 500;        // profiles per transaction
+    private static final int EXECUTE_EVERY = 10_000;    // rows per executeBatch
+
+    private static final String[] LEVELS = {"Beginner", "Intermediate", "Advanced"};
+    private static final int[] LEVEL_WEIGHTS = {50, 35, 15};
+    private static final String[] GOALS = {"Strength", "Hypertrophy", "Endurance", "Weight Loss", "General Fitness"};
+    private static final int[] DAYS_PER_WEEK_WEIGHTS = {5, 10, 30, 25, 18, 8, 4}; // 1..7
+    private static final String[] MUSCLES = {"Chest", "Back", "Legs", "Shoulders", "Biceps", "Triceps", "Core", "Glutes"};
+    private static final String[] EQUIPMENT = {"Barbell", "Dumbbell", "Cable", "Machine", "Kettlebell", "Bodyweight"};
+    private static final String[] MOVEMENTS = {"Press", "Row", "Curl", "Squat", "Raise", "Fly", "Extension", "Pulldown", "Lunge", "Hold"};
+    private static final String[] DIFFICULTY = {"Easy", "Moderate", "Hard"};
+    private static final String[] NOTES = {"felt strong", "low energy", "new PR", "short on time", "knee a bit sore", "great pump"};
+    private static final String[] SPLITS = {"Full Body", "Push", "Pull", "Legs", "Upper", "Lower", "Conditioning"};
+
+    public static void main(String[] args) throws Exception {
+        Class.forName("org.sqlite.JDBC");
+        Config d = Config.defaults();
+        String out = "fitness-scale.db";
+        int profiles = d.profiles(), exercises = d.exercisesPerProfile(), perWorkout = d.exercisesPerWorkout(), years = d.years();
+        long seed = d.seed();
+        for (String arg : args) {
+            String[] kv = arg.split("=", 2);
+            if (kv.length != 2) throw new IllegalArgumentException("expected key=value: " + arg);
+            switch (kv[0]) {
+                case "out" -> out = kv[1];
+                case "profiles" -> profiles = Integer.parseInt(kv[1]);
+                case "exercises" -> exercises = Integer.parseInt(kv[1]);
+                case "perWorkout" -> perWorkout = Integer.parseInt(kv[1]);
+                case "years" -> years = Integer.parseInt(kv[1]);
+                case "seed" -> seed = Long.parseLong(kv[1]);
+                default -> throw new IllegalArgumentException("unknown option: " + kv[0]);
+            }
+        }
+        Config cfg = new Config(profiles, exercises, perWorkout, years, d.endDate(), seed);
+
+        for (String suffix : new String[] {"", "-wal", "-shm", "-journal"}) {
+            Files.deleteIfExists(Path.of(out + suffix));
+        }
+        try (Connection c = DriverManager.getConnection("jdbc:sqlite:" + out)) {
+            Db.applyPragmas(c);
+            Migrator.apply(c);
+            try (Statement st = c.createStatement()) {
+                // Bulk-load settings for a throwaway file: no rollback journal, no fsync.
+                st.execute("PRAGMA journal_mode = OFF");
+                st.execute("PRAGMA synchronous = OFF");
+                st.execute("PRAGMA cache_size = -262144");
+                st.execute("PRAGMA temp_store = MEMORY");
+            }
+            long t0 = System.nanoTime();
+            Counts n = generate(c, cfg);
+            double secs = (System.nanoTime() - t0) / 1e9;
+            Migrator.applyProfile(c, StorageProfile.BALANCED);
+            System.out.printf("✅ %s: %,d rows in %.1f s (%,.0f rows/s)%n   %s%n",
+                    out, n.total(), secs, n.total() / secs, n);
+        }
+    }
+
+    /**
+     * Generate cfg's dataset into c, whose tables must be empty (fresh from Migrator.apply).
+     * Foreign keys are switched off during the load (every id is generated consistently)
+     * and switched back on afterwards. Commits every COMMIT_EVERY profiles, so a failed load
+     * leaves a partial dataset behind; regenerate rather than reuse it.
+     */
+    public static Counts generate(Connection c, Config cfg) throws SQLException {
+        boolean autoCommit = c.getAutoCommit();
+        try (Statement st = c.createStatement()) {
+            st.execute("PRAGMA foreign_keys = OFF"); // a no-op inside a transaction, so set it first
+        }
+        c.setAutoCommit(false);
+        try (Loader loader = new Loader(c, cfg)) {
+            List<String> indexes = dropSecondaryIndexes(c);
+            for (int p = 0; p < cfg.profiles(); p++) {
+                loader.profile(p);
+                if ((p + 1) % COMMIT_EVERY == 0) {
+                    loader.flush();
+                    c.commit();
+                }
+            }
+            loader.flush();
+            try (Statement st = c.createStatement()) {
+                for (String ddl : indexes) st.execute(ddl);
+                st.execute("PRAGMA analysis_limit = 1000"); // sampled stats; a full ANALYZE re-reads every index
+                st.execute("ANALYZE");
+            }
+            c.commit();
+            return loader.counts();
+        } catch (SQLException e) {
+            c.rollback();
+            throw e;
+        } finally {
+            c.setAutoCommit(autoCommit);
+            try (Statement st = c.createStatement()) {
+                st.execute("PRAGMA foreign_keys = ON");
+            }
+        }
+    }
+
+    // ===== Internals below =====
+
+    private static List<String> dropSecondaryIndexes(Connection c) throws SQLException {
+        List<String> ddl = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        try (Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery(
+                     "SELECT name, sql FROM sqlite_master WHERE type='index' AND sql IS NOT NULL")) {
+            while (rs.next()) {
+                names.add(rs.getString(1));
+                ddl.add(rs.getString(2));
+            }
+        }
+        try (Statement st = c.createStatement()) {
+            for (String name : names) st.execute("DROP INDEX \"" + name + "\"");
+        }
+        return ddl;
+    }
+
+    /** Holds the prepared INSERTs and id counters for one load. */
+    private static final class Loader implements AutoCloseable {
+        private final Config cfg;
+        private final PreparedStatement profileIns, exerciseIns, workoutIns, workoutExerciseIns, sessionIns;
+        private final String[] dates;       // epoch-day offset from start -> "yyyy-MM-dd"
+        private final String[] times;       // minute of day -> "THH:MM:00"
+        private final int firstDayOfWeek;   // ISO day-of-week of startDate (1 = Monday)
+        private final long firstEpochDay;   // startDate as days since 1970, for session.ts
+        private final int[] levelCodes, goalCodes, muscleCodes, difficultyCodes; // lookup codes, same order as the arrays
+        private final int repsCode, timeCode;
+        private long exerciseId, workoutId, sessionId;
+        private long profiles, exercises, workouts, workoutExercises, sessions;
+        private int pending;
+
+        Loader(Connection c, Config cfg) throws SQLException {
+            this.cfg = cfg;
+            profileIns = c.prepareStatement(
+                    "INSERT INTO profile(id, name, level_id, goal_id, days_per_week, created_at, updated_at) VALUES(?,?,?,?,?,?,?)");
+            exerciseIns = c.prepareStatement(
+                    "INSERT INTO exercise(id, profile_id, name, muscle_id, equipment, difficulty_id, type_id) VALUES(?,?,?,?,?,?,?)");
+            workoutIns = c.prepareStatement("""
+                    INSERT INTO workout(id, profile_id, name, day_of_week, rest_between_sets_sec,
+                                        rest_between_exercises_sec, active, created_at, updated_at)
+                    VALUES(?,?,?,?,?,?,?,?,?)""");
+            workoutExerciseIns = c.prepareStatement(
+                    "INSERT INTO workout_exercise(workout_id, exercise_id, order_idx, target_sets, target_reps_or_secs) VALUES(?,?,?,?,?)");
+            sessionIns = c.prepareStatement(
+                    "INSERT INTO session(id, profile_id, workout_id, date_iso, total_minutes, rpe, notes, ts) VALUES(?,?,?,?,?,?,?,?)");
+
+            LocalDate start = cfg.startDate();
+            int days = (int) (cfg.endDate().toEpochDay() - start.toEpochDay()) + 1;
+            dates = new String[days];
+            for (int i = 0; i < days; i++) dates[i] = start.plusDays(i).toString();
+            times = new String[24 * 60];
+            for (int m = 0; m < times.length; m++) times[m] = String.format("T%02d:%02d:00", m / 60, m % 60);
+            firstDayOfWeek = start.getDayOfWeek().getValue();
+            firstEpochDay = start.toEpochDay();
+
+            levelCodes = codes(c, Lookup.LEVEL, LEVELS);
+            goalCodes = codes(c, Lookup.GOAL, GOALS);
+            muscleCodes = codes(c, Lookup.MUSCLE, MUSCLES);
+            difficultyCodes = codes(c, Lookup.DIFFICULTY, DIFFICULTY);
+            int[] types = codes(c, Lookup.EXERCISE_TYPE, new String[] {"REPS", "TIME"});
+            repsCode = types[0];
+            timeCode = types[1];
+        }
+
+        /** V3 seeds every value used here, so each one already has a code. */
+        private static int[] codes(Connection c, Lookup lookup, String[] names) throws SQLException {
+            Map<String, Integer> all = lookup.readAll(c);
+            int[] out = new int[names.length];
+            for (int i = 0; i < names.length; i++) {
+                Integer code = all.get(names[i]);
+                if (code == null) throw new SQLException("'" + names[i] + "' missing from " + lookup.table());
+                out[i] = code;
+            }
+            return out;
+        }
+
+        /** Everything belonging to profile index p. */
+        void profile(int p) throws SQLException {
+            SplittableRandom rnd = new SplittableRandom(cfg.seed() * 0x9E3779B97F4A7C15L + p);
+            int profileId = p + 1;
+            int daysPerWeek = 1 + weighted(rnd, DAYS_PER_WEEK_WEIGHTS);
+            int joinDay = rnd.nextInt(Math.max(1, dates.length * 4 / 5));
+            int quitDay = rnd.nextInt(10) < 4
+                    ? Math.min(dates.length, joinDay + 30 + (int) (-Math.log(1 - rnd.nextDouble()) * 365))
+                    : dates.length;
+            double u = rnd.nextDouble();
+            double adherence = 0.15 + 0.85 * u * u; // mean ~0.43, long tail of very regular users
+            String joined = dates[joinDay] + " 08:00:00";
+
+            profileIns.setInt(1, profileId);
+            profileIns.setString(2, "User " + profileId);
+            profileIns.setInt(3, levelCodes[weighted(rnd, LEVEL_WEIGHTS)]);
+            profileIns.setInt(4, goalCodes[rnd.nextInt(GOALS.length)]);
+            profileIns.setInt(5, daysPerWeek);
+            profileIns.setString(6, joined);
+            profileIns.setString(7, joined);
+            add(profileIns);
+            profiles++;
+
+            // Exercises: ids firstExercise .. firstExercise + E - 1
+            long firstExercise = exerciseId + 1;
+            int e = cfg.exercisesPerProfile();
+            for (int i = 0; i < e; i++) {
+                String equipment = EQUIPMENT[rnd.nextInt(EQUIPMENT.length)];
+                String movement = MOVEMENTS[rnd.nextInt(MOVEMENTS.length)];
+                exerciseIns.setLong(1, ++exerciseId);
+                exerciseIns.setInt(2, profileId);
+                exerciseIns.setString(3, equipment + " " + movement + " " + (i + 1)); // unique per profile
+                exerciseIns.setInt(4, muscleCodes[rnd.nextInt(MUSCLES.length)]);
+                exerciseIns.setString(5, equipment);
+                exerciseIns.setInt(6, difficultyCodes[rnd.nextInt(DIFFICULTY.length)]);
+                exerciseIns.setInt(7, movement.equals("Hold") ? timeCode : repsCode);
+                add(exerciseIns);
+                exercises++;
+            }
+
+            // One workout per training day, spread over the week; plus an unscheduled template.
+            long[] workoutByDay = new long[8]; // index = ISO day of week, 0 = none
+            int offset = rnd.nextInt(7);
+            for (int k = 0; k < daysPerWeek; k++) {
+                int day = 1 + (offset + k * 7 / daysPerWeek) % 7;
+                workoutByDay[day] = addWorkout(rnd, profileId, day, firstExercise, e, joined);
+            }
+            addWorkout(rnd, profileId, 0, firstExercise, e, joined);
+
+            // Sessions
+            int dow = (firstDayOfWeek - 1 + joinDay) % 7 + 1;
+            for (int day = joinDay; day < quitDay; day++, dow = dow % 7 + 1) {
+                long wid = workoutByDay[dow];
+                boolean train = wid != 0 ? rnd.nextDouble() < adherence : rnd.nextDouble() < 0.03;
+                if (!train) continue;
+                sessionIns.setLong(1, ++sessionId);
+                sessionIns.setInt(2, profileId);
+                if (wid == 0 || rnd.nextInt(20) == 0) sessionIns.setNull(3, Types.INTEGER); // ad-hoc
+                else sessionIns.setLong(3, wid);
+                int minute = minuteOfDay(rnd);
+                sessionIns.setString(4, dates[day] + times[minute]);
+                sessionIns.setInt(5, clamp((int) Math.round(45 + rnd.nextDouble(-1, 1) * 20 + gaussian(rnd) * 8), 10, 150));
+                if (rnd.nextInt(10) == 0) sessionIns.setNull(6, Types.INTEGER);
+                else sessionIns.setInt(6, clamp((int) Math.round(7 + gaussian(rnd) * 1.3), 1, 10));
+                if (rnd.nextInt(12) == 0) sessionIns.setString(7, NOTES[rnd.nextInt(NOTES.length)]);
+                else sessionIns.setNull(7, Types.VARCHAR);
+                sessionIns.setLong(8, (firstEpochDay + day) * SessionDao.DAY_MILLIS + minute * 60_000L); // no trigger round trip
+                add(sessionIns);
+                sessions++;
+            }
+        }
+
+        private long addWorkout(SplittableRandom rnd, int profileId, int day, long firstExercise,
+                                int exerciseCount, String created) throws SQLException {
+            long id = ++workoutId;
+            workoutIns.setLong(1, id);
+            workoutIns.setInt(2, profileId);
+            workoutIns.setString(3, day == 0 ? "Template" : SPLITS[rnd.nextInt(SPLITS.length)] + " " + DayOfWeek.of(day));
+            if (day == 0) workoutIns.setNull(4, Types.INTEGER);
+            else workoutIns.setInt(4, day);
+            workoutIns.setInt(5, 60 + 15 * rnd.nextInt(5));
+            workoutIns.setInt(6, 90 + 30 * rnd.nextInt(3));
+            workoutIns.setInt(7, 1);
+            workoutIns.setString(8, created);
+            workoutIns.setString(9, created);
+            add(workoutIns);
+            workouts++;
+
+            // Popular exercises (low indexes) are picked far more often: index = E * u^2.
+            int n = Math.min(cfg.exercisesPerWorkout(), exerciseCount);
+            long[] chosen = new long[n];
+            for (int order = 0; order < n; order++) {
+                long ex;
+                do {
+                    double u = rnd.nextDouble();
+                    ex = firstExercise + (long) (exerciseCount * u * u);
+                } while (contains(chosen, order, ex));
+                chosen[order] = ex;
+                workoutExerciseIns.setLong(1, id);
+                workoutExerciseIns.setLong(2, ex);
+                workoutExerciseIns.setInt(3, order + 1);
+                workoutExerciseIns.setInt(4, 2 + rnd.nextInt(4));
+                workoutExerciseIns.setInt(5, 5 + rnd.nextInt(11));
+                add(workoutExerciseIns);
+                workoutExercises++;
+            }
+            return id;
+        }
+
+        private void add(PreparedStatement ps) throws SQLException {
+            ps.addBatch();
+            if (++pending >= EXECUTE_EVERY) flush();
+        }
+
+        /** Execute pending batches parent-first (profile before exercise before workout ...). */
+        void flush() throws SQLException {
+            profileIns.executeBatch();
+            exerciseIns.executeBatch();
+            workoutIns.executeBatch();
+            workoutExerciseIns.executeBatch();
+            sessionIns.executeBatch();
+            pending = 0;
+        }
+
+        Counts counts() {
+            return new Counts(profiles, exercises, workouts, workoutExercises, sessions);
+        }
+
+        @Override public void close() throws SQLException {
+            profileIns.close();
+            exerciseIns.close();
+            workoutIns.close();
+            workoutExerciseIns.close();
+            sessionIns.close();
+        }
+    }
+
+    /** Morning (45%), lunchtime (15%) or evening (40%) start times. */
+    private static int minuteOfDay(SplittableRandom rnd) {
+        int r = rnd.nextInt(100);
+        if (r < 45) return 6 * 60 + rnd.nextInt(3 * 60);
+        if (r < 60) return 11 * 60 + rnd.nextInt(2 * 60);
+        return 17 * 60 + rnd.nextInt(4 * 60);
+    }
+
+    private static int weighted(SplittableRandom rnd, int[] weights) {
+        int total = 0;
+        for (int w : weights) total += w;
+        int r = rnd.nextInt(total);
+        for (int i = 0; i < weights.length; i++) {
+            r -= weights[i];
+            if (r < 0) return i;
+        }
+        return weights.length - 1;
+    }
+
+    /** Standard normal via Box-Muller (SplittableRandom has no nextGaussian on Java 17). */
+    private static double gaussian(SplittableRandom rnd) {
+        double u1 = 1.0 - rnd.nextDouble();
+        double u2 = rnd.nextDouble();
+        return Math.sqrt(-2 * Math.log(u1)) * Math.cos(2 * Math.PI * u2);
+    }
+
+    private static boolean contains(long[] a, int n, long v) {
+        for (int i = 0; i < n; i++) if (a[i] == v) return true;
+        return false;
+    }
+
+    private static int clamp(int v, int lo, int hi) {
+        return Math.max(lo, Math.min(hi, v));
+    }
+}
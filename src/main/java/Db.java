@@ -0,0 +1,216 @@
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Db
+ *
+ * Purpose:
+ * One place every DAO gets its SQLite connection from. Before this, each DAO method opened
+ * a brand-new connection to "jdbc:sqlite:fitness.db", ran PRAGMA foreign_keys = ON and closed
+ * it again. On our data sizes opening the file and parsing the schema cost more than the query.
+ *
+ * How it works:
+ * - A small pool of physical connections is opened lazily (up to poolSize) and kept open.
+ * - Pragmas are applied once, when a physical connection is opened: foreign keys, busy
+ *   timeout and the StorageProfile (WAL + synchronous/cache/mmap settings).
+ * - getConnection() hands out a thin wrapper. Calling close() on it (try-with-resources, as
+ *   every DAO already does) returns the physical connection to the pool instead of closing it.
+ * - If a caller left autoCommit off, the pool rolls back and turns it back on before reuse.
+ *
+ * Configuration:
+ * - URL comes from the system property "fitness.db.url" (default jdbc:sqlite:fitness.db).
+ * - Pool size comes from "fitness.db.poolSize" (default 4).
+ * - Storage profile comes from "fitness.db.profile" if set, otherwise from the profile Migrator
+ *   recorded in the database's app_setting table, otherwise BALANCED.
+ * - configure(url, poolSize) swaps the pool at runtime (used by benches and scripts).
+ */
+public final class Db {
+
+    public static final String DEFAULT_URL = "jdbc:sqlite:fitness.db";
+    public static final int DEFAULT_POOL_SIZE = 4;
+
+    /** How long a caller waits for a free connection before we give up. */
+    private static final long ACQUIRE_TIMEOUT_MS = 10_000;
+
+    private static volatile Pool pool = new Pool(
+            System.getProperty("fitness.db.url", DEFAULT_URL),
+            Integer.getInteger("fitness.db.poolSize", DEFAULT_POOL_SIZE));
+
+    private Db() {}
+
+    /** Borrow a connection. Always use it in try-with-resources so it goes back to the pool. */
+    public static Connection getConnection() throws SQLException {
+        return pool.acquire();
+    }
+
+    /** The JDBC URL the current pool points at. */
+    public static String url() {
+        return pool.url;
+    }
+
+    /** Maximum number of physical connections the current pool opens. */
+    public static int poolSize() {
+        return pool.maxSize;
+    }
+
+    /** Point the pool at a different database. Idle connections of the old pool are closed. */
+    public static synchronized void configure(String url, int poolSize) {
+        Pool old = pool;
+        pool = new Pool(url, poolSize);
+        old.close();
+    }
+
+    /** The storage profile the current pool applies, resolved on its first connection. */
+    public static StorageProfile storageProfile() throws SQLException {
+        Pool p = pool;
+        if (p.profile == null) {
+            p.acquire().close(); // opening resolves the profile; closing returns it to the pool
+        }
+        return p.profile;
+    }
+
+    /** Close every idle connection. Call once on app exit (MainApp.stop). */
+    public static void shutdown() {
+        pool.close();
+    }
+
+    /** Pragmas every physical connection gets exactly once, right after opening. */
+    static void applyPragmas(Connection c) throws SQLException {
+        try (Statement s = c.createStatement()) {
+            s.execute("PRAGMA foreign_keys = ON");
+            s.execute("PRAGMA busy_timeout = 5000");
+        }
+    }
+
+    // ===== Internals below =====
+
+    private static final class Pool {
+        private final String url;
+        private final int maxSize;
+        private final Deque<Connection> idle = new ArrayDeque<>();
+        private final List<Connection> all = new ArrayList<>();
+        private boolean closed = false;
+        private volatile StorageProfile profile;
+
+        Pool(String url, int maxSize) {
+            this.url = url;
+            this.maxSize = Math.max(1, maxSize);
+        }
+
+        Connection acquire() throws SQLException {
+            Connection physical = null;
+            synchronized (this) {
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ACQUIRE_TIMEOUT_MS);
+                while (physical == null) {
+                    if (closed) throw new SQLException("Connection pool is closed");
+                    if (!idle.isEmpty()) {
+                        physical = idle.pop();
+                    } else if (all.size() < maxSize) {
+                        physical = open();
+                        all.add(physical);
+                    } else {
+                        long waitMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                        if (waitMs <= 0) throw new SQLException("Timed out waiting for a database connection");
+                        try {
+                            wait(waitMs);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            throw new SQLException("Interrupted waiting for a database connection", e);
+                        }
+                    }
+                }
+            }
+            return lease(physical);
+        }
+
+        private Connection open() throws SQLException {
+            Connection c = DriverManager.getConnection(url);
+            try {
+                applyPragmas(c);
+                if (profile == null) profile = resolveProfile(c);
+                profile.apply(c);
+            } catch (SQLException e) {
+                c.close();
+                throw e;
+            }
+            return c;
+        }
+
+        private static StorageProfile resolveProfile(Connection c) {
+            String forced = System.getProperty("fitness.db.profile");
+            if (forced != null) return StorageProfile.parse(forced);
+            StorageProfile stored = StorageProfile.readStored(c);
+            return stored != null ? stored : StorageProfile.BALANCED;
+        }
+
+        void release(Connection physical) {
+            boolean healthy;
+            try {
+                if (!physical.getAutoCommit()) {
+                    physical.rollback();
+                    physical.setAutoCommit(true);
+                }
+                healthy = !physical.isClosed();
+            } catch (SQLException e) {
+                healthy = false;
+            }
+            synchronized (this) {
+                if (healthy && !closed) {
+                    idle.push(physical);
+                } else {
+                    all.remove(physical);
+                    closeQuietly(physical);
+                }
+                notifyAll();
+            }
+        }
+
+        synchronized void close() {
+            closed = true;
+            for (Connection c : idle) {
+                all.remove(c);
+                closeQuietly(c);
+            }
+            idle.clear();
+            notifyAll();
+        }
+
+        /** Wrap a physical connection so close() hands it back instead of closing the file. */
+        private Connection lease(Connection physical) {
+            AtomicBoolean returned = new AtomicBoolean(false);
+            return (Connection) Proxy.newProxyInstance(
+                    Db.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "close":
+                                if (returned.compareAndSet(false, true)) release(physical);
+                                return null;
+                            case "isClosed":
+                                return returned.get() || physical.isClosed();
+                            default:
+                                if (returned.get()) throw new SQLException("Connection already returned to pool");
+                                try {
+                                    return method.invoke(physical, args);
+                                } catch (InvocationTargetException e) {
+                                    throw e.getCause();
+                                }
+                        }
+                    });
+        }
+
+        private static void closeQuietly(Connection c) {
+            try { c.close(); } catch (SQLException ignored) {}
+        }
+    }
+}
@@ -0,0 +1,67 @@
+import java.sql.*;
+
+/**
+ * DbPoolBench
+ *
+ * Before/after numbers for the shared connection pool (Db).
+ * Builds a throwaway database in a temp file, then runs the same SessionDao.getByProfile
+ * query in a loop two ways:
+ *   - "per-call": the old pattern (DriverManager.getConnection + PRAGMA foreign_keys + close),
+ *   - "pooled":   SessionDao.getByProfile through Db.getConnection().
+ *
+ * Run it from the IDE like the *DaoTest scripts (it never touches fitness.db).
+ */
+public class DbPoolBench {
+
+    private static final int SESSIONS = 50;
+    private static final int WARMUP = 500;
+    private static final int ITERATIONS = 5_000;
+
+    public static void main(String[] args) throws Exception {
+        Class.forName("org.sqlite.JDBC");
+        String url = "jdbc:sqlite:" + TestSupport.scratchDb("fitness-bench").getAbsolutePath();
+
+        ProfileDao pdao = new ProfileDao();
+        int profileId = pdao.insert(new Profile("Bench", "Intermediate", "Strength", 4));
+        SessionDao sdao = new SessionDao();
+        for (int i = 0; i < SESSIONS; i++) {
+            sdao.insert(new Session(profileId, null, String.format("2025-01-%02dT07:00:00", 1 + i % 28), 45, 7, null));
+        }
+
+        // Warm up both paths so the JIT isn't what we're measuring.
+        for (int i = 0; i < WARMUP; i++) { perCall(url, profileId); sdao.getByProfile(profileId); }
+
+        long t0 = System.nanoTime();
+        int rows = 0;
+        for (int i = 0; i < ITERATIONS; i++) rows += perCall(url, profileId);
+        long perCallNs = System.nanoTime() - t0;
+
+        t0 = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) rows += sdao.getByProfile(profileId).size();
+        long pooledNs = System.nanoTime() - t0;
+
+        System.out.printf("getByProfile x %d (%d rows each, checksum %d)%n", ITERATIONS, SESSIONS, rows);
+        System.out.printf("  per-call connection: %8.1f us/op%n", perCallNs / 1000.0 / ITERATIONS);
+        System.out.printf("  pooled connection:   %8.1f us/op%n", pooledNs / 1000.0 / ITERATIONS);
+        System.out.printf("  speedup:             %8.1fx%n", (double) perCallNs / pooledNs);
+
+        Db.shutdown();
+    }
+
+    /** The pre-pool pattern every DAO used: open, set pragma, query, close. */
+    private static int perCall(String url, int profileId) throws SQLException {
+        int n = 0;
+        try (Connection c = DriverManager.getConnection(url)) {
+            try (Statement s = c.createStatement()) { s.execute("PRAGMA foreign_keys = ON"); }
+            try (PreparedStatement ps = c.prepareStatement(
+                    "SELECT id, profile_id, workout_id, date_iso, ts, total_minutes, rpe, notes " +
+                    "FROM session WHERE profile_id=? ORDER BY ts DESC")) {
+                ps.setInt(1, profileId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) n++;
+                }
+            }
+        }
+        return n;
+    }
+}
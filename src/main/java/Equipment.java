@@ -2,7 +2,7 @@
   Equipment.java
   Purpose: simple data holder for one row in the `equipment` table.
   I kept this class small on purpose — no framework, no annotations.
-  It mirrors the columns we expect in schema.sql so the DAO stays clean.
+  It mirrors the columns we expect in db/V1__baseline.sql so the DAO stays clean.
 */
 public class Equipment {
 
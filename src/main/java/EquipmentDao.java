@@ -2,7 +2,7 @@
   EquipmentDao.java
   Purpose: all database operations for the `equipment` table live here.
   Design: no frameworks, just plain JDBC so it’s easy to read in a demo.
-  Safety: every method uses try-with-resources so connections are closed.
+  Safety: every method uses try-with-resources so connections go back to the pool.
   Scope: CRUD only (Create, Read, Update, Delete). No business logic here.
 */
 
@@ -12,12 +12,9 @@ import java.util.List;
 
 public class EquipmentDao {
 
-    // Our project uses a local SQLite file. Keep the URL consistent.
-    private static final String URL = "jdbc:sqlite:fitness.db";
-
-    // Helper to open a connection. Short and predictable.
+    // Helper to borrow a connection from the shared pool (see Db). Short and predictable.
     private Connection connect() throws SQLException {
-        return DriverManager.getConnection(URL);
+        return Db.getConnection();
     }
 
     /*
@@ -103,6 +100,43 @@ public class EquipmentDao {
         return null; // not found is a valid outcome
     }
 
+    /*
+      READ (filtered)
+      For the live filter box in EquipmentView: name, type or notes containing the text,
+      any case. QueryScheduler passes a ticket so a newer keystroke can stop this one;
+      once cancelled I just return what I have, there's nothing to report.
+    */
+    public List<Equipment> search(String text, QueryScheduler.Ticket ticket) {
+        if (text == null || text.isBlank()) return findAll();
+        List<Equipment> out = new ArrayList<>();
+        String sql = "SELECT id, name, type, notes FROM equipment "
+                + "WHERE name LIKE ?1 ESCAPE '\\' OR type LIKE ?1 ESCAPE '\\' OR notes LIKE ?1 ESCAPE '\\' "
+                + "ORDER BY name";
+        // % and _ typed by the user match themselves
+        String pattern = "%" + text.strip().replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+
+        try (Connection c = connect();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setString(1, pattern);
+
+            ticket.run(ps, () -> {
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        out.add(new Equipment(
+                                rs.getInt("id"),
+                                rs.getString("name"),
+                                rs.getString("type"),
+                                rs.getString("notes")));
+                    }
+                }
+                return out;
+            });
+        } catch (SQLException ex) {
+            if (!ticket.isCancelled()) ex.printStackTrace();
+        }
+        return out;
+    }
+
     /*
       UPDATE
       Standard update by id. I keep the SQL in column order to match the model.
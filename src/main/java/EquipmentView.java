@@ -7,8 +7,11 @@ import javafx.scene.Node;
 import javafx.scene.control.*;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
 import javafx.scene.layout.VBox;
 
+import java.util.List;
+
 public class EquipmentView {
     private final TableView<Equipment> table = new TableView<>();
     private final ObservableList<Equipment> data = FXCollections.observableArrayList();
@@ -16,6 +19,11 @@ public class EquipmentView {
     private final TextField typeField = new TextField();
     private final TextField notesField = new TextField();
     private final EquipmentDao dao = new EquipmentDao();
+    private final TextField filterField = new TextField();
+    // Table loads run off the FX thread through the scheduler: typing in filterField is
+    // debounced, a newer load cancels the one in flight, and only the newest one is rendered.
+    private final QueryScheduler<List<Equipment>> loads = new QueryScheduler<>(this::showRows, this::loadFailed);
+    private final ProgressIndicator busy = new ProgressIndicator();
     private final VBox root = new VBox(8);
 
     public EquipmentView() {
@@ -56,8 +64,9 @@ public class EquipmentView {
         addBtn.setOnAction(e -> {
             String nm = nameField.getText();
             if (nm == null || nm.isBlank()) return;       // simple guard
-            dao.insert(new Equipment(nm, typeField.getText(), notesField.getText()));
-            refresh(); clearForm();
+            Equipment eq = new Equipment(nm, typeField.getText(), notesField.getText());
+            busy.setVisible(true);
+            AsyncDao.run(() -> { dao.insert(eq); return eq; }, done -> { refresh(); clearForm(); }, this::saveFailed);
         });
 
         Button updateBtn = new Button("Update");
@@ -67,24 +76,35 @@ public class EquipmentView {
             sel.setName(nameField.getText());
             sel.setType(typeField.getText());
             sel.setNotes(notesField.getText());
-            dao.update(sel);
-            refresh();
+            busy.setVisible(true);
+            AsyncDao.run(() -> { dao.update(sel); return sel; }, done -> refresh(), this::saveFailed);
         });
 
         Button deleteBtn = new Button("Delete");
         deleteBtn.setOnAction(e -> {
             Equipment sel = table.getSelectionModel().getSelectedItem();
             if (sel == null) return;
-            dao.delete(sel.getId());
-            refresh(); clearForm();
+            busy.setVisible(true);
+            AsyncDao.run(() -> { dao.delete(sel.getId()); return sel; }, done -> { refresh(); clearForm(); }, this::saveFailed);
         });
 
-        HBox buttons = new HBox(8, addBtn, updateBtn, deleteBtn);
+        busy.setPrefSize(18, 18);
+        busy.setVisible(false);
+        HBox buttons = new HBox(8, addBtn, updateBtn, deleteBtn, busy);
         buttons.setPadding(new Insets(0, 8, 8, 8));
 
+        // --- live filter ---
+        filterField.setPromptText("Filter by name, type or notes");
+        filterField.textProperty().addListener((obs, old, text) -> {
+            busy.setVisible(true);
+            loads.submit(t -> dao.search(text, t));
+        });
+        HBox filter = new HBox(8, new Label("Filter:"), filterField);
+        HBox.setHgrow(filterField, Priority.ALWAYS);
+
         // layout
         root.setPadding(new Insets(8));
-        root.getChildren().addAll(new Label("Equipment"), table, form, buttons);
+        root.getChildren().addAll(new Label("Equipment"), filter, table, form, buttons);
 
         // initial load
         refresh();
@@ -93,7 +113,28 @@ public class EquipmentView {
     public Node getRoot() { return root; }
 
     public void refresh() {
-        data.setAll(dao.findAll());
+        busy.setVisible(true);
+        table.setPlaceholder(new Label("Loading…"));
+        String text = filterField.getText();
+        loads.runNow(t -> dao.search(text, t));
+    }
+
+    private void showRows(List<Equipment> rows) {
+        data.setAll(rows);
+        table.setPlaceholder(new Label(filterField.getText().isBlank() ? "No equipment yet" : "No matches"));
+        busy.setVisible(false);
+    }
+
+    // The newest load timed out or failed: keep the rows shown, stop the spinner.
+    private void loadFailed() {
+        table.setPlaceholder(new Label("Couldn't load equipment"));
+        busy.setVisible(false);
+    }
+
+    // A save failed before reaching refresh(): stop the spinner and say so.
+    private void saveFailed(Throwable error) {
+        busy.setVisible(false);
+        new Alert(Alert.AlertType.INFORMATION, "Save failed: " + error.getMessage(), ButtonType.OK).showAndWait();
     }
 
     private void clearForm() {
@@ -0,0 +1,187 @@
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ExerciseCache
+ *
+ * Purpose:
+ * In-memory exercise catalog, one entry per profile. Exercise rows change rarely but are read
+ * constantly (every ExercisesView load, findById for each row in several flows), so most
+ * reads shouldn't have to reach SQLite at all.
+ *
+ * How it works:
+ * - Read-through: getByProfile() returns the cached catalog or loads it once via the DAO.
+ * - Bounded: at most maxProfiles catalogs are kept; the least recently used profile is evicted.
+ * - findById() answers from an id index that covers every cached catalog.
+ * - ExerciseDao patches entries in place after insert/update/delete instead of dropping them,
+ *   so the next read after an edit is still a hit. ProfileDao.delete drops the whole profile.
+ * - hits/misses/evictions are counted so we can check the hit rate (see stats()).
+ *
+ * Threading notes:
+ * - All state is guarded by 'this'. The DB load on a miss runs outside the lock; if any write
+ *   happened meanwhile the loaded list is returned but not cached, so we never cache stale rows.
+ * - Callers get copies. ExercisesView edits Exercise objects before calling update(); without
+ *   copies those edits would leak into the cache even if the update failed.
+ */
+public class ExerciseCache {
+
+    public static final int DEFAULT_MAX_PROFILES = 64;
+
+    private static final ExerciseCache SHARED = new ExerciseCache(
+            Integer.getInteger("fitness.exerciseCache.maxProfiles", DEFAULT_MAX_PROFILES));
+
+    /** Same order as ExerciseDao's "ORDER BY name" (ties by id). */
+    static final Comparator<Exercise> BY_NAME =
+            Comparator.comparing(Exercise::getName).thenComparingInt(Exercise::getId);
+
+    /** Loads one profile's catalog from the database on a miss. */
+    @FunctionalInterface
+    public interface Loader {
+        List<Exercise> load(int profileId) throws SQLException;
+    }
+
+    /** Snapshot of the counters. */
+    public record Stats(long hits, long misses, long evictions, int cachedProfiles) {
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+    }
+
+    public static ExerciseCache shared() {
+        return SHARED;
+    }
+
+    private final int maxProfiles;
+    private final Map<Integer, Exercise> byId = new HashMap<>();
+    private final LinkedHashMap<Integer, List<Exercise>> byProfile;
+    private long writes = 0; // bumped by every patch/invalidate; guards loads racing with writes
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public ExerciseCache(int maxProfiles) {
+        this.maxProfiles = Math.max(1, maxProfiles);
+        this.byProfile = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override protected boolean removeEldestEntry(Map.Entry<Integer, List<Exercise>> eldest) {
+                if (size() <= ExerciseCache.this.maxProfiles) return false;
+                for (Exercise e : eldest.getValue()) byId.remove(e.getId());
+                evictions.incrementAndGet();
+                return true;
+            }
+        };
+    }
+
+    /** A profile's catalog ordered by name, from memory if possible. */
+    public List<Exercise> getByProfile(int profileId, Loader loader) throws SQLException {
+        long writesBefore;
+        synchronized (this) {
+            List<Exercise> cached = byProfile.get(profileId);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return copies(cached);
+            }
+            writesBefore = writes;
+        }
+        misses.incrementAndGet();
+        List<Exercise> loaded = new ArrayList<>(loader.load(profileId));
+        loaded.sort(BY_NAME);
+        synchronized (this) {
+            if (writes == writesBefore && !byProfile.containsKey(profileId)) {
+                List<Exercise> stored = copies(loaded);
+                byProfile.put(profileId, stored);
+                for (Exercise e : stored) byId.put(e.getId(), e);
+            }
+        }
+        return loaded;
+    }
+
+    /** The cached exercise with this id, or null if its profile isn't cached (a miss). */
+    public synchronized Exercise findById(int id) {
+        Exercise e = byId.get(id);
+        if (e == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        byProfile.get(e.getProfileId()); // touch for LRU
+        return copy(e);
+    }
+
+    /**
+     * Patch in a freshly inserted row (only if its profile is cached). A load that ran between
+     * the insert's commit and this call already has the row; it's replaced, not added twice.
+     */
+    public synchronized void onInsert(Exercise e) {
+        writes++;
+        if (byId.containsKey(e.getId())) onDelete(e.getId());
+        List<Exercise> list = byProfile.get(e.getProfileId());
+        if (list == null) return;
+        Exercise stored = copy(e);
+        insertSorted(list, stored);
+        byId.put(stored.getId(), stored);
+    }
+
+    /** Patch in an updated row; handles a move to another profile. */
+    public synchronized void onUpdate(Exercise e) {
+        onDelete(e.getId());
+        onInsert(e);
+    }
+
+    /** Remove a deleted row from whichever cached catalog holds it. */
+    public synchronized void onDelete(int id) {
+        writes++;
+        Exercise old = byId.remove(id);
+        if (old == null) return;
+        List<Exercise> list = byProfile.get(old.getProfileId());
+        if (list != null) list.removeIf(x -> x.getId() == id);
+    }
+
+    /** Forget a whole profile (e.g. it was deleted and its exercises cascaded away). */
+    public synchronized void invalidateProfile(int profileId) {
+        writes++;
+        List<Exercise> list = byProfile.remove(profileId);
+        if (list != null) for (Exercise e : list) byId.remove(e.getId());
+    }
+
+    /** Forget everything (tests, or after bulk SQL that bypassed the DAO). */
+    public synchronized void clear() {
+        writes++;
+        byProfile.clear();
+        byId.clear();
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(hits.get(), misses.get(), evictions.get(), byProfile.size());
+    }
+
+    // ===== Internals below =====
+
+    private static void insertSorted(List<Exercise> list, Exercise e) {
+        int lo = 0, hi = list.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (BY_NAME.compare(list.get(mid), e) < 0) lo = mid + 1;
+            else hi = mid;
+        }
+        list.add(lo, e);
+    }
+
+    private static List<Exercise> copies(List<Exercise> src) {
+        List<Exercise> out = new ArrayList<>(src.size());
+        for (Exercise e : src) out.add(copy(e));
+        return out;
+    }
+
+    private static Exercise copy(Exercise e) {
+        return new Exercise(e.getProfileId(), e.getId(), e.getName(), e.getMuscle(),
+                e.getEquipment(), e.getDifficulty(), e.getType());
+    }
+}
@@ -0,0 +1,63 @@
+import java.util.List;
+
+public class ExerciseCacheTest {
+    public static void main(String[] args) throws Exception {
+        Class.forName("org.sqlite.JDBC");
+
+        // Scratch database so we don't litter fitness.db
+        TestSupport.scratchDb("fitness-cache");
+
+        ProfileDao pdao = new ProfileDao();
+        int brandon = pdao.insert(new Profile("Brandon", "Intermediate", "Hypertrophy", 5));
+        int peter = pdao.insert(new Profile("Peter", "Beginner", "Strength", 3));
+
+        ExerciseDao edao = new ExerciseDao();
+        int bench = edao.insert(new Exercise(brandon, "Bench Press", "Chest", "Barbell", "Hard", "REPS"));
+        edao.insert(new Exercise(brandon, "Seated Row", "Back", "Cable", "Moderate", "REPS"));
+
+        // 1) First read misses, the next 100 reads (and findById) hit
+        edao.findByProfile(brandon);
+        for (int i = 0; i < 100; i++) edao.findByProfile(brandon);
+        TestSupport.check("findById(bench) from the cache", edao.findById(bench).map(Exercise::getName).orElse("").equals("Bench Press"));
+        ExerciseCache.Stats afterReads = ExerciseDao.cacheStats();
+        TestSupport.check("one miss, then hits: " + afterReads, afterReads.misses() == 1 && afterReads.hits() == 101);
+
+        // 2) Writes patch the cached catalog in place (still a hit afterwards)
+        int curl = edao.insert(new Exercise(brandon, "Arm Curl", "Biceps", "Dumbbell", "Easy", "REPS"));
+        Exercise b = edao.findById(bench).orElseThrow();
+        b.setName("Incline Bench");
+        edao.update(b);
+        edao.delete(curl);
+        List<Exercise> cached = edao.findByProfile(brandon);
+        List<String> names = cached.stream().map(Exercise::getName).toList();
+        TestSupport.check("cached after writes: " + names, names.equals(List.of("Incline Bench", "Seated Row")));
+
+        // 3) Moving an exercise to another profile updates both catalogs
+        edao.findByProfile(peter);
+        b.setProfileId(peter);
+        edao.update(b);
+        TestSupport.check("move: one exercise in each profile",
+                edao.findByProfile(brandon).size() == 1 && edao.findByProfile(peter).size() == 1);
+
+        // 4) Deleting a profile drops its catalog (exercises cascade in SQL)
+        pdao.delete(peter);
+        TestSupport.check("profile delete empties its catalog", edao.findByProfile(peter).isEmpty());
+
+        // 5) A load that runs between an insert's commit and its onInsert already holds the row
+        ExerciseCache raced = new ExerciseCache(4);
+        Exercise fresh = new Exercise(brandon, 900, "Face Pull", "Shoulders", "Cable", "Easy", "REPS");
+        raced.getByProfile(brandon, pid -> List.of(fresh)); // the commit is visible to this load
+        raced.onInsert(fresh);                              // then the DAO patches it in
+        List<Exercise> once = raced.getByProfile(brandon, pid -> List.of());
+        TestSupport.check("insert racing a load is cached once: " + once.stream().map(Exercise::getName).toList(),
+                once.size() == 1);
+        raced.onDelete(900);
+        TestSupport.check("and its delete leaves nothing behind", raced.getByProfile(brandon, pid -> List.of()).isEmpty());
+
+        ExerciseCache.Stats stats = ExerciseDao.cacheStats();
+        System.out.printf("Final: %s  hit rate %.1f%%%n", stats, stats.hitRate() * 100);
+
+        Db.shutdown();
+        TestSupport.exitIfFailed();
+    }
+}
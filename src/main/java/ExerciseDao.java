@@ -1,59 +1,56 @@
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public class ExerciseDao {
-    private static final String URL = "jdbc:sqlite:fitness.db";
+
+    // Shared by every ExerciseDao instance; patched by insert/update/delete below.
+    private static final ExerciseCache CACHE = ExerciseCache.shared();
+    private static final ExerciseNameIndex NAMES = ExerciseNameIndex.shared();
 
     private static final String SQL_INSERT =
-            "INSERT INTO exercise(profile_id, name, muscle, equipment, difficulty, type) " +
+            "INSERT INTO exercise(profile_id, name, muscle_id, equipment, difficulty_id, type_id) " +
                     "VALUES (?,?,?,?,?,?)";
 
     private static final String SQL_FIND_BY_ID =
-            "SELECT id, profile_id, name, muscle, equipment, difficulty, type " +
+            "SELECT id, profile_id, name, muscle_id, equipment, difficulty_id, type_id " +
                     "FROM exercise WHERE id=?";
 
     private static final String SQL_GET_ALL =
-            "SELECT id, profile_id, name, muscle, equipment, difficulty, type " +
+            "SELECT id, profile_id, name, muscle_id, equipment, difficulty_id, type_id " +
                     "FROM exercise ORDER BY name";
 
-    private static final String SQL_FIND_BY_MUSCLE =
-            "SELECT id, profile_id, name, muscle, equipment, difficulty, type " +
-                    "FROM exercise WHERE muscle=? ORDER BY name";
+    // Best matches first (bm25). The tokens carry the profile (see V5__search.sql),
+    // so only this profile's rows are read.
+    private static final String SQL_SEARCH = """
+        SELECT e.id, e.profile_id, e.name, e.muscle_id, e.equipment, e.difficulty_id, e.type_id
+          FROM exercise_fts
+          JOIN exercise e ON e.id = exercise_fts.rowid
+         WHERE exercise_fts MATCH ?
+         ORDER BY exercise_fts.rank
+         LIMIT ?
+        """;
+
+    // Sort keys the paged table may ask for (TableColumn id -> SQL column).
+    // Coded columns sort by their name, not by code order. ExerciseQuery uses the same keys.
+    static final Map<String, String> SORTABLE = Map.of(
+            "id", "id", "name", "name",
+            "muscle", "(SELECT name FROM muscle WHERE id = muscle_id)",
+            "equipment", "equipment",
+            "difficulty", "(SELECT name FROM difficulty WHERE id = difficulty_id)",
+            "type", "(SELECT name FROM exercise_type WHERE id = type_id)");
 
     // CREATE
     public int insert(Exercise e) {
-        try (Connection c = DriverManager.getConnection(URL)) {
-            enableFK(c);
-            try (PreparedStatement ps = c.prepareStatement(SQL_INSERT, Statement.RETURN_GENERATED_KEYS)) {
-                ps.setInt(1, e.getProfileId());
-                ps.setString(2, e.getName());
-                ps.setString(3, e.getMuscle());
-                ps.setString(4, e.getEquipment());
-                ps.setString(5, e.getDifficulty());
-                ps.setString(6, e.getType());
-                int rows = ps.executeUpdate();
-                if (rows != 1) return 0;
-
-                try (ResultSet keys = ps.getGeneratedKeys()) {
-                    if (keys.next()) {
-                        int id = keys.getInt(1);
-                        e.setId(id);
-                        return id;
-                    }
-                }
-                // Fallback if needed:
-                try (Statement s = c.createStatement();
-                     ResultSet rs = s.executeQuery("SELECT last_insert_rowid()")) {
-                    if (rs.next()) {
-                        int id = rs.getInt(1);
-                        e.setId(id);
-                        return id;
-                    }
-                }
-                return 0;
+        try (Connection c = Db.getConnection()) {
+            int id = insert(c, e);
+            if (id > 0) {
+                CACHE.onInsert(e);
+                NAMES.onInsert(e);
             }
+            return id;
         } catch (SQLException ex) {
             System.out.println("❌ insert exercise failed: " + ex.getMessage());
             ex.printStackTrace();
@@ -61,11 +58,55 @@ public class ExerciseDao {
         }
     }
 
-    // READ by id
+    // CREATE (grouped): queued on the shared WriteQueue, completes with the new id after commit
+    public java.util.concurrent.CompletableFuture<Integer> enqueueInsert(Exercise e) {
+        return WriteQueue.shared().submit(c -> insert(c, e)).thenApply(id -> {
+            if (id > 0) { // only after the commit
+                CACHE.onInsert(e);
+                NAMES.onInsert(e);
+            }
+            return id;
+        });
+    }
+
+    // Insert on a caller-supplied connection (used by WriteQueue inside its transaction).
+    static int insert(Connection c, Exercise e) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement(SQL_INSERT, Statement.RETURN_GENERATED_KEYS)) {
+            ps.setInt(1, e.getProfileId());
+            ps.setString(2, e.getName());
+            Lookup.MUSCLE.bind(ps, 3, e.getMuscle());
+            ps.setString(4, e.getEquipment());
+            Lookup.DIFFICULTY.bind(ps, 5, e.getDifficulty());
+            Lookup.EXERCISE_TYPE.bind(ps, 6, e.getType());
+            int rows = ps.executeUpdate();
+            if (rows != 1) return 0;
+
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                if (keys.next()) {
+                    int id = keys.getInt(1);
+                    e.setId(id);
+                    return id;
+                }
+            }
+            // Fallback if needed:
+            try (Statement s = c.createStatement();
+                 ResultSet rs = s.executeQuery("SELECT last_insert_rowid()")) {
+                if (rs.next()) {
+                    int id = rs.getInt(1);
+                    e.setId(id);
+                    return id;
+                }
+            }
+            return 0;
+        }
+    }
+
+    // READ by id (cache first; falls back to SQLite if the profile's catalog isn't cached)
     public Optional<Exercise> findById(int id) {
-        try (Connection c = DriverManager.getConnection(URL);
+        Exercise cached = CACHE.findById(id);
+        if (cached != null) return Optional.of(cached);
+        try (Connection c = Db.getConnection();
              PreparedStatement ps = c.prepareStatement(SQL_FIND_BY_ID)) {
-            enableFK(c);
             ps.setInt(1, id);
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) return Optional.of(mapRow(rs));
@@ -77,40 +118,67 @@ public class ExerciseDao {
         }
     }
 
+    // READ by profile (served from ExerciseCache; SQLite only on the first read per profile)
     public List<Exercise> findByProfile(int profileId) {
-        String sql = "SELECT id, profile_id, name, muscle, equipment, difficulty, type FROM exercise WHERE profile_id=? ORDER BY name";
-        List<Exercise> out = new java.util.ArrayList<>();
-        try (var c = java.sql.DriverManager.getConnection("jdbc:sqlite:fitness.db");
+        try {
+            return CACHE.getByProfile(profileId, ExerciseDao::loadByProfile);
+        } catch (SQLException ex) {
+            System.out.println("❌ findByProfile failed: " + ex.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    // Hit/miss/eviction counters for the exercise catalog cache
+    public static ExerciseCache.Stats cacheStats() {
+        return CACHE.stats();
+    }
+
+    // AUTOCOMPLETE: names starting with 'typed', this profile's first (memory only; see ExerciseNameIndex)
+    public List<ExerciseNameIndex.Suggestion> suggestNames(int profileId, String typed, int k) {
+        return NAMES.suggest(profileId, typed, k);
+    }
+
+    // Load the autocomplete index once (slow-ish: every exercise name; call off the FX thread)
+    public boolean buildNameIndex() {
+        if (NAMES.isReady()) return true;
+        try {
+            NAMES.build(ExerciseDao::loadNames);
+            return true;
+        } catch (SQLException ex) {
+            System.out.println("❌ buildNameIndex failed: " + ex.getMessage());
+            return false;
+        }
+    }
+
+    private static List<ExerciseNameIndex.Name> loadNames() throws SQLException {
+        List<ExerciseNameIndex.Name> out = new ArrayList<>();
+        try (var c = Db.getConnection();
+             var st = c.createStatement();
+             var rs = st.executeQuery("SELECT id, profile_id, name FROM exercise")) {
+            while (rs.next()) out.add(new ExerciseNameIndex.Name(rs.getInt(1), rs.getInt(2), rs.getString(3)));
+        }
+        return out;
+    }
+
+    private static List<Exercise> loadByProfile(int profileId) throws SQLException {
+        String sql = "SELECT id, profile_id, name, muscle_id, equipment, difficulty_id, type_id FROM exercise WHERE profile_id=? ORDER BY name";
+        List<Exercise> out = new ArrayList<>();
+        try (var c = Db.getConnection();
              var ps = c.prepareStatement(sql)) {
             ps.setInt(1, profileId);
             try (var rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    Exercise e = new Exercise(
-                            rs.getInt("profile_id"),
-                            rs.getString("name"),
-                            rs.getString("muscle"),
-                            rs.getString("equipment"),
-                            rs.getString("difficulty"),
-                            rs.getString("type")
-                    );
-                    e.setId(rs.getInt("id"));
-                    out.add(e);
-                }
+                while (rs.next()) out.add(mapRow(rs));
             }
-        } catch (Exception ex) {
-            System.out.println("❌ findByProfile failed: " + ex.getMessage());
         }
         return out;
     }
 
-
     // READ all
     public List<Exercise> getAll() {
         List<Exercise> out = new ArrayList<>();
-        try (Connection c = DriverManager.getConnection(URL);
+        try (Connection c = Db.getConnection();
              Statement st = c.createStatement();
              ResultSet rs = st.executeQuery(SQL_GET_ALL)) {
-            enableFK(c);
             while (rs.next()) out.add(mapRow(rs));
         } catch (SQLException ex) {
             System.out.println("❌ getAll failed: " + ex.getMessage());
@@ -122,20 +190,25 @@ public class ExerciseDao {
     public boolean update(Exercise e) {
         String sql = """
             UPDATE exercise
-               SET profile_id=?, name=?, muscle=?, equipment=?, difficulty=?, type=?
+               SET profile_id=?, name=?, muscle_id=?, equipment=?, difficulty_id=?, type_id=?
              WHERE id=?
             """;
-        try (Connection c = DriverManager.getConnection(URL);
+        try (Connection c = Db.getConnection();
              PreparedStatement ps = c.prepareStatement(sql)) {
-            enableFK(c);
             ps.setInt(1, e.getProfileId());
             ps.setString(2, e.getName());
-            ps.setString(3, e.getMuscle());
+            Lookup.MUSCLE.bind(ps, 3, e.getMuscle());
             ps.setString(4, e.getEquipment());
-            ps.setString(5, e.getDifficulty());
-            ps.setString(6, e.getType());
+            Lookup.DIFFICULTY.bind(ps, 5, e.getDifficulty());
+            Lookup.EXERCISE_TYPE.bind(ps, 6, e.getType());
             ps.setInt(7, e.getId());
-            return ps.executeUpdate() == 1;
+            boolean ok = ps.executeUpdate() == 1;
+            if (ok) {
+                CACHE.onUpdate(e);
+                NAMES.onUpdate(e);
+                WorkoutPlanCache.shared().invalidateExercise(e.getId()); // plans show its name/muscle
+            }
+            return ok;
         } catch (SQLException ex) {
             System.out.println("❌ update exercise failed: " + ex.getMessage());
             return false;
@@ -144,46 +217,119 @@ public class ExerciseDao {
 
     // DELETE
     public boolean delete(int id) {
-        try (Connection c = DriverManager.getConnection(URL);
+        try (Connection c = Db.getConnection();
              PreparedStatement ps = c.prepareStatement("DELETE FROM exercise WHERE id=?")) {
-            enableFK(c);
             ps.setInt(1, id);
-            return ps.executeUpdate() == 1;
+            boolean ok = ps.executeUpdate() == 1;
+            if (ok) {
+                CACHE.onDelete(id);
+                NAMES.onDelete(id);
+                WorkoutPlanCache.shared().invalidateExercise(id);
+            }
+            return ok;
         } catch (SQLException ex) {
             System.out.println("❌ delete exercise failed: " + ex.getMessage());
             return false;
         }
     }
 
+    // PAGED: row count and one OFFSET/LIMIT slice for PagedTableModel.
+    // A catalog is small, so the default (by name) order is sliced straight from the cache;
+    // any other column sort goes to SQL as ORDER BY.
+    public int countByProfile(int profileId) {
+        return findByProfile(profileId).size();
+    }
+
+    public List<Exercise> rangeByProfile(int profileId, int offset, int limit, List<PageSource.Sort> sort) {
+        if (sort.isEmpty()) {
+            List<Exercise> all = findByProfile(profileId);
+            int from = Math.min(offset, all.size());
+            return new ArrayList<>(all.subList(from, Math.min(all.size(), from + limit)));
+        }
+        return find(ExerciseQuery.forProfile(profileId).sort(sort).limit(limit).offset(offset));
+    }
+
+    public PageSource<Exercise> pageSourceByProfile(int profileId) {
+        return PageSource.of(() -> countByProfile(profileId),
+                (offset, limit, sort) -> rangeByProfile(profileId, offset, limit, sort));
+    }
+
+    // Live filter (ExercisesView): names starting with 'prefix', counted up front under the
+    // scheduler's ticket so a newer keystroke can stop it; pages come through ExerciseQuery.
+    public PageSource<Exercise> pageSourceByProfile(int profileId, String prefix, QueryScheduler.Ticket ticket) {
+        if (prefix == null || prefix.isBlank()) return pageSourceByProfile(profileId);
+        int n = count(ExerciseQuery.forProfile(profileId).namePrefix(prefix), ticket);
+        return PageSource.of(() -> n, (offset, limit, sort) -> find(ExerciseQuery.forProfile(profileId)
+                .namePrefix(prefix).sort(sort).limit(limit).offset(offset)));
+    }
+
     // Filters
     public List<Exercise> findByMuscle(String muscle) {
+        return find(ExerciseQuery.all().muscle(muscle));
+    }
+
+    // SEARCH: the profile's exercises whose name has every typed word (as a prefix), best first.
+    // "incline db" finds "Incline DB Press" and "Incline Dumbbell Fly" (see FullText).
+    public List<Exercise> search(int profileId, String typed, int limit) {
         List<Exercise> out = new ArrayList<>();
-        try (Connection c = DriverManager.getConnection(URL);
-             PreparedStatement ps = c.prepareStatement(SQL_FIND_BY_MUSCLE)) {
-            enableFK(c);
-            ps.setString(1, muscle);
+        String match = FullText.match(profileId, typed, true);
+        if (match == null || limit <= 0) return out;
+        try (Connection c = Db.getConnection();
+             PreparedStatement ps = c.prepareStatement(SQL_SEARCH)) {
+            ps.setString(1, match);
+            ps.setInt(2, limit);
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) out.add(mapRow(rs));
             }
         } catch (SQLException ex) {
-            System.out.println("❌ findBy(muscle) failed: " + ex.getMessage());
+            System.out.println("❌ search exercises failed: " + ex.getMessage());
         }
         return out;
     }
 
-    static void enableFK(Connection c) {
-        try (Statement s = c.createStatement()) { s.execute("PRAGMA foreign_keys = ON"); }
-        catch (SQLException ignored) {}
+    // QUERY: any mix of filters, sort and limit, run in SQL (see ExerciseQuery)
+    public List<Exercise> find(ExerciseQuery q) {
+        List<Exercise> out = new ArrayList<>();
+        try (Connection c = Db.getConnection();
+             PreparedStatement ps = c.prepareStatement(q.sql())) {
+            if (!q.bind(ps, true)) return out; // a muscle/difficulty/type no exercise has
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) out.add(mapRow(rs));
+            }
+        } catch (SQLException ex) {
+            System.out.println("❌ find " + q + " failed: " + ex.getMessage());
+        }
+        return out;
+    }
+
+    public int count(ExerciseQuery q) {
+        return count(q, new QueryScheduler.Ticket());
+    }
+
+    // Same, stoppable by QueryScheduler (a newer keystroke); returns 0 quietly once cancelled.
+    public int count(ExerciseQuery q, QueryScheduler.Ticket ticket) {
+        try (Connection c = Db.getConnection();
+             PreparedStatement ps = c.prepareStatement(q.countSql())) {
+            if (!q.bind(ps, false)) return 0;
+            return ticket.run(ps, () -> {
+                try (ResultSet rs = ps.executeQuery()) {
+                    return rs.next() ? rs.getInt(1) : 0;
+                }
+            });
+        } catch (SQLException ex) {
+            if (!ticket.isCancelled()) System.out.println("❌ count " + q + " failed: " + ex.getMessage());
+            return 0;
+        }
     }
 
     private static Exercise mapRow(ResultSet rs) throws SQLException {
         Exercise e = new Exercise(
                 rs.getInt("profile_id"),
                 rs.getString("name"),
-                rs.getString("muscle"),
+                Lookup.MUSCLE.name(rs, "muscle_id"),      // shared instances, not a String per row
                 rs.getString("equipment"),
-                rs.getString("difficulty"),
-                rs.getString("type")
+                Lookup.DIFFICULTY.name(rs, "difficulty_id"),
+                Lookup.EXERCISE_TYPE.name(rs, "type_id")
         );
         e.setId(rs.getInt("id"));
         return e;
@@ -4,6 +4,7 @@ import java.util.Optional;
 public class ExerciseDaoTest {
     public static void main(String[] args) {
         try { Class.forName("org.sqlite.JDBC"); } catch (Exception ignored) {}
+        if (!Migrator.ensureCurrent()) return; // fitness.db may be an older schema
 
         ProfileDao pdao = new ProfileDao();
         int brandonId = pdao.getOrCreateByName("Brandon", "Intermediate", "Hypertrophy", 5);
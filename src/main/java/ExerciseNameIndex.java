@@ -0,0 +1,287 @@
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * ExerciseNameIndex
+ *
+ * Purpose:
+ * Type-ahead for exercise names (tfName in ExercisesView). Every keystroke asks for the names
+ * that start with what's typed, from the profile's own catalog first and then from every
+ * other profile's. That has to answer on the FX thread in well under a millisecond, so it
+ * never goes to SQLite: the names are held in memory, sorted, and searched by binary search.
+ *
+ * How it works:
+ * - Sorted arrays of (folded name, name): one over the distinct names of every profile
+ *   (with a count of how many exercises use each name), and one per profile. A prefix is a
+ *   contiguous run in a sorted array, so suggest() is a binary search plus a walk of at most k
+ *   entries in each. Case-insensitive: "ben" finds "Bench Press".
+ * - Each name and its folded form are stored once. The per-profile arrays point at the
+ *   same Strings as the shared one.
+ * - build() loads every (id, profile, name) once via ExerciseDao, on a background thread.
+ *   Until then suggest() returns nothing rather than blocking.
+ * - ExerciseDao patches the index after insert/update/delete, and ProfileDao after a profile
+ *   delete, like ExerciseCache. Each patch is a binary search plus an array shift.
+ *
+ * Threading notes:
+ * - All state is guarded by 'this'. The load and the sort in build() run outside the lock,
+ *   and the result is swapped in only if no write happened meanwhile (otherwise it
+ *   reloads), so a write made during the build is never lost.
+ * - Patches take microseconds even at 100k names, so suggest() on the FX thread never
+ *   waits long for the lock.
+ */
+public class ExerciseNameIndex {
+
+    public static final int DEFAULT_SUGGESTIONS = 10;
+
+    private static final ExerciseNameIndex SHARED = new ExerciseNameIndex();
+
+    /** One exercise as the index sees it. */
+    public record Name(int id, int profileId, String name) {}
+
+    /** A suggested name; own = it's in the asking profile's catalog (shown first). */
+    public record Suggestion(String name, boolean own) {}
+
+    /** Loads every exercise's id, profile and name. */
+    @FunctionalInterface
+    public interface Loader {
+        List<Name> load() throws SQLException;
+    }
+
+    public static ExerciseNameIndex shared() {
+        return SHARED;
+    }
+
+    private Sorted all = new Sorted();
+    private Map<Integer, Sorted> byProfile = new HashMap<>();
+    private Map<Integer, Name> byId = new HashMap<>();
+    private boolean ready = false;
+    private long writes = 0; // bumped by every patch; a build that raced with one is redone
+
+    /** Load every name (call off the FX thread). Safe to call again; it rebuilds. */
+    public void build(Loader loader) throws SQLException {
+        while (true) {
+            long writesBefore;
+            synchronized (this) { writesBefore = writes; }
+
+            List<Name> names = new ArrayList<>(loader.load());
+            String[] folded = new String[names.size()];
+            Integer[] order = new Integer[names.size()];
+            for (int i = 0; i < folded.length; i++) {
+                folded[i] = fold(names.get(i).name());
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.<Integer, String>comparing(i -> folded[i])
+                    .thenComparing(i -> names.get(i).name()));
+
+            // Appended in sorted order, so every array is sorted without a shift.
+            Sorted newAll = new Sorted();
+            Map<Integer, Sorted> newByProfile = new HashMap<>();
+            Map<Integer, Name> newById = new HashMap<>(names.size() * 4 / 3 + 1);
+            for (int i : order) {
+                Name n = names.get(i);
+                int last = newAll.size - 1;
+                if (last >= 0 && newAll.keys[last].equals(folded[i]) && newAll.names[last].equals(n.name())) {
+                    newAll.refs[last]++;
+                } else {
+                    newAll.append(folded[i], n.name());
+                    last++;
+                }
+                newByProfile.computeIfAbsent(n.profileId(), p -> new Sorted())
+                        .append(newAll.keys[last], newAll.names[last]);
+                newById.put(n.id(), new Name(n.id(), n.profileId(), newAll.names[last]));
+            }
+
+            synchronized (this) {
+                if (writes != writesBefore) continue; // an edit landed mid-load; load again
+                all = newAll;
+                byProfile = newByProfile;
+                byId = newById;
+                ready = true;
+                return;
+            }
+        }
+    }
+
+    public synchronized boolean isReady() {
+        return ready;
+    }
+
+    /** Exercises indexed (0 until built). */
+    public synchronized int size() {
+        return byId.size();
+    }
+
+    /**
+     * Up to k names starting with 'typed' (case-insensitive): the profile's own first, then
+     * other profiles' names it doesn't have, each group in name order.
+     */
+    public synchronized List<Suggestion> suggest(int profileId, String typed, int k) {
+        List<Suggestion> out = new ArrayList<>(Math.max(0, Math.min(k, 16)));
+        if (!ready || typed == null || typed.isBlank() || k <= 0) return out;
+        String prefix = fold(typed.strip());
+
+        Sorted mine = byProfile.get(profileId);
+        if (mine != null) {
+            for (int i = mine.lowerBound(prefix, ""); i < mine.size && out.size() < k
+                    && mine.keys[i].startsWith(prefix); i++) {
+                out.add(new Suggestion(mine.names[i], true));
+            }
+        }
+        for (int i = all.lowerBound(prefix, ""); i < all.size && out.size() < k
+                && all.keys[i].startsWith(prefix); i++) {
+            if (mine == null || mine.indexOf(all.keys[i], all.names[i]) < 0) {
+                out.add(new Suggestion(all.names[i], false));
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Add a freshly inserted exercise. A build() that ran between the insert's commit and this
+     * call already has it; that entry is replaced, so its name isn't counted twice.
+     */
+    public synchronized void onInsert(Exercise e) {
+        writes++;
+        if (!ready) return;
+        if (byId.containsKey(e.getId())) onDelete(e.getId());
+        add(e.getId(), e.getProfileId(), e.getName());
+    }
+
+    /** An exercise was renamed or moved to another profile. */
+    public synchronized void onUpdate(Exercise e) {
+        Name old = byId.get(e.getId());
+        if (old != null && old.profileId() == e.getProfileId() && old.name().equals(e.getName())) {
+            writes++;
+            return; // nothing the index holds changed
+        }
+        onDelete(e.getId());
+        onInsert(e);
+    }
+
+    /** Remove a deleted exercise. */
+    public synchronized void onDelete(int id) {
+        writes++;
+        Name old = byId.remove(id);
+        if (old == null) return;
+        String key = fold(old.name());
+        all.remove(key, old.name());
+        Sorted mine = byProfile.get(old.profileId());
+        if (mine != null) {
+            mine.remove(key, old.name());
+            if (mine.size == 0) byProfile.remove(old.profileId());
+        }
+    }
+
+    /** Drop a deleted profile's names (its exercises cascaded away in SQL). */
+    public synchronized void invalidateProfile(int profileId) {
+        writes++;
+        Sorted mine = byProfile.remove(profileId);
+        if (mine == null) return;
+        for (int i = 0; i < mine.size; i++) all.remove(mine.keys[i], mine.names[i]);
+        byId.values().removeIf(n -> n.profileId() == profileId);
+    }
+
+    /** Forget everything (after bulk SQL that bypassed the DAO); suggest() is empty until the next build(). */
+    public synchronized void clear() {
+        writes++;
+        ready = false;
+        all = new Sorted();
+        byProfile = new HashMap<>();
+        byId = new HashMap<>();
+    }
+
+    // ===== Internals below =====
+
+    private void add(int id, int profileId, String name) {
+        String key = fold(name);
+        int at = all.add(key, name);
+        key = all.keys[at];  // keep one instance of each String
+        name = all.names[at];
+        byProfile.computeIfAbsent(profileId, p -> new Sorted()).add(key, name);
+        byId.put(id, new Name(id, profileId, name));
+    }
+
+    private static String fold(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Parallel arrays sorted by (folded name, name), growable like an ArrayList.
+     * refs counts the exercises with that exact name; an entry goes when it reaches 0.
+     */
+    private static final class Sorted {
+        String[] keys = new String[8];
+        String[] names = new String[8];
+        int[] refs = new int[8];
+        int size;
+
+        /** First index whose (key, name) is >= (key, name). */
+        int lowerBound(String key, String name) {
+            int lo = 0, hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                int cmp = keys[mid].compareTo(key);
+                if (cmp == 0) cmp = names[mid].compareTo(name);
+                if (cmp < 0) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+
+        int indexOf(String key, String name) {
+            int i = lowerBound(key, name);
+            return i < size && keys[i].equals(key) && names[i].equals(name) ? i : -1;
+        }
+
+        void append(String key, String name) {
+            insertAt(size, key, name);
+        }
+
+        /** Add one reference; returns the entry's index. */
+        int add(String key, String name) {
+            int i = lowerBound(key, name);
+            if (i < size && keys[i].equals(key) && names[i].equals(name)) {
+                refs[i]++;
+            } else {
+                insertAt(i, key, name);
+            }
+            return i;
+        }
+
+        /** Drop one reference. */
+        void remove(String key, String name) {
+            int i = indexOf(key, name);
+            if (i < 0 || --refs[i] > 0) return;
+            int tail = size - i - 1;
+            System.arraycopy(keys, i + 1, keys, i, tail);
+            System.arraycopy(names, i + 1, names, i, tail);
+            System.arraycopy(refs, i + 1, refs, i, tail);
+            size--;
+            keys[size] = null;
+            names[size] = null;
+        }
+
+        private void insertAt(int i, String key, String name) {
+            if (size == keys.length) {
+                int cap = size * 2;
+                keys = Arrays.copyOf(keys, cap);
+                names = Arrays.copyOf(names, cap);
+                refs = Arrays.copyOf(refs, cap);
+            }
+            int tail = size - i;
+            System.arraycopy(keys, i, keys, i + 1, tail);
+            System.arraycopy(names, i, names, i + 1, tail);
+            System.arraycopy(refs, i, refs, i + 1, tail);
+            keys[i] = key;
+            names[i] = name;
+            refs[i] = 1;
+            size++;
+        }
+    }
+}
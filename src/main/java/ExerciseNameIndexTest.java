@@ -0,0 +1,194 @@
+import java.sql.Connection;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+
+/**
+ * ExerciseNameIndexTest
+ *
+ * 1) Small catalog: own names first, then other profiles', case-insensitive, k respected;
+ *    inserts, renames, moves, deletes and a profile delete through the DAOs show up at once.
+ * 2) Random edits through ExerciseDao: after each batch, every answer equals a brute-force
+ *    filter over the table, and equals a freshly built index.
+ * 3) 100,000 names (500 profiles x 200): build time, then suggest() latency for 1-4 letter
+ *    prefixes (must stay under 1 ms at p99), and the cost of one insert/delete patch.
+ * Temp-file databases; never touches fitness.db.
+ */
+public class ExerciseNameIndexTest {
+
+    private static final String[] WORDS = {"Bench", "Incline", "Barbell", "Dumbbell", "Cable", "Press", "Row",
+            "Curl", "Squat", "Deadlift", "Fly", "Raise", "Lunge", "Bent", "Band", "Back"};
+
+    public static void main(String[] args) throws Exception {
+        Class.forName("org.sqlite.JDBC");
+        ExerciseNameIndex names = ExerciseNameIndex.shared();
+
+        // 1) Small catalog
+        TestSupport.scratchDb("fitness-names");
+        ProfileDao pdao = new ProfileDao();
+        ExerciseDao edao = new ExerciseDao();
+        int me = pdao.insert(new Profile("Me", "Intermediate", "Strength", 4));
+        int other = pdao.insert(new Profile("Other", "Beginner", "Strength", 3));
+        edao.insert(new Exercise(me, "Bench Press", "Chest", "Barbell", "Hard", "REPS"));
+        int bent = edao.insert(new Exercise(me, "Bent Over Row", "Back", "Barbell", "Moderate", "REPS"));
+        edao.insert(new Exercise(other, "Bench Dip", "Triceps", "Bodyweight", "Easy", "REPS"));
+        edao.insert(new Exercise(other, "Bench Press", "Chest", "Barbell", "Hard", "REPS"));
+        edao.insert(new Exercise(other, "Band Pull-Apart", "Back", "Band", "Easy", "REPS"));
+
+        TestSupport.check("nothing before build()", edao.suggestNames(me, "be", 10).isEmpty());
+        TestSupport.check("build", edao.buildNameIndex() && names.size() == 5);
+        TestSupport.check("own first, then others', no duplicates",
+                texts(edao.suggestNames(me, "be", 10)).equals(List.of("Bench Press*", "Bent Over Row*", "Bench Dip")));
+        TestSupport.check("case-insensitive", texts(edao.suggestNames(me, "BENCH", 10)).equals(List.of("Bench Press*", "Bench Dip")));
+        TestSupport.check("k", edao.suggestNames(me, "b", 2).size() == 2);
+        TestSupport.check("no match / blank", edao.suggestNames(me, "zzz", 10).isEmpty() && edao.suggestNames(me, "  ", 10).isEmpty());
+
+        int hack = edao.insert(new Exercise(me, "Hack Squat", "Legs", "Machine", "Hard", "REPS"));
+        TestSupport.check("insert shows up", texts(edao.suggestNames(me, "ha", 10)).equals(List.of("Hack Squat*")));
+        Exercise e = edao.findById(bent).orElseThrow();
+        e.setName("Barbell Row");
+        edao.update(e);
+        TestSupport.check("rename: new name in, old out",
+                texts(edao.suggestNames(me, "bar", 10)).equals(List.of("Barbell Row*"))
+                        && edao.suggestNames(me, "bent", 10).isEmpty());
+        e.setProfileId(other);
+        edao.update(e);
+        TestSupport.check("move to another profile", texts(edao.suggestNames(me, "bar", 10)).equals(List.of("Barbell Row"))
+                && texts(edao.suggestNames(other, "bar", 10)).equals(List.of("Barbell Row*")));
+        edao.delete(hack);
+        TestSupport.check("delete", edao.suggestNames(me, "ha", 10).isEmpty());
+        pdao.delete(other);
+        TestSupport.check("profile delete drops its names",
+                texts(edao.suggestNames(me, "b", 10)).equals(List.of("Bench Press*")) && names.size() == 1);
+
+        // A build that runs between an insert's commit and its onInsert already has the row
+        ExerciseNameIndex raced = new ExerciseNameIndex();
+        Exercise faced = new Exercise(me, 900, "Face Pull", "Shoulders", "Cable", "Easy", "REPS");
+        raced.build(() -> List.of(new ExerciseNameIndex.Name(900, me, "Face Pull")));
+        raced.onInsert(faced);
+        raced.onDelete(900);
+        TestSupport.check("insert racing a build, then delete: name gone", raced.suggest(me, "face", 10).isEmpty());
+
+        // 2) Random edits vs brute force and vs a fresh build
+        SplittableRandom rnd = new SplittableRandom(5);
+        int[] profiles = new int[6];
+        for (int p = 0; p < profiles.length; p++) profiles[p] = pdao.insert(new Profile("P" + p, "Beginner", "Strength", 3));
+        List<Integer> ids = new ArrayList<>();
+        int mismatches = 0, asked = 0;
+        for (int batch = 0; batch < 20; batch++) {
+            for (int op = 0; op < 30; op++) {
+                int r = rnd.nextInt(10);
+                if (r < 5 || ids.isEmpty()) {
+                    int pid = profiles[rnd.nextInt(profiles.length)];
+                    String name = randomName(rnd);
+                    if (!taken(edao, pid, name)) ids.add(edao.insert(new Exercise(pid, name, "Chest", "Barbell", "Easy", "REPS")));
+                } else if (r < 8) {
+                    Exercise x = edao.findById(ids.get(rnd.nextInt(ids.size()))).orElseThrow();
+                    if (rnd.nextBoolean()) x.setName(randomName(rnd));
+                    else x.setProfileId(profiles[rnd.nextInt(profiles.length)]);
+                    if (!taken(edao, x.getProfileId(), x.getName())) edao.update(x);
+                } else {
+                    edao.delete(ids.remove(rnd.nextInt(ids.size())));
+                }
+            }
+            List<Exercise> table = edao.getAll();
+            ExerciseNameIndex fresh = new ExerciseNameIndex();
+            fresh.build(() -> table.stream().map(x -> new ExerciseNameIndex.Name(x.getId(), x.getProfileId(), x.getName())).toList());
+            for (int q = 0; q < 20; q++) {
+                int pid = profiles[rnd.nextInt(profiles.length)];
+                String word = WORDS[rnd.nextInt(WORDS.length)];
+                String typed = word.substring(0, 1 + rnd.nextInt(word.length()));
+                if (rnd.nextBoolean()) typed = typed.toLowerCase(Locale.ROOT);
+                int k = 1 + rnd.nextInt(12);
+                List<String> got = texts(names.suggest(pid, typed, k));
+                asked++;
+                if (!got.equals(expected(table, pid, typed, k)) || !got.equals(texts(fresh.suggest(pid, typed, k)))) {
+                    mismatches++;
+                    System.out.println("   mismatch: profile " + pid + " '" + typed + "' k=" + k + " -> " + got);
+                }
+            }
+        }
+        TestSupport.check(asked + " answers after random edits match brute force and a fresh build", mismatches == 0);
+        Db.shutdown();
+        names.clear();
+
+        // 3) 100k names
+        TestSupport.scratchDb("fitness-names-big");
+        try (Connection c = Db.getConnection()) {
+            DatasetGenerator.generate(c, new DatasetGenerator.Config(500, 200, 8, 1, LocalDate.of(2025, 12, 31), 11L));
+        }
+        long t0 = System.nanoTime();
+        edao.buildNameIndex();
+        System.out.printf("build: %,d names in %.0f ms%n", names.size(), (System.nanoTime() - t0) / 1e6);
+
+        String[] prefixes = new String[2_000];
+        for (int i = 0; i < prefixes.length; i++) {
+            String word = WORDS[rnd.nextInt(WORDS.length)].toLowerCase(Locale.ROOT);
+            prefixes[i] = word.substring(0, 1 + rnd.nextInt(Math.min(4, word.length())));
+        }
+        long[] nanos = new long[20_000];
+        int found = 0;
+        for (int round = 0; round < 2; round++) { // round 0 warms up the JIT
+            for (int i = 0; i < nanos.length; i++) {
+                int pid = 1 + rnd.nextInt(500);
+                long s = System.nanoTime();
+                found += names.suggest(pid, prefixes[i % prefixes.length], ExerciseNameIndex.DEFAULT_SUGGESTIONS).size();
+                nanos[i] = System.nanoTime() - s;
+            }
+        }
+        Arrays.sort(nanos);
+        System.out.printf("suggest, top %d: p50 %.1f us, p99 %.1f us, max %.1f us (%,d suggestions)%n",
+                ExerciseNameIndex.DEFAULT_SUGGESTIONS, nanos[nanos.length / 2] / 1e3,
+                nanos[nanos.length * 99 / 100] / 1e3, nanos[nanos.length - 1] / 1e3, found / 2);
+        TestSupport.check("p99 under 1 ms at 100k names", nanos[nanos.length * 99 / 100] < 1_000_000);
+
+        t0 = System.nanoTime();
+        int patches = 2_000;
+        for (int i = 0; i < patches; i++) {
+            Exercise x = new Exercise(1 + i % 500, 10_000_000 + i, "Aaa Patch " + i, "Chest", "Barbell", "Easy", "REPS");
+            names.onInsert(x);
+            names.onDelete(x.getId());
+        }
+        System.out.printf("insert + delete patch: %.1f us%n", (System.nanoTime() - t0) / 1e3 / patches);
+        Db.shutdown();
+        names.clear();
+        TestSupport.exitIfFailed();
+    }
+
+    /** UNIQUE(profile_id, name) would reject it. */
+    private static boolean taken(ExerciseDao edao, int profileId, String name) {
+        return edao.findByProfile(profileId).stream().anyMatch(x -> x.getName().equals(name));
+    }
+
+    private static String randomName(SplittableRandom rnd) {
+        String n = WORDS[rnd.nextInt(WORDS.length)] + " " + WORDS[rnd.nextInt(WORDS.length)];
+        return rnd.nextInt(4) == 0 ? n.toUpperCase(Locale.ROOT) : n;
+    }
+
+    /** suggest()'s contract, straight over the rows: own names, then others' missing from own. */
+    private static List<String> expected(List<Exercise> table, int pid, String typed, int k) {
+        String prefix = typed.strip().toLowerCase(Locale.ROOT);
+        Comparator<String> order = Comparator.<String, String>comparing(n -> n.toLowerCase(Locale.ROOT))
+                .thenComparing(Comparator.naturalOrder());
+        TreeSet<String> own = new TreeSet<>(order), others = new TreeSet<>(order);
+        for (Exercise e : table) {
+            if (!e.getName().toLowerCase(Locale.ROOT).startsWith(prefix)) continue;
+            (e.getProfileId() == pid ? own : others).add(e.getName());
+        }
+        others.removeAll(own);
+        List<String> out = new ArrayList<>();
+        for (String n : own) out.add(n + "*");
+        out.addAll(others);
+        return out.subList(0, Math.min(k, out.size()));
+    }
+
+    /** Names, with '*' marking the profile's own. */
+    private static List<String> texts(List<ExerciseNameIndex.Suggestion> found) {
+        return found.stream().map(s -> s.own() ? s.name() + "*" : s.name()).toList();
+    }
+}
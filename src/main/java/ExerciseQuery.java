@@ -0,0 +1,171 @@
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ExerciseQuery
+ *
+ * Purpose:
+ * One way to ask ExerciseDao for exercises by any mix of profile, muscle, difficulty, type,
+ * equipment and name prefix, sorted and limited, without loading a whole catalog and
+ * filtering it in Java. Everything is done in SQL, and the indexes from V4 serve it.
+ *
+ *   exerciseDao.find(ExerciseQuery.forProfile(id).muscle("Chest").difficulty("Hard")
+ *                                 .namePrefix("ben").sortBy("name", true).limit(50));
+ *
+ * How it works:
+ * - The builder only records values. The SQL depends on which predicates are set, the sort
+ *   and whether it's paged, not on the values. Each shape is built once and cached, and the
+ *   values are always bound as parameters.
+ * - muscle/difficulty/type are compared as Lookup codes. A value no row has (find() == -1)
+ *   short-circuits: bind() returns false and the DAO returns nothing without running SQL.
+ * - namePrefix is case-insensitive (ASCII, like SQLite's NOCASE). It's a range on
+ *   name COLLATE NOCASE, so idx_exercise_profile_nocase serves it instead of a scan.
+ * - Sort keys are the ones the exercise table columns use (ExerciseDao.SORTABLE). Unknown keys
+ *   are ignored. "name, id" is always the tie-break, so paging is stable.
+ * - Indexes (V4): (profile_id, muscle_id, name), (profile_id, difficulty_id, name),
+ *   (profile_id, name COLLATE NOCASE), (muscle_id, name), and UNIQUE (profile_id, name) from V1.
+ *   ExerciseQueryTest checks the plans with EXPLAIN QUERY PLAN.
+ *
+ * Threading notes:
+ * - A query is a plain mutable builder: build it on one thread, then hand it to the DAO.
+ *   The SQL cache is shared and thread-safe.
+ */
+public final class ExerciseQuery {
+
+    static final String COLUMNS = "id, profile_id, name, muscle_id, equipment, difficulty_id, type_id";
+
+    // shape -> SQL text
+    private static final Map<String, String> SQL_CACHE = new ConcurrentHashMap<>();
+
+    private final Integer profileId;
+    private String muscle, difficulty, type, equipment, namePrefix;
+    private final List<PageSource.Sort> sort = new ArrayList<>();
+    private int limit = -1, offset;
+
+    private ExerciseQuery(Integer profileId) {
+        this.profileId = profileId;
+    }
+
+    /** Exercises of one profile. */
+    public static ExerciseQuery forProfile(int profileId) {
+        return new ExerciseQuery(profileId);
+    }
+
+    /** Exercises of every profile. */
+    public static ExerciseQuery all() {
+        return new ExerciseQuery(null);
+    }
+
+    // Each filter: null (or blank) means "any".
+    public ExerciseQuery muscle(String muscle) { this.muscle = blankToNull(muscle); return this; }
+    public ExerciseQuery difficulty(String difficulty) { this.difficulty = blankToNull(difficulty); return this; }
+    public ExerciseQuery type(String type) { this.type = blankToNull(type); return this; }
+    public ExerciseQuery equipment(String equipment) { this.equipment = blankToNull(equipment); return this; }
+    public ExerciseQuery namePrefix(String prefix) { this.namePrefix = blankToNull(prefix); return this; }
+
+    /** Add an ORDER BY term (a table column id: name, muscle, difficulty, ...). */
+    public ExerciseQuery sortBy(String key, boolean ascending) {
+        if (ExerciseDao.SORTABLE.containsKey(key)) sort.add(new PageSource.Sort(key, ascending));
+        return this;
+    }
+
+    public ExerciseQuery sort(List<PageSource.Sort> terms) {
+        for (PageSource.Sort s : terms) sortBy(s.key(), s.ascending());
+        return this;
+    }
+
+    public ExerciseQuery limit(int limit) { this.limit = Math.max(0, limit); return this; }
+    public ExerciseQuery offset(int offset) { this.offset = Math.max(0, offset); return this; }
+
+    // ===== Used by ExerciseDao =====
+
+    /** The rows, in order, with LIMIT/OFFSET if a limit was set. */
+    String sql() {
+        return SQL_CACHE.computeIfAbsent("rows:" + shape(), k -> "SELECT " + COLUMNS + " FROM exercise" + where()
+                + PageSource.orderBy(sort, ExerciseDao.SORTABLE, "name, id")
+                + (limit >= 0 ? " LIMIT ? OFFSET ?" : ""));
+    }
+
+    /** How many rows match (sort and limit ignored). */
+    String countSql() {
+        return SQL_CACHE.computeIfAbsent("count:" + filterShape(), k -> "SELECT COUNT(*) FROM exercise" + where());
+    }
+
+    /**
+     * Bind the values in the order sql()/countSql() expect. Returns false if a looked-up value
+     * is unknown, i.e. nothing can match. Pass paged = false for countSql().
+     */
+    boolean bind(PreparedStatement ps, boolean paged) throws SQLException {
+        int i = 1;
+        if (profileId != null) ps.setInt(i++, profileId);
+        if (muscle != null && !bindCode(ps, i++, Lookup.MUSCLE, muscle)) return false;
+        if (difficulty != null && !bindCode(ps, i++, Lookup.DIFFICULTY, difficulty)) return false;
+        if (type != null && !bindCode(ps, i++, Lookup.EXERCISE_TYPE, type)) return false;
+        if (equipment != null) ps.setString(i++, equipment);
+        if (namePrefix != null) {
+            // [prefix, prefix with its last char bumped): everything that starts with it under NOCASE
+            char[] from = namePrefix.toCharArray();
+            for (int k = 0; k < from.length; k++) {
+                if (from[k] >= 'A' && from[k] <= 'Z') from[k] += 'a' - 'A'; // NOCASE folds ASCII only
+            }
+            ps.setString(i++, new String(from));
+            char last = ++from[from.length - 1];
+            // Folded text never holds 'A'..'Z', so '@' bumped to 'A' must go on to '[', or NOCASE
+            // would read the bound as 'a' and let "x[", "x\\", "x_" ... in under "x@".
+            if (last >= 'A' && last <= 'Z') from[from.length - 1] = '[';
+            ps.setString(i++, new String(from));
+        }
+        if (paged && limit >= 0) {
+            ps.setInt(i++, limit);
+            ps.setInt(i, offset);
+        }
+        return true;
+    }
+
+    // ===== Internals below =====
+
+    private static boolean bindCode(PreparedStatement ps, int i, Lookup lookup, String name) throws SQLException {
+        int code = lookup.find(ps.getConnection(), name);
+        if (code < 0) return false;
+        ps.setInt(i, code);
+        return true;
+    }
+
+    private String where() {
+        StringJoiner w = new StringJoiner(" AND ", " WHERE ", "").setEmptyValue("");
+        if (profileId != null) w.add("profile_id = ?");
+        if (muscle != null) w.add("muscle_id = ?");
+        if (difficulty != null) w.add("difficulty_id = ?");
+        if (type != null) w.add("type_id = ?");
+        if (equipment != null) w.add("equipment = ?");
+        if (namePrefix != null) w.add("name COLLATE NOCASE >= ? AND name COLLATE NOCASE < ?");
+        return w.toString();
+    }
+
+    private String filterShape() {
+        return (profileId != null ? "p" : "") + (muscle != null ? "m" : "") + (difficulty != null ? "d" : "")
+                + (type != null ? "t" : "") + (equipment != null ? "e" : "") + (namePrefix != null ? "n" : "");
+    }
+
+    private String shape() {
+        StringBuilder s = new StringBuilder(filterShape()).append('|');
+        for (PageSource.Sort t : sort) s.append(t.key()).append(t.ascending() ? '+' : '-').append(',');
+        return s.append(limit >= 0 ? "|paged" : "").toString();
+    }
+
+    private static String blankToNull(String s) {
+        return s == null || s.isBlank() ? null : s.trim();
+    }
+
+    @Override
+    public String toString() {
+        return "ExerciseQuery{" + filterShape() + ", profile=" + profileId + ", muscle=" + muscle
+                + ", difficulty=" + difficulty + ", type=" + type + ", equipment=" + equipment
+                + ", namePrefix=" + namePrefix + ", sort=" + sort + ", limit=" + limit + ", offset=" + offset + '}';
+    }
+}
@@ -0,0 +1,164 @@
+import java.io.File;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+
+/**
+ * ExerciseQueryTest
+ *
+ * 1) Query plans: each filter shape ExerciseQuery produces is checked with EXPLAIN QUERY PLAN,
+ *    on a fresh database (no ANALYZE stats, like the app's) and on a generated one (300 profiles
+ *    x 200 exercises, analyzed). Each shape must search the index meant for it, never scan the
+ *    table, and never sort in a temp b-tree when ordered by name.
+ * 2) Results: random filter combinations return exactly what filtering the whole catalog in
+ *    Java returns, in the same order; count() agrees; unknown values match nothing.
+ * 3) Timing: findByMuscle over every profile, and a filtered page, vs load-and-filter in Java.
+ * Temp-file databases; never touches fitness.db.
+ */
+public class ExerciseQueryTest {
+
+    private static final String[] MUSCLES = {"Chest", "Back", "Legs", "Shoulders", "Biceps", "Triceps", "Core", "Glutes"};
+    private static final String[] DIFFICULTY = {"Easy", "Moderate", "Hard"};
+    private static final String[] EQUIPMENT = {"Barbell", "Dumbbell", "Cable", "Machine", "Kettlebell", "Bodyweight"};
+
+    public static void main(String[] args) throws Exception {
+        Class.forName("org.sqlite.JDBC");
+
+        // 1a) Fresh database, no statistics
+        File fresh = TestSupport.scratchDb("fitness-query");
+        int pid = new ProfileDao().insert(new Profile("Plans", "Beginner", "Strength", 3));
+        ExerciseDao dao = new ExerciseDao();
+        for (int i = 0; i < 40; i++) {
+            dao.insert(new Exercise(pid, "Exercise " + i, MUSCLES[i % MUSCLES.length], EQUIPMENT[i % EQUIPMENT.length],
+                    DIFFICULTY[i % DIFFICULTY.length], i % 5 == 0 ? "TIME" : "REPS"));
+        }
+        System.out.println("fresh database (no ANALYZE):");
+        checkPlans(pid);
+        for (String name : new String[] {"X@ Press", "x@ raise", "X[ Curl", "X\\ Row", "X_ Fly", "X` Dip", "Xa Lunge"}) {
+            dao.insert(new Exercise(pid, name, "Chest", "Barbell", "Easy", "REPS"));
+        }
+        List<String> at = dao.find(ExerciseQuery.forProfile(pid).namePrefix("x@")).stream().map(Exercise::getName).toList();
+        TestSupport.check("prefix ending in '@' stops before '[', '\\', '_' ... " + at,
+                at.equals(List.of("X@ Press", "x@ raise")) && dao.count(ExerciseQuery.forProfile(pid).namePrefix("X@")) == 2);
+        Db.shutdown();
+
+        // 1b) Generated, analyzed
+        TestSupport.scratchDb("fitness-query-big");
+        try (Connection c = Db.getConnection()) {
+            DatasetGenerator.generate(c, new DatasetGenerator.Config(300, 200, 8, 1, LocalDate.of(2025, 12, 31), 7L));
+        }
+        System.out.println("generated database (300 x 200 exercises, ANALYZE):");
+        checkPlans(42);
+
+        // 2) Same answers as filtering in Java
+        List<Exercise> everything = dao.getAll();
+        java.util.SplittableRandom rnd = new java.util.SplittableRandom(1);
+        int mismatches = 0, cases = 300;
+        for (int i = 0; i < cases; i++) {
+            int profileId = 1 + rnd.nextInt(300);
+            ExerciseQuery q = ExerciseQuery.forProfile(profileId);
+            Predicate<Exercise> p = e -> e.getProfileId() == profileId;
+            if (rnd.nextBoolean()) { String m = MUSCLES[rnd.nextInt(MUSCLES.length)]; q.muscle(m); p = p.and(e -> m.equals(e.getMuscle())); }
+            if (rnd.nextInt(3) == 0) { String d = DIFFICULTY[rnd.nextInt(DIFFICULTY.length)]; q.difficulty(d); p = p.and(e -> d.equals(e.getDifficulty())); }
+            if (rnd.nextInt(4) == 0) { String t = rnd.nextBoolean() ? "REPS" : "TIME"; q.type(t); p = p.and(e -> t.equals(e.getType())); }
+            if (rnd.nextInt(4) == 0) { String eq = EQUIPMENT[rnd.nextInt(EQUIPMENT.length)]; q.equipment(eq); p = p.and(e -> eq.equals(e.getEquipment())); }
+            if (rnd.nextInt(3) == 0) {
+                String prefix = EQUIPMENT[rnd.nextInt(EQUIPMENT.length)].substring(0, 1 + rnd.nextInt(4));
+                String typed = rnd.nextBoolean() ? prefix.toLowerCase(Locale.ROOT) : prefix;
+                q.namePrefix(typed);
+                p = p.and(e -> e.getName().toLowerCase(Locale.ROOT).startsWith(typed.toLowerCase(Locale.ROOT)));
+            }
+            List<Integer> expected = everything.stream().filter(p)
+                    .sorted(Comparator.comparing(Exercise::getName).thenComparing(Exercise::getId))
+                    .map(Exercise::getId).toList();
+            int limit = 1 + rnd.nextInt(30), offset = rnd.nextInt(10);
+            List<Integer> page = expected.subList(Math.min(offset, expected.size()), Math.min(expected.size(), offset + limit));
+            boolean ok = ids(dao.find(q)).equals(expected)
+                    && dao.count(q) == expected.size()
+                    && ids(dao.find(q.limit(limit).offset(offset))).equals(page);
+            if (!ok) {
+                mismatches++;
+                System.out.println("   mismatch: " + q);
+            }
+        }
+        TestSupport.check(cases + " random filter combinations match the Java filter", mismatches == 0);
+        TestSupport.check("unknown muscle / difficulty match nothing",
+                dao.find(ExerciseQuery.forProfile(1).muscle("Nope")).isEmpty()
+                        && dao.count(ExerciseQuery.all().difficulty("Impossible")) == 0);
+        List<Exercise> byMuscleDesc = dao.find(ExerciseQuery.forProfile(1).sortBy("muscle", false).limit(500));
+        boolean sorted = true;
+        for (int i = 1; i < byMuscleDesc.size(); i++) {
+            sorted &= byMuscleDesc.get(i - 1).getMuscle().compareTo(byMuscleDesc.get(i).getMuscle()) >= 0;
+        }
+        TestSupport.check("sort by muscle name, descending", sorted && byMuscleDesc.size() == 200);
+
+        // 3) Timing
+        int runs = 25 * MUSCLES.length;
+        long t0 = System.nanoTime();
+        int n = 0;
+        for (int i = 0; i < runs; i++) n += dao.findByMuscle(MUSCLES[i % MUSCLES.length]).size();
+        double sqlMs = (System.nanoTime() - t0) / 1e6 / runs;
+        t0 = System.nanoTime();
+        int m = 0, javaRuns = 2 * MUSCLES.length;
+        for (int i = 0; i < javaRuns; i++) {
+            String muscle = MUSCLES[i % MUSCLES.length];
+            m += (int) dao.getAll().stream().filter(e -> muscle.equals(e.getMuscle())).count();
+        }
+        double javaMs = (System.nanoTime() - t0) / 1e6 / javaRuns;
+        System.out.printf("findByMuscle, all profiles (%,d rows each): SQL %.1f ms, getAll + filter %.1f ms%n",
+                n / runs, sqlMs, javaMs);
+
+        t0 = System.nanoTime();
+        for (int i = 0; i < runs * 10; i++) {
+            dao.find(ExerciseQuery.forProfile(1 + i % 300).muscle(MUSCLES[i % MUSCLES.length])
+                    .difficulty("Hard").limit(20));
+        }
+        System.out.printf("profile + muscle + difficulty, first 20 rows: %.3f ms per query%n",
+                (System.nanoTime() - t0) / 1e6 / (runs * 10));
+        TestSupport.check("same counts both ways", n / runs == m / javaRuns);
+        Db.shutdown();
+        TestSupport.exitIfFailed();
+    }
+
+    /** Each shape, the index it should search, and whether a sort step is acceptable. */
+    private static void checkPlans(int pid) throws SQLException {
+        plan("profile, by name", ExerciseQuery.forProfile(pid), "sqlite_autoindex_exercise_1", false);
+        plan("profile + muscle", ExerciseQuery.forProfile(pid).muscle("Chest"), "idx_exercise_profile_muscle", false);
+        plan("profile + difficulty", ExerciseQuery.forProfile(pid).difficulty("Hard"), "idx_exercise_profile_difficulty", false);
+        plan("profile + muscle + difficulty", ExerciseQuery.forProfile(pid).muscle("Chest").difficulty("Hard"),
+                "idx_exercise_profile_", false);
+        plan("profile + name prefix", ExerciseQuery.forProfile(pid).namePrefix("bar"), "idx_exercise_profile_nocase", true);
+        plan("profile + type + equipment", ExerciseQuery.forProfile(pid).type("TIME").equipment("Cable"),
+                "sqlite_autoindex_exercise_1", false);
+        plan("profile, sorted by muscle", ExerciseQuery.forProfile(pid).sortBy("muscle", true).limit(50),
+                "", true); // any profile_id index; the sort is on the muscle's name
+        plan("all profiles + muscle", ExerciseQuery.all().muscle("Chest"), "idx_exercise_muscle", false);
+    }
+
+    private static void plan(String what, ExerciseQuery q, String index, boolean sortOk) throws SQLException {
+        List<String> steps = new ArrayList<>();
+        try (Connection c = Db.getConnection();
+             PreparedStatement ps = c.prepareStatement("EXPLAIN QUERY PLAN " + q.sql())) {
+            q.bind(ps, true);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) steps.add(rs.getString("detail"));
+            }
+        }
+        String plan = String.join("; ", steps);
+        boolean ok = plan.contains("SEARCH exercise USING ") && plan.contains("INDEX " + index)
+                && !plan.contains("SCAN exercise")
+                && (sortOk || !plan.contains("TEMP B-TREE"));
+        TestSupport.check(String.format("%-30s %s", what, plan), ok);
+    }
+
+    private static List<Integer> ids(List<Exercise> rows) {
+        return rows.stream().map(Exercise::getId).toList();
+    }
+}
@@ -1,17 +1,22 @@
 
 
 import javafx.geometry.Insets;
+import javafx.geometry.Side;
 import javafx.scene.Node;
 import javafx.scene.control.*;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class ExercisesView {
     private final BorderPane root = new BorderPane();
 
     private final ComboBox<Profile> cbProfiles = new ComboBox<>();
     private final TableView<Exercise> table = new TableView<>();
+    private final PagedTableModel<Exercise> rows = new PagedTableModel<>();
 
     private final TextField tfName = new TextField();
     private final TextField tfMuscle = new TextField();
@@ -22,6 +27,22 @@ public class ExercisesView {
     private final ProfileDao profileDao = new ProfileDao();
     private final ExerciseDao exerciseDao = new ExerciseDao();
 
+    // DAO calls run off the FX thread. The table pages itself in through PagedTableModel,
+    // which also drops late pages from a previous profile after a fast switch in cbProfiles.
+    private final AsyncDao.LatestOnly profileLoads = new AsyncDao.LatestOnly();
+    private final ProgressIndicator busy = new ProgressIndicator();
+
+    // Live name filter: keystrokes are debounced, a newer count cancels the one in flight,
+    // and only the newest filtered source reaches the table (QueryScheduler).
+    private final TextField tfFilter = new TextField();
+    private final QueryScheduler<PageSource<Exercise>> filterLoads = new QueryScheduler<>(source -> {
+        rows.setSource(source);
+        busy.setVisible(rows.loadingProperty().get());
+    }, () -> busy.setVisible(rows.loadingProperty().get()));
+
+    // Type-ahead under tfName, answered from memory on every keystroke (ExerciseNameIndex).
+    private final ContextMenu suggestions = new ContextMenu();
+
     public ExercisesView() {
         // Profile selector display
         cbProfiles.setButtonCell(new ListCell<>() {
@@ -38,26 +59,36 @@ public class ExercisesView {
         });
 
         // Table columns
+        // Column ids double as sort keys: PagedTableModel sends them to SQL as ORDER BY.
+        // Rows whose page hasn't arrived yet are null, so the cell factories guard for that.
         TableColumn<Exercise, Integer> cId = new TableColumn<>("ID");
-        cId.setCellValueFactory(p -> new javafx.beans.property.SimpleIntegerProperty(p.getValue().getId()).asObject());
+        cId.setId("id");
+        cId.setCellValueFactory(p -> new javafx.beans.property.SimpleObjectProperty<>(p.getValue() == null ? null : p.getValue().getId()));
         cId.setPrefWidth(60);
         TableColumn<Exercise, String> cName = new TableColumn<>("Name");
-        cName.setCellValueFactory(p -> new javafx.beans.property.SimpleStringProperty(p.getValue().getName()));
+        cName.setId("name");
+        cName.setCellValueFactory(p -> new javafx.beans.property.SimpleStringProperty(p.getValue() == null ? "" : p.getValue().getName()));
         cName.setPrefWidth(180);
         TableColumn<Exercise, String> cMuscle = new TableColumn<>("Muscle");
-        cMuscle.setCellValueFactory(p -> new javafx.beans.property.SimpleStringProperty(p.getValue().getMuscle()));
+        cMuscle.setId("muscle");
+        cMuscle.setCellValueFactory(p -> new javafx.beans.property.SimpleStringProperty(p.getValue() == null ? "" : p.getValue().getMuscle()));
         cMuscle.setPrefWidth(140);
         TableColumn<Exercise, String> cEquip = new TableColumn<>("Equipment");
-        cEquip.setCellValueFactory(p -> new javafx.beans.property.SimpleStringProperty(p.getValue().getEquipment()));
+        cEquip.setId("equipment");
+        cEquip.setCellValueFactory(p -> new javafx.beans.property.SimpleStringProperty(p.getValue() == null ? "" : p.getValue().getEquipment()));
         cEquip.setPrefWidth(140);
         TableColumn<Exercise, String> cDiff = new TableColumn<>("Difficulty");
-        cDiff.setCellValueFactory(p -> new javafx.beans.property.SimpleStringProperty(p.getValue().getDifficulty()));
+        cDiff.setId("difficulty");
+        cDiff.setCellValueFactory(p -> new javafx.beans.property.SimpleStringProperty(p.getValue() == null ? "" : p.getValue().getDifficulty()));
         cDiff.setPrefWidth(100);
         TableColumn<Exercise, String> cType = new TableColumn<>("Type");
-        cType.setCellValueFactory(p -> new javafx.beans.property.SimpleStringProperty(p.getValue().getType()));
+        cType.setId("type");
+        cType.setCellValueFactory(p -> new javafx.beans.property.SimpleStringProperty(p.getValue() == null ? "" : p.getValue().getType()));
         cType.setPrefWidth(80);
 
         table.getColumns().addAll(cId, cName, cMuscle, cEquip, cDiff, cType);
+        rows.bindTo(table);
+        table.setPlaceholder(new Label("No exercises for this profile"));
 
         // Form
         cbDiff.getItems().addAll("Easy", "Moderate", "Hard");
@@ -67,7 +98,8 @@ public class ExercisesView {
 
         GridPane form = new GridPane();
         form.setHgap(10); form.setVgap(8); form.setPadding(new Insets(10));
-        form.addRow(0, new Label("Profile:"), cbProfiles);
+        tfFilter.setPromptText("Name starts with…");
+        form.addRow(0, new Label("Profile:"), cbProfiles, new Label("Filter:"), tfFilter);
         form.addRow(1, new Label("Name:"), tfName, new Label("Muscle:"), tfMuscle);
         form.addRow(2, new Label("Equipment:"), tfEquip, new Label("Difficulty:"), cbDiff);
         form.addRow(3, new Label("Type:"), cbType);
@@ -75,7 +107,10 @@ public class ExercisesView {
         Button btnAdd = new Button("Add");
         Button btnUpdate = new Button("Update");
         Button btnDelete = new Button("Delete");
-        HBox buttons = new HBox(8, btnAdd, btnUpdate, btnDelete);
+        busy.setPrefSize(18, 18);
+        busy.setVisible(false);
+        rows.loadingProperty().addListener((obs, was, now) -> busy.setVisible(now));
+        HBox buttons = new HBox(8, btnAdd, btnUpdate, btnDelete, busy);
         buttons.setPadding(new Insets(0,10,10,10));
 
         root.setTop(form);
@@ -94,6 +129,10 @@ public class ExercisesView {
             }
         });
 
+        tfFilter.textProperty().addListener((obs, old, text) -> loadExercises(cbProfiles.getValue(), true));
+        tfName.textProperty().addListener((obs, old, text) -> suggest(text));
+        tfName.focusedProperty().addListener((obs, was, now) -> { if (!now) suggestions.hide(); });
+
         btnAdd.setOnAction(e -> {
             Profile p = cbProfiles.getValue();
             if (p == null) { show("Select a profile first"); return; }
@@ -101,9 +140,11 @@ public class ExercisesView {
             if (name.isEmpty()) { show("Exercise name required"); return; }
             Exercise ex = new Exercise(p.getId(), name, tfMuscle.getText().trim(), tfEquip.getText().trim(),
                     cbDiff.getValue(), cbType.getValue());
-            int id = exerciseDao.insert(ex);
-            if (id > 0) { loadExercises(p); clearForm(); }
-            else show("Insert failed (duplicate name for this profile?)");
+            busy.setVisible(true);
+            AsyncDao.run(() -> exerciseDao.insert(ex), id -> {
+                if (id > 0) { loadExercises(p); clearForm(); }
+                else failed("Insert failed (duplicate name for this profile?)");
+            }, error -> failed("Insert failed"));
         });
 
         btnUpdate.setOnAction(e -> {
@@ -118,35 +159,83 @@ public class ExercisesView {
             sel.setEquipment(tfEquip.getText().trim());
             sel.setDifficulty(cbDiff.getValue());
             sel.setType(cbType.getValue());
-            if (exerciseDao.update(sel)) { loadExercises(p); }
-            else show("Update failed");
+            busy.setVisible(true);
+            AsyncDao.run(() -> exerciseDao.update(sel), ok -> {
+                if (ok) { loadExercises(p); }
+                else failed("Update failed");
+            }, error -> failed("Update failed"));
         });
 
         btnDelete.setOnAction(e -> {
             Exercise sel = table.getSelectionModel().getSelectedItem();
             if (sel == null) { show("Select an exercise"); return; }
-            if (exerciseDao.delete(sel.getId())) {
-                Profile p = cbProfiles.getValue();
-                if (p != null) loadExercises(p);
-                clearForm();
-            } else show("Delete failed");
+            busy.setVisible(true);
+            AsyncDao.run(() -> exerciseDao.delete(sel.getId()), ok -> {
+                if (ok) {
+                    Profile p = cbProfiles.getValue();
+                    loadExercises(p);
+                    clearForm();
+                } else failed("Delete failed");
+            }, error -> failed("Delete failed"));
         });
     }
 
     public Node getRoot() { return root; }
 
     public void reloadProfiles() {
-        cbProfiles.getItems().setAll(profileDao.getAll());
-        if (!cbProfiles.getItems().isEmpty()) {
-            cbProfiles.getSelectionModel().selectFirst();
-        } else {
-            table.getItems().clear();
-        }
+        busy.setVisible(true);
+        AsyncDao.call(exerciseDao::buildNameIndex); // once; later edits patch it
+        profileLoads.submit(profileDao::getAll, profiles -> {
+            cbProfiles.getItems().setAll(profiles);
+            if (!cbProfiles.getItems().isEmpty()) {
+                cbProfiles.getSelectionModel().selectFirst();
+            } else {
+                rows.setSource(null);
+            }
+            busy.setVisible(rows.loadingProperty().get());
+        }, error -> failed("Couldn't load profiles"));
     }
 
     private void loadExercises(Profile p) {
-        if (p == null) { table.getItems().clear(); return; }
-        table.getItems().setAll(exerciseDao.findByProfile(p.getId())); // add this finder if you don’t have it
+        loadExercises(p, false);
+    }
+
+    // typing = from tfFilter: wait for a pause before counting
+    private void loadExercises(Profile p, boolean typing) {
+        String prefix = tfFilter.getText();
+        if (p == null || prefix.isBlank()) {
+            filterLoads.cancel();
+            rows.setSource(p == null ? null : exerciseDao.pageSourceByProfile(p.getId()));
+            return;
+        }
+        busy.setVisible(true);
+        QueryScheduler.Query<PageSource<Exercise>> q = t -> exerciseDao.pageSourceByProfile(p.getId(), prefix, t);
+        if (typing) filterLoads.submit(q);
+        else filterLoads.runNow(q);
+    }
+
+    private void suggest(String typed) {
+        Profile p = cbProfiles.getValue();
+        // Only while someone types: not when a table selection or clearForm() sets the text.
+        if (p == null || !tfName.isFocused() || typed.isBlank()) { suggestions.hide(); return; }
+        List<ExerciseNameIndex.Suggestion> found =
+                exerciseDao.suggestNames(p.getId(), typed, ExerciseNameIndex.DEFAULT_SUGGESTIONS);
+        if (found.isEmpty() || (found.size() == 1 && found.get(0).name().equals(typed.strip()))) {
+            suggestions.hide();
+            return;
+        }
+        List<MenuItem> items = new ArrayList<>(found.size());
+        for (ExerciseNameIndex.Suggestion s : found) {
+            MenuItem item = new MenuItem(s.own() ? s.name() : s.name() + "  (other profiles)");
+            item.setOnAction(e -> {
+                tfName.setText(s.name());
+                tfName.positionCaret(s.name().length());
+                suggestions.hide();
+            });
+            items.add(item);
+        }
+        suggestions.getItems().setAll(items);
+        if (!suggestions.isShowing()) suggestions.show(tfName, Side.BOTTOM, 0, 0);
     }
 
     private void clearForm() {
@@ -156,6 +245,12 @@ public class ExercisesView {
         table.getSelectionModel().clearSelection();
     }
 
+    // A save or load didn't happen: stop the spinner (unless the table is still paging) and say so.
+    private void failed(String what) {
+        busy.setVisible(rows.loadingProperty().get());
+        show(what);
+    }
+
     private static void show(String msg) {
         new Alert(Alert.AlertType.INFORMATION, msg, ButtonType.OK).showAndWait();
     }
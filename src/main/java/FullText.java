@@ -0,0 +1,99 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * FullText
+ *
+ * Purpose:
+ * Turns what someone types into a search box ("incline db", "shoulder pain") into an FTS5
+ * MATCH expression for the full-text indexes (exercise_fts, session_fts; V5).
+ * ExerciseDao.search and SessionDao.search use it.
+ *
+ * How it works:
+ * - The text is split into words on whitespace and SEPARATORS, and every word must match
+ *   (AND). V5's search_text columns turn the same SEPARATORS into spaces: Migrator expands
+ *   their ${search_text(...)} placeholders with searchTextSql(), so there is one list.
+ * - Every indexed token starts with its profile: profile 7's "Bench Press" is indexed as
+ *   7xbench 7xpress. So each word is searched as <profile>x<word>, and FTS5 only reads that
+ *   profile's postings (a separate profile_id token would read every profile's).
+ * - Words are quoted, so nothing typed is read as FTS5 syntax: no operator, column name or
+ *   stray quote can break the query. FTS5 tokenizes the quoted word exactly as it tokenized
+ *   search_text, so a character that isn't in SEPARATORS splits both sides alike.
+ * - The last word is a prefix, since it's usually still being typed ("shoulder pa"). With
+ *   everyWordPrefix every word is ("incl db" finds "Incline DB Press"); that suits short
+ *   names, but a prefix costs FTS5 a merge of every token that starts with it, so long notes
+ *   match the earlier words whole.
+ * - A few gym abbreviations also match the full word: "db" finds "DB" and "Dumbbell".
+ */
+final class FullText {
+
+    private static final Map<String, String> ABBREVIATIONS = Map.of(
+            "db", "dumbbell", "bb", "barbell", "kb", "kettlebell", "bw", "bodyweight",
+            "ohp", "overhead", "rdl", "romanian");
+
+    /**
+     * Turned into spaces before indexing. Changing it changes V5's expanded text, which
+     * Migrator then refuses as an edited script: a new list needs a new migration.
+     */
+    static final String SEPARATORS = "\t\n\r!\"#$%&'()*+,-./:;<=>?@[\\]^_`{|}~–—…‘’“”«»•·°×";
+
+    private FullText() {}
+
+    /**
+     * The SQL expression V5's search_text columns are generated from: 'column' with every
+     * separator turned into a space and each space-separated word prefixed with
+     * "<profile_id>x". Runs of up to four separators collapse to one space.
+     */
+    static String searchTextSql(String column) {
+        StringBuilder sql = new StringBuilder("profile_id || 'x' || replace(replace(replace(");
+        sql.append("replace(".repeat(SEPARATORS.length())).append(column);
+        for (int i = 0; i < SEPARATORS.length(); i++) {
+            char ch = SEPARATORS.charAt(i);
+            String literal = ch < ' ' ? "char(" + (int) ch + ")" : ch == '\'' ? "''''" : "'" + ch + "'";
+            sql.append(", ").append(literal).append(", ' ')");
+        }
+        return sql.append(", '  ', ' '), '  ', ' '), ' ', ' ' || profile_id || 'x')").toString();
+    }
+
+    /** MATCH expression for 'typed' within one profile, or null if there's no word to search for. */
+    static String match(int profileId, String typed, boolean everyWordPrefix) {
+        List<String> words = words(typed);
+        if (words.isEmpty()) return null;
+        String p = profileId + "x";
+        StringJoiner all = new StringJoiner(" AND ");
+        for (int i = 0; i < words.size(); i++) {
+            String w = words.get(i);
+            String star = everyWordPrefix || i == words.size() - 1 ? "*" : "";
+            String full = ABBREVIATIONS.get(w);
+            all.add(full == null ? quote(p + w) + star : "(" + quote(p + w) + star + " OR " + quote(p + full) + star + ")");
+        }
+        return all.toString();
+    }
+
+    /** Words of 'typed', lower-cased; a word with no letter or digit is dropped (it has no token). */
+    static List<String> words(String typed) {
+        List<String> out = new ArrayList<>();
+        if (typed == null) return out;
+        StringBuilder cur = new StringBuilder();
+        boolean hasText = false;
+        for (int i = 0; i <= typed.length(); i++) {
+            char ch = i < typed.length() ? typed.charAt(i) : ' ';
+            if (ch != ' ' && SEPARATORS.indexOf(ch) < 0) {
+                cur.append(ch);
+                hasText |= Character.isLetterOrDigit(ch);
+            } else if (cur.length() > 0) {
+                if (hasText) out.add(cur.toString().toLowerCase(Locale.ROOT));
+                cur.setLength(0);
+                hasText = false;
+            }
+        }
+        return out;
+    }
+
+    private static String quote(String word) {
+        return '"' + word.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,91 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * FullTextTest
+ *
+ * 1) words(): split on whitespace and every SEPARATORS character, lower-cased; a word with no
+ *    letter or digit is dropped.
+ * 2) match(): every word quoted and prefixed with its profile, the last one a prefix (or all
+ *    of them), abbreviations ORed with the full word, nothing typed read as FTS5 syntax.
+ * 3) The index side: V5's search_text columns are FullText.searchTextSql() over name/notes,
+ *    and a name or note with every separator between words yields exactly the tokens words()
+ *    yields, so each word is found by ExerciseDao.search / SessionDao.search.
+ * Temp-file database; never touches fitness.db.
+ */
+public class FullTextTest {
+
+    public static void main(String[] args) throws Exception {
+        // 1) words()
+        TestSupport.check("whitespace and case", FullText.words("  Incline\tDB  press ").equals(List.of("incline", "db", "press")));
+        TestSupport.check("punctuation-only words dropped", FullText.words("- ... «» 3×10").equals(List.of("3", "10")));
+        TestSupport.check("null and blank have no words", FullText.words(null).isEmpty() && FullText.words(" \t ").isEmpty());
+        String joined = joinedBySeparators();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i <= FullText.SEPARATORS.length(); i++) expected.add("w" + i);
+        TestSupport.check("every separator splits (" + FullText.SEPARATORS.length() + ")", FullText.words(joined).equals(expected));
+
+        // 2) match()
+        TestSupport.check("last word is a prefix", "\"7xshoulder\" AND \"7xpa\"*".equals(FullText.match(7, "shoulder pa", false)));
+        TestSupport.check("every word a prefix", "\"7xincl\"* AND \"7xpr\"*".equals(FullText.match(7, "incl pr", true)));
+        TestSupport.check("abbreviation also matches the full word",
+                "(\"7xdb\"* OR \"7xdumbbell\"*)".equals(FullText.match(7, "DB", false)));
+        TestSupport.check("nothing to search for", FullText.match(7, " -- ", false) == null);
+        TestSupport.check("typed FTS5 syntax stays quoted text", "\"7xnear\" AND \"7xa\"*".equals(FullText.match(7, "NEAR(a", false))
+                && "\"7xor\" AND \"7xx\"*".equals(FullText.match(7, "OR x*", false)));
+
+        // 3) Index side
+        Class.forName("org.sqlite.JDBC");
+        TestSupport.scratchDb("fitness-fulltext");
+        int me = new ProfileDao().insert(new Profile("Me", "Intermediate", "Strength", 4));
+        int ex = new ExerciseDao().insert(new Exercise(me, joined, "Chest", "Dumbbell", "Moderate", "REPS"));
+        int note = new SessionDao().insert(new Session(me, null, "2025-03-07T18:00:00", 30, 5, joined));
+        try (Connection c = Db.getConnection()) {
+            TestSupport.check("exercise.search_text is FullText.searchTextSql(name)",
+                    schemaOf(c, "exercise").contains("(" + FullText.searchTextSql("name") + ")"));
+            TestSupport.check("session.search_text is FullText.searchTextSql(notes)",
+                    schemaOf(c, "session").contains("(" + FullText.searchTextSql("notes") + ")"));
+            List<String> tokens = new ArrayList<>();
+            for (String w : expected) tokens.add(me + "x" + w);
+            TestSupport.check("indexed tokens are the profile-keyed words",
+                    tokens.equals(List.of(searchText(c, "exercise", ex).split(" ")))
+                            && tokens.equals(List.of(searchText(c, "session", note).split(" "))));
+        }
+        boolean found = true;
+        for (String w : expected) {
+            found &= new ExerciseDao().search(me, w, 10).size() == 1 && new SessionDao().search(me, w, 10).size() == 1;
+        }
+        TestSupport.check("every word found by search (" + expected.size() + ")", found);
+        Db.shutdown();
+        TestSupport.exitIfFailed();
+    }
+
+    // "w0" + SEPARATORS[0] + "w1" + SEPARATORS[1] + ... + "wN"
+    private static String joinedBySeparators() {
+        StringBuilder sb = new StringBuilder("w0");
+        for (int i = 0; i < FullText.SEPARATORS.length(); i++) sb.append(FullText.SEPARATORS.charAt(i)).append('w').append(i + 1);
+        return sb.toString();
+    }
+
+    private static String schemaOf(Connection c, String table) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement("SELECT sql FROM sqlite_master WHERE type = 'table' AND name = ?")) {
+            ps.setString(1, table);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getString(1) : "";
+            }
+        }
+    }
+
+    private static String searchText(Connection c, String table, int id) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement("SELECT search_text FROM " + table + " WHERE id = ?")) {
+            ps.setInt(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getString(1) : "";
+            }
+        }
+    }
+}
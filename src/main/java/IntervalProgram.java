@@ -0,0 +1,168 @@
+import java.util.List;
+
+/**
+ * IntervalProgram
+ *
+ * Purpose:
+ * A whole workout as a ready-to-run list of timed segments: work, rest between sets, rest
+ * between exercises. TimerService steps through it without touching the database or
+ * building anything per transition, so a full session runs from memory.
+ *
+ * How it works:
+ * - compile(plan) walks the WorkoutPlan rows in order_idx order. Each exercise gives
+ *   target_sets WORK segments with a REST_SET between them, and a REST_EXERCISE after its
+ *   last set (except after the last exercise). Zero-second rests are left out.
+ * - A timed exercise (type other than REPS) works for target_reps_or_secs seconds. A REPS
+ *   exercise has no natural length, so it gets reps x secondsPerRep (default 3 s, or the
+ *   fitness.timer.secondsPerRep property).
+ * - Everything is stored in parallel primitive arrays plus a precomputed label per segment.
+ *   startNanos(i) is the exact offset of segment i from the start of the program, so
+ *   boundaries never depend on when a tick happened to run.
+ *
+ * Immutable and thread-safe. The arrays are never handed out.
+ */
+public final class IntervalProgram {
+
+    /** What a segment is for. */
+    public enum Kind { WORK, REST_SET, REST_EXERCISE }
+
+    private static final long SECOND = 1_000_000_000L;
+    private static final Kind[] KINDS = Kind.values();
+
+    /** Default seconds per rep when turning a REPS target into time. */
+    public static final int DEFAULT_SECONDS_PER_REP = Integer.getInteger("fitness.timer.secondsPerRep", 3);
+
+    private final int workoutId;
+    private final int profileId;
+    private final String name;
+
+    private final byte[] kinds;
+    private final long[] starts;        // starts[i] = offset of segment i; starts[size] = total
+    private final int[] exerciseIds;
+    private final int[] setNumbers;     // 1-based set for WORK/REST_SET, 0 for REST_EXERCISE
+    private final int[] setCounts;
+    private final String[] labels;
+
+    private IntervalProgram(int workoutId, int profileId, String name, byte[] kinds, long[] starts,
+                            int[] exerciseIds, int[] setNumbers, int[] setCounts, String[] labels) {
+        this.workoutId = workoutId;
+        this.profileId = profileId;
+        this.name = name;
+        this.kinds = kinds;
+        this.starts = starts;
+        this.exerciseIds = exerciseIds;
+        this.setNumbers = setNumbers;
+        this.setCounts = setCounts;
+        this.labels = labels;
+    }
+
+    public static IntervalProgram compile(WorkoutPlan plan) {
+        return compile(plan, DEFAULT_SECONDS_PER_REP);
+    }
+
+    public static IntervalProgram compile(WorkoutPlan plan, int secondsPerRep) {
+        List<WorkoutExerciseView> rows = plan.getExercises();
+        long restSet = plan.getRestBetweenSetsSec() * SECOND;
+        long restExercise = plan.getRestBetweenExercisesSec() * SECOND;
+
+        // First pass: count, so the arrays are allocated exactly once.
+        int n = 0;
+        for (int r = 0; r < rows.size(); r++) {
+            int sets = rows.get(r).getTargetSets();
+            n += sets;
+            if (restSet > 0) n += sets - 1;
+            if (restExercise > 0 && r < rows.size() - 1) n++;
+        }
+
+        byte[] kinds = new byte[n];
+        long[] starts = new long[n + 1];
+        int[] exerciseIds = new int[n];
+        int[] setNumbers = new int[n];
+        int[] setCounts = new int[n];
+        String[] labels = new String[n];
+
+        int i = 0;
+        long at = 0;
+        for (int r = 0; r < rows.size(); r++) {
+            WorkoutExerciseView row = rows.get(r);
+            int sets = row.getTargetSets();
+            long work = ("REPS".equalsIgnoreCase(row.getType())
+                    ? (long) row.getTargetRepsOrSecs() * secondsPerRep
+                    : row.getTargetRepsOrSecs()) * SECOND;
+            for (int set = 1; set <= sets; set++) {
+                starts[i] = at;
+                kinds[i] = (byte) Kind.WORK.ordinal();
+                exerciseIds[i] = row.getExerciseId();
+                setNumbers[i] = set;
+                setCounts[i] = sets;
+                labels[i] = row.getExerciseName() + " · set " + set + "/" + sets;
+                at += work;
+                i++;
+                if (set < sets && restSet > 0) {
+                    starts[i] = at;
+                    kinds[i] = (byte) Kind.REST_SET.ordinal();
+                    exerciseIds[i] = row.getExerciseId();
+                    setNumbers[i] = set;
+                    setCounts[i] = sets;
+                    labels[i] = "Rest · next: set " + (set + 1) + "/" + sets;
+                    at += restSet;
+                    i++;
+                }
+            }
+            if (r < rows.size() - 1 && restExercise > 0) {
+                starts[i] = at;
+                kinds[i] = (byte) Kind.REST_EXERCISE.ordinal();
+                exerciseIds[i] = rows.get(r + 1).getExerciseId();
+                setCounts[i] = rows.get(r + 1).getTargetSets();
+                labels[i] = "Rest · next: " + rows.get(r + 1).getExerciseName();
+                at += restExercise;
+                i++;
+            }
+        }
+        starts[n] = at;
+        return new IntervalProgram(plan.getWorkoutId(), plan.getProfileId(), plan.getName(),
+                kinds, starts, exerciseIds, setNumbers, setCounts, labels);
+    }
+
+    public int getWorkoutId() { return workoutId; }
+    public int getProfileId() { return profileId; }
+    public String getName() { return name; }
+
+    /** Number of segments (0 for a workout without exercises). */
+    public int size() { return kinds.length; }
+
+    public Kind kind(int i) { return KINDS[kinds[i]]; }
+
+    /** Offset of segment i from the start of the program. */
+    public long startNanos(int i) { return starts[i]; }
+
+    public long durationNanos(int i) { return starts[i + 1] - starts[i]; }
+
+    public long totalNanos() { return starts[kinds.length]; }
+
+    /** The exercise being worked (WORK, REST_SET) or coming next (REST_EXERCISE). */
+    public int exerciseId(int i) { return exerciseIds[i]; }
+
+    /** 1-based set number for WORK and REST_SET segments; 0 for REST_EXERCISE. */
+    public int setNumber(int i) { return setNumbers[i]; }
+
+    public int setCount(int i) { return setCounts[i]; }
+
+    /** Display text, built at compile time, e.g. "Bench Press · set 2/4" or "Rest · next: Squat". */
+    public String label(int i) { return labels[i]; }
+
+    /** The segment running 'elapsedNanos' into the program (binary search; last segment past the end). */
+    public int segmentAt(long elapsedNanos) {
+        int lo = 0, hi = kinds.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (starts[mid] <= elapsedNanos) lo = mid; else hi = mid - 1;
+        }
+        return lo;
+    }
+
+    @Override public String toString() {
+        return "IntervalProgram{workout='" + name + "', id=" + workoutId + ", segments=" + kinds.length
+                + ", total=" + totalNanos() / SECOND + "s}";
+    }
+}
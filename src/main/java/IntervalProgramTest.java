@@ -0,0 +1,88 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * IntervalProgramTest
+ *
+ * 1) Compiling: segment order, kinds, labels and total length for a small workout.
+ * 2) Running: a 19-segment program of 1 s segments through TimerService. Each segment must start
+ *    exactly at program start + its offset (no drift from tick lateness), and the program
+ *    must finish once, on time.
+ * No database or JavaFX needed.
+ */
+public class IntervalProgramTest {
+
+    public static void main(String[] args) throws Exception {
+        // 1) Bench 3x10 reps, Plank 2x30 s; 60 s between sets, 90 s between exercises
+        Workout w = new Workout(7, 1, "Push Day", 1, 60, 90, true, null, null);
+        List<WorkoutExerciseView> rows = List.of(
+                new WorkoutExerciseView(7, 11, 1, 3, 10, "Bench Press", "Chest", "Barbell", "Hard", "REPS"),
+                new WorkoutExerciseView(7, 12, 2, 2, 30, "Plank", "Core", "None", "Easy", "TIME"));
+        IntervalProgram p = IntervalProgram.compile(new WorkoutPlan(w, rows), 3);
+        System.out.println(p);
+        for (int i = 0; i < p.size(); i++) {
+            System.out.printf("  %2d %-13s %4d s  %s%n", i, p.kind(i), p.durationNanos(i) / 1_000_000_000L, p.label(i));
+        }
+        // work 3x30 + 2x30, rests 2x60 + 1x60, one exercise change 90
+        TestSupport.check("9 segments", p.size() == 9);
+        TestSupport.check("total 420 s", p.totalNanos() == 420_000_000_000L);
+        TestSupport.check("REPS -> 10 x 3 s", p.durationNanos(0) == 30_000_000_000L);
+        TestSupport.check("exercise change is segment 5", p.kind(5) == IntervalProgram.Kind.REST_EXERCISE
+                && p.label(5).equals("Rest · next: Plank"));
+        TestSupport.check("segmentAt(100 s) = 2 (second bench set)", p.segmentAt(100_000_000_000L) == 2);
+
+        // No rest configured: no zero-length rest segments
+        Workout noRest = new Workout(8, 1, "Circuit", null, 0, 0, true, null, null);
+        TestSupport.check("zero rests are dropped", IntervalProgram.compile(new WorkoutPlan(noRest, rows), 3).size() == 5);
+
+        // 2) Run 19 x 1 s: 5 exercises x (set, rest, set), plus 4 rests between exercises
+        Workout quick = new Workout(9, 1, "Quick", null, 1, 1, true, null, null);
+        List<WorkoutExerciseView> quickRows = new ArrayList<>();
+        for (int e = 1; e <= 5; e++) {
+            quickRows.add(new WorkoutExerciseView(9, e, e, 2, 1, "Move " + e, "Full", "None", "Easy", "SECS"));
+        }
+        IntervalProgram run = IntervalProgram.compile(new WorkoutPlan(quick, quickRows));
+        TestSupport.check("19 segments of 1 s", run.size() == 19 && run.totalNanos() == 19_000_000_000L);
+
+        long[] segmentSeenAt = new long[run.size()];
+        int[] finishes = {0};
+        long[] finishedAt = {0};
+        CountDownLatch done = new CountDownLatch(1);
+        TimerService[] holder = new TimerService[1];
+        holder[0] = new TimerService(secs -> {
+            int seg = holder[0] == null ? 0 : holder[0].segment();
+            if (segmentSeenAt[seg] == 0) segmentSeenAt[seg] = System.nanoTime();
+        }, () -> { finishes[0]++; finishedAt[0] = System.nanoTime(); done.countDown(); }, Runnable::run, System::nanoTime);
+
+        // Warm-up: run a one-segment program first so class loading isn't measured as lateness
+        CountDownLatch warmed = new CountDownLatch(1);
+        TimerService warm = new TimerService(secs -> { }, warmed::countDown, Runnable::run, System::nanoTime);
+        warm.startProgram(IntervalProgram.compile(new WorkoutPlan(quick, quickRows.subList(0, 1)), 1));
+        warmed.await();
+
+        long t0 = System.nanoTime();
+        holder[0].startProgram(run);
+        done.await();
+        Thread.sleep(200);
+
+        long worst = 0;
+        for (int i = 1; i < run.size(); i++) {
+            long late = segmentSeenAt[i] - (t0 + run.startNanos(i));
+            worst = Math.max(worst, Math.abs(late));
+        }
+        long first = segmentSeenAt[1] - (t0 + run.startNanos(1));
+        long last = segmentSeenAt[run.size() - 1] - (t0 + run.startNanos(run.size() - 1));
+        long finishError = finishedAt[0] - (t0 + run.totalNanos());
+        System.out.printf("  boundary error: first %.3f ms, last %.3f ms, worst %.3f ms; finish error %+.3f ms%n",
+                first / 1e6, last / 1e6, worst / 1e6, finishError / 1e6);
+        TestSupport.check("boundaries within 20 ms", worst < 20_000_000L);
+        TestSupport.check("finished once", finishes[0] == 1);
+        TestSupport.check("finish within 20 ms", Math.abs(finishError) < 20_000_000L);
+        TestSupport.check("ends on the last segment", holder[0].segment() == run.size() - 1
+                && holder[0].phase() == TimerService.Phase.IDLE);
+        holder[0].stop();
+        TimerService.shutdownScheduler();
+        TestSupport.exitIfFailed();
+    }
+}
@@ -0,0 +1,137 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lookup
+ *
+ * Purpose:
+ * The small vocabularies that repeat in every exercise and profile row: muscle, difficulty,
+ * type, level and goal. Since V3 the rows store an integer code and the words live in one
+ * lookup table each. This is the in-process side of that. Every row mapped from the database
+ * gets the same String instance for "Moderate" instead of a fresh copy, and filters compare
+ * codes instead of text.
+ *
+ * How it works:
+ * - Each constant is one lookup table (id INTEGER PRIMARY KEY, name TEXT UNIQUE). The whole
+ *   table is read the first time it's needed; they're a few dozen rows at most.
+ * - name(rs, column) turns a code column into the shared String. A code we don't know yet
+ *   (another process added a value) reloads the table once.
+ * - code(conn, name) is for writes. Known values come from memory. A new value is added with
+ *   INSERT OR IGNORE on the caller's connection, inside its transaction. It isn't remembered
+ *   until it's read back after the commit, so a rollback can't leave a code in memory that
+ *   the database doesn't have.
+ * - find(conn, name) is for filters: the code, or -1 if no row can have that value.
+ * - bind() refuses a null muscle, type, level or goal (NOT NULL columns in V1, and V3 rebuilt
+ *   them as NOT NULL codes). Difficulty is optional.
+ * - Codes are per database file, so the tables are cached per Db.url().
+ *
+ * Threading notes:
+ * - Safe from any thread. Readers use an immutable snapshot; a reload swaps in a new one.
+ */
+public enum Lookup {
+    MUSCLE("muscle", true),
+    DIFFICULTY("difficulty", false),
+    EXERCISE_TYPE("exercise_type", true),
+    LEVEL("profile_level", true),
+    GOAL("profile_goal", true);
+
+    /** One table's contents: names[code] is the shared instance, codes the reverse. */
+    private record Snapshot(String[] names, Map<String, Integer> codes) {
+        String name(int code) {
+            return code > 0 && code < names.length ? names[code] : null;
+        }
+    }
+
+    // Db url -> one snapshot per constant (indexed by ordinal)
+    private static final Map<String, Snapshot[]> BY_DB = new ConcurrentHashMap<>();
+
+    private final String table;
+    private final boolean required; // NOT NULL in V1 and V3; only difficulty may be missing
+
+    Lookup(String table, boolean required) {
+        this.table = table;
+        this.required = required;
+    }
+
+    public String table() {
+        return table;
+    }
+
+    /** The shared name for the code in 'column', or null if the column is NULL. */
+    public String name(ResultSet rs, String column) throws SQLException {
+        int code = rs.getInt(column);
+        if (rs.wasNull()) return null;
+        Connection c = rs.getStatement().getConnection();
+        String name = snapshot(c).name(code);
+        if (name == null) name = reload(c).name(code);
+        if (name == null) throw new SQLException("unknown " + table + " code " + code);
+        return name;
+    }
+
+    /** The code to store for name (added to the table if new), or null for a null name. */
+    public Integer code(Connection c, String name) throws SQLException {
+        if (name == null) return null;
+        Integer code = snapshot(c).codes().get(name);
+        if (code != null) return code;
+        try (PreparedStatement ins = c.prepareStatement("INSERT OR IGNORE INTO " + table + "(name) VALUES(?)");
+             PreparedStatement sel = c.prepareStatement("SELECT id FROM " + table + " WHERE name=?")) {
+            ins.setString(1, name);
+            ins.executeUpdate();
+            sel.setString(1, name);
+            try (ResultSet rs = sel.executeQuery()) {
+                if (rs.next()) return rs.getInt(1);
+            }
+        }
+        throw new SQLException("could not add '" + name + "' to " + table);
+    }
+
+    /** The code for name, or -1 if the table doesn't have it (a filter on it matches nothing). */
+    public int find(Connection c, String name) throws SQLException {
+        if (name == null) return -1;
+        Integer code = snapshot(c).codes().get(name);
+        if (code == null) code = reload(c).codes().get(name);
+        return code == null ? -1 : code;
+    }
+
+    /** Bind name's code to parameter i. A null name binds NULL, or fails if the value is required. */
+    public void bind(PreparedStatement ps, int i, String name) throws SQLException {
+        if (name == null && required) throw new SQLException("NOT NULL constraint failed: " + table + " is required");
+        Integer code = code(ps.getConnection(), name);
+        if (code == null) ps.setNull(i, java.sql.Types.INTEGER);
+        else ps.setInt(i, code);
+    }
+
+    /** Every name -> code in the table, read straight from c (no cache). For bulk loaders. */
+    public Map<String, Integer> readAll(Connection c) throws SQLException {
+        Map<String, Integer> out = new HashMap<>();
+        try (Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery("SELECT id, name FROM " + table)) {
+            while (rs.next()) out.put(rs.getString(2), rs.getInt(1));
+        }
+        return out;
+    }
+
+    // ===== Internals below =====
+
+    private Snapshot snapshot(Connection c) throws SQLException {
+        Snapshot s = BY_DB.computeIfAbsent(Db.url(), url -> new Snapshot[values().length])[ordinal()];
+        return s != null ? s : reload(c);
+    }
+
+    private Snapshot reload(Connection c) throws SQLException {
+        Map<String, Integer> codes = readAll(c);
+        int max = 0;
+        for (int code : codes.values()) max = Math.max(max, code);
+        String[] names = new String[max + 1];
+        for (Map.Entry<String, Integer> e : codes.entrySet()) names[e.getValue()] = e.getKey();
+        Snapshot s = new Snapshot(names, Map.copyOf(codes));
+        BY_DB.computeIfAbsent(Db.url(), url -> new Snapshot[values().length])[ordinal()] = s;
+        return s;
+    }
+}
@@ -0,0 +1,188 @@
+import java.io.File;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * LookupBench
+ *
+ * Text columns vs lookup codes (V3) for a large exercise catalog.
+ * 1) Load N exercises (default 1,000,000) for 5,000 profiles at schema V2, with muscle,
+ *    difficulty and type as text. Measure the file size (after VACUUM), the heap held by every
+ *    row mapped the old way (a String per column per row), and a COUNT filtered by muscle and
+ *    difficulty.
+ * 2) Apply V3 and measure the same: the file, the heap held by ExerciseDao.getAll(), and the
+ *    filter on codes.
+ * 3) Check nothing changed: the same rows per muscle, and one String instance per muscle.
+ * Usage: LookupBench [rows]. Temp-file database; never touches fitness.db.
+ */
+public class LookupBench {
+
+    private static final int PROFILES = 5_000;
+    private static final int QUERIES = 20;
+    private static final String[] MUSCLES = {"Chest", "Back", "Legs", "Shoulders", "Biceps", "Triceps", "Core", "Glutes"};
+
+    public static void main(String[] args) throws Exception {
+        Class.forName("org.sqlite.JDBC");
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        File dbFile = TestSupport.emptyDb("fitness-lookup");
+
+        // 1) Text
+        long textBytes, textHeap;
+        double textFilter;
+        long[] textCounts = new long[MUSCLES.length];
+        try (Connection c = Db.getConnection()) {
+            Migrator.apply(c, Migrator.migrations().subList(0, 2));
+            load(c, rows);
+            textBytes = compact(c, dbFile);
+            textHeap = retained(() -> readText(c));
+            textFilter = filter(c, "SELECT COUNT(*) FROM exercise WHERE muscle = ? AND difficulty = ?", false);
+            for (int m = 0; m < MUSCLES.length; m++) {
+                textCounts[m] = longQuery(c, "SELECT COUNT(*) FROM exercise WHERE muscle = '" + MUSCLES[m] + "'");
+            }
+        }
+
+        // 2) Codes
+        long t0 = System.nanoTime();
+        try (Connection c = Db.getConnection()) { Migrator.apply(c); }
+        double migrateSecs = (System.nanoTime() - t0) / 1e9;
+        long codeBytes, codeHeap;
+        double codeFilter;
+        List<Exercise> all;
+        try (Connection c = Db.getConnection()) {
+            codeBytes = compact(c, dbFile);
+            ExerciseDao dao = new ExerciseDao();
+            codeHeap = retained(dao::getAll);
+            all = dao.getAll();
+            codeFilter = filter(c, "SELECT COUNT(*) FROM exercise WHERE muscle_id = ? AND difficulty_id = ?", true);
+        }
+
+        System.out.printf("%,d exercises, %d profiles%n", rows, PROFILES);
+        System.out.printf("  file (after VACUUM)      text %8.1f MB   codes %8.1f MB   %.0f%% smaller%n",
+                textBytes / 1e6, codeBytes / 1e6, 100.0 * (textBytes - codeBytes) / textBytes);
+        System.out.printf("  heap, every row mapped   text %8.1f MB   codes %8.1f MB   %.0f%% less (%.0f vs %.0f bytes/row)%n",
+                textHeap / 1e6, codeHeap / 1e6, 100.0 * (textHeap - codeHeap) / textHeap,
+                (double) textHeap / rows, (double) codeHeap / rows);
+        System.out.printf("  COUNT by muscle+difficulty text %6.1f ms  codes %6.1f ms   %.1fx%n",
+                textFilter, codeFilter, textFilter / codeFilter);
+        System.out.printf("V3 with backfill: %.1f s%n", migrateSecs);
+
+        // 3) Same answers
+        ExerciseDao dao = new ExerciseDao();
+        boolean same = true;
+        for (int m = 0; m < MUSCLES.length; m++) {
+            same &= dao.findByMuscle(MUSCLES[m]).size() == textCounts[m];
+        }
+        TestSupport.check("findByMuscle returns the same rows", same);
+        TestSupport.check("unknown muscle matches nothing", dao.findByMuscle("Nope").isEmpty());
+        Set<String> instances = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Exercise e : all) instances.add(e.getMuscle());
+        TestSupport.check("one String instance per muscle (" + instances.size() + ")", instances.size() == MUSCLES.length);
+        Db.shutdown();
+        TestSupport.exitIfFailed();
+    }
+
+    private static void load(Connection c, int rows) throws SQLException {
+        try (Statement st = c.createStatement()) {
+            c.setAutoCommit(false);
+            st.execute("WITH RECURSIVE n(i) AS (SELECT 1 UNION ALL SELECT i + 1 FROM n WHERE i < " + PROFILES + ") "
+                    + "INSERT INTO profile(id, name, level, goal, days_per_week) "
+                    + "SELECT i, 'User ' || i, 'Intermediate', 'Strength', 3 FROM n");
+            StringBuilder muscle = new StringBuilder("CASE (i * 7919) % " + MUSCLES.length);
+            for (int m = 0; m < MUSCLES.length; m++) muscle.append(" WHEN ").append(m).append(" THEN '").append(MUSCLES[m]).append("'");
+            muscle.append(" END");
+            st.execute("WITH RECURSIVE n(i) AS (SELECT 0 UNION ALL SELECT i + 1 FROM n WHERE i < " + (rows - 1) + ") "
+                    + "INSERT INTO exercise(profile_id, name, muscle, equipment, difficulty, type) "
+                    + "SELECT i % " + PROFILES + " + 1, 'Exercise ' || i, "
+                    + "       " + muscle + ", "
+                    + "       'Barbell', "
+                    + "       CASE (i * 31) % 3 WHEN 0 THEN 'Easy' WHEN 1 THEN 'Moderate' ELSE 'Hard' END, "
+                    + "       CASE i % 10 WHEN 0 THEN 'TIME' ELSE 'REPS' END FROM n");
+            c.commit();
+            c.setAutoCommit(true);
+        }
+    }
+
+    private static long compact(Connection c, File dbFile) throws SQLException {
+        try (Statement st = c.createStatement()) {
+            st.execute("VACUUM");
+            st.execute("PRAGMA wal_checkpoint(TRUNCATE)");
+        }
+        return dbFile.length();
+    }
+
+    /** Every exercise row as the pre-V3 mapRow built it: one new String per column. */
+    private static List<Exercise> readText(Connection c) throws SQLException {
+        List<Exercise> out = new ArrayList<>();
+        try (Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery("SELECT id, profile_id, name, muscle, equipment, difficulty, type FROM exercise")) {
+            while (rs.next()) {
+                Exercise e = new Exercise(rs.getInt(2), rs.getString(3), rs.getString(4), rs.getString(5),
+                        rs.getString(6), rs.getString(7));
+                e.setId(rs.getInt(1));
+                out.add(e);
+            }
+        }
+        return out;
+    }
+
+    private interface Load { List<Exercise> get() throws SQLException; }
+
+    /** Heap still held once 'load' returns, with the result kept alive. */
+    private static long retained(Load load) throws SQLException {
+        long before = used();
+        List<Exercise> kept = load.get();
+        long after = used();
+        if (kept.isEmpty()) throw new IllegalStateException("nothing loaded");
+        return after - before;
+    }
+
+    private static long used() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            try { Thread.sleep(100); } catch (InterruptedException ignored) {}
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+    /** ms per COUNT over the whole table, for each muscle x difficulty pair. */
+    private static double filter(Connection c, String sql, boolean codes) throws SQLException {
+        String[] difficulties = {"Easy", "Moderate", "Hard"};
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
+            long t0 = 0;
+            int n = 0;
+            for (int round = 0; round < 2; round++) { // round 0 warms the cache
+                t0 = System.nanoTime();
+                n = 0;
+                for (int q = 0; q < QUERIES; q++) {
+                    String muscle = MUSCLES[q % MUSCLES.length];
+                    String difficulty = difficulties[q % difficulties.length];
+                    if (codes) {
+                        ps.setInt(1, Lookup.MUSCLE.find(c, muscle));
+                        ps.setInt(2, Lookup.DIFFICULTY.find(c, difficulty));
+                    } else {
+                        ps.setString(1, muscle);
+                        ps.setString(2, difficulty);
+                    }
+                    try (ResultSet rs = ps.executeQuery()) { rs.next(); }
+                    n++;
+                }
+            }
+            return (System.nanoTime() - t0) / 1e6 / n;
+        }
+    }
+
+    private static long longQuery(Connection c, String sql) throws SQLException {
+        try (Statement st = c.createStatement(); ResultSet rs = st.executeQuery(sql)) {
+            return rs.next() ? rs.getLong(1) : -1;
+        }
+    }
+}
@@ -1,9 +1,14 @@
 import javafx.application.Application;
 import javafx.scene.Scene;
+import javafx.scene.control.Alert;
+import javafx.scene.control.ButtonBar;
+import javafx.scene.control.ButtonType;
 import javafx.scene.control.Tab;
 import javafx.scene.control.TabPane;
 import javafx.stage.Stage;
 
+import java.sql.Connection;
+
 /**
  * MainApp
  *
@@ -11,7 +16,11 @@ import javafx.stage.Stage;
  * - Creates a TabPane-based UI so everything lives in one window with simple navigation.
  * - Builds the three original tabs (Profiles, Exercises, Equipment) exactly as before.
  * - Adds a fourth tab called "Timer" that hosts my new TimerPane.
+ * - Adds a "Sessions" tab with the paged session history (SessionsView).
  * - Ensures that when the application closes, the timer’s background thread stops cleanly.
+ * - Before the window opens, brings fitness.db's schema up to date (Migrator; one PRAGMA read
+ *   when it already is).
+ * - On launch, offers to resume or save a workout the previous run didn't finish (TimerJournal).
  *
  * Notes I’m keeping from the team:
  * - The “20251103” comments below were left by teammates to mark Sprint 3 work.
@@ -23,6 +32,17 @@ public class MainApp extends Application {
     // I keep a reference to the timer tab’s root so I can shut it down in stop().
     private TimerPane timerPane;
 
+    // Background WAL checkpoints so fitness.db-wal can't grow without limit.
+    private final WalCheckpointer walCheckpointer = new WalCheckpointer();
+
+    @Override
+    public void init() throws Exception {
+        // Runs before start(), off the FX thread. Current schema = one PRAGMA user_version read.
+        try (Connection c = Db.getConnection()) {
+            Migrator.apply(c);
+        }
+    }
+
     @Override
     public void start(Stage stage) {
 
@@ -54,12 +74,20 @@ public class MainApp extends Application {
         Tab t4 = new Tab("Timer", timerPane);                // TimerPane is a Node (VBox)
         t4.setClosable(false);
 
+        // Session history, paged from SQL so long histories open instantly.
+        SessionsView sessionsView = new SessionsView();
+        Tab t5 = new Tab("Sessions", sessionsView.getRoot());
+        t5.setClosable(false);
+
         // 20251106💥 Added Timer tab to the list after Equipment.
-        tabs.getTabs().addAll(t1, t2, t3, t4);
+        tabs.getTabs().addAll(t1, t2, t3, t4, t5);
 
         // When profiles change, refresh the Exercises profile list
         // (This coupling was already part of our UI flow and I’m keeping it.)
-        profilesView.setOnAnyProfileChange(exercisesView::reloadProfiles);
+        profilesView.setOnAnyProfileChange(() -> {
+            exercisesView.reloadProfiles();
+            sessionsView.reloadProfiles();
+        });
 
         // 20251106💥 Added CSS styling and updated title for final demo.
         Scene scene = new Scene(tabs, 900, 520);
@@ -72,11 +100,16 @@ public class MainApp extends Application {
         // Initial load for each view so the tables/spinners have data right away.
         profilesView.refresh();
         exercisesView.reloadProfiles();
+        sessionsView.reloadProfiles();
 
         // 20251103 Initial load for EquipmentView
         equipmentView.refresh();
 
         // TimerPane shows 00:00 at start by design; no explicit refresh needed here.
+        // If the last run died mid-workout, offer to pick it up again.
+        offerTimerRecovery(tabs, t4);
+
+        walCheckpointer.start();
     }
 
     @Override
@@ -87,6 +120,45 @@ public class MainApp extends Application {
         if (timerPane != null) {
             timerPane.shutdown();
         }
+        TimerService.shutdownScheduler();
+        TimerJournal.shared().close();  // pending checkpoints (and a finished workout's session) go out first
+        SessionLog.shutdownShared();    // logged sessions still buffered go to the WriteQueue
+        // Checkpoint the WAL one last time, then close the pooled connections the DAOs share (see Db).
+        AsyncDao.shutdown();
+        WriteQueue.shutdownShared();   // commit any queued inserts before the pool closes
+        walCheckpointer.stop();
+        Db.shutdown();
+    }
+
+    /**
+     * Replay timer.journal off the FX thread. A workout that finished but wasn't saved is saved
+     * quietly; an interrupted one is offered: resume it, save what was done, or discard it.
+     */
+    private void offerTimerRecovery(TabPane tabs, Tab timerTab) {
+        TimerJournal journal = TimerJournal.shared();
+        AsyncDao.run(journal::recover, found -> found.ifPresent(interrupted -> {
+            if (interrupted.finished()) {
+                journal.finalizeInterrupted(interrupted);
+                return;
+            }
+            ButtonType resume = new ButtonType("Resume");
+            ButtonType save = new ButtonType("Save as Session");
+            ButtonType discard = new ButtonType("Discard", ButtonBar.ButtonData.CANCEL_CLOSE);
+            Alert ask = new Alert(Alert.AlertType.CONFIRMATION,
+                    "A workout was interrupted at step " + (interrupted.segment() + 1) + " after "
+                            + Math.round(interrupted.activeMillis() / 60_000.0) + " min. What should I do with it?",
+                    resume, save, discard);
+            ask.setHeaderText("Unfinished workout");
+            ButtonType choice = ask.showAndWait().orElse(discard);
+            if (choice == resume) {
+                tabs.getSelectionModel().select(timerTab);
+                timerPane.resumeInterrupted(interrupted);
+            } else if (choice == save) {
+                journal.finalizeInterrupted(interrupted);
+            } else {
+                journal.discard();
+            }
+        }));
     }
 
     public static void main(String[] args) {
@@ -2,42 +2,343 @@ import java.io.BufferedReader;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.zip.CRC32;
 
+/**
+ * Migrator
+ *
+ * Purpose:
+ * Brings a database up to the schema this build expects, one versioned step at a time, without
+ * touching data that's already there. An up-to-date database costs one PRAGMA read.
+ *
+ * How it works:
+ * - migrations() lists the scripts in order: resources/db/V<n>__<what>.sql. Each one runs once,
+ *   in its own transaction, and gets a row in schema_version (version, description, CRC32 of
+ *   the script, when, how long). PRAGMA user_version is set to the version in the same
+ *   transaction, so a crash leaves the database at the last complete step.
+ * - Fast path: if user_version is already LATEST_VERSION, apply() returns right after
+ *   reading it. The scripts are only loaded (read, checksummed, split) when a step is due.
+ * - Otherwise the checksums of applied scripts are compared first. A script edited after it
+ *   was applied is an error: the change belongs in a new script.
+ * - Large-table steps: a statement preceded by a "-- chunked" line (optionally "-- chunked
+ *   2000") runs over and over with ? bound to the chunk size, one commit per chunk, until it
+ *   changes no rows. It must pick only rows not done yet, e.g.
+ *   UPDATE t SET c = ... WHERE rowid IN (SELECT rowid FROM t WHERE c IS NULL LIMIT ?).
+ *   Statements before it run in the script's first transaction; statements after it (e.g.
+ *   dropping a helper index) run in the last one, with the schema_version update. The version
+ *   is marked pending while chunks run, so an interrupted backfill resumes.
+ * - Scripts run with foreign keys off, so one can rebuild a table (create the new one, copy,
+ *   drop the old one, rename) without the drop cascading into the tables that reference it.
+ *   PRAGMA foreign_key_check runs in the transaction that marks the step done, and any
+ *   dangling key fails the step instead.
+ * - Statements are split on ';' outside strings, comments and trigger bodies.
+ * - "${search_text(col)}" in a script becomes FullText.searchTextSql(col), so V5's token
+ *   columns and the search box split text on one list. The checksum covers the expanded
+ *   text: changing FullText.SEPARATORS after V5 ran is refused like an edited script.
+ *
+ * Threading notes:
+ * - Run it once per process before the DAOs are used (MainApp.init(), the tests, the benches).
+ */
 public class Migrator {
+
+    /** Rows per commit for "-- chunked" statements that don't name their own size. */
+    static final int CHUNK_ROWS = 5_000;
+
+    private static final Pattern CHUNKED = Pattern.compile("(?m)^\\s*--\\s*chunked(?:\\s+(\\d+))?\\s*$");
+    private static final Pattern TRIGGER = Pattern.compile("^CREATE\\s+(?:TEMP\\s+|TEMPORARY\\s+)?TRIGGER\\b");
+    private static final Pattern SEARCH_TEXT = Pattern.compile("\\$\\{search_text\\((\\w+)\\)}");
+
+    /** The last step in migrations(). Bump it with every new script. */
+    static final int LATEST_VERSION = 5;
+
+    /** Every schema step, oldest first. Append only; never renumber or edit an applied one. */
+    static List<Migration> migrations() {
+        return Scripts.ALL;
+    }
+
+    // Loaded on first use, so an up-to-date database never reads or parses a script.
+    private static final class Scripts {
+        static final List<Migration> ALL = List.of(
+                Migration.load(1, "baseline", "/db/V1__baseline.sql"),
+                Migration.load(2, "session ts", "/db/V2__session_ts.sql"),
+                Migration.load(3, "lookups", "/db/V3__lookups.sql"),
+                Migration.load(4, "exercise indexes", "/db/V4__exercise_indexes.sql"),
+                Migration.load(5, "search", "/db/V5__search.sql")
+        );
+
+        static {
+            if (ALL.get(ALL.size() - 1).version != LATEST_VERSION) {
+                throw new IllegalStateException("LATEST_VERSION is " + LATEST_VERSION
+                        + " but the last migration is V" + ALL.get(ALL.size() - 1).version);
+            }
+        }
+    }
+
+    /** One versioned script, split into statements. */
+    static final class Migration {
+        final int version;
+        final String description;
+        final long checksum;
+        final List<String> statements = new ArrayList<>();   // first transaction
+        final List<String> chunked = new ArrayList<>();
+        final List<Integer> chunkRows = new ArrayList<>();
+        final List<String> after = new ArrayList<>();        // after the chunks, last transaction
+
+        Migration(int version, String description, String sql) {
+            this.version = version;
+            this.description = description;
+            String text = SEARCH_TEXT.matcher(sql.replace("\r\n", "\n"))
+                    .replaceAll(m -> Matcher.quoteReplacement(FullText.searchTextSql(m.group(1))));
+            CRC32 crc = new CRC32();
+            crc.update(text.getBytes(StandardCharsets.UTF_8));
+            this.checksum = crc.getValue();
+            for (String s : split(text)) {
+                Matcher m = CHUNKED.matcher(s);
+                if (m.find()) {
+                    chunked.add(s);
+                    chunkRows.add(m.group(1) == null ? CHUNK_ROWS : Integer.parseInt(m.group(1)));
+                } else {
+                    (chunked.isEmpty() ? statements : after).add(s);
+                }
+            }
+        }
+
+        static Migration load(int version, String description, String resource) {
+            try (BufferedReader r = new BufferedReader(new InputStreamReader(
+                    Objects.requireNonNull(Migrator.class.getResourceAsStream(resource), resource),
+                    StandardCharsets.UTF_8))) {
+                return new Migration(version, description, r.lines().collect(Collectors.joining("\n")));
+            } catch (java.io.IOException e) {
+                throw new IllegalStateException("cannot read " + resource, e);
+            }
+        }
+    }
+
+    // Usage: Migrator [durable|balanced|fast]  (or -Dfitness.db.profile=...). Default: balanced.
     public static void main(String[] args) throws Exception {
         Class.forName("org.sqlite.JDBC");
-        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:fitness.db")) {
-            conn.setAutoCommit(false);
-
-            try (Statement st = conn.createStatement()) {
-                st.execute("PRAGMA foreign_keys = ON;");
-
-                String sql = new BufferedReader(new InputStreamReader(
-                        Objects.requireNonNull(Migrator.class.getResourceAsStream("/schema.sql")),
-                        StandardCharsets.UTF_8)).lines().collect(Collectors.joining("\n"));
-
-                // Remove single-line comments and split on ';'
-                for (String raw : sql.replaceAll("(?m)^\\s*--.*$", "").split(";")) {
-                    String s = raw.trim();
-                    if (s.isEmpty()) continue;
-                    try {
-                        st.execute(s);
-                    } catch (SQLException e) {
-                        // Ignore harmless reruns
-                        String msg = e.getMessage().toLowerCase();
-                        if (msg.contains("already exists")) {
-                            // ok to ignore on rerun
-                        } else {
-                            throw e;
-                        }
-                    }
+        StorageProfile profile = StorageProfile.parse(
+                args.length > 0 ? args[0] : System.getProperty("fitness.db.profile"));
+        try (Connection conn = Db.getConnection()) {
+            int applied = apply(conn);
+            applyProfile(conn, profile);
+            System.out.println("✅ Schema at V" + latestVersion() + " (" + applied + " migration(s) applied, storage profile "
+                    + profile + ").");
+        }
+        Db.shutdown();
+    }
+
+    // Switches the file to WAL and records the profile so every process's Db pool uses it.
+    static void applyProfile(Connection conn, StorageProfile profile) throws SQLException {
+        profile.apply(conn);
+        profile.store(conn);
+    }
+
+    /** The version this build's schema is at. */
+    static int latestVersion() {
+        return LATEST_VERSION;
+    }
+
+    /** Bring Db's database up to date (scripts run against fitness.db call this first). False if it failed. */
+    static boolean ensureCurrent() {
+        try (Connection c = Db.getConnection()) {
+            apply(c);
+            return true;
+        } catch (SQLException e) {
+            System.out.println("❌ migrate failed: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // Brings the database on this connection up to date. Returns how many migrations ran.
+    static int apply(Connection conn) throws SQLException {
+        if (userVersion(conn) == LATEST_VERSION) return 0; // before the scripts are loaded
+        return apply(conn, migrations());
+    }
+
+    static int apply(Connection conn, List<Migration> migrations) throws SQLException {
+        int latest = migrations.get(migrations.size() - 1).version;
+        int current = userVersion(conn);
+        if (current == latest) return 0;  // the common case: one PRAGMA read
+        if (current > latest) {
+            throw new SQLException("database schema is V" + current + ", newer than this build (V" + latest + ")");
+        }
+
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(true);
+        try (Statement st = conn.createStatement()) {
+            st.execute("PRAGMA foreign_keys = OFF"); // a no-op inside a transaction, so set it first
+            st.execute("CREATE TABLE IF NOT EXISTS schema_version ("
+                    + " version INTEGER PRIMARY KEY,"
+                    + " description TEXT NOT NULL,"
+                    + " checksum INTEGER NOT NULL,"
+                    + " applied_at TEXT NOT NULL DEFAULT (datetime('now')),"
+                    + " execution_ms INTEGER NOT NULL DEFAULT 0,"
+                    + " pending INTEGER NOT NULL DEFAULT 0)");
+            Map<Integer, long[]> applied = readApplied(conn); // version -> {checksum, pending}
+
+            for (Migration m : migrations) {
+                long[] row = applied.get(m.version);
+                if (row != null && row[0] != m.checksum) {
+                    throw new SQLException("migration V" + m.version + " (" + m.description
+                            + ") was changed after it was applied; add a new migration instead");
+                }
+            }
+
+            int ran = 0;
+            for (Migration m : migrations) {
+                long[] row = applied.get(m.version);
+                if (row != null && row[1] == 0) continue;
+                long t0 = System.nanoTime();
+                if (row == null) runScript(conn, m);
+                runChunks(conn, m);
+                finish(conn, m, (System.nanoTime() - t0) / 1_000_000L);
+                ran++;
+            }
+            return ran;
+        } finally {
+            try (Statement st = conn.createStatement()) { st.execute("PRAGMA foreign_keys = ON"); }
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    private static int userVersion(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement(); ResultSet rs = st.executeQuery("PRAGMA user_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static Map<Integer, long[]> readApplied(Connection conn) throws SQLException {
+        Map<Integer, long[]> out = new HashMap<>();
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT version, checksum, pending FROM schema_version")) {
+            while (rs.next()) out.put(rs.getInt(1), new long[] {rs.getLong(2), rs.getInt(3)});
+        }
+        return out;
+    }
+
+    // The script's plain statements, and its schema_version row, in one transaction.
+    private static void runScript(Connection conn, Migration m) throws SQLException {
+        conn.setAutoCommit(false);
+        try (Statement st = conn.createStatement();
+             PreparedStatement ps = conn.prepareStatement(
+                     "INSERT INTO schema_version(version, description, checksum, pending) VALUES(?,?,?,?)")) {
+            for (String s : m.statements) st.execute(s);
+            ps.setInt(1, m.version);
+            ps.setString(2, m.description);
+            ps.setLong(3, m.checksum);
+            ps.setInt(4, m.chunked.isEmpty() ? 0 : 1);
+            ps.executeUpdate();
+            if (m.chunked.isEmpty()) {
+                checkForeignKeys(st);
+                st.execute("PRAGMA user_version = " + m.version);
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw new SQLException("migration V" + m.version + " (" + m.description + ") failed: " + e.getMessage(), e);
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    // "-- chunked" statements: one short transaction per chunk until nothing is left to do.
+    private static void runChunks(Connection conn, Migration m) throws SQLException {
+        for (int i = 0; i < m.chunked.size(); i++) {
+            try (PreparedStatement ps = conn.prepareStatement(m.chunked.get(i))) {
+                ps.setInt(1, m.chunkRows.get(i));
+                while (ps.executeUpdate() > 0) {
+                    // autocommit: each chunk is its own transaction
                 }
             }
+        }
+    }
 
+    private static void finish(Connection conn, Migration m, long elapsedMs) throws SQLException {
+        conn.setAutoCommit(false);
+        try (Statement st = conn.createStatement();
+             PreparedStatement ps = conn.prepareStatement(
+                     "UPDATE schema_version SET pending = 0, execution_ms = execution_ms + ? WHERE version = ?")) {
+            for (String s : m.after) st.execute(s);
+            ps.setLong(1, elapsedMs);
+            ps.setInt(2, m.version);
+            ps.executeUpdate();
+            if (!m.chunked.isEmpty()) checkForeignKeys(st); // runScript checked the others
+            st.execute("PRAGMA user_version = " + m.version);
             conn.commit();
-            System.out.println("✅ Schema applied successfully.");
+        } catch (SQLException e) {
+            conn.rollback();
+            throw new SQLException("migration V" + m.version + " (" + m.description + ") failed: " + e.getMessage(), e);
+        } finally {
+            conn.setAutoCommit(true);
         }
     }
+
+    // What foreign_keys = ON would have refused while the script ran.
+    private static void checkForeignKeys(Statement st) throws SQLException {
+        try (ResultSet rs = st.executeQuery("PRAGMA foreign_key_check")) {
+            if (rs.next()) {
+                throw new SQLException("FOREIGN KEY constraint failed: " + rs.getString(1) + " rowid " + rs.getLong(2)
+                        + " references a missing " + rs.getString(3) + " row");
+            }
+        }
+    }
+
+    /** Split a script on ';' outside quotes, comments and CREATE TRIGGER ... END bodies. */
+    static List<String> split(String sql) {
+        List<String> out = new ArrayList<>();
+        StringBuilder cur = new StringBuilder();
+        StringBuilder code = new StringBuilder(); // cur without comments and string contents
+        int n = sql.length();
+        for (int i = 0; i < n; i++) {
+            char ch = sql.charAt(i);
+            if (ch == '-' && i + 1 < n && sql.charAt(i + 1) == '-') {
+                int end = sql.indexOf('\n', i);
+                if (end < 0) end = n;
+                cur.append(sql, i, end);
+                i = end - 1;
+            } else if (ch == '/' && i + 1 < n && sql.charAt(i + 1) == '*') {
+                int end = sql.indexOf("*/", i + 2);
+                end = end < 0 ? n : end + 2;
+                cur.append(sql, i, end);
+                i = end - 1;
+            } else if (ch == '\'' || ch == '"') {
+                int end = i + 1;
+                while (end < n && !(sql.charAt(end) == ch && (end + 1 >= n || sql.charAt(end + 1) != ch))) {
+                    end += sql.charAt(end) == ch ? 2 : 1; // doubled quote is an escaped quote
+                }
+                end = Math.min(n, end + 1);
+                cur.append(sql, i, end);
+                code.append(ch).append(ch);
+                i = end - 1;
+            } else if (ch == ';' && !insideTrigger(code)) {
+                add(out, cur);
+                cur.setLength(0);
+                code.setLength(0);
+            } else {
+                cur.append(ch);
+                code.append(ch);
+            }
+        }
+        add(out, cur);
+        return out;
+    }
+
+    private static boolean insideTrigger(StringBuilder code) {
+        String s = code.toString().trim().toUpperCase();
+        return TRIGGER.matcher(s).find() && !s.matches("(?s).*\\bEND$");
+    }
+
+    private static void add(List<String> out, StringBuilder stmt) {
+        String s = stmt.toString().trim();
+        if (!s.replaceAll("(?s)/\\*.*?\\*/", "").replaceAll("(?m)^\\s*--.*$", "").trim().isEmpty()) out.add(s);
+    }
 }
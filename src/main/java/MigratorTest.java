@@ -0,0 +1,199 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * MigratorTest
+ *
+ * 1) Fresh database: every migration runs once, schema_version and user_version record it.
+ * 2) Already current: apply() is one PRAGMA read. Timed against re-running the baseline script,
+ *    which is what every startup used to do. Existing rows survive (the old script dropped them).
+ * 3) A database from before versioning (tables, no schema_version) adopts the baseline as is,
+ *    and V3 rebuilds exercise and profile with codes for the text muscle/level/... values:
+ *    NOT NULL where V1 had it, referencing the lookups, no cascade into workouts or sessions,
+ *    no reused ids.
+ * 4) Editing an applied script is refused; a database newer than the build is refused; a
+ *    script that leaves a dangling foreign key is refused.
+ * 5) A chunked backfill over 50k rows commits in chunks, and resumes after an interruption.
+ * 6) The statement splitter keeps trigger bodies and quoted ';' together.
+ * Temp-file databases; never touches fitness.db.
+ */
+public class MigratorTest {
+
+    public static void main(String[] args) throws Exception {
+        Class.forName("org.sqlite.JDBC");
+        TestSupport.emptyDb("fitness-migrate");
+        int latest = Migrator.latestVersion();
+
+        try (Connection c = Db.getConnection()) {
+            // 1) Fresh
+            int ran = Migrator.apply(c);
+            TestSupport.check("fresh database ran every migration", ran == Migrator.migrations().size());
+            TestSupport.check("user_version = " + latest, intQuery(c, "PRAGMA user_version") == latest);
+            TestSupport.check("LATEST_VERSION is the last script's version",
+                    Migrator.migrations().get(Migrator.migrations().size() - 1).version == latest);
+            TestSupport.check("schema_version has one row per migration",
+                    intQuery(c, "SELECT COUNT(*) FROM schema_version WHERE pending = 0") == Migrator.migrations().size());
+
+            // 2) Current: fast path, data kept
+            int profileId = new ProfileDao().insert(new Profile("Keep", "Beginner", "Strength", 3));
+            for (int i = 0; i < 200; i++) Migrator.apply(c); // warm-up
+            int runs = 5_000;
+            long t0 = System.nanoTime();
+            for (int i = 0; i < runs; i++) Migrator.apply(c);
+            double fastUs = (System.nanoTime() - t0) / 1e3 / runs;
+
+            Migrator.Migration baseline = Migrator.migrations().get(0);
+            t0 = System.nanoTime();
+            int scriptRuns = 200;
+            for (int i = 0; i < scriptRuns; i++) {
+                try (Statement st = c.createStatement()) {
+                    for (String s : baseline.statements) st.execute(s);
+                }
+            }
+            double scriptUs = (System.nanoTime() - t0) / 1e3 / scriptRuns;
+            System.out.printf("startup schema check: %.1f us (user_version) vs %.1f us (re-run baseline script, no drops)%n",
+                    fastUs, scriptUs);
+            TestSupport.check("up-to-date apply runs nothing", Migrator.apply(c) == 0);
+            TestSupport.check("existing rows survive", new ProfileDao().findById(profileId).isPresent());
+
+            // 4) Edited script / newer database
+            List<Migrator.Migration> edited = new ArrayList<>(Migrator.migrations());
+            edited.set(0, new Migrator.Migration(1, "baseline", "CREATE TABLE IF NOT EXISTS x(a);"));
+            edited.add(new Migrator.Migration(latest + 1, "later", "CREATE TABLE later(a);"));
+            TestSupport.check("edited applied script is refused", fails(() -> Migrator.apply(c, edited)));
+            TestSupport.check("refused without changes", intQuery(c, "PRAGMA user_version") == latest
+                    && intQuery(c, "SELECT COUNT(*) FROM sqlite_master WHERE name = 'later'") == 0);
+
+            List<Migrator.Migration> dangling = new ArrayList<>(Migrator.migrations());
+            dangling.add(new Migrator.Migration(latest + 1, "orphan", "INSERT INTO workout(profile_id, name) VALUES(999, 'Orphan');"));
+            TestSupport.check("dangling foreign key is refused", fails(() -> Migrator.apply(c, dangling))
+                    && intQuery(c, "PRAGMA user_version") == latest
+                    && intQuery(c, "SELECT COUNT(*) FROM workout WHERE name = 'Orphan'") == 0
+                    && intQuery(c, "PRAGMA foreign_keys") == 1);
+
+            try (Statement st = c.createStatement()) { st.execute("PRAGMA user_version = " + (latest + 5)); }
+            TestSupport.check("newer database is refused", fails(() -> Migrator.apply(c)));
+            try (Statement st = c.createStatement()) { st.execute("PRAGMA user_version = " + latest); }
+        }
+        Db.shutdown();
+
+        // 3) Pre-versioning database: tables exist, user_version 0, no schema_version
+        TestSupport.emptyDb("fitness-legacy");
+        try (Connection c = Db.getConnection()) {
+            try (Statement st = c.createStatement()) {
+                for (String s : Migrator.migrations().get(0).statements) st.execute(s);
+            }
+            try (Statement st = c.createStatement()) { // the V1 shape: text level/goal/muscle/...
+                st.execute("INSERT INTO profile(id, name, level, goal, days_per_week) VALUES(7, 'Legacy', 'Advanced', 'Powerlifting', 5)");
+                st.execute("INSERT INTO exercise(profile_id, name, muscle, equipment, difficulty, type) "
+                        + "VALUES(7, 'Deadlift', 'Hamstrings', 'Barbell', NULL, 'REPS')");
+                st.execute("INSERT INTO exercise(id, profile_id, name, muscle, type) VALUES(40, 7, 'Gone', 'Back', 'REPS')");
+                st.execute("DELETE FROM exercise WHERE id = 40");
+                st.execute("INSERT INTO workout(id, profile_id, name) VALUES(3, 7, 'Pull')");
+                st.execute("INSERT INTO workout_exercise VALUES(3, 1, 1, 3, 5)");
+                st.execute("INSERT INTO session(profile_id, workout_id, date_iso, total_minutes) VALUES(7, 3, '2025-01-01', 40)");
+            }
+            int profileId = 7;
+            TestSupport.check("legacy database gets versioned", Migrator.apply(c) == Migrator.migrations().size()
+                    && intQuery(c, "PRAGMA user_version") == latest);
+            Profile legacyProfile = new ProfileDao().findById(profileId).orElse(null);
+            Exercise legacyExercise = new ExerciseDao().findByProfile(profileId).get(0);
+            TestSupport.check("legacy rows survive, text turned into codes", legacyProfile != null
+                    && legacyProfile.getLevel().equals("Advanced") && legacyProfile.getGoal().equals("Powerlifting")
+                    && legacyExercise.getMuscle().equals("Hamstrings") && legacyExercise.getDifficulty() == null
+                    && legacyExercise.getType().equals("REPS"));
+            TestSupport.check("text columns dropped", intQuery(c, "SELECT COUNT(*) FROM pragma_table_info('exercise') "
+                    + "WHERE name IN ('muscle', 'difficulty', 'type')") == 0);
+            TestSupport.check("rebuild didn't cascade: workout, its exercise row and session kept",
+                    intQuery(c, "SELECT COUNT(*) FROM workout WHERE profile_id = 7") == 1
+                            && intQuery(c, "SELECT COUNT(*) FROM workout_exercise WHERE exercise_id = 1") == 1
+                            && intQuery(c, "SELECT COUNT(*) FROM session WHERE profile_id = 7") == 1);
+            int nordic = new ExerciseDao().insert(new Exercise(profileId, "Nordic Curl", "Hamstrings", "None", "Brutal", "REPS"));
+            TestSupport.check("a new value gets a code", nordic > 0
+                    && new ExerciseDao().findByMuscle("Hamstrings").size() == 2
+                    && intQuery(c, "SELECT COUNT(*) FROM difficulty WHERE name = 'Brutal'") == 1);
+            TestSupport.check("a deleted row's id isn't reused after the rebuild (" + nordic + ")", nordic > 40);
+            TestSupport.check("muscle/type/level/goal are NOT NULL columns",
+                    intQuery(c, "SELECT COUNT(*) FROM pragma_table_info('exercise') WHERE \"notnull\" "
+                            + "AND name IN ('muscle_id', 'type_id')") == 2
+                            && intQuery(c, "SELECT COUNT(*) FROM pragma_table_info('profile') WHERE \"notnull\" "
+                            + "AND name IN ('level_id', 'goal_id')") == 2
+                            && fails(() -> c.createStatement().execute("INSERT INTO exercise(profile_id, name, equipment, type_id) "
+                            + "VALUES(7, 'No Muscle', 'None', 1)"))
+                            && fails(() -> c.createStatement().execute("UPDATE profile SET goal_id = NULL WHERE id = 7"))
+                            && fails(() -> {
+                                try (PreparedStatement ps = c.prepareStatement("SELECT ?")) { Lookup.MUSCLE.bind(ps, 1, null); }
+                            }));
+            TestSupport.check("codes reference their lookup table",
+                    fails(() -> c.createStatement().execute("UPDATE exercise SET muscle_id = 999 WHERE id = 1"))
+                            && fails(() -> c.createStatement().execute("UPDATE profile SET level_id = 999 WHERE id = 7")));
+
+            // 5) Chunked backfill
+            try (Statement st = c.createStatement()) {
+                st.execute("CREATE TABLE big(x INTEGER)");
+                st.execute("WITH RECURSIVE n(i) AS (SELECT 1 UNION ALL SELECT i + 1 FROM n WHERE i < 50000) "
+                        + "INSERT INTO big(x) SELECT i FROM n");
+            }
+            String script = "ALTER TABLE big ADD COLUMN y INTEGER;\n"
+                    + "-- chunked 4000\n"
+                    + "UPDATE big SET y = x * 2 WHERE rowid IN (SELECT rowid FROM big WHERE y IS NULL LIMIT ?);\n";
+            List<Migrator.Migration> withBackfill = new ArrayList<>(Migrator.migrations());
+            Migrator.Migration backfill = new Migrator.Migration(latest + 1, "backfill big.y", script);
+            withBackfill.add(backfill);
+            TestSupport.check("chunked statement recognised", backfill.statements.size() == 1 && backfill.chunked.size() == 1
+                    && backfill.chunkRows.get(0) == 4000);
+
+            // Interrupted: the ALTER committed and part of the backfill ran, then the app died
+            try (Statement st = c.createStatement()) {
+                st.execute(backfill.statements.get(0));
+                st.execute("INSERT INTO schema_version(version, description, checksum, pending) VALUES("
+                        + backfill.version + ", 'backfill big.y', " + backfill.checksum + ", 1)");
+                st.execute("UPDATE big SET y = x * 2 WHERE rowid <= 10000");
+            }
+            long t0 = System.nanoTime();
+            TestSupport.check("interrupted backfill resumes", Migrator.apply(c, withBackfill) == 1);
+            System.out.printf("resumed backfill of 40,000 rows in %.1f ms%n", (System.nanoTime() - t0) / 1e6);
+            TestSupport.check("every row backfilled", intQuery(c, "SELECT COUNT(*) FROM big WHERE y = x * 2") == 50_000);
+            TestSupport.check("then marked done", intQuery(c, "PRAGMA user_version") == latest + 1
+                    && intQuery(c, "SELECT pending FROM schema_version WHERE version = " + backfill.version) == 0);
+        }
+        Db.shutdown();
+
+        // 6) Splitter
+        List<String> parts = Migrator.split("""
+                CREATE TABLE t(a TEXT DEFAULT 'x;y');
+                -- a comment; with a semicolon
+                CREATE TRIGGER t_ai AFTER INSERT ON t BEGIN
+                    INSERT INTO t(a) SELECT 'z' WHERE 0;
+                    DELETE FROM t WHERE 0;
+                END;
+                /* trailing */
+                """);
+        TestSupport.check("2 statements, trigger kept whole", parts.size() == 2 && parts.get(1).endsWith("END")
+                && parts.get(0).contains("'x;y'"));
+        TestSupport.exitIfFailed();
+    }
+
+    private interface SqlRun { void run() throws SQLException; }
+
+    private static boolean fails(SqlRun r) {
+        try {
+            r.run();
+            return false;
+        } catch (SQLException e) {
+            System.out.println("   refused: " + e.getMessage());
+            return true;
+        }
+    }
+
+    private static int intQuery(Connection c, String sql) throws SQLException {
+        try (Statement st = c.createStatement(); ResultSet rs = st.executeQuery(sql)) {
+            return rs.next() ? rs.getInt(1) : -1;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated query.
+ * nextPageToken is opaque to callers: pass it back to get the following page.
+ * It is null when there are no more rows.
+ */
+public class Page<T> {
+    private final List<T> items;
+    private final String nextPageToken;
+
+    public Page(List<T> items, String nextPageToken) {
+        this.items = List.copyOf(items);
+        this.nextPageToken = nextPageToken;
+    }
+
+    public List<T> getItems() { return items; }
+    public String getNextPageToken() { return nextPageToken; }
+    public boolean hasNext() { return nextPageToken != null; }
+
+    @Override public String toString() {
+        return "Page{" +
+                "items=" + items.size() +
+                ", nextPageToken='" + nextPageToken + '\'' +
+                '}';
+    }
+}
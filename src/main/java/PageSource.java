@@ -0,0 +1,47 @@
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * A DAO-backed, random-access row source for PagedTableModel.
+ * count() sizes the table; fetch() returns rows [offset, offset+limit) in the requested order.
+ * Implementations run on a background worker, never on the FX thread.
+ */
+public interface PageSource<T> {
+
+    int count();
+
+    List<T> fetch(int offset, int limit, List<Sort> sort);
+
+    /** Build a source from a count query and a range query (usually two DAO method refs). */
+    static <T> PageSource<T> of(java.util.function.IntSupplier count, Range<T> range) {
+        return new PageSource<>() {
+            @Override public int count() { return count.getAsInt(); }
+            @Override public List<T> fetch(int offset, int limit, List<Sort> sort) {
+                return range.fetch(offset, limit, sort);
+            }
+        };
+    }
+
+    @FunctionalInterface
+    interface Range<T> {
+        List<T> fetch(int offset, int limit, List<Sort> sort);
+    }
+
+    /** One ORDER BY term. key is a logical column name; each DAO whitelists the keys it supports. */
+    record Sort(String key, boolean ascending) {}
+
+    /**
+     * Build an ORDER BY clause from sort keys. Unknown keys are ignored (never concatenated into
+     * SQL), and tieBreak is always appended so OFFSET paging is stable across pages.
+     */
+    static String orderBy(List<Sort> sort, Map<String, String> allowed, String tieBreak) {
+        StringJoiner terms = new StringJoiner(", ", " ORDER BY ", "");
+        for (Sort s : sort) {
+            String column = allowed.get(s.key());
+            if (column != null) terms.add(column + (s.ascending() ? " ASC" : " DESC"));
+        }
+        terms.add(tieBreak);
+        return terms.toString();
+    }
+}
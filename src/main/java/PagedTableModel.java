@@ -0,0 +1,184 @@
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+import javafx.collections.ObservableListBase;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * PagedTableModel
+ *
+ * Purpose:
+ * A lazy item list for TableView. The views used to do table.getItems().setAll(dao.getAll()),
+ * which loads every row before the first paint. TableView already only builds cells for the
+ * visible rows, so if the list itself is lazy we never touch rows nobody scrolls to.
+ *
+ * How it works:
+ * - size() comes from a COUNT query; get(i) returns the row if its page is cached.
+ * - If the page isn't cached, get(i) returns null (an empty row), asks the PageSource for
+ *   that page on a background worker, and fires a change when it arrives so the cells repaint.
+ * - Only maxPages pages are kept; the least recently used page is dropped first.
+ * - bindTo(table) sets the items and replaces TableView's in-memory sort with a reload that
+ *   sends the sort to SQL as ORDER BY. Column ids (column.setId("name")) are the sort keys.
+ * - refresh() or setSource() start a new generation; late pages from an older generation
+ *   (a previous sort, a previous profile) are dropped.
+ *
+ * Threading notes:
+ * - Everything here runs on the FX thread except PageSource calls, which go through AsyncDao.
+ */
+public class PagedTableModel<T> extends ObservableListBase<T> {
+
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int DEFAULT_MAX_PAGES = 10;
+
+    private final int pageSize;
+    private final int maxPages;
+
+    private PageSource<T> source;
+    private List<PageSource.Sort> sort = List.of();
+    private int size = 0;
+    private long generation = 0;
+
+    /** Cached pages, in access order so the eldest entry is the least recently used. */
+    private final LinkedHashMap<Integer, List<T>> pages = new LinkedHashMap<>(16, 0.75f, true);
+    private final Set<Integer> inFlight = new HashSet<>();
+    private final ReadOnlyBooleanWrapper loading = new ReadOnlyBooleanWrapper(false);
+
+    public PagedTableModel() {
+        this(DEFAULT_PAGE_SIZE, DEFAULT_MAX_PAGES);
+    }
+
+    public PagedTableModel(int pageSize, int maxPages) {
+        this.pageSize = Math.max(1, pageSize);
+        this.maxPages = Math.max(2, maxPages);
+    }
+
+    /** Point the model at a new source (e.g. another profile) and reload. */
+    public void setSource(PageSource<T> source) {
+        this.source = source;
+        refresh();
+    }
+
+    /** True while the count or any page is being fetched. Handy for a busy indicator. */
+    public ReadOnlyBooleanProperty loadingProperty() {
+        return loading.getReadOnlyProperty();
+    }
+
+    /** Use this model as the table's items and push column sorting down to SQL. */
+    public void bindTo(TableView<T> table) {
+        table.setItems(this);
+        table.setSortPolicy(t -> {
+            List<PageSource.Sort> keys = new ArrayList<>();
+            for (TableColumn<T, ?> col : t.getSortOrder()) {
+                if (col.getId() != null) {
+                    keys.add(new PageSource.Sort(col.getId(), col.getSortType() == TableColumn.SortType.ASCENDING));
+                }
+            }
+            if (!keys.equals(sort)) {
+                sort = List.copyOf(keys);
+                refresh();
+            }
+            return true; // we handled it; TableView must not sort the items itself
+        });
+    }
+
+    /** Drop every cached page, re-count and repaint. Call after inserts/updates/deletes. */
+    public void refresh() {
+        long gen = ++generation;
+        pages.clear();
+        inFlight.clear();
+        if (source == null) {
+            resize(0);
+            updateLoading();
+            return;
+        }
+        PageSource<T> src = source;
+        loading.set(true);
+        AsyncDao.call(src::count).whenComplete((n, error) -> Platform.runLater(() -> {
+            if (gen != generation) return; // superseded
+            if (error != null) System.out.println("❌ paged count failed: " + error.getMessage());
+            resize(error != null ? 0 : n);
+            updateLoading();
+        }));
+    }
+
+    @Override
+    public T get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException(index);
+        int page = index / pageSize;
+        List<T> rows = pages.get(page);
+        if (rows == null) {
+            requestPage(page);
+            return null;
+        }
+        int offset = index - page * pageSize;
+        return offset < rows.size() ? rows.get(offset) : null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    // ===== Internals below =====
+
+    private void requestPage(int page) {
+        if (source == null || !inFlight.add(page)) return;
+        long gen = generation;
+        PageSource<T> src = source;
+        List<PageSource.Sort> order = sort;
+        loading.set(true);
+        AsyncDao.call(() -> src.fetch(page * pageSize, pageSize, order)).whenComplete((rows, error) ->
+                Platform.runLater(() -> {
+                    if (gen != generation) return; // an older sort/profile; throw it away
+                    inFlight.remove(page);
+                    if (error != null) {
+                        System.out.println("❌ paged fetch failed: " + error.getMessage());
+                    } else {
+                        pages.put(page, rows);
+                        evictIfNeeded();
+                        firePageLoaded(page);
+                    }
+                    updateLoading();
+                }));
+    }
+
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<Integer, List<T>>> it = pages.entrySet().iterator();
+        while (pages.size() > maxPages && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private void firePageLoaded(int page) {
+        int from = page * pageSize;
+        int to = Math.min(size, from + pageSize);
+        if (from >= to) return;
+        beginChange();
+        nextReplace(from, to, Collections.nCopies(to - from, null));
+        endChange();
+    }
+
+    private void resize(int newSize) {
+        int old = size;
+        size = Math.max(0, newSize);
+        if (old == 0 && size == 0) return;
+        beginChange();
+        nextReplace(0, size, Collections.nCopies(old, null));
+        endChange();
+    }
+
+    private void updateLoading() {
+        loading.set(!inFlight.isEmpty());
+    }
+}
@@ -7,18 +7,16 @@ import java.util.Optional;
 
 public class ProfileDao {
 
-    private static final String URL = "jdbc:sqlite:fitness.db";
-
     // INSERT a new profile
     // CREATE: insert and return generated id
     public int insert(Profile profile) {
-        String sql = "INSERT INTO profile(name, level, goal, days_per_week) VALUES(?,?,?,?)";
-        try (Connection conn = DriverManager.getConnection(URL);
+        String sql = "INSERT INTO profile(name, level_id, goal_id, days_per_week) VALUES(?,?,?,?)";
+        try (Connection conn = Db.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
             ps.setString(1, profile.getName());
-            ps.setString(2, profile.getLevel());
-            ps.setString(3, profile.getGoal());
+            Lookup.LEVEL.bind(ps, 2, profile.getLevel());
+            Lookup.GOAL.bind(ps, 3, profile.getGoal());
             ps.setInt(4, profile.getDaysPerWeek());
             ps.executeUpdate();
 
@@ -39,7 +37,7 @@ public class ProfileDao {
     // Quick get-or-create by name (optional convenience)
     public int getOrCreateByName(String name, String level, String goal, int daysPerWeek) {
         String find = "SELECT id FROM profile WHERE name=?";
-        try (var c = java.sql.DriverManager.getConnection("jdbc:sqlite:fitness.db");
+        try (var c = Db.getConnection();
              var ps = c.prepareStatement(find)) {
             ps.setString(1, name);
             try (var rs = ps.executeQuery()) {
@@ -47,12 +45,12 @@ public class ProfileDao {
             }
         } catch (Exception ignored) {}
 
-        String ins = "INSERT INTO profile(name, level, goal, days_per_week) VALUES (?,?,?,?)";
-        try (var c = java.sql.DriverManager.getConnection("jdbc:sqlite:fitness.db");
+        String ins = "INSERT INTO profile(name, level_id, goal_id, days_per_week) VALUES (?,?,?,?)";
+        try (var c = Db.getConnection();
              var ps = c.prepareStatement(ins, java.sql.Statement.RETURN_GENERATED_KEYS)) {
             ps.setString(1, name);
-            ps.setString(2, level);
-            ps.setString(3, goal);
+            Lookup.LEVEL.bind(ps, 2, level);
+            Lookup.GOAL.bind(ps, 3, goal);
             ps.setInt(4, daysPerWeek);
             ps.executeUpdate();
             try (var keys = ps.getGeneratedKeys()) {
@@ -66,22 +64,13 @@ public class ProfileDao {
     // SELECT all profiles
     public List<Profile> getAllProfiles() {
         List<Profile> profiles = new ArrayList<>();
-        String sql = "SELECT * FROM profile";
+        String sql = "SELECT id, name, level_id, goal_id, days_per_week FROM profile";
 
-        try (Connection conn = DriverManager.getConnection(URL);
+        try (Connection conn = Db.getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
-            while (rs.next()) {
-                Profile p = new Profile(
-                        rs.getInt("id"),
-                        rs.getString("name"),
-                        rs.getString("level"),
-                        rs.getString("goal"),
-                        rs.getInt("days_per_week")
-                );
-                profiles.add(p);
-            }
+            while (rs.next()) profiles.add(mapRow(rs));
 
         } catch (SQLException e) {
             System.out.println("❌ Error reading profiles: " + e.getMessage());
@@ -91,8 +80,8 @@ public class ProfileDao {
 
     // READ: find by id
     public Optional<Profile> findById(int id) {
-        String sql = "SELECT id, name, level, goal, days_per_week FROM profile WHERE id=?";
-        try (Connection conn = DriverManager.getConnection(URL);
+        String sql = "SELECT id, name, level_id, goal_id, days_per_week FROM profile WHERE id=?";
+        try (Connection conn = Db.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
 
             ps.setInt(1, id);
@@ -110,8 +99,8 @@ public class ProfileDao {
     // READ: all
     public List<Profile> getAll() {
         List<Profile> out = new ArrayList<>();
-        String sql = "SELECT id, name, level, goal, days_per_week FROM profile ORDER BY id";
-        try (Connection conn = DriverManager.getConnection(URL);
+        String sql = "SELECT id, name, level_id, goal_id, days_per_week FROM profile ORDER BY id";
+        try (Connection conn = Db.getConnection();
              Statement st = conn.createStatement();
              ResultSet rs = st.executeQuery(sql)) {
 
@@ -122,19 +111,41 @@ public class ProfileDao {
         return out;
     }
 
+    // READ: names containing 'text' (any case), for the live filter in ProfilesView.
+    // Stoppable by QueryScheduler; returns what it has quietly once cancelled.
+    public List<Profile> findByName(String text, QueryScheduler.Ticket ticket) {
+        if (text == null || text.isBlank()) return getAll();
+        List<Profile> out = new ArrayList<>();
+        String sql = "SELECT id, name, level_id, goal_id, days_per_week FROM profile "
+                + "WHERE name LIKE ? ESCAPE '\\' ORDER BY id";
+        try (Connection conn = Db.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, contains(text.strip()));
+            ticket.run(ps, () -> {
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) out.add(mapRow(rs));
+                }
+                return out;
+            });
+        } catch (SQLException e) {
+            if (!ticket.isCancelled()) System.out.println("❌ findByName failed: " + e.getMessage());
+        }
+        return out;
+    }
+
     // UPDATE: returns true if exactly one row updated
     public boolean update(Profile p) {
         String sql = """
             UPDATE profile
-               SET name=?, level=?, goal=?, days_per_week=?
+               SET name=?, level_id=?, goal_id=?, days_per_week=?
              WHERE id=?
             """;
-        try (Connection conn = DriverManager.getConnection(URL);
+        try (Connection conn = Db.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
 
             ps.setString(1, p.getName());
-            ps.setString(2, p.getLevel());
-            ps.setString(3, p.getGoal());
+            Lookup.LEVEL.bind(ps, 2, p.getLevel());
+            Lookup.GOAL.bind(ps, 3, p.getGoal());
             ps.setInt(4, p.getDaysPerWeek());
             ps.setInt(5, p.getId());
             return ps.executeUpdate() == 1;
@@ -147,24 +158,35 @@ public class ProfileDao {
     // DELETE: returns true if exactly one row deleted
     public boolean delete(int id) {
         String sql = "DELETE FROM profile WHERE id=?";
-        try (Connection conn = DriverManager.getConnection(URL);
+        try (Connection conn = Db.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
 
             ps.setInt(1, id);
-            return ps.executeUpdate() == 1;
+            boolean ok = ps.executeUpdate() == 1;
+            if (ok) { // exercises and workouts cascaded away
+                ExerciseCache.shared().invalidateProfile(id);
+                ExerciseNameIndex.shared().invalidateProfile(id);
+                WorkoutPlanCache.shared().invalidateProfile(id);
+            }
+            return ok;
         } catch (SQLException e) {
             System.out.println("❌ delete failed: " + e.getMessage());
             return false;
         }
     }
 
+    // LIKE pattern for "contains": % and _ typed by the user match themselves
+    private static String contains(String text) {
+        return "%" + text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+
     // Helper to map a ResultSet row to Profile
     private static Profile mapRow(ResultSet rs) throws SQLException {
         return new Profile(
                 rs.getInt("id"),
                 rs.getString("name"),
-                rs.getString("level"),
-                rs.getString("goal"),
+                Lookup.LEVEL.name(rs, "level_id"),  // shared instances, not a String per row
+                Lookup.GOAL.name(rs, "goal_id"),
                 rs.getInt("days_per_week")
         );
         // If you later add created_at/updated_at, extend this mapper.
@@ -3,6 +3,7 @@ import java.util.Optional;
 
 public class ProfileDaoCrudTest {
     public static void main(String[] args) {
+        if (!Migrator.ensureCurrent()) return; // fitness.db may be an older schema
         ProfileDao dao = new ProfileDao();
 
         // CREATE
@@ -4,6 +4,7 @@ import java.util.List;
 
 public class ProfileDaoTest {
     public static void main(String[] args) {
+        if (!Migrator.ensureCurrent()) return; // fitness.db may be an older schema
         ProfileDao dao = new ProfileDao();
 
         // Create some test profiles
@@ -6,6 +6,9 @@ import javafx.scene.control.*;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+
+import java.util.List;
 
 public class ProfilesView {
     private final BorderPane root = new BorderPane();
@@ -17,6 +20,12 @@ public class ProfilesView {
 
     private final ProfileDao dao = new ProfileDao();
 
+    private final TextField tfFilter = new TextField();
+    // Table loads run off the FX thread through the scheduler: typing in tfFilter is
+    // debounced, a newer load cancels the one in flight, and only the newest one is rendered.
+    private final QueryScheduler<List<Profile>> loads = new QueryScheduler<>(this::showRows, this::loadFailed);
+    private final ProgressIndicator busy = new ProgressIndicator();
+
     // Callback the MainApp can register to tell ExercisesView to reload profile list
     private Runnable onAnyProfileChange = () -> {};
 
@@ -58,10 +67,23 @@ public class ProfilesView {
         Button btnAdd = new Button("Add");
         Button btnUpdate = new Button("Update");
         Button btnDelete = new Button("Delete");
-        HBox buttons = new HBox(8, btnAdd, btnUpdate, btnDelete);
+        busy.setPrefSize(18, 18);
+        busy.setVisible(false);
+        HBox buttons = new HBox(8, btnAdd, btnUpdate, btnDelete, busy);
         buttons.setPadding(new Insets(0,10,10,10));
 
+        // Live filter
+        tfFilter.setPromptText("Filter by name");
+        tfFilter.textProperty().addListener((obs, old, text) -> {
+            busy.setVisible(true);
+            loads.submit(t -> dao.findByName(text, t));
+        });
+        HBox filter = new HBox(8, new Label("Filter:"), tfFilter);
+        HBox.setHgrow(tfFilter, Priority.ALWAYS);
+        filter.setPadding(new Insets(10, 10, 0, 10));
+
         // Layout
+        root.setTop(filter);
         root.setCenter(table);
         BorderPane bottom = new BorderPane();
         bottom.setCenter(form);
@@ -83,9 +105,11 @@ public class ProfilesView {
             String name = tfName.getText().trim();
             if (name.isEmpty()) { show("Name required"); return; }
             Profile p = new Profile(name, cbLevel.getValue(), cbGoal.getValue(), spDays.getValue());
-            int id = dao.insert(p);
-            if (id > 0) { refresh(); clearForm(); onAnyProfileChange.run(); }
-            else show("Insert failed");
+            busy.setVisible(true);
+            AsyncDao.run(() -> dao.insert(p), id -> {
+                if (id > 0) { refresh(); clearForm(); onAnyProfileChange.run(); }
+                else failed("Insert failed");
+            }, error -> failed("Insert failed"));
         });
 
         btnUpdate.setOnAction(e -> {
@@ -95,22 +119,49 @@ public class ProfilesView {
             sel.setLevel(cbLevel.getValue());
             sel.setGoal(cbGoal.getValue());
             sel.setDaysPerWeek(spDays.getValue());
-            if (dao.update(sel)) { refresh(); onAnyProfileChange.run(); }
-            else show("Update failed");
+            busy.setVisible(true);
+            AsyncDao.run(() -> dao.update(sel), ok -> {
+                if (ok) { refresh(); onAnyProfileChange.run(); }
+                else failed("Update failed");
+            }, error -> failed("Update failed"));
         });
 
         btnDelete.setOnAction(e -> {
             Profile sel = table.getSelectionModel().getSelectedItem();
             if (sel == null) { show("Select a profile to delete"); return; }
-            if (dao.delete(sel.getId())) { refresh(); clearForm(); onAnyProfileChange.run(); }
-            else show("Delete failed");
+            busy.setVisible(true);
+            AsyncDao.run(() -> dao.delete(sel.getId()), ok -> {
+                if (ok) { refresh(); clearForm(); onAnyProfileChange.run(); }
+                else failed("Delete failed");
+            }, error -> failed("Delete failed"));
         });
     }
 
     public Node getRoot() { return root; }
 
     public void refresh() {
-        table.getItems().setAll(dao.getAll());
+        busy.setVisible(true);
+        table.setPlaceholder(new Label("Loading…"));
+        String text = tfFilter.getText();
+        loads.runNow(t -> dao.findByName(text, t));
+    }
+
+    private void showRows(List<Profile> rows) {
+        table.getItems().setAll(rows);
+        table.setPlaceholder(new Label(tfFilter.getText().isBlank() ? "No profiles yet" : "No matches"));
+        busy.setVisible(false);
+    }
+
+    // The newest load timed out or failed: keep the rows shown, stop the spinner.
+    private void loadFailed() {
+        table.setPlaceholder(new Label("Couldn't load profiles"));
+        busy.setVisible(false);
+    }
+
+    // A save didn't happen: stop the spinner and say so.
+    private void failed(String what) {
+        busy.setVisible(false);
+        show(what);
     }
 
     public void setOnAnyProfileChange(Runnable r) {
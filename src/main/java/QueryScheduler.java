@@ -0,0 +1,231 @@
+import javafx.application.Platform;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * QueryScheduler
+ *
+ * Purpose:
+ * Live filter fields (ExercisesView, EquipmentView, ProfilesView) ask for new rows on every
+ * keystroke. Running each of those queries to completion, or on the FX thread, would make
+ * typing stutter on a large table. The scheduler waits for a pause in typing, runs only the
+ * newest query off the FX thread, stops the one it replaces, and applies only the newest
+ * answer.
+ *
+ * How it works:
+ * - submit(query) on every change. It starts after 'debounce' ms without another submit, so
+ *   a burst of keystrokes costs one query. runNow(query) skips the wait (refresh after an edit).
+ * - The query runs on AsyncDao's workers and gets a Ticket. A DAO that supports cancelling
+ *   runs its statement inside ticket.run(ps, work), which makes it cancellable meanwhile.
+ * - A newer submit cancels the one in flight: Ticket.cancel() calls Statement.cancel(), which
+ *   sqlite-jdbc turns into sqlite3_interrupt, so SQLite stops within a few steps instead of
+ *   finishing a scan nobody will look at. A query still running after 'timeout' ms is cancelled
+ *   the same way. (sqlite-jdbc's setQueryTimeout is only a busy timeout, it doesn't stop a
+ *   long SELECT.)
+ * - The result is handed to onResult on the FX thread only if nothing newer was submitted and
+ *   the ticket wasn't cancelled. Late answers are dropped, like AsyncDao.LatestOnly.
+ * - If the newest query times out or fails, onDropped runs on the FX thread instead, so the
+ *   view can take down its spinner. Every newest query ends in exactly one of the two;
+ *   a superseded one ends in neither (its replacement will).
+ *
+ * Threading notes:
+ * - submit()/runNow()/cancel() are cheap and never wait for a query, so they're safe to call
+ *   from the FX thread on every keystroke. State is guarded by 'this'.
+ * - One shared daemon timer thread starts queries and enforces timeouts; it never runs SQL.
+ * - run() is scoped, inside the statement's try-with-resources: the statement is forgotten
+ *   before it closes and its connection goes back to the pool. A late cancel()
+ *   therefore can't interrupt whoever borrows that connection next. Closing the interrupted
+ *   statement also clears SQLite's interrupt, so the connection is fine for reuse.
+ */
+public final class QueryScheduler<T> {
+
+    public static final long DEFAULT_DEBOUNCE_MS = 150;
+    public static final long DEFAULT_TIMEOUT_MS = 5_000;
+
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "query-timer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /** A query run off the FX thread. It should execute its statement through the ticket's run(). */
+    @FunctionalInterface
+    public interface Query<T> {
+        T run(Ticket ticket);
+    }
+
+    /** Snapshot of the counters. */
+    public record Stats(long submitted, long started, long cancelled, long timedOut, long applied) {}
+
+    private final long debounceMs;
+    private final long timeoutMs;
+    private final Consumer<T> onResult;
+    private final Runnable onDropped;
+    private final Executor fx;
+
+    private long generation = 0;
+    private ScheduledFuture<?> pending;
+    private Ticket running;
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong started = new AtomicLong();
+    private final AtomicLong cancelled = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+    private final AtomicLong applied = new AtomicLong();
+
+    /**
+     * Default debounce and timeout; results are applied on the FX thread. onDropped runs there
+     * when the newest query timed out or failed.
+     */
+    public QueryScheduler(Consumer<T> onResult, Runnable onDropped) {
+        this(DEFAULT_DEBOUNCE_MS, DEFAULT_TIMEOUT_MS, onResult, onDropped, Platform::runLater);
+    }
+
+    /** 'fx' is where the callbacks run (Platform::runLater in the app; tests pass their own). */
+    QueryScheduler(long debounceMs, long timeoutMs, Consumer<T> onResult, Runnable onDropped, Executor fx) {
+        this.debounceMs = Math.max(0, debounceMs);
+        this.timeoutMs = Math.max(1, timeoutMs);
+        this.onResult = onResult;
+        this.onDropped = onDropped;
+        this.fx = fx;
+    }
+
+    /** Run 'query' once input has been quiet for the debounce delay; replaces anything earlier. */
+    public void submit(Query<T> query) {
+        schedule(query, debounceMs);
+    }
+
+    /** Run 'query' right away; replaces anything earlier. */
+    public void runNow(Query<T> query) {
+        schedule(query, 0);
+    }
+
+    /** Drop the pending query and cancel the running one; nothing is applied until the next submit. */
+    public synchronized void cancel() {
+        generation++;
+        stopCurrent();
+    }
+
+    public Stats stats() {
+        return new Stats(submitted.get(), started.get(), cancelled.get(), timedOut.get(), applied.get());
+    }
+
+    // ===== Internals below =====
+
+    private synchronized void schedule(Query<T> query, long delayMs) {
+        long gen = ++generation;
+        submitted.incrementAndGet();
+        stopCurrent();
+        if (delayMs == 0) start(gen, query);
+        else pending = TIMER.schedule(() -> start(gen, query), delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void stopCurrent() {
+        if (pending != null) {
+            pending.cancel(false);
+            pending = null;
+        }
+        if (running != null) {
+            if (running.cancel()) cancelled.incrementAndGet();
+            running = null;
+        }
+    }
+
+    private void start(long gen, Query<T> query) {
+        Ticket ticket = new Ticket();
+        synchronized (this) {
+            if (gen != generation) return; // superseded while waiting
+            pending = null;
+            running = ticket;
+        }
+        started.incrementAndGet();
+        ScheduledFuture<?> deadline = TIMER.schedule(() -> {
+            if (ticket.cancel()) {
+                timedOut.incrementAndGet();
+                System.out.println("⚠️ query cancelled after " + timeoutMs + " ms");
+            }
+        }, timeoutMs, TimeUnit.MILLISECONDS);
+
+        AsyncDao.call(() -> query.run(ticket)).whenComplete((value, error) -> {
+            deadline.cancel(false);
+            synchronized (this) {
+                if (running == ticket) running = null;
+            }
+            fx.execute(() -> {
+                if (!isLatest(gen)) return; // superseded: the newer query reports instead
+                if (ticket.isCancelled()) { // timed out
+                    onDropped.run();
+                    return;
+                }
+                if (error != null) {
+                    Throwable cause = error.getCause() != null ? error.getCause() : error;
+                    System.out.println("❌ scheduled query failed: " + cause.getMessage());
+                    onDropped.run();
+                    return;
+                }
+                applied.incrementAndGet();
+                onResult.accept(value);
+            });
+        });
+    }
+
+    private synchronized boolean isLatest(long gen) {
+        return gen == generation;
+    }
+
+    /**
+     * One run of a query. DAOs register the statement they're executing so a newer query (or
+     * the timeout) can stop it; after a cancel they should return quietly, not report an error.
+     */
+    public static final class Ticket {
+        private boolean cancelled;
+        private Statement statement;
+
+        /** What run() does while the statement is cancellable. */
+        @FunctionalInterface
+        public interface Work<R> {
+            R run() throws SQLException;
+        }
+
+        public synchronized boolean isCancelled() {
+            return cancelled;
+        }
+
+        /** Do 'work' with 'st' cancellable, then forget it. Throws if already cancelled. */
+        public <R> R run(Statement st, Work<R> work) throws SQLException {
+            synchronized (this) {
+                if (cancelled) throw new SQLException("query cancelled");
+                statement = st;
+            }
+            try {
+                return work.run();
+            } finally {
+                synchronized (this) {
+                    if (statement == st) statement = null;
+                }
+            }
+        }
+
+        /** Returns false if it was already cancelled. */
+        synchronized boolean cancel() {
+            if (cancelled) return false;
+            cancelled = true;
+            if (statement != null) {
+                try {
+                    statement.cancel();
+                } catch (SQLException ignored) {
+                    // already finished or closed; nothing left to stop
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * QuerySchedulerTest
+ *
+ * Runs without JavaFX: results go to a single "fx" thread standing in for the FX thread.
+ * 1) Debounce: 20 keystrokes 20 ms apart start one query, and only the last text is applied.
+ * 2) Cancel: a query that would scan for seconds is stopped by a newer submit through
+ *    Statement.cancel; its worker is free again within milliseconds, only the newer result is
+ *    applied, and every pooled connection still works afterwards.
+ * 3) Timeout: a query running past the timeout is cancelled, nothing is applied, and onDropped
+ *    runs once (superseded queries never call it).
+ * 4) DAOs: typing a name prefix letter by letter into ExerciseDao / ProfileDao / EquipmentDao
+ *    filters applies exactly one result, equal to the same query run directly; submit() itself
+ *    stays far below a 16 ms frame.
+ * Temp-file database; never touches fitness.db.
+ */
+public class QuerySchedulerTest {
+
+    // Counts to 300M: several seconds of VM work unless it's interrupted.
+    private static final String SLOW = "WITH RECURSIVE n(i) AS (SELECT 1 UNION ALL SELECT i + 1 FROM n WHERE i < 300000000) "
+            + "SELECT COUNT(*) FROM n";
+
+    private static final ExecutorService FX = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "fake-fx");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // onDropped of every scheduler below
+    private static final AtomicInteger dropped = new AtomicInteger();
+
+    public static void main(String[] args) throws Exception {
+        Class.forName("org.sqlite.JDBC");
+        TestSupport.scratchDb("fitness-scheduler");
+        try (Connection c = Db.getConnection()) {
+            DatasetGenerator.generate(c, new DatasetGenerator.Config(200, 200, 8, 1, LocalDate.of(2025, 12, 31), 3L));
+        }
+
+        // 1) Debounce
+        List<String> applied = Collections.synchronizedList(new ArrayList<>());
+        QueryScheduler<String> typing = new QueryScheduler<>(100, 5_000, applied::add, dropped::incrementAndGet, FX);
+        String word = "dumbbell row curl";
+        for (int i = 1; i <= 20; i++) {
+            String text = word.substring(0, Math.min(i, word.length()));
+            typing.submit(t -> text);
+            Thread.sleep(20);
+        }
+        Thread.sleep(400);
+        TestSupport.check("debounce: 20 keystrokes -> " + typing.stats(),
+                typing.stats().started() == 1 && applied.equals(List.of(word)));
+
+        // 2) Cancel through Statement.cancel
+        List<Long> results = Collections.synchronizedList(new ArrayList<>());
+        QueryScheduler<Long> counts = new QueryScheduler<>(0, 30_000, results::add, dropped::incrementAndGet, FX);
+        CountDownLatch slowDone = new CountDownLatch(1);
+        long[] slowFinishedAt = new long[1];
+        counts.submit(t -> {
+            long v = slowCount(t);
+            slowFinishedAt[0] = System.nanoTime();
+            slowDone.countDown();
+            return v;
+        });
+        Thread.sleep(300); // let it get going
+        long cancelAt = System.nanoTime();
+        counts.submit(t -> 42L);
+        boolean stopped = slowDone.await(5, TimeUnit.SECONDS);
+        Thread.sleep(200);
+        double stopMs = (slowFinishedAt[0] - cancelAt) / 1e6;
+        System.out.printf("slow query stopped %.1f ms after the newer submit%n", stopMs);
+        TestSupport.check("cancel: slow query interrupted, only the newer result applied " + counts.stats(),
+                stopped && stopMs < 500 && results.equals(List.of(42L)) && counts.stats().cancelled() == 1
+                        && dropped.get() == 0);
+        TestSupport.check("every pooled connection works after the interrupt", poolHealthy());
+
+        // 3) Timeout
+        results.clear();
+        QueryScheduler<Long> bounded = new QueryScheduler<>(0, 200, results::add, dropped::incrementAndGet, FX);
+        long t0 = System.nanoTime();
+        CountDownLatch timedDone = new CountDownLatch(1);
+        bounded.runNow(t -> {
+            long v = slowCount(t);
+            timedDone.countDown();
+            return v;
+        });
+        timedDone.await(5, TimeUnit.SECONDS);
+        double timedMs = (System.nanoTime() - t0) / 1e6;
+        Thread.sleep(100);
+        TestSupport.check(String.format("timeout: cancelled after %.0f ms, nothing applied %s", timedMs, bounded.stats()),
+                timedMs < 1_000 && results.isEmpty() && bounded.stats().timedOut() == 1);
+        TestSupport.check("timeout: onDropped ran once, so the view can clear its spinner", dropped.get() == 1);
+        TestSupport.check("pool still healthy", poolHealthy());
+
+        // 4) Real DAO filters, typed letter by letter
+        ExerciseDao edao = new ExerciseDao();
+        List<PageSource<Exercise>> sources = Collections.synchronizedList(new ArrayList<>());
+        QueryScheduler<PageSource<Exercise>> exercises = new QueryScheduler<>(60, 5_000, sources::add, dropped::incrementAndGet, FX);
+        long worstSubmit = 0;
+        String typed = "barbell";
+        for (int i = 1; i <= typed.length(); i++) {
+            String prefix = typed.substring(0, i);
+            long s = System.nanoTime();
+            exercises.submit(t -> edao.pageSourceByProfile(7, prefix, t));
+            if (i > 1) worstSubmit = Math.max(worstSubmit, System.nanoTime() - s); // the first call links the lambdas
+            Thread.sleep(15);
+        }
+        Thread.sleep(500);
+        int expected = edao.count(ExerciseQuery.forProfile(7).namePrefix(typed));
+        List<Exercise> firstPage = sources.isEmpty() ? List.of() : sources.get(0).fetch(0, 500, List.of());
+        TestSupport.check("exercise filter: one result applied, same rows as a direct query (" + expected + ")",
+                sources.size() == 1 && sources.get(0).count() == expected && firstPage.size() == expected
+                        && firstPage.stream().allMatch(e -> e.getName().toLowerCase().startsWith(typed)));
+
+        ProfileDao pdao = new ProfileDao();
+        List<List<Profile>> profiles = Collections.synchronizedList(new ArrayList<>());
+        QueryScheduler<List<Profile>> profileFilter = new QueryScheduler<>(60, 5_000, profiles::add, dropped::incrementAndGet, FX);
+        for (String text : new String[] {"1", "12", "12%", "12"}) {
+            long s = System.nanoTime();
+            profileFilter.submit(t -> pdao.findByName(text, t));
+            worstSubmit = Math.max(worstSubmit, System.nanoTime() - s);
+            Thread.sleep(10);
+        }
+        Thread.sleep(400);
+        long direct = pdao.getAll().stream().filter(p -> p.getName().contains("12")).count();
+        TestSupport.check("profile filter: one result, same as filtering getAll (" + direct + ")",
+                profiles.size() == 1 && profiles.get(0).size() == direct);
+
+        EquipmentDao eqdao = new EquipmentDao();
+        eqdao.insert(new Equipment("Adjustable Bench", "Bench", "flat to 85%"));
+        eqdao.insert(new Equipment("Power Rack", "Rack", "with safeties"));
+        List<List<Equipment>> equipment = Collections.synchronizedList(new ArrayList<>());
+        QueryScheduler<List<Equipment>> equipmentFilter = new QueryScheduler<>(60, 5_000, equipment::add, dropped::incrementAndGet, FX);
+        equipmentFilter.submit(t -> eqdao.search("ra", t));
+        equipmentFilter.submit(t -> eqdao.search("85%", t));
+        Thread.sleep(400);
+        TestSupport.check("equipment filter: searches notes, '%' matches itself",
+                equipment.size() == 1 && equipment.get(0).size() == 1
+                        && equipment.get(0).get(0).getName().equals("Adjustable Bench"));
+        System.out.printf("slowest submit() call: %.3f ms%n", worstSubmit / 1e6);
+        TestSupport.check("submit() stays well under one 16 ms frame", worstSubmit < 4_000_000);
+        Db.shutdown();
+        TestSupport.exitIfFailed();
+    }
+
+    /** The slow COUNT, cancellable the way the DAOs do it; -1 once cancelled. */
+    private static long slowCount(QueryScheduler.Ticket ticket) {
+        try (Connection c = Db.getConnection();
+             PreparedStatement ps = c.prepareStatement(SLOW)) {
+            return ticket.run(ps, () -> {
+                try (ResultSet rs = ps.executeQuery()) {
+                    return rs.next() ? rs.getLong(1) : -1L;
+                }
+            });
+        } catch (SQLException e) {
+            if (!ticket.isCancelled()) System.out.println("❌ slow count failed: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    /** Borrow every connection at once and run a query on each. */
+    private static boolean poolHealthy() {
+        List<Connection> held = new ArrayList<>();
+        try {
+            for (int i = 0; i < Db.poolSize(); i++) {
+                Connection c = Db.getConnection();
+                held.add(c);
+                try (PreparedStatement ps = c.prepareStatement("SELECT COUNT(*) FROM profile");
+                     ResultSet rs = ps.executeQuery()) {
+                    if (!rs.next() || rs.getInt(1) <= 0) return false;
+                }
+            }
+            return true;
+        } catch (SQLException e) {
+            System.out.println("   " + e.getMessage());
+            return false;
+        } finally {
+            for (Connection c : held) {
+                try { c.close(); } catch (SQLException ignored) {}
+            }
+        }
+    }
+}
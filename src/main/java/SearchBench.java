@@ -0,0 +1,245 @@
+import java.io.File;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * SearchBench
+ *
+ * Full-text search vs LIKE, plus the trigger bookkeeping that keeps the indexes right.
+ * 1) Small database: ExerciseDao.search / SessionDao.search find partial words and the "db"
+ *    abbreviation, rank shorter matches first, stay inside the profile, survive typed FTS5
+ *    syntax, and follow inserts, renames, note edits, deletes and profile cascades. FTS5's own
+ *    integrity-check confirms the index matches the tables.
+ * 2) Large database: N sessions (default 2,000,000), every one with a note, for 2,000 profiles,
+ *    loaded at V4. Time the same question as LIKE over every note, LIKE within one profile,
+ *    and an index with a profile_id token ANDed into the MATCH (the design V5 doesn't use).
+ *    Then apply V5 (index keyed by profile) and time SessionDao.search, also with the last
+ *    word cut to two letters, as while typing.
+ * Usage: SearchBench [sessions]. Temp-file databases; never touches fitness.db.
+ */
+public class SearchBench {
+
+    private static final int PROFILES = 2_000;
+    private static final int QUERIES = 500;
+    // The design V5 doesn't use: a profile_id token ANDed into the MATCH, built only to time it.
+    private static final String[] PROFILE_TOKEN_INDEX = {
+            "CREATE VIRTUAL TABLE token_fts USING fts5(profile_id, notes, content = 'session', content_rowid = 'id', "
+                    + "tokenize = 'unicode61 remove_diacritics 2', prefix = '2 3')",
+            "INSERT INTO token_fts(token_fts, rank) VALUES ('rank', 'bm25(0.0, 1.0)')",
+            "INSERT INTO token_fts(token_fts) VALUES ('rebuild')"};
+    private static final String[] WORDS = {
+            "shoulder", "pain", "knee", "sore", "felt", "strong", "tired", "new", "pr", "deload",
+            "back", "tight", "great", "pump", "low", "energy", "short", "time", "slept", "badly",
+            "hip", "mobility", "warmup", "long", "easy", "hard", "heavy", "light", "form", "check",
+            "elbow", "wrist", "grip", "failed", "last", "set", "cardio", "after", "rest", "extra"};
+
+    public static void main(String[] args) throws Exception {
+        Class.forName("org.sqlite.JDBC");
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        correctness();
+        scale(rows);
+        TestSupport.exitIfFailed();
+    }
+
+    // ===== 1) Small =====
+
+    private static void correctness() throws Exception {
+        File dbFile = TestSupport.scratchDb("fitness-search");
+
+        ProfileDao pdao = new ProfileDao();
+        ExerciseDao edao = new ExerciseDao();
+        SessionDao sdao = new SessionDao();
+        int me = pdao.insert(new Profile("Me", "Intermediate", "Strength", 4));
+        int other = pdao.insert(new Profile("Other", "Beginner", "Strength", 3));
+        int dbPress = edao.insert(new Exercise(me, "Incline DB Press", "Chest", "Dumbbell", "Moderate", "REPS"));
+        int dbFly = edao.insert(new Exercise(me, "Incline Dumbbell Fly", "Chest", "Dumbbell", "Moderate", "REPS"));
+        edao.insert(new Exercise(me, "Incline Walk", "Legs", "Machine", "Easy", "SECS"));
+        int press = edao.insert(new Exercise(me, "Press", "Shoulders", "Barbell", "Hard", "REPS"));
+        edao.insert(new Exercise(me, "Flat Barbell Bench Press", "Chest", "Barbell", "Hard", "REPS"));
+        edao.insert(new Exercise(other, "Incline DB Press", "Chest", "Dumbbell", "Moderate", "REPS"));
+
+        TestSupport.check("\"incline db\" finds DB and Dumbbell, only this profile's",
+                ids(edao.search(me, "incline db", 10)).equals(List.of(dbPress, dbFly))
+                        || ids(edao.search(me, "incline db", 10)).equals(List.of(dbFly, dbPress)));
+        TestSupport.check("partial words: \"incl\" finds 3", edao.search(me, "incl", 10).size() == 3);
+        TestSupport.check("ranked: \"press\" puts the shortest name first",
+                edao.search(me, "press", 10).get(0).getId() == press && edao.search(me, "press", 10).size() == 3);
+        TestSupport.check("limit", edao.search(me, "press", 2).size() == 2);
+        TestSupport.check("accents and case: \"ÍNCLINE\"", edao.search(me, "ÍNCLINE", 10).size() == 3);
+        boolean safe = true;
+        for (String typed : new String[] {"\"", "incline\" OR name:", "AND", "*", "NEAR(", "profile_id : 2", "-", "  "}) {
+            safe &= edao.search(me, typed, 10).stream().allMatch(e -> e.getProfileId() == me);
+        }
+        TestSupport.check("typed FTS5 syntax is just text (no errors, no other profile)", safe);
+
+        Exercise renamed = edao.findById(dbFly).orElseThrow();
+        renamed.setName("Cable Crossover");
+        edao.update(renamed);
+        TestSupport.check("rename: found under the new name, not the old",
+                edao.search(me, "crossover", 10).size() == 1 && edao.search(me, "incline db", 10).size() == 1);
+        edao.delete(dbPress);
+        TestSupport.check("delete: gone from search", edao.search(me, "incline db", 10).isEmpty());
+
+        int s1 = sdao.insert(new Session(me, null, "2025-03-01T18:00:00", 45, 7, "left shoulder pain after OHP"));
+        int s2 = sdao.insert(new Session(me, null, "2025-03-03T18:00:00", 40, 6, "felt strong, no pain"));
+        sdao.insert(new Session(me, null, "2025-03-05T18:00:00", 30, 5, null));
+        sdao.insert(new Session(other, null, "2025-03-05T18:00:00", 30, 5, "shoulder pain again"));
+        TestSupport.check("\"shoulder pain\" finds the note, only this profile's", ids(sdao.search(me, "shoulder pain", 10)).equals(List.of(s1)));
+        TestSupport.check("\"pain\" finds both", sdao.search(me, "pain", 10).size() == 2);
+        TestSupport.check("\"ohp\" matches the word as typed", ids(sdao.search(me, "ohp", 10)).equals(List.of(s1)));
+        Session edited = sdao.findById(s2).orElseThrow();
+        edited.setNotes(null);
+        sdao.update(edited);
+        TestSupport.check("note cleared: no longer found", sdao.search(me, "pain", 10).size() == 1);
+        edited.setNotes("knee a bit sore");
+        sdao.update(edited);
+        TestSupport.check("note added: found", ids(sdao.search(me, "knee sore", 10)).equals(List.of(s2)));
+
+        pdao.delete(other);
+        try (Connection c = Db.getConnection(); Statement st = c.createStatement()) {
+            TestSupport.check("profile cascade removes its rows from both indexes",
+                    count(c, "SELECT COUNT(*) FROM exercise_fts WHERE exercise_fts MATCH '\"" + other + "xincline\"'") == 0
+                            && count(c, "SELECT COUNT(*) FROM session_fts WHERE session_fts MATCH '\"" + other + "xshoulder\"'") == 0);
+            st.execute("INSERT INTO exercise_fts(exercise_fts) VALUES('integrity-check')");
+            st.execute("INSERT INTO session_fts(session_fts) VALUES('integrity-check')");
+            TestSupport.check("FTS5 integrity-check: indexes match the tables", true);
+        } catch (SQLException e) {
+            TestSupport.check("FTS5 integrity-check: " + e.getMessage(), false);
+        }
+        Db.shutdown();
+    }
+
+    // ===== 2) Large =====
+
+    private static void scale(int rows) throws Exception {
+        TestSupport.emptyDb("fitness-search-big");
+        try (Connection c = Db.getConnection()) {
+            Migrator.apply(c, Migrator.migrations().subList(0, 4));
+            load(c, rows);
+            try (Statement st = c.createStatement()) {
+                for (String s : PROFILE_TOKEN_INDEX) st.execute(s);
+            }
+        }
+
+        SplittableRandom rnd = new SplittableRandom(3);
+        int[] profiles = new int[QUERIES];
+        String[][] terms = new String[QUERIES][];
+        for (int q = 0; q < QUERIES; q++) {
+            profiles[q] = 1 + rnd.nextInt(PROFILES);
+            terms[q] = new String[] {WORDS[rnd.nextInt(WORDS.length)], WORDS[rnd.nextInt(WORDS.length)]};
+        }
+
+        SessionDao sdao = new SessionDao();
+        double likeAll, likeProfile, token, fts;
+        long likeHits = 0, tokenHits = 0, ftsHits = 0;
+        long t0;
+        try (Connection c = Db.getConnection();
+             PreparedStatement all = c.prepareStatement(
+                     "SELECT id FROM session WHERE notes LIKE ? AND notes LIKE ? ORDER BY ts DESC LIMIT 20");
+             PreparedStatement one = c.prepareStatement(
+                     "SELECT id FROM session WHERE profile_id = ? AND notes LIKE ? AND notes LIKE ? ORDER BY ts DESC LIMIT 20")) {
+            int likeAllRuns = 20;
+            t0 = System.nanoTime();
+            for (int q = 0; q < likeAllRuns; q++) {
+                all.setString(1, "%" + terms[q][0] + "%");
+                all.setString(2, "%" + terms[q][1] + "%");
+                try (ResultSet rs = all.executeQuery()) { while (rs.next()) { /* drain */ } }
+            }
+            likeAll = (System.nanoTime() - t0) / 1e6 / likeAllRuns;
+
+            t0 = System.nanoTime();
+            for (int q = 0; q < QUERIES; q++) {
+                one.setInt(1, profiles[q]);
+                one.setString(2, "%" + terms[q][0] + "%");
+                one.setString(3, "%" + terms[q][1] + "%");
+                try (ResultSet rs = one.executeQuery()) { while (rs.next()) likeHits++; }
+            }
+            likeProfile = (System.nanoTime() - t0) / 1e6 / QUERIES;
+        }
+        try (Connection c = Db.getConnection();
+             PreparedStatement byToken = c.prepareStatement("SELECT s.id FROM token_fts JOIN session s ON s.id = token_fts.rowid "
+                     + "WHERE token_fts MATCH ? ORDER BY token_fts.rank, s.ts DESC LIMIT 20")) {
+            for (int round = 0; round < 2; round++) {
+                tokenHits = 0;
+                t0 = System.nanoTime();
+                for (int q = 0; q < QUERIES; q++) {
+                    byToken.setString(1, "profile_id : \"" + profiles[q] + "\" AND notes : (\"" + terms[q][0]
+                            + "\" AND \"" + terms[q][1] + "\"*)");
+                    try (ResultSet rs = byToken.executeQuery()) { while (rs.next()) tokenHits++; }
+                }
+            }
+            token = (System.nanoTime() - t0) / 1e6 / QUERIES;
+        }
+
+        t0 = System.nanoTime();
+        try (Connection c = Db.getConnection()) { Migrator.apply(c); }
+        double buildSecs = (System.nanoTime() - t0) / 1e9;
+        for (int round = 0; round < 2; round++) { // round 0 warms the cache
+            ftsHits = 0;
+            t0 = System.nanoTime();
+            for (int q = 0; q < QUERIES; q++) {
+                ftsHits += sdao.search(profiles[q], terms[q][0] + " " + terms[q][1], 20).size();
+            }
+        }
+        fts = (System.nanoTime() - t0) / 1e6 / QUERIES;
+        t0 = System.nanoTime();
+        for (int q = 0; q < QUERIES; q++) {
+            sdao.search(profiles[q], terms[q][0] + " " + terms[q][1].substring(0, 2), 20);
+        }
+        double typing = (System.nanoTime() - t0) / 1e6 / QUERIES;
+
+        System.out.printf("%,d sessions with notes, %d profiles; two-word queries, top 20%n", rows, PROFILES);
+        System.out.printf("  LIKE, every note          %8.2f ms%n", likeAll);
+        System.out.printf("  LIKE, one profile         %8.2f ms%n", likeProfile);
+        System.out.printf("  FTS5, profile_id token    %8.2f ms%n", token);
+        System.out.printf("  SessionDao.search (V5)    %8.2f ms%n", fts);
+        System.out.printf("  ... last word half typed  %8.2f ms%n", typing);
+        System.out.printf("V5 index build: %.1f s%n", buildSecs);
+        // LIKE also matches inside words ("set" in "upset"); every word in WORDS is whole, so the counts agree.
+        TestSupport.check("same number of hits as LIKE and the profile_id token (" + ftsHits + ")",
+                ftsHits == likeHits && ftsHits == tokenHits);
+        // A small run leaves a profile a few dozen notes, which LIKE reads in microseconds.
+        if (rows >= 1_000_000) TestSupport.check("faster than LIKE within one profile", fts < likeProfile);
+        Db.shutdown();
+    }
+
+    private static void load(Connection c, int rows) throws SQLException {
+        long t0 = System.nanoTime();
+        try (Statement st = c.createStatement()) {
+            st.execute("PRAGMA synchronous = OFF");
+            c.setAutoCommit(false);
+            st.execute("WITH RECURSIVE n(k) AS (SELECT 1 UNION ALL SELECT k + 1 FROM n WHERE k < " + PROFILES + ") "
+                    + "INSERT INTO profile(id, name, level_id, goal_id, days_per_week) SELECT k, 'User ' || k, 1, 1, 3 FROM n");
+            st.execute("CREATE TEMP TABLE w(idx INTEGER PRIMARY KEY, word TEXT)");
+            for (int i = 0; i < WORDS.length; i++) st.execute("INSERT INTO w VALUES(" + i + ", '" + WORDS[i] + "')");
+            // Three or four words per note, from a hash of the row number.
+            String word = "(SELECT word FROM w WHERE idx = (k * %d + %d) %% " + WORDS.length + ")";
+            st.execute("WITH RECURSIVE n(k) AS (SELECT 0 UNION ALL SELECT k + 1 FROM n WHERE k < " + (rows - 1) + ") "
+                    + "INSERT INTO session(profile_id, date_iso, ts, total_minutes, notes) "
+                    + "SELECT k % " + PROFILES + " + 1, '2025-01-01T07:00:00', 1735714800000 + k * 60000, 45, "
+                    + String.format(word, 7919, 1) + " || ' ' || " + String.format(word, 104729, 7) + " || ' ' || "
+                    + String.format(word, 15485863, 13)
+                    + " || CASE WHEN k % 2 = 0 THEN ' ' || " + String.format(word, 32452843, 29) + " ELSE '' END FROM n");
+            st.execute("DROP TABLE w");
+            c.commit();
+            c.setAutoCommit(true);
+            st.execute("PRAGMA synchronous = NORMAL");
+        }
+        System.out.printf("loaded %,d sessions in %.1f s%n", rows, (System.nanoTime() - t0) / 1e9);
+    }
+
+    private static long count(Connection c, String sql) throws SQLException {
+        try (Statement st = c.createStatement(); ResultSet rs = st.executeQuery(sql)) {
+            return rs.next() ? rs.getLong(1) : -1;
+        }
+    }
+
+    private static List<Integer> ids(List<?> rows) {
+        return rows.stream().map(r -> r instanceof Exercise e ? e.getId() : ((Session) r).getId()).toList();
+    }
+}
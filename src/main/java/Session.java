@@ -5,6 +5,7 @@ public class Session {
     private int profileId;
     private Integer workoutId;     // nullable (free-style)
     private String dateIso;        // ISO-8601 like "2025-10-19T21:30:00"
+    private Long ts;               // date_iso as epoch millis (wall clock, no zone); null until read back
     private int totalMinutes;
     private Integer rpe;           // 1..10 or null
     private String notes;          // nullable
@@ -32,6 +33,7 @@ public class Session {
     public int getProfileId() { return profileId; }
     public Integer getWorkoutId() { return workoutId; }
     public String getDateIso() { return dateIso; }
+    public Long getTs() { return ts; }
     public int getTotalMinutes() { return totalMinutes; }
     public Integer getRpe() { return rpe; }
     public String getNotes() { return notes; }
@@ -40,7 +42,8 @@ public class Session {
     public void setId(int id) { this.id = id; }
     public void setProfileId(int profileId) { this.profileId = profileId; }
     public void setWorkoutId(Integer workoutId) { this.workoutId = workoutId; }
-    public void setDateIso(String dateIso) { this.dateIso = dateIso; }
+    public void setDateIso(String dateIso) { this.dateIso = dateIso; this.ts = null; }
+    public void setTs(Long ts) { this.ts = ts; }
     public void setTotalMinutes(int totalMinutes) { this.totalMinutes = totalMinutes; }
     public void setRpe(Integer rpe) { this.rpe = rpe; }
     public void setNotes(String notes) { this.notes = notes; }
@@ -51,6 +54,7 @@ public class Session {
                 ", profileId=" + profileId +
                 ", workoutId=" + workoutId +
                 ", dateIso='" + dateIso + '\'' +
+                ", ts=" + ts +
                 ", totalMinutes=" + totalMinutes +
                 ", rpe=" + rpe +
                 ", notes='" + notes + '\'' +
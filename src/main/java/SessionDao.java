@@ -1,64 +1,175 @@
 
+import java.nio.charset.StandardCharsets;
 import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
-
-
-
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class SessionDao {
-    private static final String URL = "jdbc:sqlite:fitness.db";
 
-    private static void enableFK(Connection c) {
-        try (Statement s = c.createStatement()) { s.execute("PRAGMA foreign_keys = ON"); }
-        catch (SQLException ignored) {}
-    }
+    // One day in ts units; floorDiv(ts, DAY_MILLIS) is the LocalDate epoch day of date_iso.
+    static final long DAY_MILLIS = 86_400_000L;
+
+    // Default page/fetch size for the paged and streaming readers.
+    public static final int DEFAULT_PAGE_SIZE = 200;
 
     private static final String SQL_INSERT = """
-        INSERT INTO session(profile_id, workout_id, date_iso, total_minutes, rpe, notes)
-        VALUES(?,?,?,?,?,?)
+        INSERT INTO session(profile_id, workout_id, date_iso, ts, total_minutes, rpe, notes)
+        VALUES(?,?,?,?,?,?,?)
         """;
 
     private static final String SQL_FIND_BY_ID = """
-        SELECT id, profile_id, workout_id, date_iso, total_minutes, rpe, notes
+        SELECT id, profile_id, workout_id, date_iso, ts, total_minutes, rpe, notes
           FROM session
          WHERE id=?
         """;
 
     private static final String SQL_GET_BY_PROFILE = """
-        SELECT id, profile_id, workout_id, date_iso, total_minutes, rpe, notes
+        SELECT id, profile_id, workout_id, date_iso, ts, total_minutes, rpe, notes
           FROM session
          WHERE profile_id=?
-         ORDER BY date_iso DESC
+         ORDER BY ts DESC, id DESC
         """;
 
     private static final String SQL_GET_BY_PROFILE_RANGE = """
-        SELECT id, profile_id, workout_id, date_iso, total_minutes, rpe, notes
+        SELECT id, profile_id, workout_id, date_iso, ts, total_minutes, rpe, notes
           FROM session
-         WHERE profile_id=? AND date_iso BETWEEN ? AND ?
-         ORDER BY date_iso
+         WHERE profile_id=? AND ts BETWEEN ? AND ?
+         ORDER BY ts, id
+        """;
+
+    // Best matches first (bm25), newest first among equals. The tokens carry the profile
+    // (see V5__search.sql), so only this profile's rows are read.
+    private static final String SQL_SEARCH = """
+        SELECT s.id, s.profile_id, s.workout_id, s.date_iso, s.ts, s.total_minutes, s.rpe, s.notes
+          FROM session_fts
+          JOIN session s ON s.id = session_fts.rowid
+         WHERE session_fts MATCH ?
+         ORDER BY session_fts.rank, s.ts DESC
+         LIMIT ?
         """;
 
     private static final String SQL_GET_BY_WORKOUT = """
-        SELECT id, profile_id, workout_id, date_iso, total_minutes, rpe, notes
+        SELECT id, profile_id, workout_id, date_iso, ts, total_minutes, rpe, notes
+          FROM session
+         WHERE workout_id=?
+         ORDER BY ts DESC, id DESC
+        """;
+
+    // Keyset pages, newest first. "(ts, id) < (?, ?)" continues right after the last row
+    // of the previous page and walks idx_session_profile_ts / idx_session_workout_ts
+    // (the rowid id is part of every index entry), so page 500 costs the same as page 1.
+    // Undated rows (ts NULL: a date_iso nothing could parse) sort after every dated one and
+    // never match "(ts, id) < (?, ?)", so they are paged by the *_UNDATED queries on id alone.
+    private static final String SQL_PAGE_BY_PROFILE_FIRST = """
+        SELECT id, profile_id, workout_id, date_iso, ts, total_minutes, rpe, notes
+          FROM session
+         WHERE profile_id=?
+         ORDER BY ts DESC, id DESC
+         LIMIT ?
+        """;
+
+    private static final String SQL_PAGE_BY_PROFILE_NEXT = """
+        SELECT id, profile_id, workout_id, date_iso, ts, total_minutes, rpe, notes
+          FROM session
+         WHERE profile_id=? AND (ts, id) < (?, ?)
+         ORDER BY ts DESC, id DESC
+         LIMIT ?
+        """;
+
+    private static final String SQL_PAGE_BY_PROFILE_UNDATED = """
+        SELECT id, profile_id, workout_id, date_iso, ts, total_minutes, rpe, notes
+          FROM session
+         WHERE profile_id=? AND ts IS NULL AND id < ?
+         ORDER BY id DESC
+         LIMIT ?
+        """;
+
+    private static final String SQL_PAGE_BY_WORKOUT_FIRST = """
+        SELECT id, profile_id, workout_id, date_iso, ts, total_minutes, rpe, notes
           FROM session
          WHERE workout_id=?
-         ORDER BY date_iso DESC
+         ORDER BY ts DESC, id DESC
+         LIMIT ?
+        """;
+
+    private static final String SQL_PAGE_BY_WORKOUT_NEXT = """
+        SELECT id, profile_id, workout_id, date_iso, ts, total_minutes, rpe, notes
+          FROM session
+         WHERE workout_id=? AND (ts, id) < (?, ?)
+         ORDER BY ts DESC, id DESC
+         LIMIT ?
         """;
 
+    private static final String SQL_PAGE_BY_WORKOUT_UNDATED = """
+        SELECT id, profile_id, workout_id, date_iso, ts, total_minutes, rpe, notes
+          FROM session
+         WHERE workout_id=? AND ts IS NULL AND id < ?
+         ORDER BY id DESC
+         LIMIT ?
+        """;
+
+    // Sort keys the paged table may ask for (TableColumn id -> SQL column).
+    private static final Map<String, String> SORTABLE = Map.of(
+            "id", "id", "workoutId", "workout_id", "dateIso", "ts",
+            "totalMinutes", "total_minutes", "rpe", "rpe");
+
     public int insert(Session s) {
-        try (Connection c = DriverManager.getConnection(URL);
-             PreparedStatement ps = c.prepareStatement(SQL_INSERT, Statement.RETURN_GENERATED_KEYS)) {
-            enableFK(c);
+        try (Connection c = Db.getConnection()) {
+            return insert(c, s);
+        } catch (SQLException e) {
+            System.out.println("❌ insert session failed: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    // Queue the insert on the shared WriteQueue; many rows share one commit. Completes with the new id.
+    public java.util.concurrent.CompletableFuture<Integer> enqueueInsert(Session s) {
+        return WriteQueue.shared().submit(c -> insert(c, s));
+    }
+
+    // Queue a new RPE for a logged session (a workout rated after it finished). Completes with whether the row exists.
+    public java.util.concurrent.CompletableFuture<Boolean> enqueueRate(int id, Integer rpe) {
+        return WriteQueue.shared().submit(c -> rate(c, id, rpe));
+    }
+
+    static boolean rate(Connection c, int id, Integer rpe) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement("UPDATE session SET rpe=? WHERE id=?")) {
+            if (rpe == null) ps.setNull(1, Types.INTEGER);
+            else ps.setInt(1, rpe);
+            ps.setInt(2, id);
+            return ps.executeUpdate() == 1;
+        }
+    }
+
+    // Insert on a caller-supplied connection (used by WriteQueue inside its transaction).
+    static int insert(Connection c, Session s) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement(SQL_INSERT, Statement.RETURN_GENERATED_KEYS)) {
             ps.setInt(1, s.getProfileId());
             if (s.getWorkoutId() == null) ps.setNull(2, Types.INTEGER);
             else ps.setInt(2, s.getWorkoutId());
             ps.setString(3, s.getDateIso());
-            ps.setInt(4, s.getTotalMinutes());
-            if (s.getRpe() == null) ps.setNull(5, Types.INTEGER);
-            else ps.setInt(5, s.getRpe());
-            ps.setString(6, s.getNotes()); // notes can be null — ok to pass null
+            Long ts = toTs(s.getDateIso());
+            if (ts == null) ps.setNull(4, Types.INTEGER); // the session_ts_ai trigger lets SQLite try
+            else ps.setLong(4, ts);
+            ps.setInt(5, s.getTotalMinutes());
+            if (s.getRpe() == null) ps.setNull(6, Types.INTEGER);
+            else ps.setInt(6, s.getRpe());
+            ps.setString(7, s.getNotes()); // notes can be null — ok to pass null
 
             int rows = ps.executeUpdate();
             if (rows != 1) return 0;
@@ -67,20 +178,17 @@ public class SessionDao {
                 if (keys.next()) {
                     int id = keys.getInt(1);
                     s.setId(id);
+                    s.setTs(ts);
                     return id;
                 }
             }
             return 0;
-        } catch (SQLException e) {
-            System.out.println("❌ insert session failed: " + e.getMessage());
-            return 0;
         }
     }
 
     public Optional<Session> findById(int id) {
-        try (Connection c = DriverManager.getConnection(URL);
+        try (Connection c = Db.getConnection();
              PreparedStatement ps = c.prepareStatement(SQL_FIND_BY_ID)) {
-            enableFK(c);
             ps.setInt(1, id);
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) return Optional.of(mapRow(rs));
@@ -94,9 +202,8 @@ public class SessionDao {
 
     public List<Session> getByProfile(int profileId) {
         List<Session> out = new ArrayList<>();
-        try (Connection c = DriverManager.getConnection(URL);
+        try (Connection c = Db.getConnection();
              PreparedStatement ps = c.prepareStatement(SQL_GET_BY_PROFILE)) {
-            enableFK(c);
             ps.setInt(1, profileId);
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) out.add(mapRow(rs));
@@ -107,14 +214,24 @@ public class SessionDao {
         return out;
     }
 
+    // Bounds are ISO date-times like date_iso ("2025-10-01T00:00:00"), compared as ts; inclusive.
     public List<Session> getByProfileAndRange(int profileId, String fromIso, String toIso) {
+        Long from = toTs(fromIso), to = toTs(toIso);
+        if (from == null || to == null) {
+            System.out.println("❌ getByProfileAndRange failed: bad range " + fromIso + " .. " + toIso);
+            return new ArrayList<>();
+        }
+        return getByProfileAndRange(profileId, from, to);
+    }
+
+    // Same, with epoch-millis bounds (see toTs).
+    public List<Session> getByProfileAndRange(int profileId, long fromTs, long toTs) {
         List<Session> out = new ArrayList<>();
-        try (Connection c = DriverManager.getConnection(URL);
+        try (Connection c = Db.getConnection();
              PreparedStatement ps = c.prepareStatement(SQL_GET_BY_PROFILE_RANGE)) {
-            enableFK(c);
             ps.setInt(1, profileId);
-            ps.setString(2, fromIso);
-            ps.setString(3, toIso);
+            ps.setLong(2, fromTs);
+            ps.setLong(3, toTs);
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) out.add(mapRow(rs));
             }
@@ -124,11 +241,28 @@ public class SessionDao {
         return out;
     }
 
+    // SEARCH: the profile's sessions whose notes have every typed word (the last one as a prefix), best first.
+    public List<Session> search(int profileId, String typed, int limit) {
+        List<Session> out = new ArrayList<>();
+        String match = FullText.match(profileId, typed, false);
+        if (match == null || limit <= 0) return out;
+        try (Connection c = Db.getConnection();
+             PreparedStatement ps = c.prepareStatement(SQL_SEARCH)) {
+            ps.setString(1, match);
+            ps.setInt(2, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) out.add(mapRow(rs));
+            }
+        } catch (SQLException e) {
+            System.out.println("❌ search sessions failed: " + e.getMessage());
+        }
+        return out;
+    }
+
     public List<Session> getByWorkout(int workoutId) {
         List<Session> out = new ArrayList<>();
-        try (Connection c = DriverManager.getConnection(URL);
+        try (Connection c = Db.getConnection();
              PreparedStatement ps = c.prepareStatement(SQL_GET_BY_WORKOUT)) {
-            enableFK(c);
             ps.setInt(1, workoutId);
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) out.add(mapRow(rs));
@@ -139,26 +273,118 @@ public class SessionDao {
         return out;
     }
 
+    // PAGED: one page of a profile's history, newest first. Pass null for the first page.
+    public Page<Session> pageByProfile(int profileId, String pageToken, int pageSize) {
+        try {
+            return page(SQL_PAGE_BY_PROFILE_FIRST, SQL_PAGE_BY_PROFILE_NEXT, SQL_PAGE_BY_PROFILE_UNDATED,
+                    profileId, pageToken, pageSize);
+        } catch (SQLException e) {
+            System.out.println("❌ page sessions failed: " + e.getMessage());
+            return new Page<>(new ArrayList<>(), null);
+        }
+    }
+
+    // PAGED: one page of a workout's history, newest first. Pass null for the first page.
+    public Page<Session> pageByWorkout(int workoutId, String pageToken, int pageSize) {
+        try {
+            return page(SQL_PAGE_BY_WORKOUT_FIRST, SQL_PAGE_BY_WORKOUT_NEXT, SQL_PAGE_BY_WORKOUT_UNDATED,
+                    workoutId, pageToken, pageSize);
+        } catch (SQLException e) {
+            System.out.println("❌ page sessions failed: " + e.getMessage());
+            return new Page<>(new ArrayList<>(), null);
+        }
+    }
+
+    // STREAM: the whole history, newest first, fetched lazily one keyset page at a time.
+    // No connection is held between pages, so slow consumers (exports) don't pin the pool.
+    // A page that fails throws IllegalStateException out of the stream rather than ending it early.
+    public Stream<Session> streamByProfile(int profileId, int pageSize) {
+        return stream(SQL_PAGE_BY_PROFILE_FIRST, SQL_PAGE_BY_PROFILE_NEXT, SQL_PAGE_BY_PROFILE_UNDATED,
+                profileId, pageSize);
+    }
+
+    public Stream<Session> streamByWorkout(int workoutId, int pageSize) {
+        return stream(SQL_PAGE_BY_WORKOUT_FIRST, SQL_PAGE_BY_WORKOUT_NEXT, SQL_PAGE_BY_WORKOUT_UNDATED,
+                workoutId, pageSize);
+    }
+
+    // CALLBACK: walk the whole history on one cursor, one row in memory at a time.
+    // Fastest for analytics; the sink runs while the connection is borrowed, so keep it quick.
+    public void forEachByProfile(int profileId, int fetchSize, Consumer<Session> sink) {
+        try (Connection c = Db.getConnection();
+             PreparedStatement ps = c.prepareStatement(SQL_GET_BY_PROFILE)) {
+            ps.setFetchSize(Math.max(1, fetchSize));
+            ps.setInt(1, profileId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) sink.accept(mapRow(rs));
+            }
+        } catch (SQLException e) {
+            System.out.println("❌ forEachByProfile failed: " + e.getMessage());
+        }
+    }
+
+    // PAGED (random access): row count and one OFFSET/LIMIT slice for PagedTableModel.
+    // Use pageByProfile for "next page" browsing; this is for tables that can jump anywhere.
+    public int countByProfile(int profileId) {
+        try (Connection c = Db.getConnection();
+             PreparedStatement ps = c.prepareStatement("SELECT COUNT(*) FROM session WHERE profile_id=?")) {
+            ps.setInt(1, profileId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        } catch (SQLException e) {
+            System.out.println("❌ countByProfile failed: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    public List<Session> rangeByProfile(int profileId, int offset, int limit, List<PageSource.Sort> sort) {
+        String sql = "SELECT id, profile_id, workout_id, date_iso, ts, total_minutes, rpe, notes FROM session WHERE profile_id=?"
+                + PageSource.orderBy(sort, SORTABLE, "ts DESC, id DESC") + " LIMIT ? OFFSET ?";
+        List<Session> out = new ArrayList<>();
+        try (Connection c = Db.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setInt(1, profileId);
+            ps.setInt(2, limit);
+            ps.setInt(3, offset);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) out.add(mapRow(rs));
+            }
+        } catch (SQLException e) {
+            System.out.println("❌ rangeByProfile failed: " + e.getMessage());
+        }
+        return out;
+    }
+
+    public PageSource<Session> pageSourceByProfile(int profileId) {
+        return PageSource.of(() -> countByProfile(profileId),
+                (offset, limit, sort) -> rangeByProfile(profileId, offset, limit, sort));
+    }
+
     public boolean update(Session s) {
         String sql = """
             UPDATE session
-               SET profile_id=?, workout_id=?, date_iso=?,
+               SET profile_id=?, workout_id=?, date_iso=?, ts=?,
                    total_minutes=?, rpe=?, notes=?
              WHERE id=?
             """;
-        try (Connection c = DriverManager.getConnection(URL);
+        try (Connection c = Db.getConnection();
              PreparedStatement ps = c.prepareStatement(sql)) {
-            enableFK(c);
             ps.setInt(1, s.getProfileId());
             if (s.getWorkoutId() == null) ps.setNull(2, Types.INTEGER);
             else ps.setInt(2, s.getWorkoutId());
             ps.setString(3, s.getDateIso());
-            ps.setInt(4, s.getTotalMinutes());
-            if (s.getRpe() == null) ps.setNull(5, Types.INTEGER);
-            else ps.setInt(5, s.getRpe());
-            ps.setString(6, s.getNotes());
-            ps.setInt(7, s.getId());
-            return ps.executeUpdate() == 1;
+            Long ts = toTs(s.getDateIso());
+            if (ts == null) ps.setNull(4, Types.INTEGER);
+            else ps.setLong(4, ts);
+            ps.setInt(5, s.getTotalMinutes());
+            if (s.getRpe() == null) ps.setNull(6, Types.INTEGER);
+            else ps.setInt(6, s.getRpe());
+            ps.setString(7, s.getNotes());
+            ps.setInt(8, s.getId());
+            if (ps.executeUpdate() != 1) return false;
+            s.setTs(ts);
+            return true;
         } catch (SQLException e) {
             System.out.println("❌ update session failed: " + e.getMessage());
             return false;
@@ -166,9 +392,8 @@ public class SessionDao {
     }
 
     public boolean delete(int id) {
-        try (Connection c = DriverManager.getConnection(URL);
+        try (Connection c = Db.getConnection();
              PreparedStatement ps = c.prepareStatement("DELETE FROM session WHERE id=?")) {
-            enableFK(c);
             ps.setInt(1, id);
             return ps.executeUpdate() == 1;
         } catch (SQLException e) {
@@ -177,11 +402,104 @@ public class SessionDao {
         }
     }
 
-    private static Session mapRow(ResultSet rs) throws SQLException {
+    private static Page<Session> page(String firstSql, String nextSql, String undatedSql, int key,
+                                      String pageToken, int pageSize) throws SQLException {
+        int limit = Math.max(1, pageSize);
+        List<Session> out = new ArrayList<>(limit + 1);
+        try (Connection c = Db.getConnection()) {
+            PageToken t = pageToken == null ? null : PageToken.decode(pageToken);
+            if (t == null) {
+                try (PreparedStatement ps = c.prepareStatement(firstSql)) {
+                    ps.setInt(1, key);
+                    ps.setInt(2, limit + 1);
+                    read(ps, out);
+                }
+            } else if (t.ts() != null) {
+                try (PreparedStatement ps = c.prepareStatement(nextSql)) {
+                    ps.setInt(1, key);
+                    ps.setLong(2, t.ts());
+                    ps.setInt(3, t.id());
+                    ps.setInt(4, limit + 1);
+                    read(ps, out);
+                }
+            }
+            // Past the dated rows (or already among the undated ones): top up from the undated tail.
+            if (t != null && out.size() <= limit) {
+                try (PreparedStatement ps = c.prepareStatement(undatedSql)) {
+                    ps.setInt(1, key);
+                    ps.setInt(2, t.ts() == null ? t.id() : Integer.MAX_VALUE);
+                    ps.setInt(3, limit + 1 - out.size());
+                    read(ps, out);
+                }
+            }
+        }
+        // We asked for one extra row: if it came back there is a next page.
+        if (out.size() <= limit) return new Page<>(out, null);
+        out.remove(limit);
+        Session last = out.get(limit - 1);
+        return new Page<>(out, PageToken.encode(last.getTs(), last.getId()));
+    }
+
+    private static void read(PreparedStatement ps, List<Session> out) throws SQLException {
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) out.add(mapRow(rs));
+        }
+    }
+
+    private static Stream<Session> stream(String firstSql, String nextSql, String undatedSql, int key, int pageSize) {
+        Iterator<Session> it = new Iterator<>() {
+            private Iterator<Session> current = Collections.emptyIterator();
+            private String token = null;
+            private boolean exhausted = false;
+
+            @Override public boolean hasNext() {
+                while (!current.hasNext() && !exhausted) {
+                    Page<Session> p;
+                    try {
+                        p = page(firstSql, nextSql, undatedSql, key, token, pageSize);
+                    } catch (SQLException e) {
+                        throw new IllegalStateException("streaming sessions failed: " + e.getMessage(), e);
+                    }
+                    current = p.getItems().iterator();
+                    token = p.getNextPageToken();
+                    exhausted = (token == null);
+                }
+                return current.hasNext();
+            }
+
+            @Override public Session next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                return current.next();
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+                it, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    // Page token = base64url("ts|id") of the last row on the page; "|id" when its ts is NULL.
+    private record PageToken(Long ts, int id) {
+        static String encode(Long ts, int id) {
+            byte[] raw = ((ts == null ? "" : ts.toString()) + "|" + id).getBytes(StandardCharsets.UTF_8);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+        }
+
+        static PageToken decode(String token) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                int bar = raw.lastIndexOf('|');
+                String ts = raw.substring(0, bar);
+                return new PageToken(ts.isEmpty() ? null : Long.valueOf(ts), Integer.parseInt(raw.substring(bar + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Bad page token: " + token, e);
+            }
+        }
+    }
+
+    static Session mapRow(ResultSet rs) throws SQLException {
         Integer workoutId = (rs.getObject("workout_id") == null ? null : rs.getInt("workout_id"));
         Integer rpe = (rs.getObject("rpe") == null ? null : rs.getInt("rpe"));
         String notes = rs.getString("notes"); // may be null
-        return new Session(
+        Session s = new Session(
                 rs.getInt("id"),
                 rs.getInt("profile_id"),
                 workoutId,
@@ -190,5 +508,26 @@ public class SessionDao {
                 rpe,
                 notes
         );
+        long ts = rs.getLong("ts");
+        if (!rs.wasNull()) s.setTs(ts);
+        return s;
+    }
+
+    /**
+     * date_iso -> ts: the wall-clock reading as milliseconds since 1970-01-01T00:00, no zone
+     * (what V2's julianday() backfill computes). Accepts "yyyy-MM-dd", "yyyy-MM-ddTHH:mm[:ss[.SSS]]"
+     * and a space instead of 'T'. Null if it can't parse; the insert trigger then asks SQLite.
+     */
+    static Long toTs(String dateIso) {
+        if (dateIso == null) return null;
+        try {
+            String s = dateIso.trim();
+            LocalDateTime t = s.length() == 10
+                    ? LocalDate.parse(s).atStartOfDay()
+                    : LocalDateTime.parse(s.replace(' ', 'T'));
+            return t.toInstant(ZoneOffset.UTC).toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
     }
 }
@@ -1,12 +1,15 @@
 
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 public class SessionDaoTest {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws Exception {
         try { Class.forName("org.sqlite.JDBC"); } catch (Exception ignored) {}
+        if (!Migrator.ensureCurrent()) return; // fitness.db may be an older schema
 
         // Ensure a profile + workout exist
         ProfileDao pdao = new ProfileDao();
@@ -32,6 +35,28 @@ public class SessionDaoTest {
         System.out.println("\nMy sessions:");
         mine.forEach(System.out::println);
 
+        // 3b) PAGED (keyset) + STREAMING reads
+        Page<Session> first = sdao.pageByProfile(brandonId, null, 2);
+        System.out.println("\nFirst page: " + first);
+        if (first.hasNext()) {
+            System.out.println("Next page:  " + sdao.pageByProfile(brandonId, first.getNextPageToken(), 2));
+        }
+        try (var all = sdao.streamByProfile(brandonId, SessionDao.DEFAULT_PAGE_SIZE)) {
+            System.out.println("Streamed count: " + all.count() + " (list had " + mine.size() + ")");
+        }
+
+        // 3c) A page that fails ends the stream with an error, not early and quietly
+        String url = Db.url();
+        int poolSize = Db.poolSize();
+        Db.configure("jdbc:sqlite:" + new java.io.File("no-such-dir", "fitness.db").getPath(), 1);
+        try (var broken = sdao.streamByProfile(brandonId, SessionDao.DEFAULT_PAGE_SIZE)) {
+            System.out.println("❌ stream over a broken database counted " + broken.count() + " rows");
+        } catch (IllegalStateException e) {
+            System.out.println("Stream failure surfaced: " + e.getMessage());
+        } finally {
+            Db.configure(url, poolSize);
+        }
+
         // 4) UPDATE
         s.setTotalMinutes(50);
         s.setRpe(8);
@@ -55,5 +80,38 @@ public class SessionDaoTest {
 
         // cleanup workout (cascades session? no, FK is on session->workout SET NULL; so safe to delete)
         wdao.delete(workoutId);
+
+        // 8) Undated rows (date_iso nothing can parse, so ts is NULL) come last and survive paging,
+        //    including across a page boundary. Runs on a scratch database, not fitness.db.
+        TestSupport.scratchDb("sessiondao");
+        int pid = new ProfileDao().getOrCreateByName("Pager", "Beginner", "Strength", 3);
+        int wid = new WorkoutDao().insert(new Workout(pid, "Paged", 2, 60, 90, true));
+        List<Integer> expected = new ArrayList<>();
+        int bad1 = sdao.insert(new Session(pid, wid, "someday", 30, null, null));
+        for (int day = 1; day <= 3; day++) {
+            expected.add(0, sdao.insert(new Session(pid, wid, "2025-10-0" + day + "T08:00:00", 30, null, null)));
+        }
+        int bad2 = sdao.insert(new Session(pid, wid, "not a date", 30, null, null));
+        expected.add(bad2);
+        expected.add(bad1);
+        TestSupport.check("bad date_iso stored with a NULL ts", sdao.findById(bad1).map(x -> x.getTs() == null).orElse(false));
+
+        for (int size = 1; size <= 5; size++) {
+            List<Integer> paged = new ArrayList<>();
+            String token = null;
+            do {
+                Page<Session> p = sdao.pageByProfile(pid, token, size);
+                p.getItems().forEach(x -> paged.add(x.getId()));
+                token = p.getNextPageToken();
+            } while (token != null);
+            TestSupport.check("pageByProfile(size " + size + ") returns every session, undated last: " + paged,
+                    paged.equals(expected));
+        }
+        try (var all = sdao.streamByWorkout(wid, 2)) {
+            List<Integer> streamed = all.map(Session::getId).collect(Collectors.toList());
+            TestSupport.check("streamByWorkout(2) returns every session, undated last: " + streamed,
+                    streamed.equals(expected));
+        }
+        TestSupport.exitIfFailed();
     }
 }
@@ -0,0 +1,169 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SessionLog
+ *
+ * Purpose:
+ * Write-behind logging of finished workouts as Session rows. The timer (through TimerJournal)
+ * hands over a finished run and moves on; the row reaches SQLite a moment later, together
+ * with any other runs that finished around the same time. On a kiosk where many stations
+ * finish at once, that burst becomes one transaction instead of one commit each.
+ *
+ * How it works:
+ * - record(session) adds the row to an in-memory buffer and returns a future for its id.
+ * - The buffer is flushed when logging goes idle (no new row for idleMs), when it holds
+ *   maxBatch rows, after maxWaitMs at the latest while rows keep coming, and on close()
+ *   (MainApp.stop()).
+ * - A flush hands every buffered row to the shared WriteQueue at once. Its writer commits them
+ *   in one transaction, and one bad row (e.g. a deleted workout) fails only its own future.
+ * - Futures complete after the commit, so TimerJournal only forgets a finished run once its
+ *   session is really on disk.
+ *
+ * Threading notes:
+ * - record() may be called from any thread. It only takes a short lock and never touches
+ *   the database.
+ * - Flush timing runs on one daemon "session-log" thread; close() flushes and waits.
+ */
+public final class SessionLog {
+
+    public static final long DEFAULT_IDLE_MS = 2_000;
+    public static final long DEFAULT_MAX_WAIT_MS = 10_000;
+    public static final int DEFAULT_MAX_BATCH = 256;
+
+    private static SessionLog shared;
+
+    private final long idleMs;
+    private final long maxWaitMs;
+    private final int maxBatch;
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "session-log");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Guarded by 'this'
+    private List<Session> rows = new ArrayList<>();
+    private List<CompletableFuture<Integer>> ids = new ArrayList<>();
+    private ScheduledFuture<?> idleFlush;
+    private long firstBufferedAt;
+    private boolean closed;
+    private long flushes;
+
+    public SessionLog(long idleMs, long maxWaitMs, int maxBatch) {
+        this.idleMs = Math.max(0, idleMs);
+        this.maxWaitMs = Math.max(this.idleMs, maxWaitMs);
+        this.maxBatch = Math.max(1, maxBatch);
+    }
+
+    /** The app-wide log (TimerJournal's finished workouts). */
+    public static synchronized SessionLog shared() {
+        if (shared == null || shared.closed) shared = new SessionLog(DEFAULT_IDLE_MS, DEFAULT_MAX_WAIT_MS, DEFAULT_MAX_BATCH);
+        return shared;
+    }
+
+    /** Flush and stop the shared log, if one was ever created. */
+    public static synchronized void shutdownShared() {
+        if (shared != null) shared.close();
+    }
+
+    /** Buffer a session for insert. The future completes with its id after the commit. */
+    public synchronized CompletableFuture<Integer> record(Session s) {
+        CompletableFuture<Integer> id = new CompletableFuture<>();
+        if (closed) {
+            id.completeExceptionally(new IllegalStateException("SessionLog is closed"));
+            return id;
+        }
+        if (rows.isEmpty()) firstBufferedAt = System.nanoTime();
+        rows.add(s);
+        ids.add(id);
+
+        if (rows.size() >= maxBatch) {
+            flushLocked();
+        } else {
+            // Debounce: push the idle flush back, but never past maxWait from the first buffered row.
+            if (idleFlush != null) idleFlush.cancel(false);
+            long waited = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - firstBufferedAt);
+            long delay = Math.min(idleMs, Math.max(0, maxWaitMs - waited));
+            idleFlush = timer.schedule(this::flush, delay, TimeUnit.MILLISECONDS);
+        }
+        return id;
+    }
+
+    /**
+     * Change the RPE of a session this log recorded, once its insert has committed ('id' is
+     * the future record() returned). Goes through the WriteQueue like the insert.
+     */
+    public CompletableFuture<Boolean> rate(CompletableFuture<Integer> id, Integer rpe) {
+        return id.thenCompose(sessionId -> new SessionDao().enqueueRate(sessionId, rpe)).whenComplete((ok, error) -> {
+            if (error != null) System.out.println("❌ rating session failed: " + error.getMessage());
+        });
+    }
+
+    /** Hand everything buffered to the WriteQueue now. Completes once it has committed. */
+    public synchronized CompletableFuture<Void> flush() {
+        return flushLocked();
+    }
+
+    /** Rows waiting in the buffer. */
+    public synchronized int pending() {
+        return rows.size();
+    }
+
+    /** Flushes so far that had at least one row. */
+    public synchronized long flushes() {
+        return flushes;
+    }
+
+    /** Flush what's buffered, wait for the commit, and stop the timer thread. */
+    public void close() {
+        CompletableFuture<Void> last;
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+            last = flushLocked();
+        }
+        timer.shutdownNow();
+        try {
+            last.get(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            System.out.println("❌ session log flush on close failed: " + e.getMessage());
+        }
+    }
+
+    private CompletableFuture<Void> flushLocked() {
+        if (idleFlush != null) {
+            idleFlush.cancel(false);
+            idleFlush = null;
+        }
+        if (rows.isEmpty()) return CompletableFuture.completedFuture(null);
+        List<Session> batch = rows;
+        List<CompletableFuture<Integer>> futures = ids;
+        rows = new ArrayList<>();
+        ids = new ArrayList<>();
+        flushes++;
+
+        // Submitted back to back, so the WriteQueue writer commits them as one batch.
+        SessionDao dao = new SessionDao();
+        CompletableFuture<?>[] all = new CompletableFuture<?>[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            CompletableFuture<Integer> target = futures.get(i);
+            Session s = batch.get(i);
+            all[i] = dao.enqueueInsert(s).whenComplete((id, error) -> {
+                if (error != null) {
+                    System.out.println("❌ logging session failed: " + error.getMessage());
+                    target.completeExceptionally(error);
+                } else {
+                    target.complete(id);
+                }
+            });
+        }
+        return CompletableFuture.allOf(all).handle((ok, error) -> null);
+    }
+}
@@ -0,0 +1,107 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * SessionLogTest
+ *
+ * 1) Kiosk burst: 200 stations finish at the same moment. Each record() must return at once,
+ *    and the whole burst must go out as one flush (one WriteQueue transaction). Compared with
+ *    200 auto-commit SessionDao.insert calls under the DURABLE profile.
+ * 2) Idle flush: a single row waits for the idle delay, then commits.
+ * 3) Max wait: rows arriving faster than the idle delay still commit after maxWait.
+ * 4) close() commits what's buffered; record() after close fails.
+ * Temp-file database; never touches fitness.db.
+ */
+public class SessionLogTest {
+
+    private static final int STATIONS = 200;
+
+    public static void main(String[] args) throws Exception {
+        Class.forName("org.sqlite.JDBC");
+        System.setProperty("fitness.db.profile", StorageProfile.DURABLE.name());
+        TestSupport.scratchDb("fitness-sessionlog");
+
+        int profileId = new ProfileDao().insert(new Profile("Kiosk", "Intermediate", "Strength", 3));
+        int workoutId = new WorkoutDao().insert(new Workout(profileId, "Circuit", 1, 30, 60, true));
+        SessionDao sdao = new SessionDao();
+
+        // Baseline: one commit (and fsync) per finished run
+        long t0 = System.nanoTime();
+        for (int i = 0; i < STATIONS; i++) sdao.insert(session(profileId, workoutId, i));
+        double perRowMs = (System.nanoTime() - t0) / 1e6;
+
+        // 1) Burst through the log
+        SessionLog log = new SessionLog(100, 1_000, 256);
+        List<CompletableFuture<Integer>> ids = new ArrayList<>();
+        long[] callerNanos = new long[STATIONS];
+        CountDownLatch go = new CountDownLatch(1);
+        List<Thread> stations = new ArrayList<>();
+        for (int s = 0; s < STATIONS; s++) {
+            int station = s;
+            Thread t = new Thread(() -> {
+                try { go.await(); } catch (InterruptedException e) { return; }
+                long c0 = System.nanoTime();
+                CompletableFuture<Integer> id = log.record(session(profileId, workoutId, station));
+                callerNanos[station] = System.nanoTime() - c0;
+                synchronized (ids) { ids.add(id); }
+            });
+            stations.add(t);
+            t.start();
+        }
+        t0 = System.nanoTime();
+        go.countDown();
+        for (Thread t : stations) t.join();
+        CompletableFuture.allOf(ids.toArray(new CompletableFuture<?>[0])).join();
+        double burstMs = (System.nanoTime() - t0) / 1e6;
+
+        long maxCaller = 0, sumCaller = 0;
+        for (long n : callerNanos) { maxCaller = Math.max(maxCaller, n); sumCaller += n; }
+        long distinct = ids.stream().map(CompletableFuture::join).filter(id -> id > 0).distinct().count();
+        System.out.printf("per-row inserts: %8.1f ms for %d rows (DURABLE)%n", perRowMs, STATIONS);
+        System.out.printf("session log:     %8.1f ms to commit %d rows, incl. %d ms idle delay; %d flush(es)%n",
+                burstMs, STATIONS, 100, log.flushes());
+        System.out.printf("record(): mean %.1f us, max %.1f us on the caller's thread%n",
+                sumCaller / 1e3 / STATIONS, maxCaller / 1e3);
+        TestSupport.check("burst became one flush", log.flushes() == 1);
+        TestSupport.check("every station got its own id", distinct == STATIONS);
+        TestSupport.check("all rows saved", sdao.getByWorkout(workoutId).size() == 2 * STATIONS);
+
+        // 2) Idle flush
+        CompletableFuture<Integer> one = log.record(session(profileId, workoutId, 999));
+        TestSupport.check("a single row waits in the buffer", log.pending() == 1 && !one.isDone());
+        t0 = System.nanoTime();
+        one.join();
+        long waitedMs = (System.nanoTime() - t0) / 1_000_000L;
+        System.out.println("single row committed after " + waitedMs + " ms");
+        TestSupport.check("committed after the idle delay", waitedMs >= 80 && log.flushes() == 2);
+
+        // 3) Steady trickle every 50 ms never goes idle for 100 ms, but maxWait caps it at 1 s
+        long flushesBefore = log.flushes();
+        t0 = System.nanoTime();
+        CompletableFuture<Integer> first = log.record(session(profileId, workoutId, 1_000));
+        while (!first.isDone() && System.nanoTime() - t0 < 3_000_000_000L) {
+            Thread.sleep(50);
+            log.record(session(profileId, workoutId, 1_001));
+        }
+        long cappedMs = (System.nanoTime() - t0) / 1_000_000L;
+        System.out.println("trickle flushed after " + cappedMs + " ms");
+        TestSupport.check("max wait flushes a steady trickle", first.isDone() && cappedMs >= 900 && cappedMs < 1_500
+                && log.flushes() == flushesBefore + 1);
+
+        // 4) close() commits the rest
+        CompletableFuture<Integer> last = log.record(session(profileId, workoutId, 2_000));
+        log.close();
+        TestSupport.check("close() committed the buffered row", last.isDone() && !last.isCompletedExceptionally());
+        TestSupport.check("record() after close fails", log.record(session(profileId, workoutId, 3_000)).isCompletedExceptionally());
+
+        WriteQueue.shutdownShared();
+        Db.shutdown();
+        TestSupport.exitIfFailed();
+    }
+
+    private static Session session(int profileId, int workoutId, int station) {
+        return new Session(profileId, workoutId, "2025-03-01T18:00:00", 30, 1 + station % 10, null);
+    }
+}
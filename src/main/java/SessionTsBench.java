@@ -0,0 +1,196 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * SessionTsBench
+ *
+ * Range queries over session before and after V2 (integer ts + idx_session_profile_ts), on a
+ * 10M-row table, plus the cost of the online backfill itself.
+ *
+ * 1) Load N sessions (default 10,000,000) for 2,000 profiles over 5 years at schema V1.
+ * 2) Time three range queries on date_iso text: a month of rows, COUNT over a quarter, and
+ *    sessions per day over a year.
+ * 3) Apply V2 (chunked backfill) while another thread keeps inserting sessions; report the
+ *    backfill time and the worst insert latency seen meanwhile.
+ * 4) Time the same queries on ts, and check they return the same rows.
+ * Usage: SessionTsBench [rows]. Temp-file database; never touches fitness.db.
+ */
+public class SessionTsBench {
+
+    private static final int PROFILES = 2_000;
+    private static final int QUERIES = 2_000;
+    private static final long DAY = SessionDao.DAY_MILLIS;
+    private static final long START_DAY = java.time.LocalDate.of(2021, 1, 1).toEpochDay();
+    private static final int DAYS = 5 * 365;
+
+    public static void main(String[] args) throws Exception {
+        Class.forName("org.sqlite.JDBC");
+        long rows = args.length > 0 ? Long.parseLong(args[0]) : 10_000_000L;
+        TestSupport.emptyDb("fitness-ts");
+
+        try (Connection c = Db.getConnection()) {
+            Migrator.apply(c, Migrator.migrations().subList(0, 1));
+            load(c, rows);
+        }
+
+        // 2) Text
+        double[] text;
+        try (Connection c = Db.getConnection()) {
+            text = runQueries(c, false);
+        }
+
+        // 3) Backfill, online
+        AtomicBoolean done = new AtomicBoolean();
+        long[] worstInsertNanos = {0};
+        int[] inserts = {0}, failed = {0};
+        Thread writer = new Thread(() -> {
+            // An older writer that only knows date_iso: the V2 trigger has to fill ts for it.
+            while (!done.get()) {
+                long t0 = System.nanoTime();
+                try (Connection w = Db.getConnection(); Statement st = w.createStatement()) {
+                    st.executeUpdate("INSERT INTO session(profile_id, date_iso, total_minutes) "
+                            + "VALUES(1, '2025-12-31T18:00:00', 30)");
+                    inserts[0]++;
+                } catch (SQLException e) {
+                    failed[0]++;
+                }
+                worstInsertNanos[0] = Math.max(worstInsertNanos[0], System.nanoTime() - t0);
+                try { Thread.sleep(20); } catch (InterruptedException e) { return; }
+            }
+        });
+        long t0;
+        try (Connection c = Db.getConnection()) {
+            writer.start();
+            t0 = System.nanoTime();
+            Migrator.apply(c, Migrator.migrations().subList(0, 2));
+        }
+        double backfillSecs = (System.nanoTime() - t0) / 1e9;
+        done.set(true);
+        writer.join();
+
+        // 4) Integer
+        double[] ints;
+        try (Connection c = Db.getConnection()) {
+            ints = runQueries(c, true);
+            long missing = longQuery(c, "SELECT COUNT(*) FROM session WHERE ts IS NULL");
+            TestSupport.check("every row has ts", missing == 0);
+            TestSupport.check("ts matches SessionDao.toTs", longQuery(c, "SELECT ts FROM session WHERE rowid = 12345")
+                    == SessionDao.toTs(stringQuery(c, "SELECT date_iso FROM session WHERE rowid = 12345")));
+            System.out.println("plan: " + stringQuery(c, "EXPLAIN QUERY PLAN SELECT COUNT(*) FROM session "
+                    + "WHERE profile_id = 1 AND ts >= 0 AND ts < 1"));
+        }
+
+        System.out.printf("%,d sessions, %d profiles; %d queries each (ms per query)%n", rows, PROFILES, QUERIES);
+        String[] names = {"month of rows", "COUNT over a quarter", "per-day counts, 1 year"};
+        for (int i = 0; i < names.length; i++) {
+            System.out.printf("  %-24s text %7.3f   ts %7.3f   %.1fx%n", names[i], text[i], ints[i], text[i] / ints[i]);
+        }
+        TestSupport.check("same answers", text[3] == ints[3]);
+        System.out.printf("V2 with backfill: %.1f s (%,.0f rows/s); %d inserts meanwhile (%d failed), worst %.1f ms%n",
+                backfillSecs, rows / backfillSecs, inserts[0], failed[0], worstInsertNanos[0] / 1e6);
+        Db.shutdown();
+        TestSupport.exitIfFailed();
+    }
+
+    private static void load(Connection c, long rows) throws SQLException {
+        long t0 = System.nanoTime();
+        try (Statement st = c.createStatement()) {
+            st.execute("PRAGMA journal_mode = WAL");
+            st.execute("PRAGMA synchronous = OFF");
+            c.setAutoCommit(false);
+            st.execute("WITH RECURSIVE n(i) AS (SELECT 1 UNION ALL SELECT i + 1 FROM n WHERE i < " + PROFILES + ") "
+                    + "INSERT INTO profile(id, name, level, goal, days_per_week) "
+                    + "SELECT i, 'User ' || i, 'Intermediate', 'Strength', 3 FROM n");
+            // Spread each profile's sessions over the 5 years, at pseudo-random minutes of the day.
+            st.execute("WITH RECURSIVE n(i) AS (SELECT 0 UNION ALL SELECT i + 1 FROM n WHERE i < " + (rows - 1) + ") "
+                    + "INSERT INTO session(profile_id, date_iso, total_minutes, rpe) "
+                    + "SELECT i % " + PROFILES + " + 1, "
+                    + "       strftime('%Y-%m-%dT%H:%M:%S', '2021-01-01', "
+                    + "                ((i / " + PROFILES + ") * " + DAYS + " / (" + rows + " / " + PROFILES + ")) || ' days', "
+                    + "                ((i * 7919) % 960 + 360) || ' minutes'), "
+                    + "       30 + i % 60, 1 + i % 10 FROM n");
+            c.commit();
+            c.setAutoCommit(true);
+            st.execute("PRAGMA synchronous = NORMAL");
+            st.execute("ANALYZE");
+        }
+        System.out.printf("loaded %,d sessions in %.1f s%n", rows, (System.nanoTime() - t0) / 1e9);
+    }
+
+    /** Per-query ms for the three shapes, plus [3] = a checksum of all answers. */
+    private static double[] runQueries(Connection c, boolean ts) throws SQLException {
+        String month = ts
+                ? "SELECT id, profile_id, workout_id, date_iso, ts, total_minutes, rpe, notes FROM session "
+                        + "WHERE profile_id = ? AND ts BETWEEN ? AND ? ORDER BY ts, id"
+                : "SELECT id, profile_id, workout_id, date_iso, total_minutes, rpe, notes FROM session "
+                        + "WHERE profile_id = ? AND date_iso BETWEEN ? AND ? ORDER BY date_iso, id";
+        String count = ts
+                ? "SELECT COUNT(*) FROM session WHERE profile_id = ? AND ts >= ? AND ts < ?"
+                : "SELECT COUNT(*) FROM session WHERE profile_id = ? AND date_iso >= ? AND date_iso < ?";
+        String perDay = ts
+                ? "SELECT ts / " + DAY + ", COUNT(*) FROM session WHERE profile_id = ? AND ts >= ? AND ts < ? GROUP BY 1"
+                : "SELECT substr(date_iso, 1, 10), COUNT(*) FROM session WHERE profile_id = ? "
+                        + "AND date_iso >= ? AND date_iso < ? GROUP BY 1";
+        double[] out = new double[4];
+        long checksum = 0;
+        String[] sqls = {month, count, perDay};
+        int[] spanDays = {30, 91, 365};
+        for (int q = 0; q < sqls.length; q++) {
+            try (PreparedStatement ps = c.prepareStatement(sqls[q])) {
+                List<long[]> work = plan(spanDays[q]);
+                for (int round = 0; round < 2; round++) { // round 0 warms the cache
+                    long t0 = System.nanoTime();
+                    for (long[] w : work) {
+                        ps.setInt(1, (int) w[0]);
+                        if (ts) {
+                            ps.setLong(2, w[1] * DAY);
+                            ps.setLong(3, q == 0 ? (w[2] * DAY) - 1000 : w[2] * DAY);
+                        } else {
+                            ps.setString(2, java.time.LocalDate.ofEpochDay(w[1]) + "T00:00:00");
+                            ps.setString(3, q == 0 ? java.time.LocalDate.ofEpochDay(w[2] - 1) + "T23:59:59"
+                                    : java.time.LocalDate.ofEpochDay(w[2]).toString());
+                        }
+                        try (ResultSet rs = ps.executeQuery()) {
+                            while (rs.next()) {
+                                if (round == 1) checksum += q == 0 ? rs.getInt(1) : rs.getLong(2 - (q == 1 ? 1 : 0));
+                            }
+                        }
+                    }
+                    out[q] = (System.nanoTime() - t0) / 1e6 / work.size();
+                }
+            }
+        }
+        out[3] = checksum;
+        return out;
+    }
+
+    /** Same (profile, fromDay, toDay) list for both runs. */
+    private static List<long[]> plan(int spanDays) {
+        SplittableRandom rnd = new SplittableRandom(spanDays);
+        List<long[]> out = new ArrayList<>(QUERIES);
+        for (int i = 0; i < QUERIES; i++) {
+            long from = START_DAY + rnd.nextInt(DAYS - spanDays);
+            out.add(new long[] {1 + rnd.nextInt(PROFILES), from, from + spanDays});
+        }
+        return out;
+    }
+
+    private static long longQuery(Connection c, String sql) throws SQLException {
+        try (Statement st = c.createStatement(); ResultSet rs = st.executeQuery(sql)) {
+            return rs.next() ? rs.getLong(1) : -1;
+        }
+    }
+
+    private static String stringQuery(Connection c, String sql) throws SQLException {
+        try (Statement st = c.createStatement(); ResultSet rs = st.executeQuery(sql)) {
+            return rs.next() ? rs.getString(rs.getMetaData().getColumnCount()) : null;
+        }
+    }
+}
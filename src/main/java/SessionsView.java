@@ -0,0 +1,98 @@
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.geometry.Insets;
+import javafx.scene.Node;
+import javafx.scene.control.*;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
+
+import java.util.List;
+
+/**
+ * SessionsView
+ *
+ * Read-only history of logged sessions for one profile. A long-term user can have hundreds of
+ * thousands of rows, so the table is backed by PagedTableModel: rows are fetched a page at a
+ * time as you scroll, and clicking a header re-queries with ORDER BY.
+ */
+public class SessionsView {
+    private final BorderPane root = new BorderPane();
+    private final ComboBox<Profile> cbProfiles = new ComboBox<>();
+    private final TableView<Session> table = new TableView<>();
+    private final PagedTableModel<Session> rows = new PagedTableModel<>();
+    private final Label lblCount = new Label();
+    private final ProgressIndicator busy = new ProgressIndicator();
+
+    private final ProfileDao profileDao = new ProfileDao();
+    private final SessionDao sessionDao = new SessionDao();
+    private final AsyncDao.LatestOnly profileLoads = new AsyncDao.LatestOnly();
+
+    public SessionsView() {
+        cbProfiles.setButtonCell(new ListCell<>() {
+            @Override protected void updateItem(Profile item, boolean empty) {
+                super.updateItem(item, empty);
+                setText(empty || item == null ? "" : item.getName() + " (id=" + item.getId() + ")");
+            }
+        });
+        cbProfiles.setCellFactory(list -> new ListCell<>() {
+            @Override protected void updateItem(Profile item, boolean empty) {
+                super.updateItem(item, empty);
+                setText(empty || item == null ? "" : item.getName() + " (id=" + item.getId() + ")");
+            }
+        });
+
+        // Column ids double as sort keys (see SessionDao.SORTABLE).
+        TableColumn<Session, String> cDate = new TableColumn<>("Date");
+        cDate.setId("dateIso");
+        cDate.setCellValueFactory(p -> new SimpleStringProperty(p.getValue() == null ? "" : p.getValue().getDateIso()));
+        cDate.setPrefWidth(170);
+        TableColumn<Session, Integer> cWorkout = new TableColumn<>("Workout");
+        cWorkout.setId("workoutId");
+        cWorkout.setCellValueFactory(p -> new SimpleObjectProperty<>(p.getValue() == null ? null : p.getValue().getWorkoutId()));
+        cWorkout.setPrefWidth(80);
+        TableColumn<Session, Integer> cMinutes = new TableColumn<>("Minutes");
+        cMinutes.setId("totalMinutes");
+        cMinutes.setCellValueFactory(p -> new SimpleObjectProperty<>(p.getValue() == null ? null : p.getValue().getTotalMinutes()));
+        cMinutes.setPrefWidth(80);
+        TableColumn<Session, Integer> cRpe = new TableColumn<>("RPE");
+        cRpe.setId("rpe");
+        cRpe.setCellValueFactory(p -> new SimpleObjectProperty<>(p.getValue() == null ? null : p.getValue().getRpe()));
+        cRpe.setPrefWidth(60);
+        TableColumn<Session, String> cNotes = new TableColumn<>("Notes");
+        cNotes.setCellValueFactory(p -> new SimpleStringProperty(p.getValue() == null ? "" : p.getValue().getNotes()));
+        cNotes.setSortable(false); // free text; not worth an index
+        cNotes.setPrefWidth(300);
+
+        table.getColumns().addAll(List.of(cDate, cWorkout, cMinutes, cRpe, cNotes));
+        table.setPlaceholder(new Label("No sessions logged yet"));
+        rows.bindTo(table);
+
+        busy.setPrefSize(18, 18);
+        busy.setVisible(false);
+        rows.loadingProperty().addListener((obs, was, now) -> busy.setVisible(now));
+        rows.addListener((javafx.collections.ListChangeListener<Session>) c -> lblCount.setText(rows.size() + " sessions"));
+
+        HBox top = new HBox(10, new Label("Profile:"), cbProfiles, lblCount, busy);
+        top.setPadding(new Insets(10));
+        root.setTop(top);
+        root.setCenter(table);
+
+        cbProfiles.getSelectionModel().selectedItemProperty().addListener((obs, old, sel) ->
+                rows.setSource(sel == null ? null : sessionDao.pageSourceByProfile(sel.getId())));
+    }
+
+    public Node getRoot() { return root; }
+
+    public void reloadProfiles() {
+        profileLoads.submit(profileDao::getAll, profiles -> {
+            cbProfiles.getItems().setAll(profiles);
+            if (!profiles.isEmpty()) cbProfiles.getSelectionModel().selectFirst();
+            else rows.setSource(null);
+        }, error -> table.setPlaceholder(new Label("Couldn't load profiles")));
+    }
+
+    /** Re-count and repaint, e.g. after a session was logged. */
+    public void refresh() {
+        rows.refresh();
+    }
+}
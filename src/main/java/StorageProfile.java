@@ -0,0 +1,88 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * StorageProfile
+ *
+ * Named bundles of SQLite storage settings. Every profile runs the database in WAL mode,
+ * so a single-row insert/update no longer takes an exclusive lock that blocks readers.
+ * They differ in how hard SQLite syncs to disk and how much memory it may use:
+ *
+ *   DURABLE  - synchronous=FULL, small page cache, no mmap. Survives power loss mid-commit.
+ *   BALANCED - synchronous=NORMAL (safe in WAL against app crashes), 8 MB cache, 64 MB mmap.
+ *   FAST     - synchronous=OFF, 32 MB cache, 256 MB mmap. For bulk loads and benches only.
+ *
+ * journal_mode=WAL is stored in the database file itself. The other pragmas are per
+ * connection, so Migrator records the chosen profile in app_setting and Db re-applies it
+ * on every connection it opens. That way every process opening fitness.db behaves the same.
+ */
+public enum StorageProfile {
+
+    DURABLE("FULL", -2_000, 0L),
+    BALANCED("NORMAL", -8_000, 64L * 1024 * 1024),
+    FAST("OFF", -32_000, 256L * 1024 * 1024);
+
+    /** Key under which the chosen profile is stored in app_setting. */
+    static final String SETTING_KEY = "storage_profile";
+
+    private final String synchronous;
+    private final int cacheSize;   // negative = KiB, as SQLite interprets it
+    private final long mmapSize;   // bytes
+
+    StorageProfile(String synchronous, int cacheSize, long mmapSize) {
+        this.synchronous = synchronous;
+        this.cacheSize = cacheSize;
+        this.mmapSize = mmapSize;
+    }
+
+    public String getSynchronous() { return synchronous; }
+    public int getCacheSize() { return cacheSize; }
+    public long getMmapSize() { return mmapSize; }
+
+    /** Apply this profile's pragmas to one connection. Must run outside a transaction. */
+    public void apply(Connection c) throws SQLException {
+        try (Statement s = c.createStatement()) {
+            s.execute("PRAGMA journal_mode = WAL");
+            s.execute("PRAGMA synchronous = " + synchronous);
+            s.execute("PRAGMA cache_size = " + cacheSize);
+            s.execute("PRAGMA mmap_size = " + mmapSize);
+        }
+    }
+
+    /** Lenient parse for system properties / stored values. Unknown names fall back to BALANCED. */
+    public static StorageProfile parse(String name) {
+        if (name == null || name.isBlank()) return BALANCED;
+        try {
+            return valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.out.println("⚠️ Unknown storage profile '" + name + "', using BALANCED");
+            return BALANCED;
+        }
+    }
+
+    /** Read the profile Migrator stored in the database, or null if none was recorded yet. */
+    static StorageProfile readStored(Connection c) {
+        try (PreparedStatement ps = c.prepareStatement("SELECT value FROM app_setting WHERE key=?")) {
+            ps.setString(1, SETTING_KEY);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? parse(rs.getString(1)) : null;
+            }
+        } catch (SQLException e) {
+            return null; // app_setting doesn't exist yet (fresh or pre-migration database)
+        }
+    }
+
+    /** Record this profile in app_setting so other processes pick it up. */
+    void store(Connection c) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement(
+                "INSERT INTO app_setting(key, value) VALUES(?,?) " +
+                "ON CONFLICT(key) DO UPDATE SET value=excluded.value")) {
+            ps.setString(1, SETTING_KEY);
+            ps.setString(2, name());
+            ps.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+import java.io.File;
+import java.sql.Connection;
+
+/**
+ * TestSupport
+ *
+ * Purpose:
+ * What the *Test and *Bench scripts share: a scratch database in a temp file (so they never
+ * touch fitness.db) and check(), which prints ✅/❌ and remembers failures so the script can
+ * exit non-zero.
+ *
+ * How it works:
+ * - scratchDb(prefix) creates the file, points Db at it and migrates it to the latest schema.
+ *   emptyDb(prefix) stops before migrating, for scripts that build an old schema first.
+ *   Both files (and their -wal/-shm) are deleted when the JVM exits.
+ * - check() keeps running after a failure so one run shows everything that's wrong. Call
+ *   exitIfFailed() at the end of main(): it exits with status 1 if any check failed.
+ *
+ * Threading notes:
+ * - check() may be called from any thread; the failure count is synchronized.
+ */
+final class TestSupport {
+
+    private static int failures = 0;
+
+    private TestSupport() {}
+
+    /** A migrated temp-file database, now Db's URL. */
+    static File scratchDb(String prefix) throws Exception {
+        File f = emptyDb(prefix);
+        try (Connection c = Db.getConnection()) { Migrator.apply(c); }
+        return f;
+    }
+
+    /** An empty temp-file database (user_version 0), now Db's URL. */
+    static File emptyDb(String prefix) throws Exception {
+        Class.forName("org.sqlite.JDBC");
+        File f = File.createTempFile(prefix, ".db");
+        f.deleteOnExit();
+        new File(f.getPath() + "-wal").deleteOnExit();
+        new File(f.getPath() + "-shm").deleteOnExit();
+        Db.configure("jdbc:sqlite:" + f.getAbsolutePath(), Db.DEFAULT_POOL_SIZE);
+        return f;
+    }
+
+    static void check(String what, boolean ok) {
+        System.out.println((ok ? "✅ " : "❌ ") + what);
+        if (!ok) {
+            synchronized (TestSupport.class) { failures++; }
+        }
+    }
+
+    /** Exit with status 1 if any check() failed. */
+    static void exitIfFailed() {
+        int failed;
+        synchronized (TestSupport.class) { failed = failures; }
+        if (failed > 0) {
+            System.out.println("❌ " + failed + " check(s) failed");
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * TimerDriftTest
+ *
+ * Checks how exactly TimerService keeps time. No JavaFX needed: callbacks run inline.
+ *   1) One countdown (default 5 s; pass seconds as args[0], e.g. 3600 for a drift soak):
+ *      every shown second must flip within MAX_LATE_MS of its ideal instant (mean within
+ *      MEAN_LATE_MS), later flips no later than the first minute's, and the finish within
+ *      MAX_LATE_MS of start + seconds.
+ *   2) Pause/resume: remaining time must not move while paused, and the total run time must
+ *      equal the countdown plus the paused time, within MAX_LATE_MS.
+ * The old fixed-rate design's numbers, for comparison, are in TimerWheelBench.
+ */
+public class TimerDriftTest {
+
+    /** Bounds are loose enough for a loaded CI box; the old fixed-rate beat missed by up to 1000 ms. */
+    private static final double MAX_LATE_MS = 20;
+    private static final double MEAN_LATE_MS = 5;
+
+    public static void main(String[] args) throws Exception {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+
+        // Warm-up: the first start() pays for class loading and lambda linkage, which would
+        // otherwise show up as a constant offset between our t0 and the timer's own deadline.
+        CountDownLatch warm = new CountDownLatch(1);
+        TimerService w = new TimerService(secs -> { }, warm::countDown, Runnable::run, System::nanoTime);
+        w.start(1);
+        warm.await();
+        w.stop();
+
+        // 1) Long run
+        List<long[]> flips = new ArrayList<>(); // {shownSeconds, nanoTime}
+        CountDownLatch done = new CountDownLatch(1);
+        long[] finishedAt = new long[1];
+        TimerService timer = new TimerService(
+                secs -> { synchronized (flips) { flips.add(new long[] {secs, System.nanoTime()}); } },
+                () -> { finishedAt[0] = System.nanoTime(); done.countDown(); },
+                Runnable::run, System::nanoTime);
+        long t0 = System.nanoTime();
+        timer.start(seconds);
+        System.out.printf("Running a %d s countdown...%n", seconds);
+        done.await();
+
+        long maxLate = 0, sumLate = 0, firstMinute = 0, lastMinute = 0;
+        int n = 0, nFirst = 0, nLast = 0;
+        synchronized (flips) {
+            for (long[] f : flips) {
+                long shown = f[0];
+                if (shown == seconds || shown == 0) continue; // the start/finish notifications
+                long late = f[1] - (t0 + (seconds - shown) * 1_000_000_000L);
+                maxLate = Math.max(maxLate, late);
+                sumLate += late;
+                n++;
+                if (seconds - shown <= 60) { firstMinute += late; nFirst++; }
+                if (shown <= 60) { lastMinute += late; nLast++; }
+            }
+        }
+        double meanLate = sumLate / 1e6 / Math.max(1, n);
+        double firstMean = firstMinute / 1e6 / Math.max(1, nFirst);
+        double lastMean = lastMinute / 1e6 / Math.max(1, nLast);
+        double finishError = (finishedAt[0] - t0 - seconds * 1_000_000_000L) / 1e6;
+        System.out.printf("  %d flips: mean late %.3f ms, max late %.3f ms%n", n, meanLate, maxLate / 1e6);
+        System.out.printf("  drift: mean late in first minute %.3f ms, in last minute %.3f ms%n", firstMean, lastMean);
+        System.out.printf("  finish error: %+.3f ms%n", finishError);
+        TestSupport.check("every shown second flipped (" + n + " of " + (seconds - 1) + ")", n == seconds - 1);
+        TestSupport.check("max flip lateness under " + MAX_LATE_MS + " ms", maxLate / 1e6 < MAX_LATE_MS);
+        TestSupport.check("mean flip lateness under " + MEAN_LATE_MS + " ms", meanLate < MEAN_LATE_MS);
+        TestSupport.check("no drift: last minute within " + MEAN_LATE_MS + " ms of the first",
+                lastMean - firstMean < MEAN_LATE_MS);
+        TestSupport.check("finish within " + MAX_LATE_MS + " ms of start + " + seconds + " s",
+                Math.abs(finishError) < MAX_LATE_MS);
+        timer.stop();
+
+        // 2) Pause/resume
+        CountDownLatch done2 = new CountDownLatch(1);
+        long[] finished2 = new long[1];
+        TimerService t2 = new TimerService(null, () -> { finished2[0] = System.nanoTime(); done2.countDown(); },
+                Runnable::run, System::nanoTime);
+        long s0 = System.nanoTime();
+        t2.start(5);
+        Thread.sleep(1_234);
+        long p0 = System.nanoTime();
+        t2.pause();
+        long atPause = t2.remainingMillis();
+        Thread.sleep(1_500);
+        long afterWait = t2.remainingMillis();
+        t2.resume();
+        long paused = System.nanoTime() - p0;
+        done2.await();
+        double pauseError = (finished2[0] - s0 - 5_000_000_000L - paused) / 1e6;
+        System.out.printf("Pause/resume: remaining %d ms at pause, %d ms after 1.5 s paused%n", atPause, afterWait);
+        System.out.printf("  total %.3f ms vs expected %.3f ms (error %+.3f ms)%n",
+                (finished2[0] - s0) / 1e6, (5_000_000_000L + paused) / 1e6, pauseError);
+        TestSupport.check("remaining time did not move while paused", atPause == afterWait);
+        TestSupport.check("paused run finished within " + MAX_LATE_MS + " ms of 5 s + paused time",
+                Math.abs(pauseError) < MAX_LATE_MS);
+        t2.stop();
+
+        TimerService.shutdownScheduler();
+        TestSupport.exitIfFailed();
+    }
+}
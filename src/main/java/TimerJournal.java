@@ -0,0 +1,344 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * TimerJournal
+ *
+ * Purpose:
+ * A crash-safe record of the workout the Timer tab is running. If the app dies mid-workout,
+ * the next launch can pick the workout up where it was, or save it as a session instead
+ * of losing it.
+ *
+ * How it works:
+ * - An append-only file (timer.journal next to the database, or -Dfitness.timer.journal) of
+ *   fixed 32-byte records: segment START, PAUSE, RESUME, FINISH, and RESTORE after a recovery.
+ *   Each record holds the workout, profile, segment, wall-clock time, the segment's remaining
+ *   time, the RPE picked so far (0 = none), and a CRC32. A record torn by a crash fails its
+ *   CRC and is ignored with everything after it.
+ * - A new workout (START of segment 0) truncates the file, so it only ever holds one run:
+ *   a few hundred records for an hour-long session.
+ * - Each record is forced to disk right after it's written. Records are rare (segment
+ *   boundaries and button presses), so one small sync each is cheap, and it runs off the
+ *   timer and FX threads.
+ * - FINISH turns the run into one Session: profile, workout, start time as date_iso, minutes
+ *   actually running (pauses excluded) and the RPE, if one was picked. It goes to SessionLog,
+ *   which batches it with other inserts; the file is emptied once that row has committed.
+ * - The workout can still be rated after FINISH, until the next one starts: rate() then
+ *   updates the logged session's RPE (after its insert commits, in the order picked).
+ * - On launch, recover() replays the file. A run without FINISH comes back as an Interrupted
+ *   value: MainApp offers to resume it (paused at the last checkpoint), save it as a session
+ *   (finalize), or discard it. A file that ends in FINISH but wasn't emptied (crash during
+ *   the insert) is finalized the same way.
+ *
+ * Threading notes:
+ * - TimerService calls record() from the FX thread or the timer thread. record() only reads
+ *   the clock and hands the values to the journal's own daemon thread, which does all the
+ *   encoding and I/O. Callers never block on the disk.
+ * - Running time counts from wall-clock record times. If the app crashes while running, the
+ *   time between the last record and the crash isn't counted.
+ */
+public final class TimerJournal {
+
+    public static final int RECORD_BYTES = 32;
+
+    public static final byte START = 1;
+    public static final byte PAUSE = 2;
+    public static final byte RESUME = 3;
+    public static final byte FINISH = 4;
+    public static final byte RESTORE = 5;
+
+    private static final byte MAGIC = (byte) 0xA7;
+    private static final DateTimeFormatter ISO = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    /** One decoded record. */
+    public record Entry(byte type, int workoutId, int profileId, int segment, long wallMillis, int remainingMillis, int rpe) { }
+
+    /** A workout that never reached FINISH (or whose session was never saved). */
+    public record Interrupted(int workoutId, int profileId, int segment, long remainingMillis,
+                              long startedAtMillis, long activeMillis, Integer rpe, boolean finished) {
+        /** What finalize() will insert. */
+        public Session toSession() {
+            int minutes = (int) Math.round(activeMillis / 60_000.0);
+            String date = LocalDateTime.ofInstant(Instant.ofEpochMilli(startedAtMillis), ZoneId.systemDefault())
+                    .truncatedTo(ChronoUnit.SECONDS).format(ISO);
+            return new Session(profileId, workoutId, date, minutes, rpe, null);
+        }
+    }
+
+    private static TimerJournal shared;
+
+    private final File file;
+    private final SessionLog sessions;
+    private volatile int rpe;
+    private Finished finished; // the last run, while rate() still applies to its session; guarded by 'this'
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "timer-journal");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Owned by the writer thread
+    private FileChannel channel;
+    private final ByteBuffer buf = ByteBuffer.allocate(RECORD_BYTES);
+    private final List<Entry> run = new ArrayList<>();
+    private long runNo; // bumped per new run, so a late commit never empties the next run's records
+
+    public TimerJournal(File file, SessionLog sessions) {
+        this.file = file;
+        this.sessions = sessions;
+    }
+
+    /** The app's journal (timer.journal in the working directory, like fitness.db). */
+    public static synchronized TimerJournal shared() {
+        if (shared == null) {
+            shared = new TimerJournal(new File(System.getProperty("fitness.timer.journal", "timer.journal")), SessionLog.shared());
+        }
+        return shared;
+    }
+
+    /** Append a record for 'program' without blocking the caller. */
+    public void record(byte type, IntervalProgram program, int segment, long remainingNanos) {
+        long wall = System.currentTimeMillis();
+        int workoutId = program.getWorkoutId();
+        int profileId = program.getProfileId();
+        int remaining = (int) Math.min(Integer.MAX_VALUE, TimeUnit.NANOSECONDS.toMillis(remainingNanos));
+        int rating;
+        Finished done = null;
+        synchronized (this) {
+            if (type == START && segment == 0) {
+                finished = null;
+                rpe = 0; // a new run starts unrated
+            } else if (type == FINISH) {
+                done = finished = new Finished();
+            }
+            rating = rpe;
+        }
+        Finished session = done;
+        writer.execute(() -> write(new Entry(type, workoutId, profileId, segment, wall, remaining, rating), session));
+    }
+
+    /**
+     * RPE (1..10, 0 = none) for the running workout; goes into its records and its session.
+     * After FINISH it re-rates the finished workout's session instead.
+     */
+    public synchronized void rate(int rpe) {
+        this.rpe = Math.max(0, Math.min(10, rpe));
+        if (finished != null) {
+            Finished f = finished;
+            Integer rating = this.rpe == 0 ? null : this.rpe;
+            f.rated = f.rated.handle((ok, error) -> null).thenCompose(x -> sessions.rate(f.id, rating));
+        }
+    }
+
+    /** Read the journal left by the previous run, if it holds an unsaved workout. */
+    public Optional<Interrupted> recover() {
+        try {
+            return writer.submit(() -> {
+                List<Entry> entries = readAll();
+                run.clear();
+                run.addAll(entries);
+                return replay(entries);
+            }).get();
+        } catch (Exception e) {
+            System.out.println("❌ timer journal recovery failed: " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /** The interrupted workout continues from its checkpoint: mark that no time passed while we were down. */
+    public void restore(Interrupted i) {
+        writer.execute(() -> write(new Entry(RESTORE, i.workoutId(), i.profileId(), i.segment(),
+                System.currentTimeMillis(), (int) i.remainingMillis(), i.rpe() == null ? 0 : i.rpe()), null));
+    }
+
+    /** Save the interrupted workout as a session and empty the journal once it's committed. */
+    public void finalizeInterrupted(Interrupted i) {
+        writer.execute(() -> save(i, null));
+    }
+
+    /** Forget the interrupted workout. */
+    public void discard() {
+        writer.execute(this::truncate);
+    }
+
+    /**
+     * Write out pending records, commit a finished workout's session, and close the file.
+     * Call once on exit (MainApp.stop()), before SessionLog and WriteQueue shut down.
+     */
+    public void close() {
+        try {
+            writer.submit(() -> { }).get(5, TimeUnit.SECONDS); // a FINISH reaches the log first
+            sessions.flush().get(5, TimeUnit.SECONDS);         // its commit queues the truncate
+        } catch (Exception e) {
+            System.out.println("❌ timer journal flush on close failed: " + e.getMessage());
+        }
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+            if (channel != null) channel.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            System.out.println("❌ timer journal close failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Replay records into the state of the run they describe.
+     * Empty if there's nothing to recover (no records, or no START).
+     */
+    static Optional<Interrupted> replay(List<Entry> entries) {
+        if (entries.isEmpty() || entries.get(0).type() != START) return Optional.empty();
+        Entry first = entries.get(0);
+        long active = 0;
+        long spanStart = first.wallMillis();
+        long prevWall = first.wallMillis();
+        boolean running = false;
+        int rating = 0;
+        for (Entry e : entries) {
+            if (e.rpe() != 0) rating = e.rpe();
+            switch (e.type()) {
+                case START, RESUME -> {
+                    if (!running) spanStart = e.wallMillis();
+                    running = true;
+                }
+                case PAUSE, FINISH -> {
+                    if (running) active += Math.max(0, e.wallMillis() - spanStart);
+                    running = false;
+                }
+                case RESTORE -> {
+                    // We were down since the previous record: count up to it, not to now.
+                    if (running) active += Math.max(0, prevWall - spanStart);
+                    running = false;
+                }
+                default -> { }
+            }
+            prevWall = e.wallMillis();
+        }
+        Entry last = entries.get(entries.size() - 1);
+        if (running) active += Math.max(0, last.wallMillis() - spanStart); // crashed while running
+        return Optional.of(new Interrupted(first.workoutId(), first.profileId(), last.segment(), last.remainingMillis(),
+                first.wallMillis(), active, rating == 0 ? null : rating, last.type() == FINISH));
+    }
+
+    // ===== Writer thread =====
+
+    /** 'done' is set for a FINISH written by record(): it receives the session's id. */
+    private void write(Entry e, Finished done) {
+        try {
+            if (e.type() == START && e.segment() == 0) {
+                runNo++;
+                run.clear();
+                channel().truncate(0);
+            }
+            buf.clear();
+            buf.put(MAGIC).put(e.type()).putShort((short) e.rpe())
+                    .putInt(e.workoutId()).putInt(e.profileId()).putInt(e.segment())
+                    .putLong(e.wallMillis()).putInt(e.remainingMillis());
+            CRC32 crc = new CRC32();
+            crc.update(buf.array(), 0, RECORD_BYTES - 4);
+            buf.putInt((int) crc.getValue());
+            buf.flip();
+            FileChannel ch = channel();
+            while (buf.hasRemaining()) ch.write(buf);
+            ch.force(false);
+            run.add(e);
+            if (e.type() == FINISH) {
+                Optional<Interrupted> ended = replay(run);
+                if (ended.isPresent()) save(ended.get(), done);
+                else truncate();
+            }
+        } catch (IOException ex) {
+            System.out.println("❌ timer journal write failed: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Hand the run's session to the log and empty the file after it commits. If the log is
+     * closed, the records stay, and the next launch finalizes the run instead.
+     */
+    private void save(Interrupted done, Finished finished) {
+        long thisRun = runNo;
+        CompletableFuture<Integer> logged = sessions.record(done.toSession());
+        if (finished != null) logged.whenComplete((id, error) -> {
+            if (error != null) finished.id.completeExceptionally(error);
+            else finished.id.complete(id);
+        });
+        logged.whenComplete((id, error) -> {
+            if (error instanceof IllegalStateException) return;
+            try {
+                writer.execute(() -> {
+                    if (runNo == thisRun) truncate();
+                });
+            } catch (RejectedExecutionException closing) {
+                // Journal already closed: the next launch finds FINISH and saves it again.
+            }
+        });
+    }
+
+    private void truncate() {
+        try {
+            run.clear();
+            channel().truncate(0);
+            channel().force(false);
+        } catch (IOException ex) {
+            System.out.println("❌ timer journal truncate failed: " + ex.getMessage());
+        }
+    }
+
+    private FileChannel channel() throws IOException {
+        if (channel == null) {
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.READ);
+            channel.position(channel.size() - channel.size() % RECORD_BYTES); // drop a torn tail
+        }
+        return channel;
+    }
+
+    private List<Entry> readAll() throws IOException {
+        List<Entry> out = new ArrayList<>();
+        if (!file.exists()) return out;
+        FileChannel ch = channel();
+        ByteBuffer all = ByteBuffer.allocate((int) ch.size());
+        ch.read(all, 0);
+        all.flip();
+        byte[] raw = all.array();
+        CRC32 crc = new CRC32();
+        int off = 0;
+        for (; off + RECORD_BYTES <= all.limit(); off += RECORD_BYTES) {
+            crc.reset();
+            crc.update(raw, off, RECORD_BYTES - 4);
+            if (raw[off] != MAGIC || all.getInt(off + RECORD_BYTES - 4) != (int) crc.getValue()) break;
+            out.add(new Entry(all.get(off + 1), all.getInt(off + 4), all.getInt(off + 8), all.getInt(off + 12),
+                    all.getLong(off + 16), all.getInt(off + 24), all.getShort(off + 2)));
+        }
+        if (off < all.limit()) {
+            ch.truncate(off); // torn or garbage tail, including a partial last record
+            ch.position(off);
+        }
+        return out;
+    }
+
+    /** A finished run's session: its id once committed, and the re-rates queued behind it. */
+    private static final class Finished {
+        final CompletableFuture<Integer> id = new CompletableFuture<>();
+        CompletableFuture<?> rated = id; // guarded by the journal
+    }
+}
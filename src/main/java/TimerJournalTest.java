@@ -0,0 +1,157 @@
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * TimerJournalTest
+ *
+ * 1) Cost on the timer side: ns per record() call, and segment boundary lateness of the same
+ *    program with and without a journal.
+ * 2) Crash: a journal written by one "process" is recovered by another, with a torn record at
+ *    the end. Recovery must land on the last checkpoint, and finalize must insert one session.
+ * 3) A journaled program that finishes turns into exactly one session (through SessionLog), and
+ *    the journal empties once it has committed.
+ * 4) An RPE picked after FINISH updates that session (the last pick wins), and stops doing so
+ *    once the next workout starts.
+ * Scratch database and journal files; never touches fitness.db.
+ */
+public class TimerJournalTest {
+
+    public static void main(String[] args) throws Exception {
+        Class.forName("org.sqlite.JDBC");
+        TestSupport.scratchDb("fitness-journal");
+
+        int profileId = new ProfileDao().insert(new Profile("Journal", "Intermediate", "Strength", 3));
+        WorkoutDao wdao = new WorkoutDao();
+        int workoutId = wdao.insert(new Workout(profileId, "Legs", 2, 1, 1, true));
+        ExerciseDao edao = new ExerciseDao();
+        WorkoutExerciseDao wedao = new WorkoutExerciseDao();
+        for (int e = 1; e <= 3; e++) {
+            int ex = edao.insert(new Exercise(profileId, "Move " + e, "Legs", "None", "Easy", "SECS"));
+            wedao.insert(new WorkoutExercise(workoutId, ex, e, 2, 1));
+        }
+        IntervalProgram program = IntervalProgram.compile(wdao.findPlan(workoutId).orElseThrow());
+        SessionDao sdao = new SessionDao();
+        SessionLog log = new SessionLog(20, 200, 64);
+
+        // 1) Caller-side cost
+        File jf = File.createTempFile("timer", ".journal");
+        jf.deleteOnExit();
+        TimerJournal journal = new TimerJournal(jf, log);
+        for (int round = 0; round < 3; round++) {
+            long t0 = System.nanoTime();
+            for (int i = 0; i < 2_000; i++) journal.record(TimerJournal.PAUSE, program, 1, 500_000_000L);
+            if (round == 2) System.out.printf("record(): %.0f ns per call on the caller's thread%n", (System.nanoTime() - t0) / 2_000.0);
+        }
+        journal.discard();
+        journal.recover(); // waits for the writer to drain
+
+        meanBoundaryLateness(program, null); // warm-up
+        double plain = 0, journaled = 0;
+        for (int run = 0; run < 3; run++) { // alternate, so drift in machine load hits both alike
+            plain += meanBoundaryLateness(program, null) / 3;
+            journaled += meanBoundaryLateness(program, journal) / 3;
+        }
+        System.out.printf("mean segment boundary lateness: %.3f ms without journal, %.3f ms with%n", plain, journaled);
+        TestSupport.check("journal adds < 0.5 ms per boundary", journaled - plain < 0.5);
+        settle(journal, log);
+        TestSupport.check("each finished run became one session", sdao.getByWorkout(workoutId).size() == 3);
+        TestSupport.check("journal emptied after finish", jf.length() == 0);
+
+        // 2) Crash mid-workout: START 0, START 1, PAUSE at 400 ms, RESUME, START 2, then a torn record
+        journal.record(TimerJournal.START, program, 0, program.durationNanos(0));
+        journal.rate(7);
+        Thread.sleep(50);
+        journal.record(TimerJournal.START, program, 1, program.durationNanos(1));
+        Thread.sleep(50);
+        journal.record(TimerJournal.PAUSE, program, 1, 400_000_000L);
+        Thread.sleep(200); // paused: must not count
+        journal.record(TimerJournal.RESUME, program, 1, 400_000_000L);
+        Thread.sleep(50);
+        journal.record(TimerJournal.START, program, 2, program.durationNanos(2));
+        journal.recover();
+        try (RandomAccessFile raf = new RandomAccessFile(jf, "rw")) {
+            raf.seek(raf.length());
+            raf.write(new byte[] {(byte) 0xA7, 2, 0, 0, 1, 2, 3}); // the crash tore this record
+        }
+
+        TimerJournal afterCrash = new TimerJournal(jf, log);
+        TimerJournal.Interrupted found = afterCrash.recover().orElse(null);
+        System.out.println("Recovered: " + found);
+        TestSupport.check("found the interrupted workout", found != null && found.workoutId() == workoutId && !found.finished());
+        TestSupport.check("at the last checkpoint (segment 2, full length)", found != null && found.segment() == 2
+                && found.remainingMillis() == program.durationNanos(2) / 1_000_000L);
+        TestSupport.check("active time excludes the pause (~150 ms)", found != null
+                && found.activeMillis() >= 140 && found.activeMillis() < 200);
+        TestSupport.check("torn tail dropped", jf.length() % TimerJournal.RECORD_BYTES == 0);
+
+        TestSupport.check("RPE picked mid-run survives the crash", found != null && Integer.valueOf(7).equals(found.rpe()));
+
+        afterCrash.finalizeInterrupted(found);
+        settle(afterCrash, log);
+        List<Session> saved = sdao.getByWorkout(workoutId);
+        TestSupport.check("finalize inserted one session", saved.size() == 4);
+        TestSupport.check("with its RPE", saved.stream().filter(x -> x.getRpe() != null && x.getRpe() == 7).count() == 1);
+        TestSupport.check("nothing left to recover", afterCrash.recover().isEmpty());
+
+        // 4) Rated after it finished, twice before its insert commits
+        afterCrash.record(TimerJournal.START, program, 0, program.durationNanos(0));
+        afterCrash.record(TimerJournal.FINISH, program, program.size() - 1, 0);
+        afterCrash.rate(8);
+        afterCrash.rate(9);
+        settle(afterCrash, log);
+        int finishedId = sdao.getByWorkout(workoutId).stream().mapToInt(Session::getId).max().orElse(0);
+        TestSupport.check("RPE picked after FINISH updates the logged session", rpeBecomes(sdao, finishedId, 9));
+        afterCrash.record(TimerJournal.START, program, 0, program.durationNanos(0));
+        afterCrash.rate(3);
+        Thread.sleep(200);
+        TestSupport.check("the next workout's RPE leaves it alone", rpeBecomes(sdao, finishedId, 9));
+        afterCrash.discard();
+
+        afterCrash.close();
+        journal.close();
+        log.close();
+        WriteQueue.shutdownShared();
+        TimerService.shutdownScheduler();
+        Db.shutdown();
+        TestSupport.exitIfFailed();
+    }
+
+    /** Run the program once; mean lateness of segment starts versus their exact offsets, in ms. */
+    private static double meanBoundaryLateness(IntervalProgram program, TimerJournal journal) throws InterruptedException {
+        long[] seenAt = new long[program.size()];
+        CountDownLatch done = new CountDownLatch(1);
+        TimerService[] t = new TimerService[1];
+        t[0] = new TimerService(secs -> {
+            if (t[0] == null) return;
+            int seg = t[0].segment();
+            if (seenAt[seg] == 0) seenAt[seg] = System.nanoTime();
+        }, done::countDown, Runnable::run, System::nanoTime);
+        t[0].journalTo(journal);
+        long t0 = System.nanoTime();
+        t[0].startProgram(program);
+        done.await();
+        long sum = 0;
+        for (int i = 1; i < program.size(); i++) sum += seenAt[i] - (t0 + program.startNanos(i));
+        t[0].stop();
+        return sum / 1e6 / (program.size() - 1);
+    }
+
+    /** Wait up to a second for session 'id' to have 'rpe'. */
+    private static boolean rpeBecomes(SessionDao sdao, int id, int rpe) throws InterruptedException {
+        for (int i = 0; i < 50; i++) {
+            Integer now = sdao.findById(id).map(Session::getRpe).orElse(null);
+            if (now != null && now == rpe) return true;
+            Thread.sleep(20);
+        }
+        return false;
+    }
+
+    /** Drain the journal, commit what it logged, then drain the truncate that follows the commit. */
+    private static void settle(TimerJournal journal, SessionLog log) {
+        journal.recover();
+        log.flush().join();
+        journal.recover();
+    }
+}
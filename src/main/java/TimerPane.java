@@ -16,19 +16,43 @@ import javafx.scene.text.Font;
  * - Two editable spinners for Work (sec) and Rest (sec). These accept direct typing
  *   and quick stepping. I clamp them in code to safe values.
  * - A toggle “Auto Rest.” If on, when Work hits 0, it automatically runs Rest.
- * - Start, Pause, Reset, and quick -10s / +10s to make adjustments on the fly.
+ * - Start, Pause/Resume, Reset, and quick -10s / +10s to make adjustments on the fly.
+ * - A workout picker with "Run Workout": the whole workout (every set, rest between sets and
+ *   rest between exercises) runs back to back, with the current step shown above the clock.
+ *   An optional RPE picker rates it; a finished workout is logged as a session with it, and
+ *   picking an RPE after it finished updates that session (until the next workout starts).
  *
  * Wiring notes:
- * - TimerService does the background ticks. I pass it:
- *     (1) how to update the label each second, and
- *     (2) what to do when the timer finishes (optionally trigger rest).
- * - shutdown() is here so MainApp can cleanly stop the timer thread on exit.
+ * - TimerService does the background timing. I only pass it what to do when the timer
+ *   finishes (optionally trigger rest).
+ * - The clock label is not pushed from the timer thread. ClockPulse reads the timer once per
+ *   frame and sets the text only when mm:ss changes, so ticks and +/-10s presses don't post
+ *   anything to the FX queue. Every button calls pulse.wake() so frames run while needed.
+ * - Run Workout loads the plan once (WorkoutDao.findPlan, off the FX thread and usually
+ *   cached) and compiles it into an IntervalProgram. From then on the session runs from
+ *   memory: no database calls between segments.
+ * - Workouts are journaled (TimerJournal) so a crash doesn't lose them. MainApp offers the
+ *   interrupted one on the next launch and calls resumeInterrupted() if the user wants it back.
+ *   The journal also logs the finished workout (SessionLog, write-behind), so finishing never
+ *   waits on the database.
+ * - shutdown() is here so MainApp can cleanly stop the timer on exit.
  */
 public class TimerPane extends VBox {
 
     /** Large label for the clock readout (mm:ss). */
     private final Label clock = new Label("00:00");
 
+    /** What the running workout segment is, e.g. "Bench Press · set 2/4". Empty otherwise. */
+    private final Label step = new Label();
+
+    /** Workout picker + button that runs the whole workout as one program. */
+    private final ComboBox<Workout> workouts = new ComboBox<>();
+    private final Button runWorkout = new Button("Run Workout");
+    private final WorkoutDao workoutDao = new WorkoutDao();
+
+    /** Optional rating of effort (1..10) for the running workout; saved with its session. */
+    private final ComboBox<Integer> rpe = new ComboBox<>();
+
     /** Work duration (seconds). Range chosen to be practical for workouts. */
     private final Spinner<Integer> workSecs = new Spinner<>(5, 3600, 60, 5);
 
@@ -48,6 +72,10 @@ public class TimerPane extends VBox {
     /** The timer engine (background thread + FX callbacks). */
     private final TimerService timer;
 
+    /** Shared per-frame renderer for the clock label, and our registration with it. */
+    private final ClockPulse pulse = ClockPulse.shared();
+    private final ClockPulse.Binding clockBinding;
+
     public TimerPane() {
         // Layout spacing/padding keeps everything readable and aligned.
         setSpacing(16);
@@ -57,10 +85,23 @@ public class TimerPane extends VBox {
         // Make the clock easy to read during a workout.
         clock.setFont(Font.font(48));
 
-        // Top row: the big clock display.
-        HBox clockRow = new HBox(clock);
+        // Top row: the big clock display, with the current workout step under it.
+        step.setFont(Font.font(18));
+        VBox clockRow = new VBox(4, step, clock);
         clockRow.setAlignment(Pos.CENTER_LEFT);
 
+        // Workout row: pick a workout and run all of it.
+        workouts.setPromptText("Workout");
+        workouts.setPrefWidth(220);
+        workouts.setButtonCell(new WorkoutCell());
+        workouts.setCellFactory(list -> new WorkoutCell());
+        workouts.setOnShowing(e -> reloadWorkouts());      // pick up workouts added in other tabs
+        for (int r = 1; r <= 10; r++) rpe.getItems().add(r);
+        rpe.setPromptText("RPE");
+        rpe.setOnAction(e -> TimerJournal.shared().rate(rpe.getValue() == null ? 0 : rpe.getValue()));
+        HBox programRow = new HBox(12, new Label("Workout:"), workouts, runWorkout, rpe);
+        programRow.setAlignment(Pos.CENTER_LEFT);
+
         // Middle row: work/rest inputs and the Auto Rest toggle.
         workSecs.setEditable(true);
         restSecs.setEditable(true);
@@ -76,22 +117,31 @@ public class TimerPane extends VBox {
         controls.setAlignment(Pos.CENTER_LEFT);
 
         // Connect the timer engine:
-        // onTick -> update the label,
+        // no onTick (ClockPulse renders the label),
         // onFinish -> call a method (handleFinish) so we don't self-reference 'timer' in the initializer.
-        timer = new TimerService(
-                secs -> clock.setText(format(secs)),
-                this::handleFinish
-        );
+        timer = new TimerService(null, this::handleFinish);
+        timer.journalTo(TimerJournal.shared());
+        clockBinding = pulse.bind(timer, clock::setText, step::setText);
 
         // Button behaviors in simple terms:
-        start.setOnAction(e -> timer.start(safe(workSecs.getValue()))); // start from Work value
-        pause.setOnAction(e -> timer.pause());                          // freeze where it is
-        reset.setOnAction(e -> timer.reset());                          // go back to last start value
-        plus10.setOnAction(e -> timer.adjust(+10));                     // add 10 seconds
-        minus10.setOnAction(e -> timer.adjust(-10));                    // remove 10 seconds (floors at 0)
+        start.setOnAction(e -> {                                        // start from Work value
+            timer.start(safe(workSecs.getValue()));
+            pause.setText("Pause");
+            pulse.wake();
+        });
+        pause.setOnAction(e -> togglePause());                          // freeze exactly / continue
+        reset.setOnAction(e -> {                                        // go back to last start value
+            timer.reset();
+            pause.setText("Pause");
+            pulse.wake();
+        });
+        plus10.setOnAction(e -> { timer.adjust(+10); pulse.wake(); });  // add 10 seconds
+        minus10.setOnAction(e -> { timer.adjust(-10); pulse.wake(); }); // remove 10 seconds (floors at 0)
+        runWorkout.setOnAction(e -> runSelectedWorkout());              // whole workout, back to back
 
         // Assemble the rows in order.
-        getChildren().addAll(clockRow, settings, controls);
+        getChildren().addAll(clockRow, settings, controls, programRow);
+        reloadWorkouts();
 
         // Keep button sizes consistent so it looks clean.
         start.setPrefWidth(80);
@@ -101,19 +151,87 @@ public class TimerPane extends VBox {
         plus10.setPrefWidth(80);
     }
 
-    /** Called by TimerService when a countdown hits zero. */
+    /** Pause keeps the exact remaining time; pressing again resumes from it. */
+    private void togglePause() {
+        if (timer.phase() == TimerService.Phase.PAUSED) {
+            timer.resume();
+            pause.setText("Pause");
+            pulse.wake();
+        } else if (timer.isRunning()) {
+            timer.pause();
+            pause.setText("Resume");
+        }
+    }
+
+    /** Load the selected workout's plan off the FX thread, compile it, and run it. */
+    private void runSelectedWorkout() {
+        Workout w = workouts.getValue();
+        if (w == null) return;
+        runWorkout.setDisable(true);
+        AsyncDao.run(() -> workoutDao.findPlan(w.getId()).map(IntervalProgram::compile), program -> {
+            runWorkout.setDisable(false);
+            program.ifPresent(p -> {
+                timer.startProgram(p);
+                rpe.setValue(null);   // the new workout starts unrated; the last one keeps its rating
+                pause.setText("Pause");
+                pulse.wake();
+            });
+        }, error -> runWorkout.setDisable(false));
+    }
+
+    /**
+     * Put a workout recovered from the journal back on the clock, paused at its last checkpoint.
+     * If the workout was deleted meanwhile, it's saved as a session instead.
+     */
+    public void resumeInterrupted(TimerJournal.Interrupted interrupted) {
+        TimerJournal journal = TimerJournal.shared();
+        AsyncDao.run(() -> workoutDao.findPlan(interrupted.workoutId()).map(IntervalProgram::compile), program -> {
+            if (program.isEmpty()) {
+                journal.finalizeInterrupted(interrupted);
+                return;
+            }
+            timer.restoreProgram(program.get(), interrupted.segment(), interrupted.remainingMillis() * 1_000_000L);
+            rpe.setValue(interrupted.rpe());
+            journal.rate(interrupted.rpe() == null ? 0 : interrupted.rpe());
+            journal.restore(interrupted);
+            pause.setText("Resume");
+            pulse.wake();
+        });
+    }
+
+    private void reloadWorkouts() {
+        AsyncDao.run(workoutDao::getAll, list -> {
+            Workout selected = workouts.getValue();
+            workouts.getItems().setAll(list);
+            if (selected != null) {
+                list.stream().filter(x -> x.getId() == selected.getId()).findFirst().ifPresent(workouts::setValue);
+            }
+        });
+    }
+
+    /** Called by TimerService when a countdown (or a whole workout) hits zero. */
     private void handleFinish() {
+        if (timer.program() != null) return; // a workout already includes its rests
         if (useRest.isSelected()) {
             int r = safe(restSecs.getValue());
             timer.start(r);
+            pulse.wake();
         }
     }
 
-    /** Format seconds as mm:ss. I keep it simple and readable. */
-    private static String format(int totalSeconds) {
-        int m = totalSeconds / 60;
-        int s = totalSeconds % 60;
-        return String.format("%02d:%02d", m, s);
+    /** Shows a workout as "Push Day (Mon)" in the picker. */
+    private static final class WorkoutCell extends ListCell<Workout> {
+        private static final String[] DAYS = {"", "Mon", "Tue", "Wed", "Thu", "Fri", "Sat", "Sun"};
+
+        @Override protected void updateItem(Workout item, boolean empty) {
+            super.updateItem(item, empty);
+            if (empty || item == null) {
+                setText("");
+            } else {
+                Integer d = item.getDayOfWeek();
+                setText(item.getName() + (d == null ? "" : " (" + DAYS[d] + ")"));
+            }
+        }
     }
 
     /** Defensive helper to avoid null spinner values and negative inputs. */
@@ -126,6 +244,7 @@ public class TimerPane extends VBox {
      * from lingering after the window closes. One line, but necessary.
      */
     public void shutdown() {
+        pulse.unbind(clockBinding);
         timer.stop();
     }
 }
@@ -0,0 +1,105 @@
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * TimerRenderBench
+ *
+ * FX-queue pressure of the timer readouts, before and after ClockPulse. A single-thread
+ * executor stands in for the FX Application Thread, so this runs without a display.
+ *   before: every tick and every adjust posts a Runnable (Platform.runLater) that formats
+ *           the text with String.format.
+ *   after:  timers have no onTick; a 60 Hz pulse on the "FX" thread runs ClockPulse.poll().
+ * TIMERS countdowns of 10 s each, with three +10s presses per timer while running.
+ * Also compares one String.format("%02d:%02d") against ClockText.of (time and bytes).
+ */
+public class TimerRenderBench {
+
+    private static final int TIMERS = 500;
+    private static final int SECONDS = 10;
+
+    /** The stand-in FX thread: counts posts and the deepest its queue got. */
+    private static final class FxQueue implements Executor {
+        final ThreadPoolExecutor thread = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+        final AtomicLong posts = new AtomicLong();
+        volatile int maxDepth;
+
+        @Override
+        public void execute(Runnable r) {
+            posts.incrementAndGet();
+            thread.execute(r);
+            int depth = thread.getQueue().size();
+            if (depth > maxDepth) maxDepth = depth;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        run(false);
+        run(true);
+        formatting();
+        TimerService.shutdownScheduler();
+    }
+
+    private static void run(boolean pulsed) throws Exception {
+        FxQueue fx = new FxQueue();
+        CountDownLatch done = new CountDownLatch(TIMERS);
+        String[] labels = new String[TIMERS];
+        TimerService[] timers = new TimerService[TIMERS];
+        ClockPulse pulse = new ClockPulse();
+        for (int i = 0; i < TIMERS; i++) {
+            int id = i;
+            timers[i] = new TimerService(pulsed ? null : secs -> labels[id] = String.format("%02d:%02d", secs / 60, secs % 60),
+                    done::countDown, fx, System::nanoTime);
+        }
+        long postsBefore = fx.posts.get();   // the constructors' 00:00 notifications
+        ScheduledExecutorService vsync = Executors.newSingleThreadScheduledExecutor();
+        if (pulsed) {
+            fx.thread.submit(() -> { for (int i = 0; i < TIMERS; i++) { int id = i; pulse.bind(timers[i], s -> labels[id] = s); } }).get();
+            vsync.scheduleAtFixedRate(() -> fx.execute(pulse::poll), 0, 16_667, TimeUnit.MICROSECONDS);
+        }
+
+        long t0 = System.nanoTime();
+        for (TimerService t : timers) t.start(SECONDS);
+        for (int press = 0; press < 3; press++) {
+            Thread.sleep(1_500);
+            for (TimerService t : timers) t.adjust(+10);
+        }
+        done.await();
+        double secs = (System.nanoTime() - t0) / 1e9;
+        vsync.shutdownNow();
+        fx.thread.shutdown();
+        fx.thread.awaitTermination(5, TimeUnit.SECONDS);
+
+        long posts = fx.posts.get() - postsBefore;
+        System.out.printf("%s %d timers, %.1f s: %,d FX posts (%.0f/s), max queue depth %d%s%n",
+                pulsed ? "after: " : "before:", TIMERS, secs, posts, posts / secs, fx.maxDepth,
+                pulsed ? String.format(", %,d pulses, %,d label updates", pulse.pulses(), pulse.updates()) : "");
+    }
+
+    private static void formatting() {
+        com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        int n = 1_000_000;
+        long sink = 0;
+        for (int round = 0; round < 3; round++) { // last round counts; the first two warm up
+            long b0 = mx.getCurrentThreadAllocatedBytes();
+            long t0 = System.nanoTime();
+            for (int i = 0; i < n; i++) sink += String.format("%02d:%02d", (i % 3600) / 60, i % 60).length();
+            long fmtNs = System.nanoTime() - t0, fmtBytes = mx.getCurrentThreadAllocatedBytes() - b0;
+
+            b0 = mx.getCurrentThreadAllocatedBytes();
+            t0 = System.nanoTime();
+            for (int i = 0; i < n; i++) sink += ClockText.of(i % 3600).length();
+            long ctNs = System.nanoTime() - t0, ctBytes = mx.getCurrentThreadAllocatedBytes() - b0;
+            if (round == 2) {
+                System.out.printf("String.format: %.1f ns, %d bytes per call; ClockText.of: %.1f ns, %d bytes per call (%d)%n",
+                        fmtNs / (double) n, fmtBytes / n, ctNs / (double) n, ctBytes / n, sink % 10);
+            }
+        }
+    }
+}
@@ -1,10 +1,12 @@
 import javafx.application.Platform;
 
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
+import java.util.function.LongSupplier;
 
 /**
  * TimerService
@@ -12,52 +14,114 @@ import java.util.function.Consumer;
  * Purpose:
  * A simple, predictable countdown engine that runs off the Java executor framework.
  * I wanted something that:
- *   1) Ticks once per second without freezing the JavaFX UI,
+ *   1) Keeps exact time without freezing the JavaFX UI,
  *   2) Calls my UI update on the JavaFX Application Thread (safe for labels, etc.),
- *   3) Can be started, paused, reset, and adjusted cleanly,
+ *   3) Can be started, paused, resumed, reset, and adjusted cleanly,
  *   4) Shuts down safely when the app closes (no lingering background threads).
  *
  * How it works in plain English:
- * - When I call start(N), it stores N seconds and flips a flag that says “we’re running.”
- * - A single-threaded scheduler ticks every 1 second and reduces the remaining seconds.
- * - Each second, it posts the new value back to the UI using Platform.runLater.
- * - When the counter reaches 0, it stops and triggers onFinish (also on the FX thread).
+ * - start(N) doesn't store "N seconds left"; it stores a deadline: now + N seconds on the
+ *   monotonic clock (System.nanoTime). Remaining time is always deadline - now, so it's
+ *   accurate to the millisecond whenever anyone asks (remainingMillis()).
+ * - The old version decremented an int on a fixed 1 s beat that started when the app
+ *   started, so start/pause landed anywhere inside that second and the countdown could be
+ *   off by up to a second. Now each wake-up is scheduled for the exact moment the shown
+ *   second changes, computed from the deadline. A late wake-up never shifts later ones, so
+ *   there is no drift.
+ * - pause() freezes the exact remaining nanoseconds; resume() sets a new deadline from them.
+ * - startProgram() runs a compiled IntervalProgram (a whole workout) segment by segment. When a
+ *   segment ends, the next deadline is the previous deadline plus the next segment's length,
+ *   not "now + length", so boundaries stay exact over a long session. Pause/adjust act on the
+ *   current segment; later segments chain from wherever it ends.
+ * - With journalTo(journal), a running program also leaves checkpoints in a TimerJournal
+ *   (segment start, pause, resume, finish) so a crash doesn't lose the workout. record() only
+ *   hands values to the journal's thread; no disk I/O happens here.
+ * - When the deadline passes, it stops and triggers onFinish (also on the FX thread).
  *
  * Threading notes:
- * - The scheduler is created once. I stop it for good in stop(), which I call from MainApp.stop().
- * - The AtomicBoolean 'running' is how I pause/resume without re-creating the scheduler task.
+ * - All state lives in one immutable State snapshot behind an AtomicReference. Every
+ *   operation swaps in a new snapshot atomically (updateAndGet), so the FX thread (buttons)
+ *   and the scheduler thread (ticks) can never see half of an update.
+ * - Each snapshot carries a generation number. A scheduled tick only acts if the generation
+ *   it was scheduled for is still current; pause/adjust/reset simply make old ticks stale.
+ * - Nothing ticks unless a countdown is running. At most one wake-up is armed per timer, and
+ *   pause/reset/adjust/finish/stop cancel it.
+ * - All TimerService instances share one daemon thread driving a TimingWheel with 1 ms ticks,
+ *   so a kiosk with thousands of stations still has one timer thread, and arming or cancelling
+ *   a wake-up is O(1). With nothing armed the thread blocks without waking, and after 30 s
+ *   idle it exits; the next start() brings it back. MainApp.stop() calls shutdownScheduler()
+ *   once at exit.
+ * - wakeups() counts every scheduler wake-up across all timers (TimerWakeupTest reads it).
  */
 public class TimerService {
 
-    /** Called once per second with the current seconds remaining (on JavaFX thread). */
+    private static final long SECOND = 1_000_000_000L;
+
+    /** What the timer is doing right now. */
+    public enum Phase { IDLE, RUNNING, PAUSED }
+
+    /**
+     * One consistent snapshot of the timer.
+     * RUNNING: deadlineNanos is meaningful. IDLE/PAUSED: remainingNanos is meaningful.
+     * program is null for a plain countdown; otherwise segment is the one being timed.
+     */
+    private record State(Phase phase, long deadlineNanos, long remainingNanos, long initialNanos, long generation,
+                         IntervalProgram program, int segment) {
+        State(Phase phase, long deadlineNanos, long remainingNanos, long initialNanos, long generation) {
+            this(phase, deadlineNanos, remainingNanos, initialNanos, generation, null, 0);
+        }
+
+        long remaining(long now) {
+            return phase == Phase.RUNNING ? Math.max(0, deadlineNanos - now) : remainingNanos;
+        }
+
+        /** Same program position, new timing. */
+        State with(Phase phase, long deadlineNanos, long remainingNanos) {
+            return new State(phase, deadlineNanos, remainingNanos, initialNanos, generation + 1, program, segment);
+        }
+    }
+
+    /**
+     * Called with the seconds remaining (rounded up, like a clock) whenever that value changes.
+     * May be null: TimerPane reads shownSeconds() once per frame through ClockPulse instead.
+     */
     private final Consumer<Integer> onTick;
 
-    /** Called when the timer hits 0 (on JavaFX thread). */
+    /** Called when the timer hits 0. */
     private final Runnable onFinish;
 
-    /** A single background thread that does the timing. */
-    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    /** Where callbacks run. Platform::runLater in the app; tests pass Runnable::run. */
+    private final Executor callbacks;
 
-    /** True if the timer is currently counting down. This lets me pause without killing the scheduler. */
-    private final AtomicBoolean running = new AtomicBoolean(false);
+    /** Monotonic clock. System::nanoTime in the app. */
+    private final LongSupplier clock;
 
-    /** How many seconds are left right now. */
-    private int secondsRemaining = 0;
+    /** One background thread that does the timing for every TimerService. */
+    private static final TimingWheel WHEEL = new TimingWheel("timer-service", 1, TimeUnit.MILLISECONDS);
 
-    /** The value we last started from. Reset uses this. */
-    private int initialSeconds = 0;
+    /** Scheduler wake-ups since startup, across all timers. */
+    private static final AtomicLong WAKEUPS = new AtomicLong();
+
+    private final AtomicReference<State> state = new AtomicReference<>(new State(Phase.IDLE, 0, 0, 0, 0));
+
+    /** The one wake-up currently armed for this timer (null when idle). Guarded by 'this'. */
+    private TimingWheel.Timeout armed;
+
+    /** Where program checkpoints go (null: not journaled). */
+    private volatile TimerJournal journal;
 
     public TimerService(Consumer<Integer> onTick, Runnable onFinish) {
+        this(onTick, onFinish, Platform::runLater, System::nanoTime);
+    }
+
+    public TimerService(Consumer<Integer> onTick, Runnable onFinish, Executor callbacks, LongSupplier clock) {
         this.onTick = onTick;
         this.onFinish = onFinish;
+        this.callbacks = callbacks;
+        this.clock = clock;
 
         // On construction I want the UI to be in a known state (00:00).
-        // I send 0 to whoever owns the label, but I do it on the FX thread to stay safe.
-        fireTickOnFx(0);
-
-        // Start a fixed-rate 1s ticker that will call tick(). It’s cheap and always ready.
-        // Note: tick() checks 'running', so nothing “counts down” until start() flips the flag.
-        scheduler.scheduleAtFixedRate(this::tick, 0, 1, TimeUnit.SECONDS);
+        fireTick(0);
     }
 
     /**
@@ -66,31 +130,90 @@ public class TimerService {
      */
     public void start(int seconds) {
         if (seconds <= 0) {
-            resetTo(0);
-            running.set(false);
+            State prev = state.getAndUpdate(s -> new State(Phase.IDLE, 0, 0, 0, s.generation() + 1));
+            disarm();
+            abandon(prev);
+            fireTick(0);
             return;
         }
-        initialSeconds = seconds;
-        secondsRemaining = seconds;
-        running.set(true);
-        fireTickOnFx(secondsRemaining);
+        long total = seconds * SECOND;
+        State prev = state.getAndUpdate(s ->
+                new State(Phase.RUNNING, clock.getAsLong() + total, 0, total, s.generation() + 1));
+        State next = state.get();
+        abandon(prev);
+        fireTick(seconds);
+        armNextTick(next);
     }
 
     /**
-     * Pause the countdown without clearing the current remaining value.
+     * Run a whole compiled workout from its first segment. onTick follows each segment's own
+     * countdown, and onFinish fires once, after the last segment.
+     */
+    public void startProgram(IntervalProgram program) {
+        if (program.size() == 0) {
+            start(0);
+            return;
+        }
+        long first = program.durationNanos(0);
+        State prev = state.getAndUpdate(s ->
+                new State(Phase.RUNNING, clock.getAsLong() + first, 0, first, s.generation() + 1, program, 0));
+        State next = state.get();
+        abandon(prev);
+        fireTick(displaySeconds(first));
+        armNextTick(next);
+        checkpoint(TimerJournal.START, next);
+    }
+
+    /**
+     * Put a program back at a recovered checkpoint (see TimerJournal.recover()), paused,
+     * so resume() continues it. Nothing is journaled here; the caller records the restore.
+     */
+    public void restoreProgram(IntervalProgram program, int segment, long remainingNanos) {
+        int seg = Math.max(0, Math.min(segment, program.size() - 1));
+        long remaining = Math.max(1, Math.min(remainingNanos, program.durationNanos(seg)));
+        state.updateAndGet(s -> new State(Phase.PAUSED, 0, remaining, program.durationNanos(0),
+                s.generation() + 1, program, seg));
+        disarm();
+        fireTick(displaySeconds(remaining));
+    }
+
+    /** Send program checkpoints to 'journal' (null to stop). */
+    public void journalTo(TimerJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Pause the countdown, keeping the exact remaining time.
      * Useful when I want to resume later with the same time.
      */
     public void pause() {
-        running.set(false);
+        State next = state.updateAndGet(s -> s.phase() != Phase.RUNNING ? s
+                : s.with(Phase.PAUSED, 0, s.remaining(clock.getAsLong())));
+        disarm();
+        if (next.phase() == Phase.PAUSED) checkpoint(TimerJournal.PAUSE, next);
+    }
+
+    /** Continue a paused countdown from exactly where it was paused. */
+    public void resume() {
+        State next = state.updateAndGet(s -> s.phase() != Phase.PAUSED || s.remainingNanos() <= 0 ? s
+                : s.with(Phase.RUNNING, clock.getAsLong() + s.remainingNanos(), 0));
+        if (next.phase() == Phase.RUNNING) {
+            checkpoint(TimerJournal.RESUME, next);
+            armNextTick(next);
+        }
     }
 
     /**
      * Reset back to the last started value. Does not automatically start running.
-     * If I haven’t started yet, this simply shows 0.
+     * If I haven’t started yet, this simply shows 0. A program goes back to its first segment.
      */
     public void reset() {
-        running.set(false);
-        resetTo(initialSeconds);
+        State prev = state.getAndUpdate(s ->
+                new State(Phase.IDLE, 0, s.initialNanos(), s.initialNanos(), s.generation() + 1, s.program(), 0));
+        State next = state.get();
+        disarm();
+        abandon(prev);
+        fireTick(displaySeconds(next.remainingNanos()));
     }
 
     /**
@@ -98,48 +221,151 @@ public class TimerService {
      * I use this for quick “+10s” or “-10s” buttons while the timer is running or paused.
      */
     public void adjust(int delta) {
-        secondsRemaining = Math.max(0, secondsRemaining + delta);
-        fireTickOnFx(secondsRemaining);
+        long d = delta * SECOND;
+        State next = state.updateAndGet(s -> {
+            long now = clock.getAsLong();
+            long remaining = Math.max(0, s.remaining(now) + d);
+            return s.phase() == Phase.RUNNING
+                    ? s.with(Phase.RUNNING, now + remaining, 0)
+                    : s.with(s.phase(), 0, remaining);
+        });
+        fireTick(displaySeconds(next.remaining(clock.getAsLong())));
+        if (next.phase() == Phase.RUNNING) armNextTick(next); // replaces the wake-up armed for the old deadline
+    }
+
+    /** Milliseconds left right now (exact, not rounded to the shown second). */
+    public long remainingMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(state.get().remaining(clock.getAsLong()));
+    }
+
+    /** Whole seconds a clock should show right now (rounded up, like the onTick values). */
+    public int shownSeconds() {
+        return displaySeconds(state.get().remaining(clock.getAsLong()));
+    }
+
+    public Phase phase() {
+        return state.get().phase();
+    }
+
+    /** The program being run, or null for a plain countdown. */
+    public IntervalProgram program() {
+        return state.get().program();
+    }
+
+    /** Index of the current program segment (0 for a plain countdown). */
+    public int segment() {
+        return state.get().segment();
+    }
+
+    public boolean isRunning() {
+        return phase() == Phase.RUNNING;
     }
 
     /**
-     * Permanently stop the scheduler thread. Call this once when the app closes.
-     * If I forget to call this, the JVM might hang on exit because the executor is still alive.
+     * Stop this timer for good and cancel its pending wake-up. The shared scheduler thread
+     * keeps serving other timers; see shutdownScheduler().
      */
     public void stop() {
-        running.set(false);
-        scheduler.shutdownNow();
+        state.updateAndGet(s -> s.with(Phase.IDLE, 0, s.remaining(clock.getAsLong())));
+        disarm();
+    }
+
+    /** Scheduler wake-ups so far, across all timers. */
+    public static long wakeups() {
+        return WAKEUPS.get();
+    }
+
+    /**
+     * Stop the shared scheduler thread. Call this once when the app closes (MainApp.stop()).
+     * The thread is a daemon and exits by itself when idle, so a forgotten call can't hang the JVM.
+     */
+    public static void shutdownScheduler() {
+        WHEEL.shutdown();
     }
 
     // ===== Internals below =====
 
-    /** One logical “tick.” Runs on the scheduler thread every 1 second. */
-    private void tick() {
-        if (!running.get()) return;
+    /**
+     * Schedule one wake-up for the moment the shown second next changes (or the deadline),
+     * replacing any wake-up already armed. Skipped if 's' is no longer the current snapshot:
+     * a tick thread must not re-arm a timer the FX thread has just paused or restarted.
+     */
+    private synchronized void armNextTick(State s) {
+        if (state.get().generation() != s.generation()) return;
+        long remaining = s.remaining(clock.getAsLong());
+        long delay = remaining - (displaySeconds(remaining) - 1) * SECOND; // time until ceil(remaining) drops
+        if (remaining <= 0) delay = 0;
+        if (armed != null) armed.cancel();
+        try {
+            armed = WHEEL.schedule(() -> tick(s.generation()), delay, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException stopped) {
+            armed = null; // shutdownScheduler() already ran; nothing to do
+        }
+    }
 
-        // Decrement, clamp at 0, and notify UI.
-        secondsRemaining = Math.max(0, secondsRemaining - 1);
-        fireTickOnFx(secondsRemaining);
+    /** Cancel the armed wake-up, if any. */
+    private synchronized void disarm() {
+        if (armed != null) {
+            armed.cancel();
+            armed = null;
+        }
+    }
 
-        // If we hit zero, stop and fire the finish callback.
-        if (secondsRemaining == 0) {
-            running.set(false);
-            if (onFinish != null) {
-                Platform.runLater(onFinish);
-            }
+    /** One wake-up. Runs on the scheduler thread. */
+    private void tick(long generation) {
+        WAKEUPS.incrementAndGet();
+        State s = state.get();
+        if (s.generation() != generation || s.phase() != Phase.RUNNING) return; // stale
+
+        long remaining = s.remaining(clock.getAsLong());
+        if (remaining > 0) {
+            fireTick(displaySeconds(remaining));
+            armNextTick(s);
+            return;
         }
+
+        // Segment over: the next one starts exactly at this deadline, however late this tick runs.
+        IntervalProgram p = s.program();
+        if (p != null && s.segment() + 1 < p.size()) {
+            int seg = s.segment() + 1;
+            State next = new State(Phase.RUNNING, s.deadlineNanos() + p.durationNanos(seg), 0,
+                    s.initialNanos(), s.generation() + 1, p, seg);
+            if (!state.compareAndSet(s, next)) return;
+            fireTick(displaySeconds(next.remaining(clock.getAsLong())));
+            armNextTick(next);
+            checkpoint(TimerJournal.START, next); // after the time-critical work
+            return;
+        }
+
+        // Deadline reached: stop and fire the finish callback, unless someone changed the state meanwhile.
+        State done = new State(Phase.IDLE, 0, 0, s.initialNanos(), s.generation() + 1, p, s.segment());
+        if (!state.compareAndSet(s, done)) return; // the finished wake-up is the armed one; nothing to cancel
+        fireTick(0);
+        if (onFinish != null) callbacks.execute(onFinish);
+        checkpoint(TimerJournal.FINISH, done);
+    }
+
+    /** Journal a program checkpoint for snapshot 's' (plain countdowns aren't journaled). */
+    private void checkpoint(byte type, State s) {
+        TimerJournal j = journal;
+        if (j != null && s.program() != null) j.record(type, s.program(), s.segment(), s.remaining(clock.getAsLong()));
+    }
+
+    /** A running or paused program was replaced or reset by the user: it won't be resumed. */
+    private void abandon(State prev) {
+        TimerJournal j = journal;
+        if (j != null && prev.program() != null && prev.phase() != Phase.IDLE) j.discard();
     }
 
-    /** Reset the display to a specific value and push it to the UI. */
-    private void resetTo(int secs) {
-        secondsRemaining = Math.max(0, secs);
-        fireTickOnFx(secondsRemaining);
+    /** Whole seconds to show: rounded up, so 59.2 s left still reads 01:00 until it really is 59. */
+    private static int displaySeconds(long remainingNanos) {
+        return (int) ((remainingNanos + SECOND - 1) / SECOND);
     }
 
-    /** Safely notify the UI owner (label/spinner/etc.) from the JavaFX thread. */
-    private void fireTickOnFx(int secs) {
+    /** Safely notify the UI owner (label/spinner/etc.) on the callback executor. */
+    private void fireTick(int secs) {
         if (onTick != null) {
-            Platform.runLater(() -> onTick.accept(secs));
+            callbacks.execute(() -> onTick.accept(secs));
         }
     }
 }
@@ -0,0 +1,84 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * TimerWakeupTest
+ *
+ * Counts scheduler wake-ups with TimerService.wakeups() and compares them with the old design,
+ * where every TimerService ran its own 1 Hz fixed-rate beat from construction until exit.
+ * No JavaFX needed: callbacks run inline.
+ */
+public class TimerWakeupTest {
+
+    private static final int TIMERS = 20;
+
+    public static void main(String[] args) throws Exception {
+        // 1) Idle: timers exist (one per tab/station) but nobody pressed Start
+        List<TimerService> idle = new ArrayList<>();
+        for (int i = 0; i < TIMERS; i++) idle.add(new TimerService(null, null, Runnable::run, System::nanoTime));
+        long w0 = TimerService.wakeups();
+        Thread.sleep(3_000);
+        long idleWakeups = TimerService.wakeups() - w0;
+        long legacyIdle = legacyBeats(TIMERS, 3_000);
+        report("20 idle timers for 3 s", idleWakeups, legacyIdle, idleWakeups == 0);
+
+        // 2) One 4 s countdown, run to the end: one wake-up per shown second
+        CountDownLatch done = new CountDownLatch(1);
+        TimerService t = new TimerService(null, done::countDown, Runnable::run, System::nanoTime);
+        w0 = TimerService.wakeups();
+        t.start(4);
+        done.await();
+        long runWakeups = TimerService.wakeups() - w0;
+        report("one 4 s countdown", runWakeups, legacyBeats(1, 4_000), runWakeups == 4);
+
+        // 3) Paused, then reset: the armed wake-up is cancelled, nothing ticks while paused
+        t.start(10);
+        Thread.sleep(1_500);
+        t.pause();
+        w0 = TimerService.wakeups();
+        Thread.sleep(3_000);
+        long pausedWakeups = TimerService.wakeups() - w0;
+        t.resume();
+        t.reset();
+        long afterReset = TimerService.wakeups();
+        Thread.sleep(2_000);
+        long resetWakeups = TimerService.wakeups() - afterReset;
+        report("paused 3 s", pausedWakeups, legacyBeats(1, 3_000), pausedWakeups == 0);
+        report("reset, then 2 s idle", resetWakeups, legacyBeats(1, 2_000), resetWakeups == 0);
+
+        // 4) Threads: all timers share one scheduler thread
+        for (TimerService s : idle) s.start(2);
+        long threads = Thread.getAllStackTraces().keySet().stream()
+                .filter(th -> th.getName().equals("timer-service")).count();
+        TestSupport.check("timer threads with " + (TIMERS + 1) + " running timers: " + threads
+                + " (old design: " + (TIMERS + 1) + ")", threads == 1);
+        for (TimerService s : idle) s.stop();
+        t.stop();
+        TimerService.shutdownScheduler();
+        TestSupport.exitIfFailed();
+    }
+
+    private static void report(String what, long wakeups, long legacy, boolean ok) {
+        TestSupport.check(String.format("%-22s wakeups %3d, old design %3d, saved %3d",
+                what + ":", wakeups, legacy, legacy - wakeups), ok);
+    }
+
+    /** Beats the old design spends: one always-on 1 Hz task per timer, for 'millis'. */
+    private static long legacyBeats(int timers, long millis) throws InterruptedException {
+        AtomicLong beats = new AtomicLong();
+        List<ScheduledExecutorService> beating = new ArrayList<>();
+        for (int i = 0; i < timers; i++) {
+            ScheduledExecutorService s = Executors.newSingleThreadScheduledExecutor();
+            s.scheduleAtFixedRate(beats::incrementAndGet, 0, 1, TimeUnit.SECONDS);
+            beating.add(s);
+        }
+        Thread.sleep(millis - 1); // stop just before the beat at 'millis' would fire
+        beating.forEach(ScheduledExecutorService::shutdownNow);
+        return beats.get();
+    }
+}
@@ -0,0 +1,137 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * TimerWheelBench
+ *
+ * 1) 10,000 concurrent TimerService countdowns (5-15 s, started together like a full kiosk
+ *    after "start all"). Every shown-second flip is timed against its ideal instant
+ *    (start + k seconds). Reports the lateness percentiles and the number of timer threads.
+ * 2) The cost of one schedule + cancel (what pause/adjust/reset do) on the TimingWheel versus
+ *    a ScheduledThreadPoolExecutor, with 10k and 1M other tasks pending.
+ * 3) The old design for comparison: a 1 s fixed-rate beat started at construction, with
+ *    start() landing at a random point in that beat. TimerDriftTest holds the new design to
+ *    a 20 ms bound; this one misses by whatever the phase happened to be.
+ * No JavaFX needed: callbacks run inline.
+ */
+public class TimerWheelBench {
+
+    private static final int TIMERS = 10_000;
+
+    public static void main(String[] args) throws Exception {
+        int timers = args.length > 0 ? Integer.parseInt(args[0]) : TIMERS;
+        concurrentCountdowns(timers);
+        scheduleCancel(10_000);
+        scheduleCancel(1_000_000);
+        System.out.println("Old fixed-rate design, 5 x 3 s countdowns started at a random phase:");
+        for (int i = 0; i < 5; i++) System.out.printf("  finish error %+.1f ms%n", legacyRun(3) / 1e6);
+        TimerService.shutdownScheduler();
+    }
+
+    private static void concurrentCountdowns(int timers) throws InterruptedException {
+        SplittableRandom rnd = new SplittableRandom(42);
+        int[] seconds = new int[timers];
+        long[] startedAt = new long[timers];
+        int totalFlips = 0;
+        for (int i = 0; i < timers; i++) {
+            seconds[i] = 5 + rnd.nextInt(11);
+            totalFlips += seconds[i];
+        }
+        long[] lateness = new long[totalFlips];   // written only by the timer thread
+        int[] n = {0};
+        CountDownLatch done = new CountDownLatch(timers);
+
+        TimerService[] all = new TimerService[timers];
+        for (int i = 0; i < timers; i++) {
+            int id = i;
+            all[i] = new TimerService(shown -> {
+                if (startedAt[id] == 0 || shown == seconds[id]) return; // constructor's 00:00 and start()'s own notification
+                long ideal = startedAt[id] + (seconds[id] - shown) * 1_000_000_000L;
+                lateness[n[0]++] = System.nanoTime() - ideal;
+            }, done::countDown, Runnable::run, System::nanoTime);
+        }
+
+        System.out.printf("Starting %,d countdowns (5-15 s)...%n", timers);
+        long t0 = System.nanoTime();
+        for (int i = 0; i < timers; i++) {
+            startedAt[i] = System.nanoTime();
+            all[i].start(seconds[i]);
+        }
+        double startMicros = (System.nanoTime() - t0) / 1e3 / timers;
+        long threads = Thread.getAllStackTraces().keySet().stream()
+                .filter(th -> th.getName().equals("timer-service")).count();
+        done.await();
+
+        long[] late = Arrays.copyOf(lateness, n[0]);
+        Arrays.sort(late);
+        System.out.printf("  %,d flips on %d timer thread(s), start() %.2f µs each%n", late.length, threads, startMicros);
+        System.out.printf("  lateness p50 %.3f ms, p99 %.3f ms, p99.9 %.3f ms, max %.3f ms%n",
+                pct(late, 0.50), pct(late, 0.99), pct(late, 0.999), late[late.length - 1] / 1e6);
+        for (TimerService t : all) t.stop();
+    }
+
+    private static void scheduleCancel(int background) {
+        int ops = 200_000;
+        Runnable noop = () -> { };
+
+        TimingWheel wheel = new TimingWheel("bench-wheel", 1, TimeUnit.MILLISECONDS);
+        ScheduledThreadPoolExecutor stpe = new ScheduledThreadPoolExecutor(1);
+        stpe.setRemoveOnCancelPolicy(true);
+        SplittableRandom rnd = new SplittableRandom(7);
+        for (int i = 0; i < background; i++) {
+            long delay = 60_000 + rnd.nextInt(3_600_000); // pending for the whole run
+            wheel.schedule(noop, delay, TimeUnit.MILLISECONDS);
+            stpe.schedule(noop, delay, TimeUnit.MILLISECONDS);
+        }
+
+        double wheelNs = 0, stpeNs = 0;
+        for (int round = 0; round < 3; round++) { // last round counts; the first two warm up
+            long t0 = System.nanoTime();
+            for (int i = 0; i < ops; i++) {
+                wheel.schedule(noop, 1_000 + (i & 1023), TimeUnit.MILLISECONDS).cancel();
+            }
+            wheelNs = (System.nanoTime() - t0) / (double) ops;
+
+            t0 = System.nanoTime();
+            for (int i = 0; i < ops; i++) {
+                ScheduledFuture<?> f = stpe.schedule(noop, 1_000 + (i & 1023), TimeUnit.MILLISECONDS);
+                f.cancel(false);
+            }
+            stpeNs = (System.nanoTime() - t0) / (double) ops;
+        }
+        System.out.printf("schedule+cancel with %,d pending: TimingWheel %.0f ns, ScheduledThreadPoolExecutor %.0f ns%n",
+                background, wheelNs, stpeNs);
+        wheel.shutdown();
+        stpe.shutdownNow();
+    }
+
+    /** The pre-rewrite algorithm: an always-on 1 Hz beat that decrements an int. Returns finish error in ns. */
+    private static long legacyRun(int seconds) throws InterruptedException {
+        ScheduledExecutorService beat = Executors.newSingleThreadScheduledExecutor();
+        AtomicInteger remaining = new AtomicInteger();
+        long[] finished = {0};
+        CountDownLatch done = new CountDownLatch(1);
+        beat.scheduleAtFixedRate(() -> {
+            if (remaining.get() <= 0) return;
+            if (remaining.decrementAndGet() == 0) { finished[0] = System.nanoTime(); done.countDown(); }
+        }, 0, 1, TimeUnit.SECONDS);
+        Thread.sleep(ThreadLocalRandom.current().nextInt(50, 1000)); // user presses Start somewhere in the beat
+        long start = System.nanoTime();
+        remaining.set(seconds);
+        done.await();
+        beat.shutdownNow();
+        return finished[0] - start - seconds * 1_000_000_000L;
+    }
+
+    private static double pct(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * p))] / 1e6;
+    }
+}
@@ -0,0 +1,281 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * TimingWheel
+ *
+ * Purpose:
+ * One thread that runs one-shot tasks at their due time, for any number of timers
+ * (TimerService puts every countdown on it). Scheduling and cancelling cost O(1) whatever
+ * the number of pending tasks. A ScheduledThreadPoolExecutor keeps a binary heap, so each
+ * schedule/cancel there is O(log n).
+ *
+ * How it works:
+ * - Time is cut into ticks (1 ms for TimerService). A task due at tick d goes into a bucket
+ *   of one of LEVELS wheels with SLOTS buckets each. Level 0 holds tasks due within the next
+ *   256 ticks, one bucket per tick. Level 1 holds the next 256 x 256 ticks, one bucket per
+ *   256 ticks, and so on. Four levels cover about 50 days at 1 ms; later tasks wait in the
+ *   top level and are re-placed until they fit.
+ * - Each bucket is a doubly linked list, so insert and cancel are a few pointer writes.
+ * - Each tick the worker runs level 0's bucket for that tick. When a lower wheel wraps, it
+ *   re-places ("cascades") the next bucket of the level above into the finer levels.
+ * - A task runs at the first tick boundary at or after its due time, so it is never early
+ *   and at most one tick plus thread wake-up latency late.
+ * - The worker doesn't wake every tick. It sleeps until the first non-empty bucket (or the
+ *   next cascade that could feed one), then catches up on the ticks in between in one go.
+ *   With nothing pending it blocks without waking, and after IDLE_EXIT it exits. The next
+ *   schedule() starts a new worker.
+ *
+ * Threading notes:
+ * - All wheel state is guarded by one lock. schedule() and cancel() only hold it for the
+ *   pointer work, and due tasks run on the worker after the lock is released.
+ * - Tasks run one after another on the worker thread, so they must be short. TimerService's
+ *   ticks only compute and hand callbacks to their executor.
+ * - A task that throws is reported and dropped. It does not stop the wheel.
+ */
+public final class TimingWheel {
+
+    private static final int SLOT_BITS = 8;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int LEVELS = 4;
+    private static final long IDLE_EXIT = TimeUnit.SECONDS.toNanos(30);
+
+    /** A scheduled task. cancel() is O(1) and safe from any thread. */
+    public final class Timeout {
+        private final Runnable task;
+        private final long dueTick;
+        private Timeout prev, next;
+        private int level = -1; // -1 once run or cancelled
+        private int slot;
+
+        private Timeout(Runnable task, long dueTick) {
+            this.task = task;
+            this.dueTick = dueTick;
+        }
+
+        /** Remove the task if it hasn't run yet. Returns true if it was still pending. */
+        public boolean cancel() {
+            lock.lock();
+            try {
+                if (shutdown || level < 0) return false;
+                unlink(this);
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private final String threadName;
+    private final long tickNanos;
+    private final LongSupplier clock;
+    private final long origin;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+
+    /** wheels[level][slot] = head of that bucket's list. Guarded by lock. */
+    private final Timeout[][] wheels = new Timeout[LEVELS][SLOTS];
+    private final int[] levelCounts = new int[LEVELS];
+    private int pending;
+
+    /** Last tick processed. Guarded by lock. */
+    private long current;
+    /** Tick the worker is sleeping until (Long.MAX_VALUE when idle). Guarded by lock. */
+    private long wakeTick = Long.MAX_VALUE;
+    private Thread worker;
+    private boolean shutdown;
+
+    public TimingWheel(String threadName, long tick, TimeUnit unit) {
+        this(threadName, tick, unit, System::nanoTime);
+    }
+
+    TimingWheel(String threadName, long tick, TimeUnit unit, LongSupplier clock) {
+        this.threadName = threadName;
+        this.tickNanos = unit.toNanos(tick);
+        this.clock = clock;
+        this.origin = clock.getAsLong();
+    }
+
+    /**
+     * Run 'task' once after 'delay' on the wheel thread.
+     * @throws RejectedExecutionException after shutdown()
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        long due = clock.getAsLong() + Math.max(0, unit.toNanos(delay));
+        long dueTick = Math.floorDiv(due - origin + tickNanos - 1, tickNanos); // round up: never early
+        Timeout t = new Timeout(task, dueTick);
+        lock.lock();
+        try {
+            if (shutdown) throw new RejectedExecutionException("TimingWheel " + threadName + " is shut down");
+            if (pending == 0) {
+                // Empty wheel: skip the idle ticks instead of letting the worker replay them.
+                current = Math.max(current, Math.floorDiv(clock.getAsLong() - origin, tickNanos));
+            }
+            place(t);
+            if (worker == null) {
+                worker = new Thread(this::runWorker, threadName);
+                worker.setDaemon(true);
+                worker.start();
+            } else if (dueTick < wakeTick) {
+                changed.signal(); // due before the worker planned to wake
+            }
+        } finally {
+            lock.unlock();
+        }
+        return t;
+    }
+
+    /** Tasks waiting to run. */
+    public int pending() {
+        lock.lock();
+        try {
+            return pending;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Stop the worker and drop pending tasks. Later schedule() calls are rejected. */
+    public void shutdown() {
+        lock.lock();
+        try {
+            shutdown = true;
+            for (Timeout[] level : wheels) java.util.Arrays.fill(level, null);
+            java.util.Arrays.fill(levelCounts, 0);
+            pending = 0;
+            changed.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ===== Internals below (all called with the lock held, except runWorker) =====
+
+    private void runWorker() {
+        List<Timeout> due = new ArrayList<>();
+        lock.lock();
+        try {
+            while (!shutdown) {
+                long nowTick = Math.floorDiv(clock.getAsLong() - origin, tickNanos);
+                while (current < nowTick) expire(++current, due);
+
+                if (!due.isEmpty()) {
+                    lock.unlock();
+                    try {
+                        runAll(due);
+                    } finally {
+                        lock.lock();
+                    }
+                    continue; // tasks may have scheduled more; re-check the clock
+                }
+
+                if (pending == 0) {
+                    wakeTick = Long.MAX_VALUE;
+                    if (changed.awaitNanos(IDLE_EXIT) <= 0 && pending == 0) break; // idle: let the thread go
+                    continue;
+                }
+
+                wakeTick = nextWakeTick();
+                long waitNanos = origin + wakeTick * tickNanos - clock.getAsLong();
+                if (waitNanos > 0) changed.awaitNanos(waitNanos);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            wakeTick = Long.MAX_VALUE;
+            worker = null;
+            lock.unlock();
+        }
+    }
+
+    private void runAll(List<Timeout> due) {
+        for (Timeout t : due) {
+            try {
+                t.task.run();
+            } catch (RuntimeException e) {
+                System.out.println("❌ TimingWheel task failed: " + e);
+            }
+        }
+        due.clear();
+    }
+
+    /** Process one tick: cascade wheels that wrap here, then collect level 0's bucket. */
+    private void expire(long tick, List<Timeout> due) {
+        for (int level = LEVELS - 1; level >= 1; level--) {
+            if ((tick & ((1L << (SLOT_BITS * level)) - 1)) != 0) continue; // no wrap at this level
+            if (levelCounts[level] == 0) continue;
+            int slot = (int) ((tick >>> (SLOT_BITS * level)) & (SLOTS - 1));
+            Timeout t = wheels[level][slot];
+            while (t != null) {
+                Timeout next = t.next;
+                unlink(t);
+                if (t.dueTick <= tick) due.add(t); else place(t); // due on a wrap boundary: run now
+                t = next;
+            }
+        }
+        int slot = (int) (tick & (SLOTS - 1));
+        Timeout t = wheels[0][slot];
+        while (t != null) {
+            Timeout next = t.next;
+            unlink(t);
+            due.add(t);
+            t = next;
+        }
+    }
+
+    /** Put t in the finest level whose span covers its due tick. */
+    private void place(Timeout t) {
+        long due = Math.max(t.dueTick, current + 1); // already due: next tick
+        long delta = due - current;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) level++;
+        if (delta >= 1L << (SLOT_BITS * LEVELS)) due = current + (1L << (SLOT_BITS * LEVELS)) - 1; // park in top level
+        int slot = (int) ((due >>> (SLOT_BITS * level)) & (SLOTS - 1));
+
+        t.level = level;
+        t.slot = slot;
+        t.prev = null;
+        t.next = wheels[level][slot];
+        if (t.next != null) t.next.prev = t;
+        wheels[level][slot] = t;
+        levelCounts[level]++;
+        pending++;
+    }
+
+    private void unlink(Timeout t) {
+        if (t.prev != null) t.prev.next = t.next; else wheels[t.level][t.slot] = t.next;
+        if (t.next != null) t.next.prev = t.prev;
+        levelCounts[t.level]--;
+        t.prev = t.next = null;
+        t.level = -1;
+        pending--;
+    }
+
+    /**
+     * The first tick after 'current' at which something can happen: a non-empty level 0
+     * bucket, or the cascade of a non-empty bucket further up.
+     */
+    private long nextWakeTick() {
+        long best = Long.MAX_VALUE;
+        for (int level = 0; level < LEVELS; level++) {
+            if (levelCounts[level] == 0) continue;
+            int shift = SLOT_BITS * level;
+            long base = current >>> shift;
+            for (int i = 1; i <= SLOTS; i++) {
+                long start = (base + i) << shift;
+                if (start >= best) break;
+                if (wheels[level][(int) ((base + i) & (SLOTS - 1))] != null) {
+                    best = start;
+                    break;
+                }
+            }
+        }
+        return best;
+    }
+}
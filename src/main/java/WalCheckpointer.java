@@ -0,0 +1,85 @@
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WalCheckpointer
+ *
+ * Purpose:
+ * In WAL mode every commit is appended to fitness.db-wal. SQLite only copies those pages back
+ * into the main file when a checkpoint runs, and its built-in auto-checkpoint can be starved by
+ * long readers. This class runs checkpoints on a background thread so the -wal file can't grow
+ * without limit.
+ *
+ * How it works:
+ * - Every intervalSec it runs PRAGMA wal_checkpoint(PASSIVE), which never blocks readers or writers.
+ * - If the log holds more than truncateAbovePages frames, it also tries TRUNCATE, which
+ *   resets the -wal file to zero bytes once no reader needs it.
+ * - stop() cancels the schedule and does one last TRUNCATE so we exit with a clean file.
+ */
+public class WalCheckpointer {
+
+    public static final long DEFAULT_INTERVAL_SEC = 30;
+    public static final int DEFAULT_TRUNCATE_ABOVE_PAGES = 4_000; // ~16 MB with 4 KB pages
+
+    private final long intervalSec;
+    private final int truncateAbovePages;
+
+    /** Daemon thread so a forgotten stop() never keeps the JVM alive. */
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "wal-checkpointer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public WalCheckpointer() {
+        this(DEFAULT_INTERVAL_SEC, DEFAULT_TRUNCATE_ABOVE_PAGES);
+    }
+
+    public WalCheckpointer(long intervalSec, int truncateAbovePages) {
+        this.intervalSec = Math.max(1, intervalSec);
+        this.truncateAbovePages = Math.max(0, truncateAbovePages);
+    }
+
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::checkpointQuietly, intervalSec, intervalSec, TimeUnit.SECONDS);
+    }
+
+    /** Stop the schedule and truncate the -wal file one last time. */
+    public void stop() {
+        scheduler.shutdownNow();
+        try {
+            checkpoint("TRUNCATE");
+        } catch (SQLException e) {
+            System.out.println("❌ final WAL checkpoint failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Run one checkpoint in the given mode (PASSIVE, FULL, RESTART or TRUNCATE).
+     * Returns the size of the log in frames (pages), or -1 if the database is not in WAL mode.
+     */
+    public static int checkpoint(String mode) throws SQLException {
+        try (Connection c = Db.getConnection();
+             Statement s = c.createStatement();
+             ResultSet rs = s.executeQuery("PRAGMA wal_checkpoint(" + mode + ")")) {
+            return rs.next() ? rs.getInt(2) : -1;
+        }
+    }
+
+    private void checkpointQuietly() {
+        try {
+            int logFrames = checkpoint("PASSIVE");
+            if (logFrames > truncateAbovePages) {
+                checkpoint("TRUNCATE");
+            }
+        } catch (SQLException e) {
+            // A busy database just means we try again next round.
+            System.out.println("❌ WAL checkpoint failed: " + e.getMessage());
+        }
+    }
+}
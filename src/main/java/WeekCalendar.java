@@ -0,0 +1,72 @@
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A profile's training week (planned workouts per day_of_week) plus, optionally, the sessions
+ * logged over N concrete weeks. Built by CalendarDao in one pass over its ResultSets.
+ *
+ * Layout is two small indexed lists instead of maps: plans.get(day - 1) for day_of_week 1..7
+ * (1 = Monday), and sessions.get(i) for the i-th date counted from start(). Empty slots share
+ * one empty list.
+ */
+public final class WeekCalendar {
+    private final LocalDate start;                // Monday of the first week; null for a template-only calendar
+    private final List<List<WorkoutPlan>> plans;  // 7 slots
+    private final List<List<Session>> sessions;   // weeks * 7 slots
+
+    WeekCalendar(LocalDate start, List<List<WorkoutPlan>> plans, List<List<Session>> sessions) {
+        this.start = start;
+        this.plans = plans;
+        this.sessions = sessions;
+        plans.replaceAll(WeekCalendar::freeze);
+        sessions.replaceAll(WeekCalendar::freeze);
+    }
+
+    public LocalDate start() { return start; }
+
+    public int weeks() { return sessions.size() / 7; }
+
+    /** Planned workouts for a day_of_week (1 = Monday .. 7 = Sunday), ordered by name. */
+    public List<WorkoutPlan> plansFor(int dayOfWeek) {
+        if (dayOfWeek < 1 || dayOfWeek > 7) throw new IllegalArgumentException("dayOfWeek must be 1..7: " + dayOfWeek);
+        return plans.get(dayOfWeek - 1);
+    }
+
+    /** Planned workouts for a date (by its weekday). */
+    public List<WorkoutPlan> plansFor(LocalDate date) {
+        return plansFor(date.getDayOfWeek().getValue());
+    }
+
+    /** Sessions logged on a date, oldest first; empty if the date is outside the loaded weeks. */
+    public List<Session> sessionsOn(LocalDate date) {
+        if (start == null) return List.of();
+        long i = ChronoUnit.DAYS.between(start, date);
+        return i < 0 || i >= sessions.size() ? List.of() : sessions.get((int) i);
+    }
+
+    public int sessionCount() {
+        int n = 0;
+        for (List<Session> s : sessions) n += s.size();
+        return n;
+    }
+
+    // ===== Internals below =====
+
+    /** n empty slots (null until add() fills one). */
+    static <T> List<List<T>> slots(int n) {
+        return new ArrayList<>(Collections.nCopies(n, null));
+    }
+
+    private static <T> List<T> freeze(List<T> list) {
+        return list == null || list.isEmpty() ? List.of() : Collections.unmodifiableList(list);
+    }
+
+    /** Append to a slot, creating its list on first use. */
+    static <T> void add(List<List<T>> slots, int i, T item) {
+        if (slots.get(i) == null) slots.set(i, new ArrayList<>(4));
+        slots.get(i).add(item);
+    }
+}
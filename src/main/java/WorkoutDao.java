@@ -4,13 +4,14 @@
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.sql.Statement;  // at the top with your imports
 
 
 public class WorkoutDao {
-    private static final String URL = "jdbc:sqlite:fitness.db";
 
+    private static final WorkoutPlanCache PLANS = WorkoutPlanCache.shared();
 
     private static final String SQL_INSERT = """
         INSERT INTO workout(profile_id, name, day_of_week,
@@ -65,10 +66,14 @@ public class WorkoutDao {
 
 
 
+    // Sort keys the paged table may ask for (TableColumn id -> SQL column).
+    private static final Map<String, String> SORTABLE = Map.of(
+            "id", "w.id", "profileName", "p.name", "name", "w.name",
+            "dayOfWeek", "COALESCE(w.day_of_week, 999)", "active", "w.active");
+
     public int insert(Workout w) {
-        try (Connection c = DriverManager.getConnection(URL);
+        try (Connection c = Db.getConnection();
              PreparedStatement ps = c.prepareStatement(SQL_INSERT, Statement.RETURN_GENERATED_KEYS)) {
-            enableFK(c);
             ps.setInt(1, w.getProfileId());
             ps.setString(2, w.getName());
             if (w.getDayOfWeek() == null) ps.setNull(3, Types.INTEGER);
@@ -95,9 +100,8 @@ public class WorkoutDao {
     }
 
     public Optional<Workout> findById(int id) {
-        try (Connection c = DriverManager.getConnection(URL);
+        try (Connection c = Db.getConnection();
              PreparedStatement ps = c.prepareStatement(SQL_FIND_BY_ID)) {
-            enableFK(c);
             ps.setInt(1, id);
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) return Optional.of(mapRow(rs));
@@ -109,12 +113,40 @@ public class WorkoutDao {
         }
     }
 
+    // READ (aggregate): workout + ordered exercise rows, served from WorkoutPlanCache after the first load
+    public Optional<WorkoutPlan> findPlan(int workoutId) {
+        try {
+            return Optional.ofNullable(PLANS.get(workoutId, WorkoutDao::loadPlan));
+        } catch (SQLException ex) {
+            System.out.println("❌ findPlan failed: " + ex.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    public static WorkoutPlanCache.Stats planCacheStats() {
+        return PLANS.stats();
+    }
+
+    // Both queries on one pooled connection; null if the workout doesn't exist.
+    private static WorkoutPlan loadPlan(int workoutId) throws SQLException {
+        try (Connection c = Db.getConnection()) {
+            Workout w;
+            try (PreparedStatement ps = c.prepareStatement(SQL_FIND_BY_ID)) {
+                ps.setInt(1, workoutId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (!rs.next()) return null;
+                    w = mapRow(rs);
+                }
+            }
+            return new WorkoutPlan(w, WorkoutExerciseDao.readWithExercise(c, workoutId));
+        }
+    }
+
     public List<Workout> getAll() {
         List<Workout> out = new ArrayList<>();
-        try (Connection c = DriverManager.getConnection(URL);
+        try (Connection c = Db.getConnection();
              Statement st = c.createStatement();
              ResultSet rs = st.executeQuery(SQL_GET_ALL)) {
-            enableFK(c);
             while (rs.next()) out.add(mapRow(rs));
         } catch (SQLException ex) {
             System.out.println("❌ getAll failed: " + ex.getMessage());
@@ -124,9 +156,8 @@ public class WorkoutDao {
 
     public List<Workout> getByProfile(int profileId) {
         List<Workout> out = new ArrayList<>();
-        try (Connection c = DriverManager.getConnection(URL);
+        try (Connection c = Db.getConnection();
              PreparedStatement ps = c.prepareStatement(SQL_GET_BY_PROFILE)) {
-            enableFK(c);
             ps.setInt(1, profileId);
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) out.add(mapRow(rs));
@@ -139,9 +170,8 @@ public class WorkoutDao {
 
     public List<WorkoutWithProfile> listWithProfileByProfile(int profileId) {
         List<WorkoutWithProfile> out = new ArrayList<>();
-        try (Connection c = DriverManager.getConnection(URL);
+        try (Connection c = Db.getConnection();
              PreparedStatement ps = c.prepareStatement(SQL_LIST_WITH_PROFILE_BY_PROFILE)) {
-            ExerciseDao.enableFK(c);
             ps.setInt(1, profileId);
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) out.add(mapWithProfile(rs));
@@ -152,6 +182,46 @@ public class WorkoutDao {
         return out;
     }
 
+    // PAGED: all workouts with their profile name, one OFFSET/LIMIT slice at a time
+    public int countWithProfile() {
+        try (Connection c = Db.getConnection();
+             Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM workout")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        } catch (SQLException e) {
+            System.out.println("❌ countWithProfile failed: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    public List<WorkoutWithProfile> rangeWithProfile(int offset, int limit, List<PageSource.Sort> sort) {
+        String sql = """
+            SELECT w.id, w.profile_id, p.name AS profile_name,
+                   w.name, w.day_of_week, w.rest_between_sets_sec,
+                   w.rest_between_exercises_sec, w.active,
+                   w.created_at, w.updated_at
+              FROM workout w
+              JOIN profile p ON p.id = w.profile_id
+            """ + PageSource.orderBy(sort, SORTABLE, "p.name, COALESCE(w.day_of_week, 999), w.name, w.id")
+                + " LIMIT ? OFFSET ?";
+        List<WorkoutWithProfile> out = new ArrayList<>();
+        try (Connection c = Db.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setInt(1, limit);
+            ps.setInt(2, offset);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) out.add(mapWithProfile(rs));
+            }
+        } catch (SQLException e) {
+            System.out.println("❌ rangeWithProfile failed: " + e.getMessage());
+        }
+        return out;
+    }
+
+    public PageSource<WorkoutWithProfile> pageSourceWithProfile() {
+        return PageSource.of(this::countWithProfile, this::rangeWithProfile);
+    }
+
     private static WorkoutWithProfile mapWithProfile(ResultSet rs) throws SQLException {
         Integer day = (rs.getObject("day_of_week") == null ? null : rs.getInt("day_of_week"));
         return new WorkoutWithProfile(
@@ -171,9 +241,8 @@ public class WorkoutDao {
 
     public List<Workout> getByProfileAndDay(int profileId, int dayOfWeek) {
         List<Workout> out = new ArrayList<>();
-        try (Connection c = DriverManager.getConnection(URL);
+        try (Connection c = Db.getConnection();
              PreparedStatement ps = c.prepareStatement(SQL_GET_BY_PROFILE_AND_DAY)) {
-            enableFK(c);
             ps.setInt(1, profileId);
             ps.setInt(2, dayOfWeek);
             try (ResultSet rs = ps.executeQuery()) {
@@ -193,9 +262,8 @@ public class WorkoutDao {
                    active=?, updated_at=datetime('now')
              WHERE id=?
             """;
-        try (Connection c = DriverManager.getConnection(URL);
+        try (Connection c = Db.getConnection();
              PreparedStatement ps = c.prepareStatement(sql)) {
-            enableFK(c);
             ps.setInt(1, w.getProfileId());
             ps.setString(2, w.getName());
             if (w.getDayOfWeek() == null) ps.setNull(3, Types.INTEGER);
@@ -204,7 +272,9 @@ public class WorkoutDao {
             ps.setInt(5, w.getRestBetweenExercisesSec());
             ps.setInt(6, w.isActive() ? 1 : 0);
             ps.setInt(7, w.getId());
-            return ps.executeUpdate() == 1;
+            boolean ok = ps.executeUpdate() == 1;
+            if (ok) PLANS.invalidate(w.getId());
+            return ok;
         } catch (SQLException ex) {
             System.out.println("❌ update workout failed: " + ex.getMessage());
             return false;
@@ -212,23 +282,19 @@ public class WorkoutDao {
     }
 
     public boolean delete(int id) {
-        try (Connection c = DriverManager.getConnection(URL);
+        try (Connection c = Db.getConnection();
              PreparedStatement ps = c.prepareStatement("DELETE FROM workout WHERE id=?")) {
-            enableFK(c);
             ps.setInt(1, id);
-            return ps.executeUpdate() == 1;
+            boolean ok = ps.executeUpdate() == 1;
+            if (ok) PLANS.invalidate(id); // workout_exercise rows cascaded away
+            return ok;
         } catch (SQLException ex) {
             System.out.println("❌ delete workout failed: " + ex.getMessage());
             return false;
         }
     }
 
-    private static void enableFK(Connection c) {
-        try (Statement s = c.createStatement()) { s.execute("PRAGMA foreign_keys = ON"); }
-        catch (SQLException ignored) {}
-    }
-
-    private static Workout mapRow(ResultSet rs) throws SQLException {
+    static Workout mapRow(ResultSet rs) throws SQLException {
         return new Workout(
                 rs.getInt("id"),
                 rs.getInt("profile_id"),
@@ -4,6 +4,7 @@ import java.util.Optional;
 public class WorkoutDaoTest {
     public static void main(String[] args) {
         try { Class.forName("org.sqlite.JDBC"); } catch (Exception ignored) {}
+        if (!Migrator.ensureCurrent()) return; // fitness.db may be an older schema
 
         // 1) Ensure a profile exists (reuse your ProfileDao or the getOrCreate helper)
         ProfileDao pdao = new ProfileDao();
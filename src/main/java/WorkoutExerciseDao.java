@@ -4,44 +4,62 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class WorkoutExerciseDao {
-    private static final String URL = "jdbc:sqlite:fitness.db";
 
-    private static void enableFK(Connection c) {
-        try (Statement s = c.createStatement()) { s.execute("PRAGMA foreign_keys = ON"); }
-        catch (SQLException ignored) {}
-    }
+    private static final WorkoutPlanCache PLANS = WorkoutPlanCache.shared();
+
+    private static final String SQL_INSERT = """
+        INSERT INTO workout_exercise(workout_id, exercise_id, order_idx, target_sets, target_reps_or_secs)
+        VALUES(?,?,?,?,?)
+        """;
+
+    private static final String SQL_WITH_EXERCISE = """
+        SELECT we.workout_id, we.exercise_id, we.order_idx,
+               we.target_sets, we.target_reps_or_secs,
+               e.name AS exercise_name, e.muscle_id, e.equipment, e.type_id, e.difficulty_id
+          FROM workout_exercise we
+          JOIN exercise e ON e.id = we.exercise_id
+         WHERE we.workout_id=?
+         ORDER BY we.order_idx
+        """;
 
     // INSERT a single row
     public boolean insert(WorkoutExercise we) {
-        final String sql = """
-            INSERT INTO workout_exercise(workout_id, exercise_id, order_idx, target_sets, target_reps_or_secs)
-            VALUES(?,?,?,?,?)
-            """;
-        try (Connection c = DriverManager.getConnection(URL);
-             PreparedStatement ps = c.prepareStatement(sql)) {
-            enableFK(c);
+        try (Connection c = Db.getConnection()) {
+            boolean ok = insert(c, we);
+            if (ok) PLANS.invalidate(we.getWorkoutId());
+            return ok;
+        } catch (SQLException e) {
+            System.out.println("❌ insert workout_exercise failed: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // INSERT (grouped): queued on the shared WriteQueue, completes once the batch has committed
+    public java.util.concurrent.CompletableFuture<Boolean> enqueueInsert(WorkoutExercise we) {
+        return WriteQueue.shared().submit(c -> insert(c, we))
+                .thenApply(ok -> {
+                    if (ok) PLANS.invalidate(we.getWorkoutId()); // only after the commit
+                    return ok;
+                });
+    }
+
+    // Insert on a caller-supplied connection (used by WriteQueue inside its transaction).
+    static boolean insert(Connection c, WorkoutExercise we) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement(SQL_INSERT)) {
             ps.setInt(1, we.getWorkoutId());
             ps.setInt(2, we.getExerciseId());
             ps.setInt(3, we.getOrderIdx());
             ps.setInt(4, we.getTargetSets());
             ps.setInt(5, we.getTargetRepsOrSecs());
             return ps.executeUpdate() == 1;
-        } catch (SQLException e) {
-            System.out.println("❌ insert workout_exercise failed: " + e.getMessage());
-            return false;
         }
     }
 
     // BULK INSERT (transactional)
     public boolean insertAll(List<WorkoutExercise> rows) {
         if (rows == null || rows.isEmpty()) return true;
-        final String sql = """
-            INSERT INTO workout_exercise(workout_id, exercise_id, order_idx, target_sets, target_reps_or_secs)
-            VALUES(?,?,?,?,?)
-            """;
-        try (Connection c = DriverManager.getConnection(URL);
-             PreparedStatement ps = c.prepareStatement(sql)) {
-            enableFK(c);
+        try (Connection c = Db.getConnection();
+             PreparedStatement ps = c.prepareStatement(SQL_INSERT)) {
             c.setAutoCommit(false);
             for (WorkoutExercise we : rows) {
                 ps.setInt(1, we.getWorkoutId());
@@ -53,6 +71,7 @@ public class WorkoutExerciseDao {
             }
             ps.executeBatch();
             c.commit();
+            for (WorkoutExercise we : rows) PLANS.invalidate(we.getWorkoutId());
             return true;
         } catch (SQLException e) {
             System.out.println("❌ insertAll workout_exercise failed: " + e.getMessage());
@@ -69,9 +88,8 @@ public class WorkoutExerciseDao {
              ORDER BY order_idx
             """;
         List<WorkoutExercise> out = new ArrayList<>();
-        try (Connection c = DriverManager.getConnection(URL);
+        try (Connection c = Db.getConnection();
              PreparedStatement ps = c.prepareStatement(sql)) {
-            enableFK(c);
             ps.setInt(1, workoutId);
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
@@ -92,19 +110,18 @@ public class WorkoutExerciseDao {
 
     // READ (JOIN): rows with exercise name/muscle for GUI display
     public List<WorkoutExerciseView> getByWorkoutWithExercise(int workoutId) {
-        final String sql = """
-            SELECT we.workout_id, we.exercise_id, we.order_idx,
-                   we.target_sets, we.target_reps_or_secs,
-                   e.name AS exercise_name, e.muscle, e.equipment, e.type, e.difficulty
-              FROM workout_exercise we
-              JOIN exercise e ON e.id = we.exercise_id
-             WHERE we.workout_id=?
-             ORDER BY we.order_idx
-            """;
+        try (Connection c = Db.getConnection()) {
+            return readWithExercise(c, workoutId);
+        } catch (SQLException e) {
+            System.out.println("❌ getByWorkoutWithExercise failed: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    // Same JOIN on a caller-supplied connection (WorkoutDao.findPlan reads the workout on it too).
+    static List<WorkoutExerciseView> readWithExercise(Connection c, int workoutId) throws SQLException {
         List<WorkoutExerciseView> out = new ArrayList<>();
-        try (Connection c = DriverManager.getConnection(URL);
-             PreparedStatement ps = c.prepareStatement(sql)) {
-            enableFK(c);
+        try (PreparedStatement ps = c.prepareStatement(SQL_WITH_EXERCISE)) {
             ps.setInt(1, workoutId);
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
@@ -115,15 +132,13 @@ public class WorkoutExerciseDao {
                             rs.getInt("target_sets"),
                             rs.getInt("target_reps_or_secs"),
                             rs.getString("exercise_name"),
-                            rs.getString("muscle"),
+                            Lookup.MUSCLE.name(rs, "muscle_id"),
                             rs.getString("equipment"),
-                            rs.getString("difficulty"),
-                            rs.getString("type")
+                            Lookup.DIFFICULTY.name(rs, "difficulty_id"),
+                            Lookup.EXERCISE_TYPE.name(rs, "type_id")
                     ));
                 }
             }
-        } catch (SQLException e) {
-            System.out.println("❌ getByWorkoutWithExercise failed: " + e.getMessage());
         }
         return out;
     }
@@ -135,14 +150,15 @@ public class WorkoutExerciseDao {
                SET target_sets=?, target_reps_or_secs=?
              WHERE workout_id=? AND order_idx=?
             """;
-        try (Connection c = DriverManager.getConnection(URL);
+        try (Connection c = Db.getConnection();
              PreparedStatement ps = c.prepareStatement(sql)) {
-            enableFK(c);
             ps.setInt(1, targetSets);
             ps.setInt(2, targetRepsOrSecs);
             ps.setInt(3, workoutId);
             ps.setInt(4, orderIdx);
-            return ps.executeUpdate() == 1;
+            boolean ok = ps.executeUpdate() == 1;
+            if (ok) PLANS.invalidate(workoutId);
+            return ok;
         } catch (SQLException e) {
             System.out.println("❌ updateTargets failed: " + e.getMessage());
             return false;
@@ -153,8 +169,7 @@ public class WorkoutExerciseDao {
     public boolean swapOrder(int workoutId, int aIdx, int bIdx) {
         final String getMaxSql = "SELECT COALESCE(MAX(order_idx),0) FROM workout_exercise WHERE workout_id=?";
         final String updSql = "UPDATE workout_exercise SET order_idx=? WHERE workout_id=? AND order_idx=?";
-        try (Connection c = DriverManager.getConnection(URL)) {
-            enableFK(c);
+        try (Connection c = Db.getConnection()) {
             c.setAutoCommit(false);
 
             int tempIdx;
@@ -175,6 +190,7 @@ public class WorkoutExerciseDao {
             }
 
             c.commit();
+            PLANS.invalidate(workoutId);
             return true;
         } catch (SQLException e) {
             System.out.println("❌ swapOrder failed: " + e.getMessage());
@@ -187,12 +203,13 @@ public class WorkoutExerciseDao {
     // DELETE one row (by workout + order)
     public boolean deleteOne(int workoutId, int orderIdx) {
         final String sql = "DELETE FROM workout_exercise WHERE workout_id=? AND order_idx=?";
-        try (Connection c = DriverManager.getConnection(URL);
+        try (Connection c = Db.getConnection();
              PreparedStatement ps = c.prepareStatement(sql)) {
-            enableFK(c);
             ps.setInt(1, workoutId);
             ps.setInt(2, orderIdx);
-            return ps.executeUpdate() == 1;
+            boolean ok = ps.executeUpdate() == 1;
+            if (ok) PLANS.invalidate(workoutId);
+            return ok;
         } catch (SQLException e) {
             System.out.println("❌ deleteOne failed: " + e.getMessage());
             return false;
@@ -202,11 +219,11 @@ public class WorkoutExerciseDao {
     // DELETE all rows for a workout
     public boolean deleteAllForWorkout(int workoutId) {
         final String sql = "DELETE FROM workout_exercise WHERE workout_id=?";
-        try (Connection c = DriverManager.getConnection(URL);
+        try (Connection c = Db.getConnection();
              PreparedStatement ps = c.prepareStatement(sql)) {
-            enableFK(c);
             ps.setInt(1, workoutId);
             ps.executeUpdate();
+            PLANS.invalidate(workoutId);
             return true;
         } catch (SQLException e) {
             System.out.println("❌ deleteAllForWorkout failed: " + e.getMessage());
@@ -223,12 +240,13 @@ public class WorkoutExerciseDao {
              WHERE workout_id=?
             ORDER BY order_idx
             """;
-        try (Connection c = DriverManager.getConnection(URL);
+        try (Connection c = Db.getConnection();
              PreparedStatement ps = c.prepareStatement(sql)) {
-            enableFK(c);
             ps.setInt(1, destWorkoutId);
             ps.setInt(2, srcWorkoutId);
-            return ps.executeUpdate(); // rows inserted
+            int n = ps.executeUpdate(); // rows inserted
+            if (n > 0) PLANS.invalidate(destWorkoutId); // the source plan is unchanged
+            return n;
         } catch (SQLException e) {
             System.out.println("❌ cloneFromTo failed: " + e.getMessage());
             return 0;
@@ -5,6 +5,7 @@ import java.util.List;
 public class WorkoutExerciseDaoTest {
     public static void main(String[] args) {
         try { Class.forName("org.sqlite.JDBC"); } catch (Exception ignored) {}
+        if (!Migrator.ensureCurrent()) return; // fitness.db may be an older schema
 
         ProfileDao pdao = new ProfileDao();
         int profileId = pdao.getOrCreateByName("Brandon", "Intermediate", "Hypertrophy", 5);
@@ -0,0 +1,64 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A workout together with its ordered exercise rows (already joined with exercise), as one
+ * immutable value. Built by WorkoutDao.findPlan and cached by WorkoutPlanCache.
+ *
+ * Immutable so one instance can be shared by every caller: the constructor copies its inputs and
+ * getWorkout()/getExercises() hand out fresh copies of the mutable row objects.
+ */
+public final class WorkoutPlan {
+    private final Workout workout;
+    private final List<WorkoutExerciseView> exercises;
+
+    public WorkoutPlan(Workout workout, List<WorkoutExerciseView> exercises) {
+        this.workout = copy(workout);
+        List<WorkoutExerciseView> rows = new ArrayList<>(exercises.size());
+        for (WorkoutExerciseView v : exercises) rows.add(copy(v));
+        this.exercises = Collections.unmodifiableList(rows);
+    }
+
+    public int getWorkoutId() { return workout.getId(); }
+    public int getProfileId() { return workout.getProfileId(); }
+    public String getName() { return workout.getName(); }
+    public Integer getDayOfWeek() { return workout.getDayOfWeek(); }
+    public int getRestBetweenSetsSec() { return workout.getRestBetweenSetsSec(); }
+    public int getRestBetweenExercisesSec() { return workout.getRestBetweenExercisesSec(); }
+    public boolean isActive() { return workout.isActive(); }
+    public int size() { return exercises.size(); }
+
+    /** A copy of the workout row. */
+    public Workout getWorkout() { return copy(workout); }
+
+    /** Copies of the exercise rows, in order_idx order. */
+    public List<WorkoutExerciseView> getExercises() {
+        List<WorkoutExerciseView> out = new ArrayList<>(exercises.size());
+        for (WorkoutExerciseView v : exercises) out.add(copy(v));
+        return out;
+    }
+
+    int[] exerciseIds() {
+        int[] ids = new int[exercises.size()];
+        for (int i = 0; i < ids.length; i++) ids[i] = exercises.get(i).getExerciseId();
+        return ids;
+    }
+
+    @Override public String toString() {
+        return "WorkoutPlan{workout='" + workout.getName() + "', id=" + workout.getId()
+                + ", exercises=" + exercises + '}';
+    }
+
+    private static Workout copy(Workout w) {
+        return new Workout(w.getId(), w.getProfileId(), w.getName(), w.getDayOfWeek(),
+                w.getRestBetweenSetsSec(), w.getRestBetweenExercisesSec(), w.isActive(),
+                w.getCreatedAt(), w.getUpdatedAt());
+    }
+
+    private static WorkoutExerciseView copy(WorkoutExerciseView v) {
+        return new WorkoutExerciseView(v.getWorkoutId(), v.getExerciseId(), v.getOrderIdx(),
+                v.getTargetSets(), v.getTargetRepsOrSecs(), v.getExerciseName(), v.getMuscle(),
+                v.getEquipment(), v.getDifficulty(), v.getType());
+    }
+}
@@ -0,0 +1,155 @@
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * WorkoutPlanCache
+ *
+ * Purpose:
+ * Showing a workout used to be WorkoutDao.findById plus a workout_exercise JOIN exercise query,
+ * and before a session we do that for every workout of the week. Plans change far less often
+ * than they are read, so keep the assembled WorkoutPlan in memory.
+ *
+ * How it works:
+ * - Read-through by workout id; at most maxPlans plans are kept (least recently used evicted).
+ * - Plans are immutable, so a hit returns the cached instance itself: no copying, no SQL.
+ * - Invalidation is precise rather than "clear everything":
+ *     invalidate(workoutId)     - the workout row or its workout_exercise rows changed
+ *     invalidateExercise(id)    - an exercise was renamed/edited/deleted; drops only the plans
+ *                                 that contain it (tracked in a reverse index)
+ *     invalidateProfile(id)     - a profile was deleted and its workouts cascaded away
+ * - Not-found workouts are not cached.
+ *
+ * Threading notes:
+ * - All state is guarded by 'this'. Loads run outside the lock; a load that raced with any
+ *   invalidation is returned to its caller but not cached (same rule as ExerciseCache).
+ */
+public class WorkoutPlanCache {
+
+    public static final int DEFAULT_MAX_PLANS = 256;
+
+    private static final WorkoutPlanCache SHARED = new WorkoutPlanCache(
+            Integer.getInteger("fitness.planCache.maxPlans", DEFAULT_MAX_PLANS));
+
+    /** Loads one plan from the database on a miss; returns null if the workout doesn't exist. */
+    @FunctionalInterface
+    public interface Loader {
+        WorkoutPlan load(int workoutId) throws SQLException;
+    }
+
+    /** Snapshot of the counters. */
+    public record Stats(long hits, long misses, long evictions, int cachedPlans) {
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+    }
+
+    public static WorkoutPlanCache shared() {
+        return SHARED;
+    }
+
+    private final int maxPlans;
+    private final LinkedHashMap<Integer, WorkoutPlan> byWorkout;
+    private final Map<Integer, Set<Integer>> workoutsByExercise = new HashMap<>();
+    private long writes = 0; // bumped by every invalidation; guards loads racing with writes
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public WorkoutPlanCache(int maxPlans) {
+        this.maxPlans = Math.max(1, maxPlans);
+        this.byWorkout = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override protected boolean removeEldestEntry(Map.Entry<Integer, WorkoutPlan> eldest) {
+                if (size() <= WorkoutPlanCache.this.maxPlans) return false;
+                unindex(eldest.getValue());
+                evictions.incrementAndGet();
+                return true;
+            }
+        };
+    }
+
+    /** The plan for this workout, from memory if possible; null if the workout doesn't exist. */
+    public WorkoutPlan get(int workoutId, Loader loader) throws SQLException {
+        long writesBefore;
+        synchronized (this) {
+            WorkoutPlan cached = byWorkout.get(workoutId);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached;
+            }
+            writesBefore = writes;
+        }
+        misses.incrementAndGet();
+        WorkoutPlan loaded = loader.load(workoutId);
+        if (loaded == null) return null;
+        synchronized (this) {
+            if (writes == writesBefore && !byWorkout.containsKey(workoutId)) {
+                byWorkout.put(workoutId, loaded);
+                for (int exId : loaded.exerciseIds()) {
+                    workoutsByExercise.computeIfAbsent(exId, k -> new HashSet<>()).add(workoutId);
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /** Drop one workout's plan (its workout row or workout_exercise rows changed). */
+    public synchronized void invalidate(int workoutId) {
+        writes++;
+        WorkoutPlan old = byWorkout.remove(workoutId);
+        if (old != null) unindex(old);
+    }
+
+    /** Drop every cached plan that contains this exercise. */
+    public synchronized void invalidateExercise(int exerciseId) {
+        writes++;
+        Set<Integer> workouts = workoutsByExercise.remove(exerciseId);
+        if (workouts == null) return;
+        for (Integer w : workouts.toArray(new Integer[0])) {
+            WorkoutPlan old = byWorkout.remove(w);
+            if (old != null) unindex(old);
+        }
+    }
+
+    /** Drop every cached plan belonging to a profile. */
+    public synchronized void invalidateProfile(int profileId) {
+        writes++;
+        Iterator<WorkoutPlan> it = byWorkout.values().iterator();
+        while (it.hasNext()) {
+            WorkoutPlan p = it.next();
+            if (p.getProfileId() == profileId) {
+                it.remove();
+                unindex(p);
+            }
+        }
+    }
+
+    /** Forget everything (tests, or after bulk SQL that bypassed the DAOs). */
+    public synchronized void clear() {
+        writes++;
+        byWorkout.clear();
+        workoutsByExercise.clear();
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(hits.get(), misses.get(), evictions.get(), byWorkout.size());
+    }
+
+    // ===== Internals below =====
+
+    private void unindex(WorkoutPlan p) {
+        for (int exId : p.exerciseIds()) {
+            Set<Integer> ws = workoutsByExercise.get(exId);
+            if (ws == null) continue;
+            ws.remove(p.getWorkoutId());
+            if (ws.isEmpty()) workoutsByExercise.remove(exId);
+        }
+    }
+}
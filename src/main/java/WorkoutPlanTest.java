@@ -0,0 +1,85 @@
+import java.util.List;
+
+public class WorkoutPlanTest {
+    public static void main(String[] args) throws Exception {
+        Class.forName("org.sqlite.JDBC");
+
+        // Scratch database so we don't litter fitness.db
+        TestSupport.scratchDb("fitness-plan");
+
+        int pid = new ProfileDao().insert(new Profile("Brandon", "Intermediate", "Hypertrophy", 5));
+        ExerciseDao edao = new ExerciseDao();
+        int bench = edao.insert(new Exercise(pid, "Bench Press", "Chest", "Barbell", "Hard", "REPS"));
+        int row = edao.insert(new Exercise(pid, "Seated Row", "Back", "Cable", "Moderate", "REPS"));
+        int plank = edao.insert(new Exercise(pid, "Plank", "Core", "None", "Easy", "TIME"));
+
+        WorkoutDao wdao = new WorkoutDao();
+        int push = wdao.insert(new Workout(pid, "Push", 1, 90, 120, true));
+        int pull = wdao.insert(new Workout(pid, "Pull", 3, 90, 120, true));
+        int copy = wdao.insert(new Workout(pid, "Push (copy)", 5, 90, 120, true));
+
+        WorkoutExerciseDao wedao = new WorkoutExerciseDao();
+        wedao.insertAll(List.of(
+                new WorkoutExercise(push, bench, 1, 4, 8),
+                new WorkoutExercise(push, plank, 2, 3, 60)));
+        wedao.insert(new WorkoutExercise(pull, row, 1, 4, 10));
+
+        // 1) Cold vs warm load
+        long t0 = System.nanoTime();
+        WorkoutPlan cold = wdao.findPlan(push).orElseThrow();
+        long coldNs = System.nanoTime() - t0;
+        int n = 100_000;
+        t0 = System.nanoTime();
+        for (int i = 0; i < n; i++) wdao.findPlan(push);
+        double warmUs = (System.nanoTime() - t0) / 1000.0 / n;
+        System.out.println("Plan: " + cold);
+        System.out.printf("Cold load %.1f us, warm load %.3f us/op%n", coldNs / 1000.0, warmUs);
+
+        // 2) Each mutation invalidates exactly the affected plan
+        wdao.findPlan(pull);
+        wedao.updateTargets(push, 1, 5, 5);
+        int sets = wdao.findPlan(push).orElseThrow().getExercises().get(0).getTargetSets();
+        TestSupport.check("updateTargets: bench sets = " + sets, sets == 5);
+        wedao.swapOrder(push, 1, 2);
+        String first = wdao.findPlan(push).orElseThrow().getExercises().get(0).getExerciseName();
+        TestSupport.check("swapOrder: first = " + first, first.equals("Plank"));
+        wedao.cloneFromTo(push, copy);
+        TestSupport.check("cloneFromTo: copy has 2 rows", wdao.findPlan(copy).orElseThrow().size() == 2);
+        wedao.deleteOne(copy, 1);
+        TestSupport.check("deleteOne: copy has 1 row", wdao.findPlan(copy).orElseThrow().size() == 1);
+        wedao.enqueueInsert(new WorkoutExercise(pull, plank, 2, 3, 45)).join();
+        TestSupport.check("enqueueInsert: pull has 2 rows", wdao.findPlan(pull).orElseThrow().size() == 2);
+
+        // 3) Renaming an exercise drops only the plans that contain it
+        long missesBefore = WorkoutDao.planCacheStats().misses();
+        Exercise b = edao.findById(bench).orElseThrow();
+        b.setName("Incline Bench");
+        edao.update(b);
+        String renamed = wdao.findPlan(push).orElseThrow().getExercises().get(1).getExerciseName();
+        wdao.findPlan(pull); // doesn't use bench: still cached
+        long reloads = WorkoutDao.planCacheStats().misses() - missesBefore;
+        TestSupport.check("exercise rename: " + renamed + ", " + reloads + " plan reloaded",
+                renamed.equals("Incline Bench") && reloads == 1);
+
+        // 4) Workout update/delete
+        Workout w = wdao.findById(pull).orElseThrow();
+        w.setName("Pull Day");
+        wdao.update(w);
+        TestSupport.check("workout update: renamed to Pull Day", wdao.findPlan(pull).orElseThrow().getName().equals("Pull Day"));
+        wedao.deleteAllForWorkout(copy);
+        wdao.delete(copy);
+        TestSupport.check("workout delete: plan gone", wdao.findPlan(copy).isEmpty());
+
+        // 5) Callers can't modify the cached plan
+        wdao.findPlan(push).orElseThrow().getExercises().get(0).setTargetSets(99);
+        sets = wdao.findPlan(push).orElseThrow().getExercises().get(0).getTargetSets();
+        TestSupport.check("defensive copy: cached sets still " + sets, sets == 3);
+
+        WorkoutPlanCache.Stats stats = WorkoutDao.planCacheStats();
+        System.out.printf("Final: %s  hit rate %.1f%%%n", stats, stats.hitRate() * 100);
+
+        WriteQueue.shutdownShared();
+        Db.shutdown();
+        TestSupport.exitIfFailed();
+    }
+}
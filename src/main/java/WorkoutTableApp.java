@@ -5,7 +5,6 @@ import javafx.scene.control.TableView;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
-import java.util.List;
 
 public class WorkoutTableApp extends Application {
 
@@ -15,22 +14,28 @@ public class WorkoutTableApp extends Application {
 
         TableColumn<WorkoutWithProfile, String> colProfile = new TableColumn<>("Profile Name");
         colProfile.setCellValueFactory(new PropertyValueFactory<>("profileName"));
+        colProfile.setId("profileName");
 
         TableColumn<WorkoutWithProfile, String> colWorkout = new TableColumn<>("Workout Name");
         colWorkout.setCellValueFactory(new PropertyValueFactory<>("name"));
+        colWorkout.setId("name");
 
         TableColumn<WorkoutWithProfile, Integer> colDay = new TableColumn<>("Day");
         colDay.setCellValueFactory(new PropertyValueFactory<>("dayOfWeek"));
+        colDay.setId("dayOfWeek");
 
         TableColumn<WorkoutWithProfile, Boolean> colActive = new TableColumn<>("Active");
         colActive.setCellValueFactory(new PropertyValueFactory<>("active"));
+        colActive.setId("active");
 
         table.getColumns().addAll(colProfile, colWorkout, colDay, colActive);
 
-        // Load from DAO
+        // Load from DAO lazily: every profile's workouts, fetched a page at a time as you scroll.
+        // Clicking a header re-queries with ORDER BY instead of sorting in memory.
         WorkoutDao dao = new WorkoutDao();
-        List<WorkoutWithProfile> workouts = dao.listWithProfileByProfile(1); // Brandon’s ID
-        table.getItems().addAll(workouts);
+        PagedTableModel<WorkoutWithProfile> workouts = new PagedTableModel<>();
+        workouts.bindTo(table);
+        workouts.setSource(dao.pageSourceWithProfile());
 
         VBox layout = new VBox(table);
         Scene scene = new Scene(layout, 600, 400);
@@ -0,0 +1,190 @@
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WriteQueue
+ *
+ * Purpose:
+ * Group commit for high-rate inserts. SessionDao.insert, WorkoutExerciseDao.insert and
+ * ExerciseDao.insert each run in their own auto-commit transaction, which caps us at roughly one
+ * commit (and one sync) per row. When we replay logged sessions that's the bottleneck.
+ *
+ * How it works:
+ * - Any thread calls submit(work). The write goes into a queue and the caller gets a
+ *   CompletableFuture back straight away (e.g. the generated id).
+ * - One writer thread takes the first pending write, then keeps collecting until it has
+ *   maxBatch writes or maxDelayMs has passed, whichever comes first.
+ * - The whole batch runs in ONE transaction on one pooled connection. If any write fails
+ *   (duplicate name, FK failure) the batch is redone with a savepoint per write, so a single
+ *   bad row fails only its own future. Savepoints cost ~25%, so we only pay for them then.
+ * - Futures complete after the commit, so an id you get back is really on disk.
+ *
+ * Threading notes:
+ * - Single writer = no lock contention between our own writers. The thread is a daemon,
+ *   but close() should still be called (MainApp.stop) so the last batch is flushed.
+ * - submit()'s closed check and enqueue, and close() setting closed, happen under 'this', so
+ *   every write is either refused or queued before the writer can see closed and exit.
+ */
+public final class WriteQueue implements AutoCloseable {
+
+    public static final int DEFAULT_MAX_BATCH = 500;
+    public static final long DEFAULT_MAX_DELAY_MS = 5;
+
+    /** One unit of work run inside the writer's transaction. */
+    @FunctionalInterface
+    public interface SqlWork<T> {
+        T apply(Connection c) throws SQLException;
+    }
+
+    private static WriteQueue shared;
+
+    /** The app-wide queue used by the DAOs' enqueueInsert(...) methods. */
+    public static synchronized WriteQueue shared() {
+        if (shared == null || shared.closed) shared = new WriteQueue(DEFAULT_MAX_BATCH, DEFAULT_MAX_DELAY_MS);
+        return shared;
+    }
+
+    /** Flush and stop the shared queue, if one was ever created. */
+    public static synchronized void shutdownShared() {
+        if (shared != null) shared.close();
+    }
+
+    private final int maxBatch;
+    private final long maxDelayNanos;
+    private final BlockingQueue<Pending<?>> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private volatile boolean closed = false; // set under 'this'
+
+    public WriteQueue(int maxBatch, long maxDelayMs) {
+        this.maxBatch = Math.max(1, maxBatch);
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, maxDelayMs));
+        this.writer = new Thread(this::writerLoop, "write-queue");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /** Queue a write. The future completes with its result once the batch has committed. */
+    public <T> CompletableFuture<T> submit(SqlWork<T> work) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        synchronized (this) {
+            if (closed) {
+                future.completeExceptionally(new IllegalStateException("WriteQueue is closed"));
+                return future;
+            }
+            queue.add(new Pending<>(work, future));
+        }
+        return future;
+    }
+
+    /** A future that completes once everything submitted before it has committed. */
+    public CompletableFuture<Void> flush() {
+        return submit(c -> null).thenApply(ignored -> null);
+    }
+
+    /** Stop accepting writes, commit whatever is queued, then stop the writer thread. */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) return;
+            closed = true; // the writer notices within one poll interval and drains the rest
+        }
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ===== Internals below =====
+
+    private void writerLoop() {
+        List<Pending<?>> batch = new ArrayList<>(maxBatch);
+        while (!closed || !queue.isEmpty()) {
+            try {
+                Pending<?> first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < maxBatch) {
+                    long left = deadline - System.nanoTime();
+                    if (left <= 0) break;
+                    Pending<?> next = queue.poll(left, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                    queue.drainTo(batch, maxBatch - batch.size());
+                }
+            } catch (InterruptedException e) {
+                // Nobody interrupts us on purpose; drain what's left without waiting.
+                queue.drainTo(batch, maxBatch - batch.size());
+            }
+            if (!batch.isEmpty()) {
+                runBatch(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void runBatch(List<Pending<?>> batch) {
+        Object[] results = new Object[batch.size()];
+        Exception[] failures = new Exception[batch.size()];
+        try (Connection c = Db.getConnection()) {
+            c.setAutoCommit(false);
+            // Fast path: no savepoints. If any write fails we undo the batch and redo it isolated.
+            if (!runAll(c, batch, results, failures, false)) {
+                c.rollback();
+                runAll(c, batch, results, failures, true);
+            }
+            c.commit();
+            c.setAutoCommit(true);
+        } catch (SQLException e) {
+            System.out.println("❌ group commit failed: " + e.getMessage());
+            for (Pending<?> p : batch) p.future.completeExceptionally(e);
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) batch.get(i).complete(results[i], failures[i]);
+    }
+
+    /**
+     * Apply every write in order. Without isolation, stop at the first failure and return false.
+     * With isolation, each write gets a savepoint so a failure only rolls back that write.
+     */
+    private static boolean runAll(Connection c, List<Pending<?>> batch, Object[] results,
+                                  Exception[] failures, boolean isolated) throws SQLException {
+        for (int i = 0; i < batch.size(); i++) {
+            Savepoint sp = isolated ? c.setSavepoint() : null;
+            try {
+                results[i] = batch.get(i).work.apply(c);
+                if (sp != null) c.releaseSavepoint(sp);
+            } catch (SQLException | RuntimeException e) {
+                if (sp == null) return false;
+                c.rollback(sp);
+                c.releaseSavepoint(sp);
+                failures[i] = e;
+            }
+        }
+        return true;
+    }
+
+    private static final class Pending<T> {
+        final SqlWork<T> work;
+        final CompletableFuture<T> future;
+
+        Pending(SqlWork<T> work, CompletableFuture<T> future) {
+            this.work = work;
+            this.future = future;
+        }
+
+        @SuppressWarnings("unchecked")
+        void complete(Object result, Exception failure) {
+            if (failure != null) future.completeExceptionally(failure);
+            else future.complete((T) result);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * WriteQueueBench
+ *
+ * Sustained session-insert throughput: one auto-commit per row (SessionDao.insert) versus
+ * group commit through the shared WriteQueue (SessionDao.enqueueInsert) fed by several threads,
+ * like replaying logged sessions. Uses the DURABLE profile so every commit really syncs.
+ * Temp-file database; never touches fitness.db.
+ */
+public class WriteQueueBench {
+
+    private static final int AUTO_COMMIT_ROWS = 2_000;
+    private static final int QUEUED_ROWS = 40_000;
+    private static final int PRODUCERS = 4;
+
+    public static void main(String[] args) throws Exception {
+        Class.forName("org.sqlite.JDBC");
+        System.setProperty("fitness.db.profile", StorageProfile.DURABLE.name());
+        TestSupport.scratchDb("fitness-bench");
+
+        int profileId = new ProfileDao().insert(new Profile("Bench", "Intermediate", "Strength", 4));
+        SessionDao sdao = new SessionDao();
+
+        long t0 = System.nanoTime();
+        for (int i = 0; i < AUTO_COMMIT_ROWS; i++) {
+            sdao.insert(new Session(profileId, null, "2025-01-01T07:00:00", 30, null, null));
+        }
+        double autoRate = AUTO_COMMIT_ROWS / ((System.nanoTime() - t0) / 1e9);
+
+        t0 = System.nanoTime();
+        List<Thread> producers = new ArrayList<>();
+        List<CompletableFuture<Integer>> ids = java.util.Collections.synchronizedList(new ArrayList<>());
+        for (int p = 0; p < PRODUCERS; p++) {
+            Thread t = new Thread(() -> {
+                for (int i = 0; i < QUEUED_ROWS / PRODUCERS; i++) {
+                    ids.add(sdao.enqueueInsert(new Session(profileId, null, "2025-01-02T07:00:00", 30, null, null)));
+                }
+            });
+            producers.add(t);
+            t.start();
+        }
+        for (Thread t : producers) t.join();
+        CompletableFuture.allOf(ids.toArray(new CompletableFuture<?>[0])).join();
+        double queuedRate = QUEUED_ROWS / ((System.nanoTime() - t0) / 1e9);
+
+        long distinct = ids.stream().map(CompletableFuture::join).distinct().count();
+        System.out.printf("auto-commit inserts:  %10.0f rows/s (%d rows)%n", autoRate, AUTO_COMMIT_ROWS);
+        System.out.printf("group-commit inserts: %10.0f rows/s (%d rows, %d threads, %d distinct ids)%n",
+                queuedRate, QUEUED_ROWS, PRODUCERS, distinct);
+        System.out.printf("speedup:              %10.1fx%n", queuedRate / autoRate);
+
+        WriteQueue.shutdownShared();
+        Db.shutdown();
+    }
+}
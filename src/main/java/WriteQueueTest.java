@@ -0,0 +1,74 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+public class WriteQueueTest {
+    public static void main(String[] args) throws Exception {
+        Class.forName("org.sqlite.JDBC");
+
+        // Scratch database so we don't litter fitness.db
+        TestSupport.scratchDb("fitness-wq");
+
+        int profileId = new ProfileDao().insert(new Profile("Brandon", "Intermediate", "Hypertrophy", 5));
+        ExerciseDao edao = new ExerciseDao();
+
+        // 1) Three inserts in the same batch; the middle one violates UNIQUE(profile_id, name)
+        CompletableFuture<Integer> a = edao.enqueueInsert(new Exercise(profileId, "Bench Press", "Chest", "Barbell", "Hard", "REPS"));
+        CompletableFuture<Integer> dup = edao.enqueueInsert(new Exercise(profileId, "Bench Press", "Chest", "Barbell", "Hard", "REPS"));
+        CompletableFuture<Integer> b = edao.enqueueInsert(new Exercise(profileId, "Seated Row", "Back", "Cable", "Moderate", "REPS"));
+
+        TestSupport.check("both good rows got ids: " + a.join() + ", " + b.join(), a.join() > 0 && b.join() > 0);
+        try {
+            dup.join();
+            TestSupport.check("duplicate fails", false);
+        } catch (CompletionException ex) {
+            TestSupport.check("duplicate failed on its own: " + ex.getCause().getMessage(), true);
+        }
+
+        // 2) Only the two good rows made it
+        TestSupport.check("only the two good rows made it", edao.findByProfile(profileId).size() == 2);
+
+        // 3) Sessions: ids come back through futures after the commit
+        SessionDao sdao = new SessionDao();
+        CompletableFuture<Integer> sid = sdao.enqueueInsert(new Session(profileId, null, "2025-10-19T22:05:30", 45, 7, "Queued"));
+        WriteQueue.shared().flush().join();
+        TestSupport.check("queued session is on disk after flush",
+                sdao.findById(sid.join()).map(Session::getNotes).orElse("").equals("Queued"));
+
+        // 4) close() racing submit(): every future ends, committed or refused
+        int stranded = 0;
+        for (int round = 0; round < 50; round++) {
+            WriteQueue q = new WriteQueue(8, 0);
+            List<CompletableFuture<Integer>> futures = Collections.synchronizedList(new ArrayList<>());
+            Thread[] submitters = new Thread[4];
+            for (int t = 0; t < submitters.length; t++) {
+                submitters[t] = new Thread(() -> {
+                    for (int i = 0; i < 200; i++) futures.add(q.submit(c -> 1));
+                });
+                submitters[t].start();
+            }
+            Thread.sleep(1);
+            q.close();
+            for (Thread t : submitters) t.join();
+            for (CompletableFuture<Integer> f : futures) {
+                try {
+                    f.get(2, TimeUnit.SECONDS);
+                } catch (ExecutionException refused) {
+                    // closed before it was queued: it still ended
+                } catch (TimeoutException lost) {
+                    stranded++;
+                }
+            }
+        }
+        TestSupport.check("close() during submits: " + stranded + " futures never completed", stranded == 0);
+
+        WriteQueue.shutdownShared();
+        Db.shutdown();
+        TestSupport.exitIfFailed();
+    }
+}
@@ -1,14 +1,7 @@
--- schema.sql  (DEV: drop & recreate; safe to re-run)
-PRAGMA foreign_keys = ON;
-
--- Drop existing tables in the right order
-DROP TABLE IF EXISTS workout_exercise;
-DROP TABLE IF EXISTS session;
-DROP TABLE IF EXISTS workout;
-DROP TABLE IF EXISTS exercise;
-DROP TABLE IF EXISTS profile_equipment;
-DROP TABLE IF EXISTS equipment;
-DROP TABLE IF EXISTS profile;
+-- V1__baseline.sql  (the schema as of the first versioned release)
+-- Applied once by Migrator and recorded in schema_version. Never edit an applied script:
+-- its checksum is verified on startup. Put changes in a new V<n>__<what>.sql instead.
+-- Uses IF NOT EXISTS so databases created before versioning adopt it without changes.
 
 -- ===== Core Tables =====
 
@@ -94,6 +87,13 @@ CREATE TABLE IF NOT EXISTS session (
     FOREIGN KEY (workout_id) REFERENCES workout(id) ON DELETE SET NULL
     );
 
+-- App_Setting Table (key/value settings shared by every process that opens the db)
+-- Migrator stores the chosen StorageProfile here.
+CREATE TABLE IF NOT EXISTS app_setting (
+                                           key   TEXT PRIMARY KEY,
+                                           value TEXT NOT NULL
+);
+
 -- Indexes
 CREATE INDEX IF NOT EXISTS idx_profile_equipment_profile ON profile_equipment(profile_id);
 CREATE INDEX IF NOT EXISTS idx_profile_equipment_equipment ON profile_equipment(equipment_id);
@@ -104,3 +104,4 @@ CREATE INDEX IF NOT EXISTS idx_workout_day ON workout(profile_id, day_of_week);
 CREATE INDEX IF NOT EXISTS idx_workout_exercise_w ON workout_exercise(workout_id);
 CREATE INDEX IF NOT EXISTS idx_workout_exercise_e ON workout_exercise(exercise_id);
 CREATE INDEX IF NOT EXISTS idx_session_profile_date ON session(profile_id, date_iso);
+CREATE INDEX IF NOT EXISTS idx_session_workout_date ON session(workout_id, date_iso);
@@ -0,0 +1,39 @@
+-- V2__session_ts.sql  (integer timestamps for sessions)
+-- session.ts = date_iso's wall-clock reading in milliseconds since 1970-01-01T00:00. Like
+-- date_iso it has no time zone, so a day is simply ts / 86400000. Range scans and ordering
+-- compare integers instead of strings, and nothing needs parsing in Java.
+
+ALTER TABLE session ADD COLUMN ts INTEGER;
+
+-- Range/order queries (SessionDao, CalendarDao) now go through these; the rowid (id) in every
+-- entry makes (ts, id) keyset pages and COUNT/day-bucket queries index-only.
+CREATE INDEX IF NOT EXISTS idx_session_profile_ts ON session(profile_id, ts);
+CREATE INDEX IF NOT EXISTS idx_session_workout_ts ON session(workout_id, ts);
+DROP INDEX IF EXISTS idx_session_profile_date;
+DROP INDEX IF EXISTS idx_session_workout_date;
+
+-- Writers that only set date_iso (older builds, scripts, sqlite3) still get a ts.
+CREATE TRIGGER IF NOT EXISTS session_ts_ai AFTER INSERT ON session
+WHEN NEW.ts IS NULL
+BEGIN
+    UPDATE session SET ts = CAST(round((julianday(NEW.date_iso) - 2440587.5) * 86400000.0) AS INTEGER)
+     WHERE id = NEW.id;
+END;
+
+CREATE TRIGGER IF NOT EXISTS session_ts_au AFTER UPDATE OF date_iso ON session
+WHEN NEW.ts IS OLD.ts
+BEGIN
+    UPDATE session SET ts = CAST(round((julianday(NEW.date_iso) - 2440587.5) * 86400000.0) AS INTEGER)
+     WHERE id = NEW.id;
+END;
+
+-- Backfill existing rows in short transactions, so the app and other writers keep going.
+-- The partial index finds the next unfilled rows without rescanning the filled ones.
+CREATE INDEX IF NOT EXISTS idx_session_ts_todo ON session(id) WHERE ts IS NULL;
+
+-- chunked 5000
+UPDATE session
+   SET ts = CAST(round((julianday(date_iso) - 2440587.5) * 86400000.0) AS INTEGER)
+ WHERE id IN (SELECT id FROM session WHERE ts IS NULL AND julianday(date_iso) IS NOT NULL LIMIT ?);
+
+DROP INDEX IF EXISTS idx_session_ts_todo;
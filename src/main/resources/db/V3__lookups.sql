@@ -0,0 +1,105 @@
+-- V3__lookups.sql  (lookup tables for the small vocabularies in exercise and profile)
+-- exercise.muscle/difficulty/type and profile.level/goal repeat a handful of values in every
+-- row. Each vocabulary gets a lookup table and the rows keep its integer code; Lookup maps the
+-- codes back to one shared String per value. Codes are never renumbered or reused.
+-- ADD COLUMN can't add a NOT NULL column without a default, so exercise and profile are
+-- rebuilt instead (create the new table, copy in chunks, drop the old one, rename): muscle,
+-- type, level and goal stay NOT NULL as in V1, now as codes that REFERENCE their lookup.
+-- Migrator runs scripts with foreign keys off, so dropping the old tables doesn't cascade
+-- into workout/session, and checks every key before it commits. Needs the build that ships
+-- this script: older builds still write the text columns.
+
+CREATE TABLE IF NOT EXISTS muscle (
+                                      id   INTEGER PRIMARY KEY,
+                                      name TEXT NOT NULL UNIQUE
+);
+CREATE TABLE IF NOT EXISTS difficulty (
+                                          id   INTEGER PRIMARY KEY,
+                                          name TEXT NOT NULL UNIQUE
+);
+CREATE TABLE IF NOT EXISTS exercise_type (
+                                             id   INTEGER PRIMARY KEY,
+                                             name TEXT NOT NULL UNIQUE
+);
+CREATE TABLE IF NOT EXISTS profile_level (
+                                             id   INTEGER PRIMARY KEY,
+                                             name TEXT NOT NULL UNIQUE
+);
+CREATE TABLE IF NOT EXISTS profile_goal (
+                                            id   INTEGER PRIMARY KEY,
+                                            name TEXT NOT NULL UNIQUE
+);
+
+-- The values the forms offer get the same small codes in every database ...
+INSERT OR IGNORE INTO muscle(name) VALUES
+    ('Chest'), ('Back'), ('Legs'), ('Shoulders'), ('Biceps'), ('Triceps'), ('Core'), ('Glutes');
+INSERT OR IGNORE INTO difficulty(name) VALUES ('Easy'), ('Moderate'), ('Hard');
+INSERT OR IGNORE INTO exercise_type(name) VALUES ('REPS'), ('SECS'), ('TIME');
+INSERT OR IGNORE INTO profile_level(name) VALUES ('Beginner'), ('Intermediate'), ('Advanced');
+INSERT OR IGNORE INTO profile_goal(name) VALUES
+    ('Strength'), ('Hypertrophy'), ('Endurance'), ('Fat Loss'), ('Weight Loss'), ('General Fitness');
+
+-- ... and anything else already typed in follows them.
+INSERT OR IGNORE INTO muscle(name) SELECT DISTINCT muscle FROM exercise;
+INSERT OR IGNORE INTO difficulty(name) SELECT DISTINCT difficulty FROM exercise WHERE difficulty IS NOT NULL;
+INSERT OR IGNORE INTO exercise_type(name) SELECT DISTINCT type FROM exercise;
+INSERT OR IGNORE INTO profile_level(name) SELECT DISTINCT level FROM profile;
+INSERT OR IGNORE INTO profile_goal(name) SELECT DISTINCT goal FROM profile;
+
+-- Same columns as V1, with the text vocabularies swapped for their codes.
+CREATE TABLE IF NOT EXISTS exercise_new (
+                                            id            INTEGER PRIMARY KEY AUTOINCREMENT,
+                                            profile_id    INTEGER NOT NULL,
+                                            name          TEXT NOT NULL,
+                                            muscle_id     INTEGER NOT NULL REFERENCES muscle(id),
+                                            equipment     TEXT,
+                                            difficulty_id INTEGER REFERENCES difficulty(id),
+                                            type_id       INTEGER NOT NULL REFERENCES exercise_type(id),
+                                            FOREIGN KEY (profile_id) REFERENCES profile(id) ON DELETE CASCADE,
+    UNIQUE (profile_id, name)
+    );
+
+CREATE TABLE IF NOT EXISTS profile_new (
+                                           id            INTEGER PRIMARY KEY AUTOINCREMENT,
+                                           name          TEXT    NOT NULL,
+                                           level_id      INTEGER NOT NULL REFERENCES profile_level(id),
+                                           goal_id       INTEGER NOT NULL REFERENCES profile_goal(id),
+                                           days_per_week INTEGER NOT NULL CHECK(days_per_week BETWEEN 1 AND 7),
+    created_at    TEXT    NOT NULL DEFAULT (datetime('now')),
+    updated_at    TEXT    NOT NULL DEFAULT (datetime('now'))
+    );
+
+-- Copied in id order; each chunk starts after the last id already copied, so a resumed run
+-- picks up where it stopped. Every value was seeded above, so the joins never drop a row.
+-- chunked
+INSERT INTO exercise_new(id, profile_id, name, muscle_id, equipment, difficulty_id, type_id)
+SELECT e.id, e.profile_id, e.name, m.id, e.equipment, d.id, t.id
+  FROM exercise e
+  JOIN muscle m ON m.name = e.muscle
+  JOIN exercise_type t ON t.name = e.type
+  LEFT JOIN difficulty d ON d.name = e.difficulty
+ WHERE e.id > (SELECT coalesce(max(id), 0) FROM exercise_new)
+ ORDER BY e.id
+ LIMIT ?;
+
+-- chunked
+INSERT INTO profile_new(id, name, level_id, goal_id, days_per_week, created_at, updated_at)
+SELECT p.id, p.name, l.id, g.id, p.days_per_week, p.created_at, p.updated_at
+  FROM profile p
+  JOIN profile_level l ON l.name = p.level
+  JOIN profile_goal g ON g.name = p.goal
+ WHERE p.id > (SELECT coalesce(max(id), 0) FROM profile_new)
+ ORDER BY p.id
+ LIMIT ?;
+
+-- Carry AUTOINCREMENT's high-water mark over, so ids of deleted rows are still never reused:
+-- DROP TABLE deletes the old table's sqlite_sequence row, RENAME renames the new one's.
+DELETE FROM sqlite_sequence WHERE name IN ('exercise_new', 'profile_new');
+UPDATE sqlite_sequence SET name = 'exercise_new' WHERE name = 'exercise';
+UPDATE sqlite_sequence SET name = 'profile_new' WHERE name = 'profile';
+
+-- The other tables' REFERENCES exercise/profile name the table, so they follow the rename.
+DROP TABLE exercise;
+ALTER TABLE exercise_new RENAME TO exercise;
+DROP TABLE profile;
+ALTER TABLE profile_new RENAME TO profile;
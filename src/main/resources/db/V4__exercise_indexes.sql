@@ -0,0 +1,18 @@
+-- V4__exercise_indexes.sql  (composite indexes for ExerciseQuery)
+-- Exercises are read per profile and narrowed by muscle, difficulty or a name prefix, in name
+-- order. Each index leads with the equality columns and ends with name, so the filter and the
+-- ORDER BY name both come from the index. ExerciseQueryTest checks the plans.
+
+-- Both duplicate sqlite_autoindex_exercise_1, the UNIQUE (profile_id, name) index.
+DROP INDEX IF EXISTS idx_exercise_profile;
+DROP INDEX IF EXISTS idx_exercise_profile_name;
+
+-- profile + muscle (the exercise table's main filter), profile + difficulty
+CREATE INDEX IF NOT EXISTS idx_exercise_profile_muscle ON exercise(profile_id, muscle_id, name);
+CREATE INDEX IF NOT EXISTS idx_exercise_profile_difficulty ON exercise(profile_id, difficulty_id, name);
+
+-- profile + case-insensitive name prefix (a range on name COLLATE NOCASE)
+CREATE INDEX IF NOT EXISTS idx_exercise_profile_nocase ON exercise(profile_id, name COLLATE NOCASE);
+
+-- every profile's exercises for one muscle (ExerciseDao.findByMuscle)
+CREATE INDEX IF NOT EXISTS idx_exercise_muscle ON exercise(muscle_id, name);
@@ -0,0 +1,62 @@
+-- V5__search.sql  (full-text search over exercise names and session notes, keyed by profile)
+-- FTS5 indexes with external content: the text stays in exercise/session, the index only
+-- holds the tokens. Triggers keep both indexes in step with every insert, update and delete
+-- (including ON DELETE CASCADE from profile). FullText builds the MATCH expressions.
+-- The profile is part of every indexed token: profile 7's "shoulder pain" is indexed as
+-- 7xshoulder 7xpain. A posting list then holds one profile's rows only, and so does every
+-- prefix ("7xsh"*) and every bm25 count. (ANDing a separate profile_id token into the MATCH
+-- makes FTS5 read each word's postings for every profile and intersect; with many profiles
+-- that is slower than LIKE within one profile. SearchBench times both.)
+-- The tokens come from search_text, a virtual generated column (nothing stored): the text
+-- with separators turned into spaces and each space-separated word prefixed.
+-- The ${search_text(...)} placeholders are expanded by Migrator from FullText.SEPARATORS,
+-- the same list FullText splits typed text on, so FTS5 tokenizes both sides alike.
+
+ALTER TABLE exercise ADD COLUMN search_text TEXT GENERATED ALWAYS AS (${search_text(name)}) VIRTUAL;
+
+ALTER TABLE session ADD COLUMN search_text TEXT GENERATED ALWAYS AS (${search_text(notes)}) VIRTUAL;
+
+CREATE VIRTUAL TABLE IF NOT EXISTS exercise_fts USING fts5(
+    search_text,
+    content = 'exercise', content_rowid = 'id',
+    tokenize = 'unicode61 remove_diacritics 2'
+);
+
+CREATE VIRTUAL TABLE IF NOT EXISTS session_fts USING fts5(
+    search_text,
+    content = 'session', content_rowid = 'id',
+    tokenize = 'unicode61 remove_diacritics 2'
+);
+
+CREATE TRIGGER IF NOT EXISTS exercise_fts_ai AFTER INSERT ON exercise BEGIN
+    INSERT INTO exercise_fts(rowid, search_text) VALUES (NEW.id, NEW.search_text);
+END;
+
+CREATE TRIGGER IF NOT EXISTS exercise_fts_ad AFTER DELETE ON exercise BEGIN
+    INSERT INTO exercise_fts(exercise_fts, rowid, search_text) VALUES ('delete', OLD.id, OLD.search_text);
+END;
+
+CREATE TRIGGER IF NOT EXISTS exercise_fts_au AFTER UPDATE OF profile_id, name ON exercise BEGIN
+    INSERT INTO exercise_fts(exercise_fts, rowid, search_text) VALUES ('delete', OLD.id, OLD.search_text);
+    INSERT INTO exercise_fts(rowid, search_text) VALUES (NEW.id, NEW.search_text);
+END;
+
+-- Most sessions have no notes; those never enter the index.
+CREATE TRIGGER IF NOT EXISTS session_fts_ai AFTER INSERT ON session WHEN NEW.notes IS NOT NULL BEGIN
+    INSERT INTO session_fts(rowid, search_text) VALUES (NEW.id, NEW.search_text);
+END;
+
+CREATE TRIGGER IF NOT EXISTS session_fts_ad AFTER DELETE ON session WHEN OLD.notes IS NOT NULL BEGIN
+    INSERT INTO session_fts(session_fts, rowid, search_text) VALUES ('delete', OLD.id, OLD.search_text);
+END;
+
+CREATE TRIGGER IF NOT EXISTS session_fts_au AFTER UPDATE OF profile_id, notes ON session BEGIN
+    INSERT INTO session_fts(session_fts, rowid, search_text)
+        SELECT 'delete', OLD.id, OLD.search_text WHERE OLD.notes IS NOT NULL;
+    INSERT INTO session_fts(rowid, search_text)
+        SELECT NEW.id, NEW.search_text WHERE NEW.notes IS NOT NULL;
+END;
+
+-- Index what's already there.
+INSERT INTO exercise_fts(rowid, search_text) SELECT id, search_text FROM exercise;
+INSERT INTO session_fts(rowid, search_text) SELECT id, search_text FROM session WHERE notes IS NOT NULL;